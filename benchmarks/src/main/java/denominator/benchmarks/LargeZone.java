@@ -0,0 +1,201 @@
+package denominator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import denominator.model.ResourceRecordSet;
+
+import static denominator.common.Util.split;
+import static denominator.common.Util.toMap;
+
+/**
+ * Synthetic large-zone fixtures in the wire format of each provider, so that a zone of any size can
+ * be produced without checking in megabytes of xml and json. Element layout follows the responses
+ * in each provider's mock tests. Names, rdata and ids are generated, not recorded.
+ *
+ * <p/>Every sixth rrset is the same type. A rrsets have two records, others have one.
+ */
+public final class LargeZone {
+
+  public static final String ZONE = "denominator.io.";
+
+  static final String[] TYPES = {"A", "AAAA", "CNAME", "MX", "TXT", "SRV"};
+
+  public static String name(int i) {
+    return "www" + i + "." + ZONE;
+  }
+
+  public static String type(int i) {
+    return TYPES[i % TYPES.length];
+  }
+
+  /**
+   * Rdata of each record in the rrset, in zone file format.
+   */
+  public static List<String> rdata(int i) {
+    List<String> result = new ArrayList<String>(2);
+    String type = type(i);
+    if ("A".equals(type)) {
+      result.add("192.0.2." + (i % 254 + 1));
+      result.add("198.51.100." + (i % 254 + 1));
+    } else if ("AAAA".equals(type)) {
+      result.add("2001:db8::" + Integer.toHexString(i % 65535 + 1));
+    } else if ("CNAME".equals(type)) {
+      result.add("origin" + i + "." + ZONE);
+    } else if ("MX".equals(type)) {
+      result.add("10 mail" + i + "." + ZONE);
+    } else if ("TXT".equals(type)) {
+      result.add("v=spf1 include:_spf" + i + "." + ZONE + " ~all");
+    } else {
+      result.add("0 1 443 service" + i + "." + ZONE);
+    }
+    return result;
+  }
+
+  public static List<ResourceRecordSet<?>> rrsets(int count) {
+    List<ResourceRecordSet<?>> result = new ArrayList<ResourceRecordSet<?>>(count);
+    for (int i = 0; i < count; i++) {
+      String type = type(i);
+      ResourceRecordSet.Builder<Map<String, Object>> builder =
+          ResourceRecordSet.builder().name(name(i)).type(type).ttl(3600);
+      for (String rdata : rdata(i)) {
+        builder.add(toMap(type, rdata));
+      }
+      result.add(builder.build());
+    }
+    return result;
+  }
+
+  /**
+   * A single page of route53 {@code ListResourceRecordSetsResponse}.
+   */
+  public static String route53(int count) {
+    StringBuilder xml = new StringBuilder(count * 256);
+    xml.append("<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n");
+    xml.append("  <ResourceRecordSets>\n");
+    for (int i = 0; i < count; i++) {
+      xml.append("    <ResourceRecordSet>\n");
+      xml.append("      <Name>").append(name(i)).append("</Name>\n");
+      xml.append("      <Type>").append(type(i)).append("</Type>\n");
+      xml.append("      <TTL>3600</TTL>\n");
+      xml.append("      <ResourceRecords>\n");
+      for (String rdata : rdata(i)) {
+        if ("TXT".equals(type(i))) {
+          rdata = "\"" + rdata + "\"";
+        }
+        xml.append("        <ResourceRecord>\n");
+        xml.append("          <Value>").append(rdata).append("</Value>\n");
+        xml.append("        </ResourceRecord>\n");
+      }
+      xml.append("      </ResourceRecords>\n");
+      xml.append("    </ResourceRecordSet>\n");
+    }
+    xml.append("  </ResourceRecordSets>\n");
+    xml.append("  <IsTruncated>false</IsTruncated>\n");
+    xml.append("  <MaxItems>").append(count).append("</MaxItems>\n");
+    xml.append("</ListResourceRecordSetsResponse>");
+    return xml.toString();
+  }
+
+  /**
+   * UltraDNS SOAP {@code getResourceRecordsOfZoneResponse}.
+   */
+  public static String ultradns(int count) {
+    StringBuilder xml = new StringBuilder(count * 384);
+    xml.append("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">\n");
+    xml.append("  <soap:Body>\n");
+    xml.append("    <ns1:getResourceRecordsOfZoneResponse xmlns:ns1=\"http://webservice.api.ultra.neustar.com/v01/\">\n");
+    xml.append("      <ResourceRecordList xmlns:ns2=\"http://schema.ultraservice.neustar.com/v01/\">\n");
+    int guid = 0;
+    for (int i = 0; i < count; i++) {
+      for (String rdata : rdata(i)) {
+        xml.append("        <ns2:ResourceRecord ZoneName=\"").append(ZONE)
+            .append("\" Type=\"").append(typeCode(type(i)))
+            .append("\" DName=\"").append(name(i))
+            .append("\" TTL=\"3600\" Guid=\"").append(Integer.toHexString(++guid))
+            .append("\" ZoneId=\"03053D8E57C7A22A\" LName=\"").append(name(i))
+            .append("\" Created=\"2013-02-22T08:22:48.000Z\" Modified=\"2013-02-22T08:22:49.000Z\">\n");
+        xml.append("          <ns2:InfoValues");
+        List<String> parts = "TXT".equals(type(i)) ? Collections.singletonList(rdata)
+                                                    : split(' ', rdata);
+        for (int p = 0; p < parts.size(); p++) {
+          xml.append(" Info").append(p + 1).append("Value=\"").append(parts.get(p)).append('"');
+        }
+        xml.append(" />\n");
+        xml.append("        </ns2:ResourceRecord>\n");
+      }
+    }
+    xml.append("      </ResourceRecordList>\n");
+    xml.append("    </ns1:getResourceRecordsOfZoneResponse>\n");
+    xml.append("  </soap:Body>\n");
+    xml.append("</soap:Envelope>");
+    return xml.toString();
+  }
+
+  /**
+   * DynECT {@code AllRecord} response, which is a map of record arrays per type.
+   */
+  public static String dynect(int count) {
+    StringBuilder json = new StringBuilder(count * 256);
+    json.append("{\"status\": \"success\", \"data\": {");
+    for (int t = 0; t < TYPES.length; t++) {
+      if (t > 0) {
+        json.append(", ");
+      }
+      json.append('"').append(TYPES[t].toLowerCase()).append("_records\": [");
+      boolean first = true;
+      int recordId = 0;
+      for (int i = t; i < count; i += TYPES.length) {
+        for (String rdata : rdata(i)) {
+          if (!first) {
+            json.append(',');
+          }
+          first = false;
+          json.append("{\"zone\": \"denominator.io\", \"ttl\": 3600, \"fqdn\": \"")
+              .append(name(i), 0, name(i).length() - 1)
+              .append("\", \"record_type\": \"").append(TYPES[t])
+              .append("\", \"rdata\": ").append(dynectRData(TYPES[t], rdata))
+              .append(", \"record_id\": ").append(++recordId).append('}');
+        }
+      }
+      json.append(']');
+    }
+    json.append("}}");
+    return json.toString();
+  }
+
+  private static String dynectRData(String type, String rdata) {
+    List<String> parts = split(' ', rdata);
+    if ("A".equals(type) || "AAAA".equals(type)) {
+      return "{\"address\": \"" + rdata + "\"}";
+    } else if ("CNAME".equals(type)) {
+      return "{\"cname\": \"" + rdata + "\"}";
+    } else if ("MX".equals(type)) {
+      return "{\"preference\": " + parts.get(0) + ", \"exchange\": \"" + parts.get(1) + "\"}";
+    } else if ("TXT".equals(type)) {
+      return "{\"txtdata\": \"" + rdata + "\"}";
+    }
+    return "{\"priority\": " + parts.get(0) + ", \"weight\": " + parts.get(1) + ", \"port\": "
+           + parts.get(2) + ", \"target\": \"" + parts.get(3) + "\"}";
+  }
+
+  private static int typeCode(String type) {
+    if ("A".equals(type)) {
+      return 1;
+    } else if ("AAAA".equals(type)) {
+      return 28;
+    } else if ("CNAME".equals(type)) {
+      return 5;
+    } else if ("MX".equals(type)) {
+      return 15;
+    } else if ("TXT".equals(type)) {
+      return 16;
+    }
+    return 33;
+  }
+
+  private LargeZone() {
+  }
+}
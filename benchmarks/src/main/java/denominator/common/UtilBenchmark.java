@@ -0,0 +1,77 @@
+package denominator.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing zone file rdata into maps and back, which every provider does per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UtilBenchmark {
+
+  static final Map<String, String> RDATA = new LinkedHashMap<String, String>();
+
+  static {
+    RDATA.put("A", "192.0.2.1");
+    RDATA.put("AAAA", "2001:db8:85a3::8a2e:370:7334");
+    RDATA.put("CNAME", "www1.denominator.io.");
+    RDATA.put("MX", "10 mail.denominator.io.");
+    RDATA.put("NS", "ns1.denominator.io.");
+    RDATA.put("PTR", "ptr.denominator.io.");
+    RDATA.put("SOA", "ns1.denominator.io. admin.denominator.io. 1 3600 1800 604800 3600");
+    RDATA.put("SPF", "v=spf1");
+    RDATA.put("SRV", "0 1 80 www.denominator.io.");
+    RDATA.put("TXT", "made in sweden");
+    RDATA.put("CERT", "12345 1 1 B33F");
+    RDATA.put("NAPTR", "1 1 U E2U+sip !^.*$!sip:customer-service@example.com! .");
+    RDATA.put("SSHFP", "1 1 B33F");
+  }
+
+  @Param({"A", "AAAA", "CNAME", "MX", "NS", "PTR", "SOA", "SPF", "SRV", "TXT", "CERT", "NAPTR",
+          "SSHFP"})
+  String type;
+
+  String rdata;
+  List<String> parts;
+  Map<String, Object> map;
+
+  @Setup
+  public void setup() {
+    rdata = RDATA.get(type);
+    parts = Util.split(' ', rdata);
+    map = Util.toMap(type, rdata);
+  }
+
+  @Benchmark
+  public List<String> split() {
+    return Util.split(' ', rdata);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMap() {
+    return Util.toMap(type, rdata);
+  }
+
+  @Benchmark
+  public Map<String, Object> toMapFromParts() {
+    return Util.toMap(type, parts);
+  }
+
+  @Benchmark
+  public String flatten() {
+    return Util.flatten(map);
+  }
+}
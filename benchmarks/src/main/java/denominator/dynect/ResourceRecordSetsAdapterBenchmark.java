@@ -0,0 +1,56 @@
+package denominator.dynect;
+
+import com.google.gson.stream.JsonReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.model.ResourceRecordSet;
+
+/**
+ * Measures {@link ResourceRecordSetsAdapter} decoding a whole zone, as done by {@code rrsets}.
+ * Divide by {@code rrsets} for the per-rrset cost; run with {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResourceRecordSetsAdapterBenchmark {
+
+  @Param({"1000", "10000"})
+  int rrsets;
+
+  final ResourceRecordSetsAdapter adapter = new ResourceRecordSetsAdapter();
+  String body;
+
+  @Setup
+  public void setup() {
+    body = LargeZone.dynect(rrsets);
+  }
+
+  /**
+   * Returns the count of rrsets, as they are decoded while iterated.
+   */
+  @Benchmark
+  public int read() throws IOException {
+    Iterator<ResourceRecordSet<?>> iterator =
+        adapter.read(new JsonReader(new StringReader(body))).data;
+    int count = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,69 @@
+package denominator.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.model.profile.Geo;
+import denominator.model.profile.Weighted;
+import denominator.model.rdata.AData;
+import denominator.model.rdata.CNAMEData;
+
+/**
+ * Measures {@link ResourceRecordSet.Builder#build()}, which runs once per rrset decoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResourceRecordSetBenchmark {
+
+  final Map<String, Collection<String>> regions = new LinkedHashMap<String, Collection<String>>();
+
+  {
+    regions.put("United States (US)", Arrays.asList("Alaska", "Arizona", "California"));
+  }
+
+  @Benchmark
+  public ResourceRecordSet<AData> buildA() {
+    return ResourceRecordSet.<AData>builder()
+        .name("www.denominator.io.")
+        .type("A")
+        .ttl(3600)
+        .add(AData.create("192.0.2.1"))
+        .add(AData.create("198.51.100.1"))
+        .build();
+  }
+
+  @Benchmark
+  public ResourceRecordSet<CNAMEData> buildWeighted() {
+    return ResourceRecordSet.<CNAMEData>builder()
+        .name("www.denominator.io.")
+        .type("CNAME")
+        .qualifier("US-West")
+        .ttl(300)
+        .weighted(Weighted.create(1))
+        .add(CNAMEData.create("www1.denominator.io."))
+        .build();
+  }
+
+  @Benchmark
+  public ResourceRecordSet<CNAMEData> buildGeo() {
+    return ResourceRecordSet.<CNAMEData>builder()
+        .name("www.denominator.io.")
+        .type("CNAME")
+        .qualifier("US")
+        .ttl(300)
+        .geo(Geo.create(regions))
+        .add(CNAMEData.create("www1.denominator.io."))
+        .build();
+  }
+}
@@ -0,0 +1,73 @@
+package denominator.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.model.rdata.AData;
+
+import static denominator.common.Util.filter;
+import static denominator.model.ResourceRecordSets.containsRecord;
+import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
+import static denominator.model.ResourceRecordSets.nameEqualTo;
+import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
+
+/**
+ * Measures the {@link ResourceRecordSets} filters providers apply client-side, per rrset scanned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ResourceRecordSetsBenchmark.COUNT)
+public class ResourceRecordSetsBenchmark {
+
+  static final int COUNT = 10000;
+
+  List<ResourceRecordSet<?>> zone;
+  String name;
+
+  @Setup
+  public void setup() {
+    zone = LargeZone.rrsets(COUNT);
+    name = LargeZone.name(COUNT / 2);
+  }
+
+  @Benchmark
+  public int nameEqualToFilter() {
+    return count(filter(zone.iterator(), nameEqualTo(name)));
+  }
+
+  @Benchmark
+  public int nameAndTypeEqualToFilter() {
+    return count(filter(zone.iterator(), nameAndTypeEqualTo(name, "A")));
+  }
+
+  @Benchmark
+  public int nameTypeAndQualifierEqualToFilter() {
+    return count(filter(zone.iterator(), nameTypeAndQualifierEqualTo(name, "A", "US-West")));
+  }
+
+  @Benchmark
+  public int containsRecordFilter() {
+    return count(filter(zone.iterator(), containsRecord(AData.create("192.0.2.1"))));
+  }
+
+  static int count(Iterator<?> iterator) {
+    int count = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,94 @@
+package denominator.model.rdata;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.model.ResourceRecordSet;
+
+/**
+ * Measures the heap footprint of rdata. Run with {@code -prof gc}: as nothing else is allocated,
+ * {@code gc.alloc.rate.norm} is the retained size of one value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RDataFootprintBenchmark {
+
+  static final int RRSETS = 10000;
+
+  String address;
+  String exchange;
+  List<List<Map<String, Object>>> zoneRData;
+
+  @Setup
+  public void setup() {
+    address = "192.0.2.1";
+    exchange = "mx.denominator.io.";
+    zoneRData = new ArrayList<List<Map<String, Object>>>(RRSETS);
+    for (ResourceRecordSet<?> rrset : LargeZone.rrsets(RRSETS)) {
+      zoneRData.add(new ArrayList<Map<String, Object>>(rrset.records()));
+    }
+  }
+
+  @Benchmark
+  public AData a() {
+    return AData.create(address);
+  }
+
+  @Benchmark
+  public MXData mx() {
+    return MXData.create(10, exchange);
+  }
+
+  @Benchmark
+  public SOAData soa() {
+    return SOAData.builder().mname(exchange).rname(exchange).serial(1).refresh(3600).retry(600)
+        .expire(604800).minimum(60).build();
+  }
+
+  /**
+   * Copies the rdata of a large zone, as held in memory when diffing. Per rrset.
+   */
+  @Benchmark
+  @OperationsPerInvocation(RRSETS)
+  public List<Map<String, Object>> zone() {
+    List<Map<String, Object>> last = null;
+    for (List<Map<String, Object>> records : zoneRData) {
+      last = new ArrayList<Map<String, Object>>(records.size());
+      for (Map<String, Object> record : records) {
+        last.add(copy(record));
+      }
+    }
+    return last;
+  }
+
+  static Map<String, Object> copy(Map<String, Object> record) {
+    if (record instanceof AData) {
+      return AData.create(((AData) record).address());
+    } else if (record instanceof AAAAData) {
+      return AAAAData.create(((AAAAData) record).address());
+    } else if (record instanceof CNAMEData) {
+      return CNAMEData.create(((CNAMEData) record).cname());
+    } else if (record instanceof MXData) {
+      MXData mx = (MXData) record;
+      return MXData.create(mx.preference(), mx.exchange());
+    } else if (record instanceof TXTData) {
+      return TXTData.create(((TXTData) record).txtdata());
+    }
+    SRVData srv = (SRVData) record;
+    return SRVData.builder().priority(srv.priority()).weight(srv.weight()).port(srv.port())
+        .target(srv.target()).build();
+  }
+}
@@ -0,0 +1,50 @@
+package denominator.route53;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.route53.Route53.ResourceRecordSetList;
+import feign.Response;
+import feign.codec.Decoder;
+
+import static feign.Util.UTF_8;
+
+/**
+ * Measures {@link ListResourceRecordSetsResponseHandler} through the same decoder route53 uses.
+ * Divide by {@code rrsets} for the per-rrset cost; run with {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListResourceRecordSetsBenchmark {
+
+  @Param({"100", "1000"}) // 100 is the most route53 returns per page.
+  int rrsets;
+
+  final Decoder decoder = Route53Provider.FeignModule.decoder();
+  byte[] body;
+
+  @Setup
+  public void setup() {
+    body = LargeZone.route53(rrsets).getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public ResourceRecordSetList decode() throws IOException {
+    Response response = Response.create(200, "OK",
+                                        Collections.<String, Collection<String>>emptyMap(), body);
+    return (ResourceRecordSetList) decoder.decode(response, ResourceRecordSetList.class);
+  }
+}
@@ -0,0 +1,57 @@
+package denominator.ultradns;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.ultradns.UltraDNS.Record;
+import feign.Response;
+import feign.codec.Decoder;
+
+import static feign.Util.UTF_8;
+
+/**
+ * Measures {@link UltraDNSContentHandlers.RecordListHandler} decoding a whole zone, as done by
+ * {@code getResourceRecordsOfZone}. Divide by {@code rrsets} for the per-rrset cost; run with
+ * {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecordListBenchmark {
+
+  @Param({"1000", "10000"})
+  int rrsets;
+
+  final Decoder decoder = UltraDNSProvider.FeignModule.decoder();
+  Type recordList;
+  byte[] body;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    recordList = UltraDNS.class.getMethod("getResourceRecordsOfZone", String.class)
+        .getGenericReturnType();
+    body = LargeZone.ultradns(rrsets).getBytes(UTF_8);
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public List<Record> decode() throws IOException {
+    Response response = Response.create(200, "OK",
+                                        Collections.<String, Collection<String>>emptyMap(), body);
+    return (List<Record>) decoder.decode(response, recordList);
+  }
+}
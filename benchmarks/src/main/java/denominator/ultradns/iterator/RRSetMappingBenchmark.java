@@ -0,0 +1,68 @@
+package denominator.ultradns.iterator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import denominator.benchmarks.LargeZone;
+import denominator.model.ResourceRecordSet;
+import denominator.ultradns.model.RRSet;
+import denominator.ultradns.util.RRSetUtil;
+
+import static denominator.ResourceTypeToValue.lookup;
+
+/**
+ * Compares mapping a decoded ultradns-rest rrset listing to record sets directly, with exploding
+ * it into one record per rdata and regrouping them. Divide by {@code rrsets} for the per-rrset
+ * cost; run with {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RRSetMappingBenchmark {
+
+  @Param({"1000", "10000"})
+  int rrsets;
+
+  List<RRSet> decoded;
+
+  @Setup
+  public void setup() {
+    decoded = new ArrayList<RRSet>(rrsets);
+    for (int i = 0; i < rrsets; i++) {
+      RRSet rrSet = new RRSet(3600, LargeZone.rdata(i));
+      rrSet.setOwnerName(LargeZone.name(i));
+      rrSet.setRrtype(LargeZone.type(i) + " (" + lookup(LargeZone.type(i)) + ")");
+      decoded.add(rrSet);
+    }
+  }
+
+  @Benchmark
+  public int explodeAndRegroup() {
+    return count(new GroupByRecordNameAndTypeCustomIterator(
+        RRSetUtil.buildRecords(decoded).iterator()));
+  }
+
+  @Benchmark
+  public int direct() {
+    return count(new ResourceRecordSetFromRRSetCustomIterator(decoded.iterator()));
+  }
+
+  static int count(Iterator<ResourceRecordSet<?>> rrsets) {
+    int records = 0;
+    while (rrsets.hasNext()) {
+      records += rrsets.next().records().size();
+    }
+    return records;
+  }
+}
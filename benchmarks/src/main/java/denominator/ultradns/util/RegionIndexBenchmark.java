@@ -0,0 +1,92 @@
+package denominator.ultradns.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import denominator.ultradns.model.Region;
+
+/**
+ * Compares decoding the geo codes of one directional group by searching the region hierarchy, as
+ * geo listings used to, with looking them up in a {@link RegionIndex}. The search grows with
+ * {@code countries}, while the lookup shouldn't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegionIndexBenchmark {
+
+  static final int REGIONS = 7;
+  static final int CODES_PER_GROUP = 20;
+
+  @Param({"250", "2500", "25000"})
+  int countries;
+
+  Map<Region, Collection<Region>> regions;
+  RegionIndex index;
+  TreeSet<String> codes;
+
+  @Setup
+  public void setup() {
+    List<Region> topLevelRegions = new ArrayList<Region>(REGIONS);
+    for (int r = 0; r < REGIONS; r++) {
+      List<Region> children = new ArrayList<Region>();
+      for (int c = r; c < countries; c += REGIONS) {
+        children.add(new Region("Country " + c, "C" + c, "Country", REGIONS + c));
+      }
+      Region region = new Region("Region " + r, "R" + r, "Region", r);
+      region.setChildRegions(children);
+      topLevelRegions.add(region);
+    }
+    regions = RegionUtil.getRegionHierarchy(topLevelRegions);
+    index = RegionUtil.getRegionIndex(regions);
+    codes = new TreeSet<String>();
+    for (int i = 0; i < CODES_PER_GROUP; i++) {
+      codes.add("C" + (i * countries / CODES_PER_GROUP));
+    }
+  }
+
+  @Benchmark
+  public Map<String, Collection<String>> search() {
+    Map<String, Collection<String>> regionToTerritories = new TreeMap<String, Collection<String>>();
+    for (String code : codes) {
+      for (Map.Entry<Region, Collection<Region>> entry : regions.entrySet()) {
+        boolean codeFound = false;
+        for (Region region : entry.getValue()) {
+          if (code.equals(region.getEffectiveCodeForGeo())) {
+            Collection<String> list = regionToTerritories.get(entry.getKey().getName());
+            if (list == null) {
+              list = new ArrayList<String>();
+              regionToTerritories.put(entry.getKey().getName(), list);
+            }
+            list.add(region.getName());
+            codeFound = true;
+            break;
+          }
+        }
+        if (codeFound) {
+          break;
+        }
+      }
+    }
+    return regionToTerritories;
+  }
+
+  @Benchmark
+  public Map<String, Collection<String>> index() {
+    return index.regionToTerritories(codes);
+  }
+}
@@ -1,5 +1,7 @@
 package denominator.clouddns;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +43,38 @@ final class CloudDNSFunctions {
     }
   }
 
+  /**
+   * Awaits all jobs together, as opposed to one after another. Each round polls the status of the
+   * jobs still outstanding, so the wait is only as long as the slowest job.
+   */
+  static void awaitComplete(CloudDNS api, List<Job> jobs) {
+    List<String> outstanding = new ArrayList<String>(jobs.size());
+    for (Job job : jobs) {
+      outstanding.add(job.id);
+    }
+    Retryer retryer = new Retryer.Default(500, 1000, 30);
+
+    while (true) {
+      for (Iterator<String> i = outstanding.iterator(); i.hasNext(); ) {
+        Job job = api.getStatus(i.next());
+
+        if ("COMPLETED".equals(job.status)) {
+          i.remove();
+        } else if ("ERROR".equals(job.status)) {
+          throw new IllegalStateException(
+              format("Job %s failed with error: %s", job.id, job.errorDetails));
+        }
+      }
+
+      if (outstanding.isEmpty()) {
+        return;
+      }
+
+      retryer.continueOrPropagate(new RetryableException(
+          format("Jobs %s did not complete. Check your logs.", outstanding), null));
+    }
+  }
+
   /**
    * Special-cases priority field and the strange and incomplete SOA record.
    */
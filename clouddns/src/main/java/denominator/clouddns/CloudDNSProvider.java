@@ -1,5 +1,6 @@
 package denominator.clouddns;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -7,12 +8,17 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
+import denominator.Provider;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
 import denominator.clouddns.RackspaceAdapters.DomainListAdapter;
@@ -20,10 +26,13 @@ import denominator.clouddns.RackspaceAdapters.JobAdapter;
 import denominator.clouddns.RackspaceAdapters.RecordListAdapter;
 import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.CloudIdentity;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.GeoUnsupported;
-import denominator.config.NothingToClose;
 import denominator.config.OnlyBasicResourceRecordSets;
 import denominator.config.WeightedUnsupported;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.Target.EmptyTarget;
@@ -79,11 +88,20 @@ public class CloudDNSProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true, includes = {
-      NothingToClose.class, GeoUnsupported.class, WeightedUnsupported.class,
+      GeoUnsupported.class, WeightedUnsupported.class,
       OnlyBasicResourceRecordSets.class,
       FeignModule.class})
   public static final class Module {
 
+    /**
+     * Releases the http connection pool shared with other managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient;
+    }
+
     @Provides
     CheckConnection checkConnection(LimitsReadable checkConnection) {
       return checkConnection;
@@ -101,10 +119,21 @@ public class CloudDNSProvider extends BasicProvider {
         CloudDNSResourceRecordSetApi.Factory api) {
       return api;
     }
+
+    /**
+     * Count of pages fetched in the background while the current page of zones or records is
+     * consumed. Set to zero to fetch each page only when the previous is exhausted.
+     */
+    @Provides
+    @Named("clouddns.pageLookahead")
+    int providePageLookahead() {
+      return 1;
+    }
   }
 
   @dagger.Module(injects = CloudDNSResourceRecordSetApi.Factory.class,
-      complete = false // doesn't bind Provider used by CloudDNSTarget
+      complete = false, // doesn't bind Provider used by CloudDNSTarget
+      includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -130,18 +159,71 @@ public class CloudDNSProvider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Connections open at once, shared by managers in the JVM which use the same url.
+     */
+    @Provides
+    @Named("clouddns.http.maxConnections")
+    int provideMaxConnections() {
+      return 20;
+    }
+
+    /**
+     * Connections open at once to one host. Override this binding when making more concurrent
+     * requests, such as listing record sets of many zones at a time.
+     */
+    @Provides
+    @Named("clouddns.http.maxConnectionsPerRoute")
+    int provideMaxConnectionsPerRoute() {
+      return 10;
+    }
+
+    /**
+     * Connections idle longer than this are closed in the background, before the server is likely
+     * to close them.
+     */
+    @Provides
+    @Named("clouddns.http.idleTimeoutMillis")
+    long provideIdleTimeoutMillis() {
+      return 30000;
+    }
+
+    /**
+     * Keeps connections alive for reuse, sized by the {@code clouddns.http} bindings.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(Provider provider, SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier,
+                                      @Named("clouddns.http.maxConnections") int maxConnections,
+                                      @Named("clouddns.http.maxConnectionsPerRoute") int perRoute,
+                                      @Named("clouddns.http.idleTimeoutMillis") long idleTimeout) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+                                  maxConnections, perRoute, idleTimeout);
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel, Metrics metrics) {
       return Feign.builder()
+          .client(new Metering.MeteredClient(client))
+          .invocationHandlerFactory(new Metering(metrics))
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new GsonEncoder())
-          .decoder(new GsonDecoder(Arrays.asList(
+          .decoder(new Metering.MeteredDecoder(new GsonDecoder(Arrays.asList(
                        new KeystoneAccessAdapter("rax:dns"),
                        new JobAdapter(),
                        new DomainListAdapter(),
-                       new RecordListAdapter()))
+                       new RecordListAdapter())))
           )
           .build();
     }
@@ -8,12 +8,16 @@ import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import denominator.ResourceRecordSetApi;
 import denominator.clouddns.RackspaceApis.CloudDNS;
+import denominator.clouddns.RackspaceApis.Job;
 import denominator.clouddns.RackspaceApis.ListWithNext;
 import denominator.clouddns.RackspaceApis.Pager;
 import denominator.clouddns.RackspaceApis.Record;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.common.Util;
 import denominator.model.ResourceRecordSet;
 
@@ -32,10 +36,16 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
   private static final int DEFAULT_TTL = 300;
   private final CloudDNS api;
   private final int domainId;
+  private final int pageLookahead;
 
-  CloudDNSResourceRecordSetApi(CloudDNS api, int domainId) {
+  /**
+   * @param pageLookahead count of pages {@link #iterator()} fetches ahead of the one being
+   *                      consumed.
+   */
+  CloudDNSResourceRecordSetApi(CloudDNS api, int domainId, int pageLookahead) {
     this.api = api;
     this.domainId = domainId;
+    this.pageLookahead = pageLookahead;
   }
 
   @Override
@@ -45,7 +55,7 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
         return nullOrNext == null ? api.records(domainId) : api.records(nullOrNext);
       }
     };
-    return new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager));
+    return new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager, pageLookahead));
   }
 
   @Override
@@ -64,14 +74,21 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
                                   : api.records(nullOrNext);
       }
     };
-    return nextOrNull(new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager)));
+    return nextOrNull(new GroupByRecordNameAndTypeIterator(lazyIterateRecords(recordPager, 0)));
   }
 
+  /**
+   * Submits a job per record that needs to change, awaiting them in two rounds: first deletes, then
+   * creates and updates. Deletes complete first, as CloudDNS may reject creating a record which
+   * conflicts with one pending deletion, such as a replacement CNAME.
+   */
   @Override
   public void put(ResourceRecordSet<?> rrset) {
     checkNotNull(rrset, "rrset was null");
     checkArgument(!rrset.records().isEmpty(), "rrset was empty %s", rrset);
 
+    List<Record> recordsToDelete = new ArrayList<Record>();
+    List<Record> recordsToUpdate = new ArrayList<Record>();
     List<Map<String, Object>>
         recordsLeftToCreate =
         new ArrayList<Map<String, Object>>(rrset.records());
@@ -87,13 +104,24 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
             continue;
           }
 
-          awaitComplete(api, api.updateRecord(domainId, record.id, rrset.ttl(), record.data()));
+          recordsToUpdate.add(record);
         }
       } else {
-        awaitComplete(api, api.deleteRecord(domainId, record.id));
+        recordsToDelete.add(record);
       }
     }
 
+    List<Job> deletes = new ArrayList<Job>(recordsToDelete.size());
+    for (Record record : recordsToDelete) {
+      deletes.add(api.deleteRecord(domainId, record.id));
+    }
+    awaitComplete(api, deletes);
+
+    List<Job> jobs = new ArrayList<Job>();
+    for (Record record : recordsToUpdate) {
+      jobs.add(api.updateRecord(domainId, record.id, rrset.ttl(), record.data()));
+    }
+
     int ttlToApply = rrset.ttl() != null ? rrset.ttl() : DEFAULT_TTL;
 
     for (Map<String, Object> rdata : recordsLeftToCreate) {
@@ -102,13 +130,14 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
       String data = join(' ', mutableRData.values().toArray());
 
       if (priority == null) {
-        awaitComplete(api,
-                      api.createRecord(domainId, rrset.name(), rrset.type(), ttlToApply, data));
+        jobs.add(api.createRecord(domainId, rrset.name(), rrset.type(), ttlToApply, data));
       } else {
-        awaitComplete(api, api.createRecordWithPriority(
+        jobs.add(api.createRecordWithPriority(
             domainId, rrset.name(), rrset.type(), ttlToApply, data, priority));
       }
     }
+
+    awaitComplete(api, jobs);
   }
 
   /**
@@ -133,56 +162,43 @@ class CloudDNSResourceRecordSetApi implements denominator.ResourceRecordSetApi {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
 
+    List<Job> jobs = new ArrayList<Job>();
     for (Record record : api.recordsByNameAndType(domainId, name, type)) {
-      awaitComplete(api, api.deleteRecord(domainId, record.id));
+      jobs.add(api.deleteRecord(domainId, record.id));
     }
+    awaitComplete(api, jobs);
   }
 
-  Iterator<Record> lazyIterateRecords(final Pager<Record> recordPager) {
-    final ListWithNext<Record> first = emptyOn404(recordPager, null);
+  Iterator<Record> lazyIterateRecords(final Pager<Record> recordPager, int lookahead) {
+    ListWithNext<Record> first = emptyOn404(recordPager, null);
 
     if (first.next == null) {
       return first.iterator();
     }
 
-    return new Iterator<Record>() {
-      Iterator<Record> current = first.iterator();
-      URI next = first.next;
-
-      @Override
-      public boolean hasNext() {
-        while (!current.hasNext() && next != null) {
-          ListWithNext<Record> nextPage = emptyOn404(recordPager, next);
-          current = nextPage.iterator();
-          next = nextPage.next;
-        }
-        return current.hasNext();
-      }
-
-      @Override
-      public Record next() {
-        return current.next();
-      }
-
-      @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
-      }
-    };
+    return PrefetchingPager.<Record, ListWithNext<Record>>create(
+        first, new NextPage<ListWithNext<Record>>() {
+          @Override
+          public ListWithNext<Record> apply(ListWithNext<Record> page) {
+            return page.next != null ? emptyOn404(recordPager, page.next) : null;
+          }
+        }, lookahead);
   }
 
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final CloudDNS api;
+    private final int pageLookahead;
 
     @Inject
-    Factory(CloudDNS api) {
+    Factory(CloudDNS api, @Named("clouddns.pageLookahead") int pageLookahead) {
       this.api = api;
+      this.pageLookahead = pageLookahead;
     }
 
     @Override
     public ResourceRecordSetApi create(String id) {
-      return new CloudDNSResourceRecordSetApi(api, Integer.parseInt(id));
+      return new CloudDNSResourceRecordSetApi(api, Integer.parseInt(id), pageLookahead);
     }
   }
 }
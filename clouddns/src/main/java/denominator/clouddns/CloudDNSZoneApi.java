@@ -3,10 +3,13 @@ package denominator.clouddns;
 import java.util.Iterator;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.ListWithNext;
 import denominator.clouddns.RackspaceApis.Record;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.model.Zone;
 
 import static denominator.clouddns.CloudDNSFunctions.awaitComplete;
@@ -15,15 +18,24 @@ import static denominator.common.Util.singletonIterator;
 class CloudDNSZoneApi implements denominator.ZoneApi {
 
   private final CloudDNS api;
+  private final int pageLookahead;
 
   @Inject
-  CloudDNSZoneApi(CloudDNS api) {
+  CloudDNSZoneApi(CloudDNS api, @Named("clouddns.pageLookahead") int pageLookahead) {
     this.api = api;
+    this.pageLookahead = pageLookahead;
   }
 
   @Override
   public Iterator<Zone> iterator() {
-    return new ZipWithDomain(api.domains());
+    Iterator<Zone> domains = PrefetchingPager.<Zone, ListWithNext<Zone>>create(
+        api.domains(), new NextPage<ListWithNext<Zone>>() {
+          @Override
+          public ListWithNext<Zone> apply(ListWithNext<Zone> page) {
+            return page.next != null ? api.domains(page.next) : null;
+          }
+        }, pageLookahead);
+    return new ZipWithDomain(domains);
   }
 
   @Override
@@ -45,28 +57,20 @@ class CloudDNSZoneApi implements denominator.ZoneApi {
 
   class ZipWithDomain implements Iterator<Zone> {
 
-    ListWithNext<Zone> list;
-    int i = 0;
-    int length;
+    final Iterator<Zone> domains;
 
-    ZipWithDomain(ListWithNext<Zone> list) {
-      this.list = list;
-      this.length = list.size();
+    ZipWithDomain(Iterator<Zone> domains) {
+      this.domains = domains;
     }
 
     @Override
     public boolean hasNext() {
-      while (i == length && list.next != null) {
-        list = api.domains(list.next);
-        length = list.size();
-        i = 0;
-      }
-      return i < length;
+      return domains.hasNext();
     }
 
     @Override
     public Zone next() {
-      return zipWithSOA(list.get(i++));
+      return zipWithSOA(domains.next());
     }
 
     @Override
@@ -4,12 +4,14 @@ import com.squareup.okhttp.mockwebserver.MockResponse;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import java.util.Iterator;
 
 import denominator.ResourceRecordSetApi;
 import denominator.model.ResourceRecordSet;
 import denominator.model.rdata.AData;
+import denominator.model.rdata.CNAMEData;
 import denominator.model.rdata.SOAData;
 
 import static denominator.assertj.ModelAssertions.assertThat;
@@ -22,6 +24,8 @@ public class CloudDNSResourceRecordSetApiMockTest {
 
   @Rule
   public final MockCloudDNSServer server = new MockCloudDNSServer();
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
 
   String
       records =
@@ -191,4 +195,92 @@ public class CloudDNSResourceRecordSetApiMockTest {
         .hasMethod("GET")
         .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
   }
+
+  @Test
+  public void deleteByNameAndTypeSubmitsAllJobsBeforeAwaiting() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsByNameAndType));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "COMPLETED")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "COMPLETED")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.deleteByNameAndType("www.denominator.io", "A");
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=A");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9872761");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/A-9883329");
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_1?showDetails=true");
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_2?showDetails=true");
+    // only the outstanding job is polled again
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_2?showDetails=true");
+  }
+
+  @Test
+  public void putWhenJobFails() throws Exception {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Job JOB_2 failed with error: ");
+
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsByNameAndType));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "COMPLETED")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "ERROR")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.put(ResourceRecordSet.builder()
+                .name("www.denominator.io")
+                .type("A")
+                .ttl(600000)
+                .add(AData.create("1.2.3.4"))
+                .add(AData.create("192.0.2.1")).build());
+  }
+
+  @Test
+  public void putReplacingCNAMEAwaitsDeleteBeforeCreate() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(
+        "{\"records\":[{\"name\":\"www.denominator.io\",\"id\":\"CNAME-9872761\",\"type\":\"CNAME\",\"data\":\"www1.denominator.io\",\"ttl\":600000}]}"));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_1", "COMPLETED")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "RUNNING")));
+    server.enqueue(new MockResponse().setBody(job("JOB_2", "COMPLETED")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId + "");
+    api.put(ResourceRecordSet.builder()
+                .name("www.denominator.io")
+                .type("CNAME")
+                .ttl(600000)
+                .add(CNAMEData.create("www2.denominator.io")).build());
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/v1.0/123123/domains/1234/records?name=www.denominator.io&type=CNAME");
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath("/v1.0/123123/domains/1234/records/CNAME-9872761");
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_1?showDetails=true");
+    // the create isn't submitted until the delete completes
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_1?showDetails=true");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/v1.0/123123/domains/1234/records");
+    server.assertRequest().hasPath("/v1.0/123123/status/JOB_2?showDetails=true");
+  }
+
+  static String job(String id, String status) {
+    return "{\"status\": \"" + status + "\", \"jobId\": \"" + id + "\"}";
+  }
 }
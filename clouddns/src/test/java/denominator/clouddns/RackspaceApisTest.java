@@ -8,12 +8,14 @@ import org.junit.Test;
 import java.net.URI;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.Provider;
 import denominator.clouddns.RackspaceApis.CloudDNS;
 import denominator.clouddns.RackspaceApis.CloudIdentity;
 import denominator.clouddns.RackspaceApis.Job;
 import denominator.clouddns.RackspaceApis.TokenIdAndPublicURL;
 import denominator.model.Zone;
+import feign.Client;
 import feign.Feign;
 
 import static denominator.assertj.ModelAssertions.assertThat;
@@ -31,7 +33,9 @@ public class RackspaceApisTest {
     server.enqueueAuthResponse();
 
     CloudDNSProvider.FeignModule module = new CloudDNSProvider.FeignModule();
-    CloudIdentity api = module.cloudIdentity(module.feign(module.logger(), module.logLevel()));
+    CloudIdentity api = module.cloudIdentity(
+        module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                     new Metrics()));
 
     TokenIdAndPublicURL tokenIdAndPublicURL = api.passwordAuth(
         URI.create(server.url()), "username", "password");
@@ -224,7 +228,8 @@ public class RackspaceApisTest {
 
   CloudDNS mockApi() {
     CloudDNSProvider.FeignModule module = new CloudDNSProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign = module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                               new Metrics());
     CloudIdentity cloudIdentity = module.cloudIdentity(feign);
     Provider provider = new CloudDNSProvider() {
       @Override
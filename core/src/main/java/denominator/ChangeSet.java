@@ -0,0 +1,77 @@
+package denominator;
+
+import denominator.model.ResourceRecordSet;
+
+/**
+ * Accumulates changes to record sets in a zone, which are sent when {@link #apply() applied}.
+ * Providers that accept many changes in a request, such as route53, apply them in as few requests
+ * as possible. Others apply them one at a time, in the order they were added.
+ *
+ * <br> <br> <b>Usage</b><br>
+ *
+ * <pre>
+ * api.changeSetInZone(zone.id())
+ *    .add(a("www1.denominator.io.", "192.0.2.1"))
+ *    .replace(a("www2.denominator.io.", "192.0.2.2"))
+ *    .delete("www3.denominator.io.", "A")
+ *    .apply();
+ * </pre>
+ *
+ * <br> <b>Atomicity</b><br>
+ *
+ * Changes are only atomic when the provider can send them in a single request. Otherwise, a failure
+ * part way through leaves earlier changes in place.
+ */
+public interface ChangeSet {
+
+  /**
+   * Adds a record set which doesn't already exist.
+   *
+   * @param rrset contains the {@code rdata} elements to add.
+   * @return this, for chaining.
+   */
+  ChangeSet add(ResourceRecordSet<?> rrset);
+
+  /**
+   * Replaces any existing record set with the same {@link ResourceRecordSet#name() name}, {@link
+   * ResourceRecordSet#type() type} and {@link ResourceRecordSet#qualifier() qualifier}, or adds it
+   * if absent. This has the same semantics as {@link AllProfileResourceRecordSetApi#put}.
+   *
+   * @param rrset contains the {@code rdata} elements of the replacement.
+   * @return this, for chaining.
+   */
+  ChangeSet replace(ResourceRecordSet<?> rrset);
+
+  /**
+   * Deletes all record sets with the specified name and type, if any. This has the same semantics
+   * as {@link AllProfileResourceRecordSetApi#deleteByNameAndType}.
+   *
+   * @param name {@link ResourceRecordSet#name() name} of the rrset
+   * @param type {@link ResourceRecordSet#type() type} of the rrset
+   * @return this, for chaining.
+   */
+  ChangeSet delete(String name, String type);
+
+  /**
+   * Deletes the record set with the specified name, type and qualifier, if present.
+   *
+   * @param name      {@link ResourceRecordSet#name() name} of the rrset
+   * @param type      {@link ResourceRecordSet#type() type} of the rrset
+   * @param qualifier {@link ResourceRecordSet#qualifier() qualifier} of the rrset
+   * @return this, for chaining.
+   */
+  ChangeSet delete(String name, String type, String qualifier);
+
+  /**
+   * Sends the changes in the order they were added. Applying again sends them again. Adding a
+   * record set that already exists fails, though the exception type is provider-specific.
+   *
+   * @throws IllegalArgumentException if the zone is not found.
+   */
+  void apply();
+
+  static interface Factory {
+
+    ChangeSet create(String id);
+  }
+}
@@ -18,17 +18,20 @@ public class DNSApi {
   private final AllProfileResourceRecordSetApi.Factory allRRSetApiFactory;
   private final GeoResourceRecordSetApi.Factory geoApiFactory;
   private final WeightedResourceRecordSetApi.Factory weightedApiFactory;
+  private final ChangeSet.Factory changeSetFactory;
 
   @Inject
   DNSApi(ZoneApi zones, ResourceRecordSetApi.Factory rrsetApiFactory,
          AllProfileResourceRecordSetApi.Factory allRRSetApiFactory,
          GeoResourceRecordSetApi.Factory geoApiFactory,
-         WeightedResourceRecordSetApi.Factory weightedApiFactory) {
+         WeightedResourceRecordSetApi.Factory weightedApiFactory,
+         ChangeSet.Factory changeSetFactory) {
     this.zones = zones;
     this.rrsetApiFactory = rrsetApiFactory;
     this.allRRSetApiFactory = allRRSetApiFactory;
     this.geoApiFactory = geoApiFactory;
     this.weightedApiFactory = weightedApiFactory;
+    this.changeSetFactory = changeSetFactory;
   }
 
   /**
@@ -118,4 +121,23 @@ public class DNSApi {
   public WeightedResourceRecordSetApi weightedRecordSetsInZone(String id) {
     return weightedApiFactory.create(id);
   }
+
+  /**
+   * Changes many record sets at once, in as few requests as the provider allows. This is supported
+   * by all {@link Provider providers}, though most apply changes one at a time.
+   *
+   * <br> <br> <b>Usage</b><br>
+   *
+   * The argument to this is the {@link Zone#id() zone id}.  If unknown, lookup via {@link
+   * denominator.ZoneApi#iterateByName(String)}.
+   *
+   * <pre>
+   * api.changeSetInZone(zone.id()).replace(rrset1).delete(name2, type2).apply();
+   * </pre>
+   *
+   * @param id {@link Zone#id() id} of the zone.
+   */
+  public ChangeSet changeSetInZone(String id) {
+    return changeSetFactory.create(id);
+  }
 }
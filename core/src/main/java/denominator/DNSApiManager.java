@@ -15,13 +15,16 @@ public class DNSApiManager implements Closeable {
   private final DNSApi api;
   private final CheckConnection checkConnection;
   private final Closeable closer;
+  private final Metrics metrics;
 
   @Inject
-  DNSApiManager(Provider provider, DNSApi api, CheckConnection checkConnection, Closeable closer) {
+  DNSApiManager(Provider provider, DNSApi api, CheckConnection checkConnection, Closeable closer,
+                Metrics metrics) {
     this.provider = provider;
     this.api = api;
     this.checkConnection = checkConnection;
     this.closer = closer;
+    this.metrics = metrics;
   }
 
   /**
@@ -38,6 +41,14 @@ public class DNSApiManager implements Closeable {
     return provider;
   }
 
+  /**
+   * Calls made to the provider by this manager, such as http requests, by operation. Empty for
+   * providers which don't make remote calls.
+   */
+  public Metrics metrics() {
+    return metrics;
+  }
+
   /**
    * Returns true, if api commands are likely to succeed.
    *
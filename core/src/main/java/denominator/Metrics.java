@@ -0,0 +1,366 @@
+package denominator;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import denominator.common.Histogram;
+
+/**
+ * Counts calls a {@link DNSApiManager} makes to its provider, by operation, such as a method of the
+ * provider's http api. Use this to find hot paths, like a request per zone when listing zones.
+ *
+ * <br> <br> <b>Exporting</b><br>
+ *
+ * {@link #snapshot()} returns plain values which can be published to any metrics system, and
+ * {@link #toString()} formats them as a table. <br> <br> <b>Recording</b><br>
+ *
+ * Providers call {@link Operation#begin()} when an operation starts. While it is in progress, the
+ * {@link #current() current call} records requests sent, including retries, connections opened for
+ * them, and responses received and decoded on the same thread.
+ */
+@Singleton
+public final class Metrics {
+
+  private static final ThreadLocal<Call> current = new ThreadLocal<Call>();
+
+  private final ConcurrentMap<String, Operation> operations =
+      new ConcurrentHashMap<String, Operation>();
+
+  @Inject
+  public Metrics() {
+  }
+
+  /**
+   * The call in progress on this thread, or null if there is none.
+   */
+  public static Call current() {
+    return current.get();
+  }
+
+  /**
+   * Returns the operation of the given name, creating it if it doesn't exist.
+   */
+  public Operation operation(String name) {
+    Operation operation = operations.get(name);
+    if (operation == null) {
+      Operation created = new Operation(name);
+      operation = operations.putIfAbsent(name, created);
+      if (operation == null) {
+        operation = created;
+      }
+    }
+    return operation;
+  }
+
+  /**
+   * Values recorded so far, by operation name. Operations which haven't been called are skipped.
+   */
+  public SortedMap<String, Snapshot> snapshot() {
+    SortedMap<String, Snapshot> result = new TreeMap<String, Snapshot>();
+    for (Operation operation : operations.values()) {
+      Snapshot snapshot = operation.snapshot();
+      if (snapshot.calls() > 0) {
+        result.put(operation.name, snapshot);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Formats {@link #snapshot()} as a table, one operation per line. Latencies are in milliseconds.
+   */
+  @Override
+  public String toString() {
+    StringBuilder table = new StringBuilder();
+    table.append(String.format("%-60s %8s %6s %7s %11s %10s %10s %8s %8s %8s %9s%n",
+                               "operation", "calls", "errors", "retries", "connections",
+                               "bytesOut", "bytesIn", "p50", "p99", "max", "records"));
+    for (Snapshot snapshot : snapshot().values()) {
+      table.append(String.format("%-60s %8d %6d %7d %11d %10d %10d %8.1f %8.1f %8.1f %9.1f%n",
+                                 snapshot.name(), snapshot.calls(), snapshot.errors(),
+                                 snapshot.retries(), snapshot.connections(),
+                                 snapshot.bytesOut(), snapshot.bytesIn(),
+                                 snapshot.p50Micros() / 1000.0, snapshot.p99Micros() / 1000.0,
+                                 snapshot.maxMicros() / 1000.0, snapshot.recordsPerCall()));
+    }
+    return table.toString();
+  }
+
+  /**
+   * Accumulates values for all calls of the same name. Safe for concurrent use.
+   */
+  public static final class Operation {
+
+    private final String name;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final Histogram latencyMicros = new Histogram();
+
+    Operation(String name) {
+      this.name = name;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Starts a call on this thread, which becomes {@link Metrics#current()} until {@link Call#end()}.
+     */
+    public Call begin() {
+      calls.incrementAndGet();
+      Call call = new Call(this, current.get());
+      current.set(call);
+      return call;
+    }
+
+    public Snapshot snapshot() {
+      return new Snapshot(name, calls.get(), errors.get(), retries.get(),
+                          connections.get(), bytesOut.get(), bytesIn.get(), records.get(), latencyMicros.percentile(0.5),
+                          latencyMicros.percentile(0.99), latencyMicros.max());
+    }
+
+    @Override
+    public String toString() {
+      return snapshot().toString();
+    }
+  }
+
+  /**
+   * One call of an {@link Operation}, which may send several requests when retried. Only use this
+   * on the thread which began it.
+   */
+  public static final class Call {
+
+    private final Operation operation;
+    private final Call previous;
+    private final long startNanos = System.nanoTime();
+    private int requests;
+    private boolean failed;
+
+    Call(Operation operation, Call previous) {
+      this.operation = operation;
+      this.previous = previous;
+    }
+
+    /**
+     * Records a request sent, of which all but the first are retries.
+     *
+     * @param bytes length of the request body.
+     */
+    public void sent(long bytes) {
+      if (requests++ > 0) {
+        operation.retries.incrementAndGet();
+      }
+      operation.bytesOut.addAndGet(bytes);
+    }
+
+    /**
+     * Records a connection opened to send a request, as opposed to reusing one kept alive.
+     */
+    public void connected() {
+      operation.connections.incrementAndGet();
+    }
+
+    /**
+     * Returns a stream which records bytes of the response body as they are read.
+     *
+     * @param body possibly null, if the response has no body.
+     */
+    public InputStream received(InputStream body) {
+      if (body == null) {
+        return null;
+      }
+      return new FilterInputStream(body) {
+        @Override
+        public int read() throws IOException {
+          int b = super.read();
+          if (b != -1) {
+            operation.bytesIn.incrementAndGet();
+          }
+          return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int count = super.read(b, off, len);
+          if (count > 0) {
+            operation.bytesIn.addAndGet(count);
+          }
+          return count;
+        }
+      };
+    }
+
+    /**
+     * Records the count of records in a decoded response, if it is a collection, map or other
+     * iterable, such as a page of results. Iterables are iterated to count them, so shouldn't be
+     * lazy.
+     */
+    public void decoded(Object result) {
+      if (result instanceof Collection) {
+        operation.records.addAndGet(((Collection<?>) result).size());
+      } else if (result instanceof Map) {
+        operation.records.addAndGet(((Map<?, ?>) result).size());
+      } else if (result instanceof Iterable) {
+        long count = 0;
+        for (Iterator<?> i = ((Iterable<?>) result).iterator(); i.hasNext(); i.next()) {
+          count++;
+        }
+        operation.records.addAndGet(count);
+      }
+    }
+
+    /**
+     * Marks this call as an error, such as when its last request failed.
+     */
+    public void failed() {
+      failed = true;
+    }
+
+    /**
+     * Records the latency of this call and restores the call which was current when it began.
+     */
+    public void end() {
+      operation.latencyMicros
+          .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+      if (failed) {
+        operation.errors.incrementAndGet();
+      }
+      if (previous != null) {
+        current.set(previous);
+      } else {
+        current.remove();
+      }
+    }
+  }
+
+  /**
+   * Values recorded by an {@link Operation}. Latencies are estimates, at most an eighth high.
+   */
+  public static final class Snapshot {
+
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long retries;
+    private final long connections;
+    private final long bytesOut;
+    private final long bytesIn;
+    private final long records;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    Snapshot(String name, long calls, long errors, long retries, long connections, long bytesOut,
+             long bytesIn, long records, long p50Micros, long p99Micros, long maxMicros) {
+      this.name = name;
+      this.calls = calls;
+      this.errors = errors;
+      this.retries = retries;
+      this.connections = connections;
+      this.bytesOut = bytesOut;
+      this.bytesIn = bytesIn;
+      this.records = records;
+      this.p50Micros = p50Micros;
+      this.p99Micros = p99Micros;
+      this.maxMicros = maxMicros;
+    }
+
+    /**
+     * ex. {@code Route53#listHostedZones()}
+     */
+    public String name() {
+      return name;
+    }
+
+    public long calls() {
+      return calls;
+    }
+
+    /**
+     * Calls which failed, after any retries.
+     */
+    public long errors() {
+      return errors;
+    }
+
+    /**
+     * Requests sent after the first of each call.
+     */
+    public long retries() {
+      return retries;
+    }
+
+    /**
+     * Connections opened, by http clients which report them. Fewer than calls means connections
+     * were reused.
+     */
+    public long connections() {
+      return connections;
+    }
+
+    /**
+     * Request body bytes sent, including retries.
+     */
+    public long bytesOut() {
+      return bytesOut;
+    }
+
+    /**
+     * Response body bytes read, including error responses.
+     */
+    public long bytesIn() {
+      return bytesIn;
+    }
+
+    /**
+     * Records decoded from responses which are lists, such as zones or record sets.
+     */
+    public long records() {
+      return records;
+    }
+
+    public double recordsPerCall() {
+      return calls > 0 ? (double) records / calls : 0;
+    }
+
+    public long p50Micros() {
+      return p50Micros;
+    }
+
+    public long p99Micros() {
+      return p99Micros;
+    }
+
+    public long maxMicros() {
+      return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+      return name + "(calls=" + calls + ", errors=" + errors + ", retries=" + retries
+             + ", connections=" + connections + ", bytesOut=" + bytesOut + ", bytesIn=" + bytesIn + ", records=" + records
+             + ", p50Micros=" + p50Micros + ", p99Micros=" + p99Micros + ", maxMicros="
+             + maxMicros + ")";
+    }
+  }
+}
@@ -9,6 +9,7 @@ import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import denominator.config.SequentialChangeSets;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -165,7 +166,12 @@ public final class Providers {
     return new ProvideProvider(provider);
   }
 
-  @Module(injects = DNSApiManager.class, complete = false)
+  /**
+   * Also binds defaults for features added after providers were written, such as {@link
+   * SequentialChangeSets}, so that provider modules needn't change. Providers override these with
+   * a module marked {@code overrides = true}.
+   */
+  @Module(injects = DNSApiManager.class, complete = false, includes = SequentialChangeSets.class)
   static final class ProvideProvider implements javax.inject.Provider<Provider> {
 
     private final denominator.Provider provider;
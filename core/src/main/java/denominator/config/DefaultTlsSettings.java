@@ -0,0 +1,97 @@
+package denominator.config;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
+
+import dagger.Module;
+import dagger.Provides;
+
+/**
+ * Binds the TLS settings of http clients to the JVM defaults. The defaults are read on each use, so
+ * changes made with {@link HttpsURLConnection#setDefaultSSLSocketFactory} apply to managers already
+ * created.
+ *
+ * <p/>The instances bound here are the same for all managers in the JVM, so http clients which pool
+ * connections by TLS settings can share them. Providers include this in the module which binds
+ * their http client.
+ */
+@Module(library = true)
+public final class DefaultTlsSettings {
+
+  private static final SSLSocketFactory sslSocketFactory = new DefaultSSLSocketFactory();
+  private static final HostnameVerifier hostnameVerifier = new HostnameVerifier() {
+    @Override
+    public boolean verify(String hostname, SSLSession session) {
+      return HttpsURLConnection.getDefaultHostnameVerifier().verify(hostname, session);
+    }
+  };
+
+  @Provides
+  SSLSocketFactory provideSSLSocketFactory() {
+    return sslSocketFactory;
+  }
+
+  @Provides
+  HostnameVerifier provideHostnameVerifier() {
+    return hostnameVerifier;
+  }
+
+  /**
+   * Delegates to the current default factory.
+   */
+  static final class DefaultSSLSocketFactory extends SSLSocketFactory {
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+      return delegate().getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return delegate().getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return delegate().createSocket();
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose)
+        throws IOException {
+      return delegate().createSocket(socket, host, port, autoClose);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return delegate().createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      return delegate().createSocket(host, port, localHost, localPort);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return delegate().createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+                               int localPort) throws IOException {
+      return delegate().createSocket(address, port, localAddress, localPort);
+    }
+
+    private static SSLSocketFactory delegate() {
+      return HttpsURLConnection.getDefaultSSLSocketFactory();
+    }
+  }
+}
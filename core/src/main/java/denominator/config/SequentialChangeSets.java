@@ -0,0 +1,133 @@
+package denominator.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import denominator.AllProfileResourceRecordSetApi;
+import denominator.ChangeSet;
+import denominator.DNSApiManager;
+import denominator.ResourceRecordSetApi;
+import denominator.model.ResourceRecordSet;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Used when the provider cannot send many changes in a single request. Changes are applied one at
+ * a time via {@link ResourceRecordSetApi} or {@link AllProfileResourceRecordSetApi}, depending on
+ * whether the record set is qualified.
+ *
+ * <p/>This is bound by default, in the module which {@link denominator.Providers#provide provides}
+ * the provider, so provider modules need not include it.
+ */
+@Module(injects = DNSApiManager.class, complete = false)
+public class SequentialChangeSets {
+
+  @Provides
+  @Singleton
+  ChangeSet.Factory provideChangeSetFactory(final ResourceRecordSetApi.Factory basicFactory,
+                                            final AllProfileResourceRecordSetApi.Factory factory) {
+    return new ChangeSet.Factory() {
+      @Override
+      public ChangeSet create(String id) {
+        return new SequentialChangeSet(basicFactory.create(id), factory.create(id));
+      }
+    };
+  }
+
+  private static class SequentialChangeSet implements ChangeSet {
+
+    private final ResourceRecordSetApi basicApi;
+    private final AllProfileResourceRecordSetApi api;
+    private final List<Change> changes = new ArrayList<Change>();
+
+    private SequentialChangeSet(ResourceRecordSetApi basicApi, AllProfileResourceRecordSetApi api) {
+      this.basicApi = basicApi;
+      this.api = api;
+    }
+
+    @Override
+    public ChangeSet add(final ResourceRecordSet<?> rrset) {
+      checkNotNull(rrset, "rrset");
+      changes.add(new Change() {
+        @Override
+        public void apply() {
+          checkArgument(!exists(rrset), "rrset %s:%s:%s already exists", rrset.name(),
+                        rrset.type(), rrset.qualifier());
+          put(rrset);
+        }
+      });
+      return this;
+    }
+
+    @Override
+    public ChangeSet replace(final ResourceRecordSet<?> rrset) {
+      checkNotNull(rrset, "rrset");
+      changes.add(new Change() {
+        @Override
+        public void apply() {
+          put(rrset);
+        }
+      });
+      return this;
+    }
+
+    @Override
+    public ChangeSet delete(final String name, final String type) {
+      checkNotNull(name, "name");
+      checkNotNull(type, "type");
+      changes.add(new Change() {
+        @Override
+        public void apply() {
+          api.deleteByNameAndType(name, type);
+        }
+      });
+      return this;
+    }
+
+    @Override
+    public ChangeSet delete(final String name, final String type, final String qualifier) {
+      checkNotNull(name, "name");
+      checkNotNull(type, "type");
+      checkNotNull(qualifier, "qualifier");
+      changes.add(new Change() {
+        @Override
+        public void apply() {
+          api.deleteByNameTypeAndQualifier(name, type, qualifier);
+        }
+      });
+      return this;
+    }
+
+    @Override
+    public void apply() {
+      for (Change change : changes) {
+        change.apply();
+      }
+    }
+
+    private boolean exists(ResourceRecordSet<?> rrset) {
+      if (rrset.qualifier() != null) {
+        return api.getByNameTypeAndQualifier(rrset.name(), rrset.type(), rrset.qualifier()) != null;
+      }
+      return basicApi.getByNameAndType(rrset.name(), rrset.type()) != null;
+    }
+
+    private void put(ResourceRecordSet<?> rrset) {
+      if (rrset.qualifier() != null) {
+        api.put(rrset);
+      } else {
+        basicApi.put(rrset);
+      }
+    }
+
+    private interface Change {
+
+      void apply();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package denominator;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import denominator.Metrics.Call;
+import denominator.Metrics.Snapshot;
+import denominator.mock.MockProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsTest {
+
+  Metrics metrics = new Metrics();
+
+  @Test
+  public void recordsCallsByOperation() throws IOException {
+    Call call = metrics.operation("Route53#listHostedZones()").begin();
+    call.sent(0);
+    InputStream body = call.received(new ByteArrayInputStream(new byte[100]));
+    while (body.read(new byte[30]) != -1) {
+      // drain
+    }
+    call.decoded(Arrays.asList("a.", "b.", "c."));
+    call.end();
+
+    Snapshot snapshot = metrics.snapshot().get("Route53#listHostedZones()");
+    assertThat(snapshot.calls()).isEqualTo(1);
+    assertThat(snapshot.errors()).isZero();
+    assertThat(snapshot.retries()).isZero();
+    assertThat(snapshot.connections()).isZero();
+    assertThat(snapshot.bytesOut()).isZero();
+    assertThat(snapshot.bytesIn()).isEqualTo(100);
+    assertThat(snapshot.records()).isEqualTo(3);
+    assertThat(snapshot.maxMicros()).isGreaterThanOrEqualTo(snapshot.p99Micros());
+  }
+
+  @Test
+  public void requestsAfterTheFirstAreRetries() {
+    Call call = metrics.operation("UltraDNS#getDirectionalPoolsOfZone(String)").begin();
+    call.connected();
+    call.sent(200);
+    call.sent(200);
+    call.connected();
+    call.sent(200);
+    call.failed();
+    call.end();
+
+    Snapshot snapshot = metrics.snapshot().get("UltraDNS#getDirectionalPoolsOfZone(String)");
+    assertThat(snapshot.retries()).isEqualTo(2);
+    assertThat(snapshot.connections()).isEqualTo(2);
+    assertThat(snapshot.bytesOut()).isEqualTo(600);
+    assertThat(snapshot.errors()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsPerCall() {
+    for (int i = 0; i < 4; i++) {
+      Call call = metrics.operation("list").begin();
+      call.decoded(i % 2 == 0 ? Collections.singletonMap("a", "b") : Collections.emptyList());
+      call.decoded("not a list");
+      call.end();
+    }
+
+    assertThat(metrics.snapshot().get("list").recordsPerCall()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void countsRecordsInIterables() {
+    final List<String> names = Arrays.asList("a.", "b.");
+    Call call = metrics.operation("list").begin();
+    call.decoded(new Iterable<String>() { // ex. a page of results, which isn't a collection
+      @Override
+      public Iterator<String> iterator() {
+        return names.iterator();
+      }
+    });
+    call.end();
+
+    assertThat(metrics.snapshot().get("list").records()).isEqualTo(2);
+  }
+
+  @Test
+  public void currentIsScopedToCall() {
+    assertThat(Metrics.current()).isNull();
+
+    Call outer = metrics.operation("outer").begin();
+    Call inner = metrics.operation("inner").begin();
+    assertThat(Metrics.current()).isSameAs(inner);
+
+    inner.end();
+    assertThat(Metrics.current()).isSameAs(outer);
+
+    outer.end();
+    assertThat(Metrics.current()).isNull();
+  }
+
+  @Test
+  public void snapshotSkipsOperationsNotCalled() {
+    metrics.operation("unused");
+    metrics.operation("used").begin().end();
+
+    assertThat(metrics.snapshot()).containsOnlyKeys("used");
+  }
+
+  @Test
+  public void operationIsReused() {
+    assertThat(metrics.operation("a")).isSameAs(metrics.operation("a"));
+  }
+
+  @Test
+  public void toStringIsTable() {
+    metrics.operation("Route53#getHostedZone(String)").begin().end();
+
+    String[] lines = metrics.toString().split(String.format("%n"));
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).startsWith("operation").contains("calls", "connections", "p99", "records");
+    assertThat(lines[1]).startsWith("Route53#getHostedZone(String)");
+  }
+
+  @Test
+  public void managerHasOwnMetrics() {
+    DNSApiManager first = Denominator.create(new MockProvider());
+    DNSApiManager second = Denominator.create(new MockProvider());
+
+    assertThat(first.metrics()).isNotNull().isNotSameAs(second.metrics());
+    assertThat(first.metrics().snapshot()).isEmpty();
+  }
+}
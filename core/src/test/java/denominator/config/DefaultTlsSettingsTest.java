@@ -0,0 +1,99 @@
+package denominator.config;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultTlsSettingsTest {
+
+  DefaultTlsSettings module = new DefaultTlsSettings();
+
+  @Test
+  public void socketFactoryIsSharedAcrossGraphs() {
+    assertThat(module.provideSSLSocketFactory())
+        .isSameAs(new DefaultTlsSettings().provideSSLSocketFactory());
+  }
+
+  @Test
+  public void hostnameVerifierIsSharedAcrossGraphs() {
+    assertThat(module.provideHostnameVerifier())
+        .isSameAs(new DefaultTlsSettings().provideHostnameVerifier());
+  }
+
+  @Test
+  public void delegatesToCurrentDefaultFactory() throws Exception {
+    SSLSocketFactory factory = module.provideSSLSocketFactory();
+    SSLSocketFactory original = HttpsURLConnection.getDefaultSSLSocketFactory();
+    CreateSocketCounter replacement = new CreateSocketCounter(original);
+    HttpsURLConnection.setDefaultSSLSocketFactory(replacement);
+    try {
+      Socket socket = factory.createSocket();
+      socket.close();
+    } finally {
+      HttpsURLConnection.setDefaultSSLSocketFactory(original);
+    }
+
+    assertThat(replacement.created.get()).isEqualTo(1);
+  }
+
+  static final class CreateSocketCounter extends SSLSocketFactory {
+
+    final AtomicInteger created = new AtomicInteger();
+    final SSLSocketFactory delegate;
+
+    CreateSocketCounter(SSLSocketFactory delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+      return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+      created.incrementAndGet();
+      return delegate.createSocket();
+    }
+
+    @Override
+    public Socket createSocket(Socket s, String host, int port, boolean autoClose)
+        throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+                               int localPort) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package denominator.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import denominator.AllProfileResourceRecordSetApi;
+import denominator.DNSApi;
+import denominator.Denominator;
+import denominator.mock.MockProvider;
+import denominator.model.ResourceRecordSet;
+import denominator.model.profile.Weighted;
+import denominator.model.rdata.CNAMEData;
+
+import static denominator.model.ResourceRecordSets.a;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SequentialChangeSetsTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  DNSApi api = Denominator.create(new MockProvider()).api();
+  AllProfileResourceRecordSetApi rrsets = api.recordSetsInZone("denominator.io.");
+
+  @Test
+  public void appliesInOrder() {
+    api.basicRecordSetsInZone("denominator.io.").put(a("www1.denominator.io.", "192.0.2.1"));
+    rrsets.put(weighted("EU-West"));
+    rrsets.put(weighted("US-West"));
+
+    api.changeSetInZone("denominator.io.")
+        .add(a("www2.denominator.io.", "192.0.2.2"))
+        .replace(a("www1.denominator.io.", "198.51.100.1"))
+        .delete("www.weighted.denominator.io.", "CNAME", "EU-West")
+        .delete("www2.denominator.io.", "A")
+        .add(a("www2.denominator.io.", "203.0.113.1"))
+        .apply();
+
+    assertThat(rrsets.iterateByName("www1.denominator.io."))
+        .containsExactly(a("www1.denominator.io.", "198.51.100.1"));
+    assertThat(rrsets.iterateByName("www2.denominator.io."))
+        .containsExactly(a("www2.denominator.io.", "203.0.113.1"));
+    assertThat(rrsets.iterateByName("www.weighted.denominator.io."))
+        .containsExactly(weighted("US-West"));
+  }
+
+  @Test
+  public void nothingHappensUntilApplied() {
+    api.changeSetInZone("denominator.io.").add(a("www3.denominator.io.", "192.0.2.1"));
+
+    assertThat(rrsets.iterateByName("www3.denominator.io.")).isEmpty();
+  }
+
+  @Test
+  public void addExistingFails() {
+    api.basicRecordSetsInZone("denominator.io.").put(a("www4.denominator.io.", "192.0.2.1"));
+
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("rrset www4.denominator.io.:A:null already exists");
+
+    api.changeSetInZone("denominator.io.").add(a("www4.denominator.io.", "192.0.2.2")).apply();
+  }
+
+  static ResourceRecordSet<CNAMEData> weighted(String qualifier) {
+    return ResourceRecordSet.<CNAMEData>builder()
+        .name("www.weighted.denominator.io.")
+        .type("CNAME")
+        .qualifier(qualifier)
+        .weighted(Weighted.create(1))
+        .add(CNAMEData.create("www1.denominator.io.")).build();
+  }
+}
@@ -2,6 +2,7 @@ package denominator.designate;
 
 import com.google.gson.TypeAdapter;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -10,21 +11,29 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
+import denominator.Provider;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.GeoUnsupported;
-import denominator.config.NothingToClose;
 import denominator.config.OnlyBasicResourceRecordSets;
 import denominator.config.WeightedUnsupported;
 import denominator.designate.DesignateAdapters.DomainListAdapter;
 import denominator.designate.DesignateAdapters.RecordAdapter;
 import denominator.designate.DesignateAdapters.RecordListAdapter;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.Target.EmptyTarget;
@@ -76,11 +85,20 @@ public class DesignateProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true, includes = {
-      NothingToClose.class, GeoUnsupported.class, WeightedUnsupported.class,
+      GeoUnsupported.class, WeightedUnsupported.class,
       OnlyBasicResourceRecordSets.class,
       FeignModule.class})
   public static final class Module {
 
+    /**
+     * Releases the http connection pool shared with other managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient;
+    }
+
     @Provides
     CheckConnection checkConnection(LimitsReadable checkConnection) {
       return checkConnection;
@@ -101,7 +119,8 @@ public class DesignateProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DesignateResourceRecordSetApi.Factory.class,
-      complete = false // doesn't bind Provider used by DesignateTarget
+      complete = false, // doesn't bind Provider used by DesignateTarget
+      includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -127,19 +146,72 @@ public class DesignateProvider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Connections open at once, shared by managers in the JVM which use the same url.
+     */
+    @Provides
+    @Named("designate.http.maxConnections")
+    int provideMaxConnections() {
+      return 20;
+    }
+
+    /**
+     * Connections open at once to one host. Override this binding when making more concurrent
+     * requests, such as listing record sets of many zones at a time.
+     */
+    @Provides
+    @Named("designate.http.maxConnectionsPerRoute")
+    int provideMaxConnectionsPerRoute() {
+      return 10;
+    }
+
+    /**
+     * Connections idle longer than this are closed in the background, before the server is likely
+     * to close them.
+     */
+    @Provides
+    @Named("designate.http.idleTimeoutMillis")
+    long provideIdleTimeoutMillis() {
+      return 30000;
+    }
+
+    /**
+     * Keeps connections alive for reuse, sized by the {@code designate.http} bindings.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(Provider provider, SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier,
+                                      @Named("designate.http.maxConnections") int maxConnections,
+                                      @Named("designate.http.maxConnectionsPerRoute") int perRoute,
+                                      @Named("designate.http.idleTimeoutMillis") long idleTimeout) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+                                  maxConnections, perRoute, idleTimeout);
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel, Metrics metrics) {
       RecordAdapter recordAdapter = new RecordAdapter();
       return Feign.builder()
+          .client(new Metering.MeteredClient(client))
+          .invocationHandlerFactory(new Metering(metrics))
           .logger(logger)
           .logLevel(logLevel)
           .encoder(new GsonEncoder(Collections.<TypeAdapter<?>>singleton(recordAdapter)))
-          .decoder(new GsonDecoder(Arrays.asList(
+          .decoder(new Metering.MeteredDecoder(new GsonDecoder(Arrays.asList(
                        new KeystoneV2AccessAdapter(),
                        recordAdapter,
                        new DomainListAdapter(),
-                       new RecordListAdapter()))
+                       new RecordListAdapter())))
           )
           .build();
     }
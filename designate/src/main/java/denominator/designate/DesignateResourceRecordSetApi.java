@@ -14,12 +14,9 @@ import denominator.model.ResourceRecordSet;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
-import static denominator.common.Util.filter;
 import static denominator.common.Util.join;
 import static denominator.common.Util.nextOrNull;
 import static denominator.designate.DesignateFunctions.toRDataMap;
-import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
-import static denominator.model.ResourceRecordSets.nameEqualTo;
 
 class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi {
 
@@ -38,14 +35,16 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
 
   @Override
   public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
-    // TODO: investigate query by name call in designate
-    return filter(iterator(), nameEqualTo(name));
+    checkNotNull(name, "name");
+    return new GroupByRecordNameAndTypeIterator(recordsByNameAndType(name, null).iterator());
   }
 
   @Override
   public ResourceRecordSet<?> getByNameAndType(String name, String type) {
-    // TODO: investigate query by name and type call in designate
-    return nextOrNull(filter(iterator(), nameAndTypeEqualTo(name, type)));
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    return nextOrNull(
+        new GroupByRecordNameAndTypeIterator(recordsByNameAndType(name, type).iterator()));
   }
 
   @Override
@@ -57,22 +56,19 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
         recordsLeftToCreate =
         new ArrayList<Map<String, Object>>(rrset.records());
 
-    for (Record record : api.records(domainId)) {
-      // TODO: name and type filter
-      if (rrset.name().equals(record.name) && rrset.type().equals(record.type)) {
-        Map<String, Object> rdata = toRDataMap(record);
-        if (recordsLeftToCreate.contains(rdata)) {
-          recordsLeftToCreate.remove(rdata);
-          if (rrset.ttl() != null) {
-            if (rrset.ttl().equals(record.ttl)) {
-              continue;
-            }
-            record.ttl = rrset.ttl();
-            api.updateRecord(domainId, record.id, record);
+    for (Record record : recordsByNameAndType(rrset.name(), rrset.type())) {
+      Map<String, Object> rdata = toRDataMap(record);
+      if (recordsLeftToCreate.contains(rdata)) {
+        recordsLeftToCreate.remove(rdata);
+        if (rrset.ttl() != null) {
+          if (rrset.ttl().equals(record.ttl)) {
+            continue;
           }
-        } else {
-          api.deleteRecord(domainId, record.id);
+          record.ttl = rrset.ttl();
+          api.updateRecord(domainId, record.id, record);
         }
+      } else {
+        api.deleteRecord(domainId, record.id);
       }
     }
 
@@ -99,12 +95,27 @@ class DesignateResourceRecordSetApi implements denominator.ResourceRecordSetApi
   public void deleteByNameAndType(String name, String type) {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
+    for (Record record : recordsByNameAndType(name, type)) {
+      api.deleteRecord(domainId, record.id);
+    }
+  }
+
+  /**
+   * The v1 api cannot filter records server-side: its records listing has no query parameters, and
+   * filtering by name and type is only in the v2 recordsets api. This reads the domain once per
+   * call and keeps only the records matching name and type, so that rdata of unrelated records is
+   * never parsed or grouped.
+   *
+   * @param type null means any type.
+   */
+  private List<Record> recordsByNameAndType(String name, String type) {
+    List<Record> result = new ArrayList<Record>();
     for (Record record : api.records(domainId)) {
-      // TODO: name and type filter
-      if (name.equals(record.name) && type.equals(record.type)) {
-        api.deleteRecord(domainId, record.id);
+      if (name.equals(record.name) && (type == null || type.equals(record.type))) {
+        result.add(record);
       }
     }
+    return result;
   }
 
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
@@ -258,4 +258,96 @@ public class DesignateResourceRecordSetApiMockTest {
         .hasMethod("GET")
         .hasPath(format("/v1/domains/%s/records", domainId));
   }
+
+  /**
+   * The v1 api has no name or type query parameters, so each lookup is one read of the domain.
+   */
+  @Test
+  public void getByNameAndTypeReadsDomainOnceAndIgnoresOtherTypes() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId);
+    assertThat(api.getByNameAndType("denominator.io.", "A")).isNull();
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1/domains/%s/records", domainId));
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void iterateByNameReadsDomainOnceAndIgnoresOtherNames() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId);
+    Iterator<ResourceRecordSet<?>> records = api.iterateByName("denominator.io.");
+    assertThat(records.next())
+        .hasName("denominator.io.")
+        .hasType("MX");
+    assertThat(records).isEmpty();
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1/domains/%s/records", domainId));
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void putReadsDomainOnce() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse().setBody(aRecordResponse));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId);
+    api.put(a("www.denominator.io.", 300, Arrays.asList("192.0.2.2", "192.0.2.3")));
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1/domains/%s/records", domainId));
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath(format("/v1/domains/%s/records/%s", domainId,
+                        "d7eb0fc4-e069-4c92-a272-c5c969b4f558"));
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath(format("/v1/domains/%s/records", domainId))
+        .hasBody("{\n"
+                 + "  \"name\": \"www.denominator.io.\",\n"
+                 + "  \"type\": \"A\",\n"
+                 + "  \"ttl\": 300,\n"
+                 + "  \"data\": \"192.0.2.3\"\n"
+                 + "}");
+    assertThat(server.getRequestCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void deleteReadsDomainOnceAndDeletesOnlyMatchingRecords() throws Exception {
+    server.enqueueAuthResponse();
+    server.enqueue(new MockResponse().setBody(recordsResponse));
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse());
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone(domainId);
+    api.deleteByNameAndType("www.denominator.io.", "A");
+
+    server.assertAuthRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath(format("/v1/domains/%s/records", domainId));
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath(format("/v1/domains/%s/records/%s", domainId,
+                        "d7eb0fc4-e069-4c92-a272-c5c969b4f558"));
+    server.assertRequest()
+        .hasMethod("DELETE")
+        .hasPath(format("/v1/domains/%s/records/%s", domainId,
+                        "c538d70e-d65f-4d5a-92a2-cd5d4d1d9da4"));
+    assertThat(server.getRequestCount()).isEqualTo(4);
+  }
 }
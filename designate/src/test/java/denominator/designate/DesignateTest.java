@@ -10,10 +10,12 @@ import java.util.Arrays;
 import java.util.List;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.Provider;
 import denominator.designate.Designate.Record;
 import denominator.designate.KeystoneV2.TokenIdAndPublicURL;
 import denominator.model.Zone;
+import feign.Client;
 import feign.Feign;
 
 import static java.lang.String.format;
@@ -31,7 +33,9 @@ public class DesignateTest {
     server.enqueueAuthResponse();
 
     DesignateProvider.FeignModule module = new DesignateProvider.FeignModule();
-    KeystoneV2 api = module.keystoneV2(module.feign(module.logger(), module.logLevel()));
+    KeystoneV2 api = module.keystoneV2(
+        module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                     new Metrics()));
     TokenIdAndPublicURL tokenIdAndPublicURL = api.passwordAuth(
         URI.create(server.url()), "tenantId", "username", "password");
 
@@ -263,7 +267,8 @@ public class DesignateTest {
 
   Designate mockApi() {
     DesignateProvider.FeignModule module = new DesignateProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
+    Feign feign = module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                               new Metrics());
     KeystoneV2 keystoneV2 = module.keystoneV2(feign);
     Provider provider = new DesignateProvider() {
       @Override
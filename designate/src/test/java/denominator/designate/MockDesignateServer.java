@@ -88,6 +88,10 @@ final class MockDesignateServer extends DesignateProvider implements TestRule {
     delegate.enqueue(mockResponse);
   }
 
+  int getRequestCount() {
+    return delegate.getRequestCount();
+  }
+
   RecordedRequestAssert assertRequest() throws InterruptedException {
     return assertThat(delegate.takeRequest());
   }
@@ -69,11 +69,12 @@ class DynECTAdapters {
 
     @Override
     public Iterator<Record> build(JsonReader reader) throws IOException {
-      JsonArray data = new JsonParser().parse(reader).getAsJsonArray();
       List<Record> records = new ArrayList<Record>();
-      for (JsonElement datum : data) {
-        records.add(ToRecord.INSTANCE.apply(datum));
+      reader.beginArray();
+      while (reader.hasNext()) {
+        records.add(ToRecord.INSTANCE.read(reader));
       }
+      reader.endArray();
       return records.iterator();
     }
   }
@@ -105,10 +106,14 @@ class DynECTAdapters {
         }
       }
       reader.endObject();
+      checkStatus(status);
+      return data;
+    }
+
+    static void checkStatus(String status) {
       if ("incomplete".equals(status)) {
         throw new RetryableException(status, null);
       }
-      return data;
     }
 
     @Override
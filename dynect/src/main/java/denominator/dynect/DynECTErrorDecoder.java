@@ -22,14 +22,22 @@ import static java.lang.System.currentTimeMillis;
 class DynECTErrorDecoder implements ErrorDecoder {
 
   private final AtomicReference<Boolean> sessionValid;
+  private final DynECTRateLimit rateLimit;
 
   @Inject
-  DynECTErrorDecoder(AtomicReference<Boolean> sessionValid) {
+  DynECTErrorDecoder(AtomicReference<Boolean> sessionValid, DynECTRateLimit rateLimit) {
     this.sessionValid = sessionValid;
+    this.rateLimit = rateLimit;
   }
 
   @Override
   public Exception decode(String methodKey, Response response) {
+    if (response.status() == 429) {
+      // slow down all clients of this account before retrying.
+      rateLimit.throttled();
+      FeignException cause = FeignException.errorStatus(methodKey, response);
+      return new RetryableException(cause.getMessage(), cause, null);
+    }
     try {
       JsonReader reader = new JsonReader(response.body().asReader());
       List<Message> messages = new ArrayList<Message>();
@@ -2,6 +2,7 @@ package denominator.dynect;
 
 import com.google.gson.TypeAdapter;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -12,23 +13,31 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
+import denominator.Provider;
 import denominator.QualifiedResourceRecordSetApi;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
 import denominator.config.ConcatBasicAndQualifiedResourceRecordSets;
-import denominator.config.NothingToClose;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.WeightedUnsupported;
 import denominator.dynect.DynECTAdapters.NothingForbiddenAdapter;
 import denominator.dynect.DynECTAdapters.RecordsByNameAndTypeAdapter;
 import denominator.dynect.DynECTAdapters.TokenAdapter;
 import denominator.dynect.DynECTAdapters.ZoneNamesAdapter;
 import denominator.dynect.InvalidatableTokenProvider.Session;
+import denominator.dynect.ResourceRecordSetsDecoder.DeferCloseClient;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
 import denominator.profile.GeoResourceRecordSetApi;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.gson.GsonDecoder;
@@ -91,11 +100,20 @@ public class DynECTProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {
-      NothingToClose.class, WeightedUnsupported.class,
+      WeightedUnsupported.class,
       ConcatBasicAndQualifiedResourceRecordSets.class,
       CountryToRegions.class, FeignModule.class})
   public static final class Module {
 
+    /**
+     * Releases the http connection pool shared with other managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient;
+    }
+
     @Provides
     CheckConnection checkConnection(InvalidatableTokenProvider checkConnection) {
       return checkConnection;
@@ -134,7 +152,8 @@ public class DynECTProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = DynECTResourceRecordSetApi.Factory.class,
-      complete = false // doesn't bind Provider used by SessionTarget
+      complete = false, // doesn't bind Provider used by SessionTarget
+      includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -166,19 +185,87 @@ public class DynECTProvider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Requests per second per user, shared by all managers in the JVM. DynECT doesn't publish a
+     * limit, so requests aren't paced until it responds with status 429, and then only until the
+     * rate recovers to this ceiling. Override this binding to match your account, or set it to zero
+     * to not pace requests.
+     */
+    @Provides
+    @Named("dynect.rateLimit")
+    double provideRateLimit() {
+      return 5;
+    }
+
+    /**
+     * Connections open at once, shared by managers in the JVM which use the same url.
+     */
+    @Provides
+    @Named("dynect.http.maxConnections")
+    int provideMaxConnections() {
+      return 20;
+    }
+
+    /**
+     * Connections open at once to one host. Override this binding when making more concurrent
+     * requests, such as listing record sets of many zones at a time.
+     */
+    @Provides
+    @Named("dynect.http.maxConnectionsPerRoute")
+    int provideMaxConnectionsPerRoute() {
+      return 10;
+    }
+
+    /**
+     * Connections idle longer than this are closed in the background, before the server is likely
+     * to close them.
+     */
+    @Provides
+    @Named("dynect.http.idleTimeoutMillis")
+    long provideIdleTimeoutMillis() {
+      return 30000;
+    }
+
+    /**
+     * Keeps connections alive for reuse, sized by the {@code dynect.http} bindings.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(Provider provider, SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier,
+                                      @Named("dynect.http.maxConnections") int maxConnections,
+                                      @Named("dynect.http.maxConnectionsPerRoute") int perRoute,
+                                      @Named("dynect.http.idleTimeoutMillis") long idleTimeout) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+                                  maxConnections, perRoute, idleTimeout);
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel, DynECTErrorDecoder errorDecoder) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel, DynECTRateLimit rateLimit,
+                DynECTErrorDecoder errorDecoder, Metrics metrics) {
       return Feign.builder()
+          .client(new DeferCloseClient(new Metering.MeteredClient(client)))
+          .invocationHandlerFactory(new Metering(metrics))
           .logger(logger)
           .logLevel(logLevel)
+          .requestInterceptor(rateLimit)
+          .retryer(rateLimit.retryer())
           .encoder(new GsonEncoder())
-          .decoder(new GsonDecoder(Arrays.<TypeAdapter<?>>asList(
-                       new TokenAdapter(),
-                       new NothingForbiddenAdapter(),
-                       new ResourceRecordSetsAdapter(),
-                       new ZoneNamesAdapter(),
-                       new RecordsByNameAndTypeAdapter()))
+          .decoder(new Metering.MeteredDecoder(new ResourceRecordSetsDecoder(
+                       new GsonDecoder(Arrays.<TypeAdapter<?>>asList(
+                           new TokenAdapter(),
+                           new NothingForbiddenAdapter(),
+                           new ZoneNamesAdapter(),
+                           new RecordsByNameAndTypeAdapter()))))
           )
           .errorDecoder(errorDecoder)
           .build();
@@ -0,0 +1,37 @@
+package denominator.dynect;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import denominator.Credentials;
+import denominator.Provider;
+import denominator.feign.RateLimit;
+
+/**
+ * Paces requests per customer and user once DynECT responds with status 429.
+ */
+final class DynECTRateLimit extends RateLimit {
+
+  /**
+   * @param permitsPerSecond ceiling of the rate once throttled, or zero to not pace requests.
+   */
+  @Inject
+  DynECTRateLimit(Provider provider, javax.inject.Provider<Credentials> credentials,
+                  @Named("dynect.rateLimit") double permitsPerSecond) {
+    super(provider, credentials, permitsPerSecond, false);
+  }
+
+  @Override
+  protected Object account(Credentials credentials) {
+    if (credentials instanceof Map) {
+      return Map.class.cast(credentials).get("customer") + " "
+             + Map.class.cast(credentials).get("username");
+    } else if (credentials instanceof List) {
+      return List.class.cast(credentials).get(0) + " " + List.class.cast(credentials).get(1);
+    }
+    return null;
+  }
+}
@@ -1,5 +1,6 @@
 package denominator.dynect;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -16,6 +17,7 @@ import feign.FeignException;
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
 import static denominator.common.Util.nextOrNull;
+import static feign.Util.ensureClosed;
 import static java.lang.String.format;
 
 public final class DynECTResourceRecordSetApi implements denominator.ResourceRecordSetApi {
@@ -70,7 +72,13 @@ public final class DynECTResourceRecordSetApi implements denominator.ResourceRec
         return api.rrsetsInZoneByNameAndType(zone, name, type).data;
       }
     });
-    return nextOrNull(rrset);
+    try {
+      return nextOrNull(rrset);
+    } finally {
+      if (rrset instanceof Closeable) {
+        ensureClosed((Closeable) rrset);
+      }
+    }
   }
 
   @Override
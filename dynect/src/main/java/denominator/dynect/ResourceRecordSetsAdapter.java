@@ -1,70 +1,174 @@
 package denominator.dynect;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import denominator.common.PeekingIterator;
+import denominator.dynect.DynECT.Data;
 import denominator.dynect.DynECT.Record;
 import denominator.dynect.DynECTAdapters.DataAdapter;
 import denominator.model.ResourceRecordSet;
 import denominator.model.ResourceRecordSet.Builder;
 
 import static denominator.common.Util.peekingIterator;
+import static feign.Util.ensureClosed;
 
+/**
+ * Decodes records as they are read from the stream, grouping them into rrsets as soon as their
+ * name and type change. Unlike parsing into a {@link com.google.gson.JsonElement} tree, only the
+ * rrset being built is retained.
+ *
+ * <p/>The rrsets are decoded as they are iterated: {@link #read(JsonReader)} returns once it
+ * reaches {@code data}, and the iterator closes the reader when exhausted. Feign 8 closes each
+ * response once decoded, so this is used by {@link ResourceRecordSetsDecoder}, as opposed to
+ * registered with gson.
+ */
 class ResourceRecordSetsAdapter extends DataAdapter<Iterator<ResourceRecordSet<?>>> {
 
-  private static boolean fqdnAndTypeEquals(JsonObject current, JsonObject next) {
-    return current.get("fqdn").equals(next.get("fqdn"))
-           && current.get("record_type").equals(next.get("record_type"));
+  /**
+   * Reads the envelope until {@code data}, leaving the rest to the returned iterator. DynECT writes
+   * {@code status} first, so incomplete jobs are still retried.
+   */
+  @Override
+  public Data<Iterator<ResourceRecordSet<?>>> read(JsonReader reader) throws IOException {
+    Data<Iterator<ResourceRecordSet<?>>> data = new Data<Iterator<ResourceRecordSet<?>>>();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String nextName = reader.nextName();
+      if ("data".equals(nextName) && reader.peek() != JsonToken.NULL) {
+        data.data = build(reader);
+        return data;
+      } else if ("status".equals(nextName)) {
+        checkStatus(reader.nextString());
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    reader.close();
+    return data;
   }
 
   @Override
-  public Iterator<ResourceRecordSet<?>> build(JsonReader reader) throws IOException {
-    JsonElement data;
-    try {
-      data = new JsonParser().parse(reader);
-    } catch (JsonIOException e) {
-      if (e.getCause() != null && e.getCause() instanceof IOException) {
-        throw IOException.class.cast(e.getCause());
+  protected Iterator<ResourceRecordSet<?>> build(JsonReader reader) throws IOException {
+    return new LazyRecordSets(reader);
+  }
+
+  /**
+   * Holds the response open until exhausted or closed. Callers which stop early should close it, so
+   * that its connection can be reused.
+   */
+  static final class LazyRecordSets extends PeekingIterator<ResourceRecordSet<?>>
+      implements Closeable {
+
+    private final JsonReader reader;
+    private final Iterator<ResourceRecordSet<?>> grouped;
+
+    LazyRecordSets(JsonReader reader) throws IOException {
+      this.reader = reader;
+      this.grouped = new GroupByRecordNameAndTypeIterator(new RecordIterator(reader));
+    }
+
+    @Override
+    protected ResourceRecordSet<?> computeNext() {
+      try {
+        if (grouped.hasNext()) {
+          return grouped.next();
+        }
+        // skip the rest of the envelope, such as msgs
+        while (reader.hasNext()) {
+          reader.nextName();
+          reader.skipValue();
+        }
+        reader.endObject();
+        close();
+        return endOfData();
+      } catch (IOException e) {
+        ensureClosed(this);
+        throw new JsonIOException(e);
+      } catch (RuntimeException e) {
+        ensureClosed(this);
+        throw e;
       }
-      throw e;
     }
 
-    // there are 2 forms for record responses: an array of same type, or a
-    // map per type.
-    if (data.isJsonArray()) {
-      return new GroupByRecordNameAndTypeIterator(data.getAsJsonArray().iterator());
-    } else if (data.isJsonObject()) {
-      List<JsonElement> elements = new ArrayList<JsonElement>();
-      for (Entry<String, JsonElement> entry : data.getAsJsonObject().entrySet()) {
-        if (entry.getValue() instanceof JsonArray) {
-          for (JsonElement element : entry.getValue().getAsJsonArray()) {
-            elements.add(element);
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+
+  /**
+   * there are 2 forms for record responses: an array of same type, or a map per type.
+   */
+  static class RecordIterator extends PeekingIterator<Record> {
+
+    private final JsonReader reader;
+    private final boolean mapPerType;
+    private boolean inArray;
+
+    RecordIterator(JsonReader reader) throws IOException {
+      this.reader = reader;
+      JsonToken token = reader.peek();
+      if (token == JsonToken.BEGIN_ARRAY) {
+        reader.beginArray();
+        mapPerType = false;
+        inArray = true;
+      } else if (token == JsonToken.BEGIN_OBJECT) {
+        reader.beginObject();
+        mapPerType = true;
+      } else {
+        throw new IllegalStateException("unknown format: " + token);
+      }
+    }
+
+    @Override
+    protected Record computeNext() {
+      try {
+        while (true) {
+          if (inArray) {
+            if (reader.hasNext()) {
+              if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+              }
+              return ToRecord.INSTANCE.read(reader);
+            }
+            reader.endArray();
+            inArray = false;
+            if (!mapPerType) {
+              return endOfData();
+            }
+          }
+          if (!reader.hasNext()) {
+            reader.endObject();
+            return endOfData();
+          }
+          reader.nextName();
+          if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            inArray = true;
+          } else {
+            reader.skipValue();
           }
         }
+      } catch (IOException e) {
+        throw new JsonIOException(e);
       }
-      return new GroupByRecordNameAndTypeIterator(elements.iterator());
-    } else {
-      throw new IllegalStateException("unknown format: " + data);
     }
   }
 
   static class GroupByRecordNameAndTypeIterator extends PeekingIterator<ResourceRecordSet<?>> {
 
-    private final PeekingIterator<JsonElement> peekingIterator;
+    private final PeekingIterator<Record> peekingIterator;
 
-    public GroupByRecordNameAndTypeIterator(Iterator<JsonElement> sortedIterator) {
+    public GroupByRecordNameAndTypeIterator(Iterator<Record> sortedIterator) {
       this.peekingIterator = peekingIterator(sortedIterator);
     }
 
@@ -73,20 +177,16 @@ class ResourceRecordSetsAdapter extends DataAdapter<Iterator<ResourceRecordSet<?
       if (!peekingIterator.hasNext()) {
         return endOfData();
       }
-      JsonElement current = peekingIterator.next();
-      Record record = ToRecord.INSTANCE.apply(current);
+      Record current = peekingIterator.next();
       Builder<Map<String, Object>>
           builder =
-          ResourceRecordSet.builder().name(record.name).type(record.type)
-              .ttl(record.ttl).add(record.rdata);
+          ResourceRecordSet.builder().name(current.name).type(current.type)
+              .ttl(current.ttl).add(current.rdata);
       while (peekingIterator.hasNext()) {
-        JsonElement next = peekingIterator.peek();
-        if (next == null || next.isJsonNull()) {
-          continue;
-        }
-        if (fqdnAndTypeEquals(current.getAsJsonObject(), next.getAsJsonObject())) {
+        Record next = peekingIterator.peek();
+        if (current.name.equals(next.name) && current.type.equals(next.type)) {
           peekingIterator.next();
-          builder.add(ToRecord.INSTANCE.apply(next).rdata);
+          builder.add(next.rdata);
         } else {
           break;
         }
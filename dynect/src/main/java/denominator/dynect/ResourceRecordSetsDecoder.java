@@ -0,0 +1,134 @@
+package denominator.dynect;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import denominator.dynect.DynECT.Data;
+import denominator.model.ResourceRecordSet;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+
+import static feign.Util.ensureClosed;
+
+/**
+ * Decodes record set listings with {@link ResourceRecordSetsAdapter}, so that they are read as
+ * they are iterated. Other types are decoded by the delegate.
+ *
+ * <p/>Feign 8 closes each response once decoded, which would read the rest of a listing before it
+ * is returned. Responses from {@link DeferCloseClient} let this decoder take over their body, which
+ * the iterator closes when exhausted.
+ */
+final class ResourceRecordSetsDecoder implements Decoder {
+
+  static final Type RRSETS = new TypeToken<Data<Iterator<ResourceRecordSet<?>>>>() {
+  }.getType();
+
+  private final ResourceRecordSetsAdapter adapter = new ResourceRecordSetsAdapter();
+  private final Decoder delegate;
+
+  ResourceRecordSetsDecoder(Decoder delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException {
+    if (!RRSETS.equals(type) || !(response.body() instanceof DeferredCloseBody)) {
+      return delegate.decode(response, type);
+    }
+    DeferredCloseBody body = (DeferredCloseBody) response.body();
+    JsonReader reader = new JsonReader(body.asReader());
+    try {
+      Data<Iterator<ResourceRecordSet<?>>> result = adapter.read(reader);
+      body.detach();
+      return result;
+    } catch (JsonIOException e) {
+      ensureClosed(reader);
+      if (e.getCause() != null && e.getCause() instanceof IOException) {
+        throw IOException.class.cast(e.getCause());
+      }
+      throw e;
+    } catch (IOException e) {
+      ensureClosed(reader);
+      throw e;
+    } catch (RuntimeException e) {
+      ensureClosed(reader);
+      throw e;
+    }
+  }
+
+  /**
+   * Wraps response bodies so that feign's close can be deferred to whoever {@link
+   * DeferredCloseBody#detach() detaches} them.
+   */
+  static final class DeferCloseClient implements Client {
+
+    private final Client delegate;
+
+    DeferCloseClient(Client delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+      Response response = delegate.execute(request, options);
+      if (response.body() == null) {
+        return response;
+      }
+      return Response.create(response.status(), response.reason(), response.headers(),
+                             new DeferredCloseBody(response.body()));
+    }
+  }
+
+  static final class DeferredCloseBody implements Response.Body {
+
+    private final Response.Body delegate;
+    private volatile boolean detached;
+
+    DeferredCloseBody(Response.Body delegate) {
+      this.delegate = delegate;
+    }
+
+    /**
+     * Ignores subsequent calls to {@link #close()}, leaving the caller to close the stream it read.
+     */
+    void detach() {
+      detached = true;
+    }
+
+    @Override
+    public Integer length() {
+      return delegate.length();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return delegate.isRepeatable();
+    }
+
+    @Override
+    public InputStream asInputStream() throws IOException {
+      return delegate.asInputStream();
+    }
+
+    @Override
+    public Reader asReader() throws IOException {
+      return delegate.asReader();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!detached) {
+        delegate.close();
+      }
+    }
+  }
+}
@@ -2,8 +2,12 @@ package denominator.dynect;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -81,16 +85,36 @@ enum ToRecord {
     }
   }
 
-  public Record apply(JsonElement element) {
-    JsonObject current = element.getAsJsonObject();
+  /**
+   * Reads the next record object from the stream. Only the rdata object is parsed into a tree, as
+   * it may precede {@code record_type}.
+   */
+  public Record read(JsonReader reader) throws IOException {
     Record record = new Record();
-    record.id = current.get("record_id").getAsLong();
-    record.serviceClass =
-        current.has("service_class") ? current.get("service_class").getAsString() : null;
-    record.name = current.get("fqdn").getAsString();
-    record.type = current.get("record_type").getAsString();
-    record.ttl = current.get("ttl").getAsInt();
-    record.rdata = toRData(record.type, current.get("rdata").getAsJsonObject());
+    JsonObject rdata = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String nextName = reader.nextName();
+      if (reader.peek() == JsonToken.NULL) {
+        reader.nextNull();
+      } else if ("record_id".equals(nextName)) {
+        record.id = reader.nextLong();
+      } else if ("service_class".equals(nextName)) {
+        record.serviceClass = reader.nextString();
+      } else if ("fqdn".equals(nextName)) {
+        record.name = reader.nextString();
+      } else if ("record_type".equals(nextName)) {
+        record.type = reader.nextString();
+      } else if ("ttl".equals(nextName)) {
+        record.ttl = reader.nextInt();
+      } else if ("rdata".equals(nextName)) {
+        rdata = new JsonParser().parse(reader).getAsJsonObject();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    record.rdata = toRData(record.type, rdata);
     return record;
   }
 }
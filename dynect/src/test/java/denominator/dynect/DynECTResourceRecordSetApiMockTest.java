@@ -11,6 +11,7 @@ import java.io.InputStreamReader;
 import java.util.Arrays;
 import java.util.Iterator;
 
+import denominator.DNSApiManager;
 import denominator.ResourceRecordSetApi;
 import denominator.common.Util;
 import denominator.model.ResourceRecordSet;
@@ -211,6 +212,92 @@ public class DynECTResourceRecordSetApiMockTest {
         .hasPath("/AllRecord/denominator.io?detail=Y");
   }
 
+  /**
+   * Records are grouped as they are read, so large zones are decoded without a json tree.
+   */
+  @Test
+  public void listLargeZone() throws Exception {
+    int rrsetCount = 10000;
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setChunkedBody(largeZone(rrsetCount), 8192));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io");
+    Iterator<ResourceRecordSet<?>> iterator = api.iterator();
+    for (int i = 0; i < rrsetCount; i++) {
+      assertThat(iterator.next())
+          .isEqualTo(a("www" + i + ".denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")));
+    }
+    assertThat(iterator).isEmpty();
+
+    server.assertSessionRequest();
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/AllRecord/denominator.io?detail=Y");
+  }
+
+  /**
+   * The first rrset is returned after reading only the start of the body, and the rest is read as
+   * the iterator advances.
+   */
+  @Test
+  public void listIsDecodedAsItIsIterated() throws Exception {
+    String body = largeZone(10000);
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(body));
+
+    DNSApiManager manager = server.connect();
+    Iterator<ResourceRecordSet<?>> iterator =
+        manager.api().basicRecordSetsInZone("denominator.io").iterator();
+
+    assertThat(iterator.next())
+        .isEqualTo(a("www0.denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")));
+    long bytesIn = manager.metrics().snapshot().get("DynECT#rrsets(String)").bytesIn();
+    assertThat(bytesIn).isLessThan(body.length() / 10);
+
+    while (iterator.hasNext()) {
+      iterator.next();
+    }
+    bytesIn = manager.metrics().snapshot().get("DynECT#rrsets(String)").bytesIn();
+    assertThat(bytesIn).isEqualTo(body.length());
+  }
+
+  /**
+   * Reusing the connection for the next request shows the first response was closed.
+   */
+  @Test
+  public void getByNameAndTypeClosesResponse() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(largeZone(10)));
+    server.enqueue(new MockResponse().setBody(largeZone(10)));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io");
+    assertThat(api.getByNameAndType("www0.denominator.io", "A"))
+        .isEqualTo(a("www0.denominator.io", 3600, Arrays.asList("192.0.2.1", "192.0.2.2")));
+    assertThat(api.getByNameAndType("www0.denominator.io", "A")).isNotNull();
+
+    server.assertSessionRequest();
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(2);
+  }
+
+  static String largeZone(int rrsetCount) {
+    StringBuilder body = new StringBuilder("{\"status\": \"success\", \"data\": {");
+    body.append("\"cname_records\": [], \"a_records\": [");
+    for (int i = 0; i < rrsetCount; i++) {
+      for (int j = 1; j <= 2; j++) {
+        if (i > 0 || j > 1) {
+          body.append(',');
+        }
+        body.append("{\"zone\": \"denominator.io\", \"ttl\": 3600, ")
+            .append("\"fqdn\": \"www").append(i).append(".denominator.io\", ")
+            .append("\"record_type\": \"A\", \"rdata\": {\"address\": \"192.0.2.").append(j)
+            .append("\"}, \"record_id\": ").append(i * 2 + j).append('}');
+      }
+    }
+    body.append("]}, \"job_id\": 1, \"msgs\": []}");
+    return body.toString();
+  }
+
   @Test
   public void listWhenAbsent() throws Exception {
     thrown.expect(IllegalArgumentException.class);
@@ -8,7 +8,9 @@ import org.junit.Test;
 import java.util.concurrent.atomic.AtomicReference;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.dynect.InvalidatableTokenProvider.Session;
+import feign.Client;
 import feign.Feign;
 import feign.RetryableException;
 
@@ -81,6 +83,17 @@ public class DynECTTest {
     server.assertRequest().hasMethod("GET").hasPath("/Zone");
   }
 
+  @Test
+  public void tooManyRequestsRetries() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(429));
+    server.enqueue(new MockResponse().setBody(zones));
+
+    assertThat(mockApi().zones().data).containsExactly("denominator.io");
+
+    server.assertRequest().hasMethod("GET").hasPath("/Zone");
+    server.assertRequest().hasMethod("GET").hasPath("/Zone");
+  }
+
   @Test
   public void runningRetries() throws Exception {
     server.enqueue(new MockResponse().setResponseCode(400).setBody(running));
@@ -123,7 +136,7 @@ public class DynECTTest {
       failBecauseExceptionWasNotThrown(RetryableException.class);
     } catch (RetryableException re) {
       assertThat(System.currentTimeMillis() - start)
-          .isBetween(4000l, 5100l); // roughly 1 second per try, max 5 seconds.
+          .isBetween(4000l, 7850l); // 1 second per try, plus up to 250ms jitter doubling per try.
       DynECTException e = (DynECTException) re.getCause();
       assertThat(e)
           .hasMessage(
@@ -175,8 +188,11 @@ public class DynECTTest {
 
     };
     AtomicReference<Boolean> sessionValid = module.sessionValid();
-    DynECTErrorDecoder errorDecoder = new DynECTErrorDecoder(sessionValid);
-    Feign feign = module.feign(module.logger(), module.logLevel(), errorDecoder);
+    DynECTRateLimit rateLimit =
+        new DynECTRateLimit(provider, credentials, module.provideRateLimit());
+    DynECTErrorDecoder errorDecoder = new DynECTErrorDecoder(sessionValid, rateLimit);
+    Feign feign = module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                               rateLimit, errorDecoder, new Metrics());
     Session sessionApi = feign.newInstance(new SessionTarget(provider));
     InvalidatableTokenProvider
         tokenProvider =
@@ -2,6 +2,7 @@ package denominator.dynect;
 
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
@@ -84,6 +85,10 @@ final class MockDynECTServer extends DynECTProvider implements TestRule {
     return assertThat(delegate.takeRequest());
   }
 
+  RecordedRequest takeRequest() throws InterruptedException {
+    return delegate.takeRequest();
+  }
+
   RecordedRequestAssert assertSessionRequest() throws InterruptedException {
     return assertThat(delegate.takeRequest())
         .hasMethod("POST")
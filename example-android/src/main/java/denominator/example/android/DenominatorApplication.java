@@ -16,6 +16,7 @@ import dagger.ObjectGraph;
 import dagger.Provides;
 import denominator.Credentials;
 import denominator.Provider;
+import denominator.config.SequentialChangeSets;
 import denominator.example.android.ui.PreferencesActivity;
 import denominator.example.android.zone.ZoneListModule;
 import denominator.ultradns.UltraDNSProvider;
@@ -60,7 +61,7 @@ public class DenominatorApplication extends Application {
   /**
    * Here's where to change for a different provider
    */
-  @Module(includes = UltraDNSProvider.Module.class, complete = false)
+  @Module(includes = {UltraDNSProvider.Module.class, SequentialChangeSets.class}, complete = false)
   static final class DenominatorProvider {
 
     @Provides
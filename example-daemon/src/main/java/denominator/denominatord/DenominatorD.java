@@ -1,8 +1,9 @@
 package denominator.denominatord;
 
-import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.sun.net.httpserver.HttpServer;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Formatter;
 import java.util.logging.Handler;
@@ -27,25 +28,56 @@ public class DenominatorD {
 
   private static final String SYNTAX = "syntax: provider credentialArg1 credentialArg2 ...";
   private static final Logger log = Logger.getLogger(DenominatorD.class.getName());
+  static final int DEFAULT_CONCURRENCY = 16;
 
-  private final MockWebServer server;
+  private final WorkerPool pool;
+  private final DenominatorDispatcher dispatcher;
+  private HttpServer server;
 
   public DenominatorD(DNSApiManager mgr) {
-    this.server = new MockWebServer();
-    server.setDispatcher(new DenominatorDispatcher(mgr, new JsonCodec()));
+    this(mgr, true);
   }
 
+  /**
+   * @param prettyPrint false to emit compact json, which is smaller on the wire.
+   */
+  public DenominatorD(DNSApiManager mgr, boolean prettyPrint) {
+    this(mgr, prettyPrint, DEFAULT_CONCURRENCY);
+  }
+
+  /**
+   * @param prettyPrint false to emit compact json, which is smaller on the wire.
+   * @param concurrency maximum count of requests processed at the same time. Others are queued.
+   */
+  public DenominatorD(DNSApiManager mgr, boolean prettyPrint, int concurrency) {
+    this.pool = new WorkerPool(concurrency);
+    this.dispatcher = new DenominatorDispatcher(mgr, new JsonCodec(prettyPrint), pool);
+  }
+
+  /**
+   * Starts on an ephemeral port.
+   *
+   * @return the port the server is listening on.
+   */
   public int start() throws IOException {
-    server.start();
-    return server.getPort();
+    start(0);
+    return server.getAddress().getPort();
   }
 
   public void start(int port) throws IOException {
-    server.start(port);
+    server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.createContext("/", dispatcher);
+    server.setExecutor(pool);
+    server.start();
+    log.info("denominatord[" + server.getAddress().getPort() + "] starting to accept connections");
   }
 
   public void shutdown() throws IOException {
-    server.shutdown();
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    pool.shutdownNow();
   }
 
   /**
@@ -61,8 +93,13 @@ public class DenominatorD {
     log.info("proxying " + provider);
     Object credentials = credentialsFromArgs(args);
 
+    boolean prettyPrint = !"false".equals(System.getenv("DENOMINATORD_PRETTY_PRINT"));
+    String concurrencyOverride = System.getenv("DENOMINATORD_CONCURRENCY");
+    int concurrency = concurrencyOverride != null ? Integer.parseInt(concurrencyOverride)
+                                                  : DEFAULT_CONCURRENCY;
+
     DNSApiManager mgr = Denominator.create(provider, credentials, new JavaLogger());
-    new DenominatorD(mgr).start(port);
+    new DenominatorD(mgr, prettyPrint, concurrency).start(port);
   }
 
   static Object credentialsFromArgs(String[] args) {
@@ -105,8 +142,7 @@ public class DenominatorD {
 
     Logger[] loggers = {
         Logger.getLogger(DenominatorD.class.getPackage().getName()),
-        Logger.getLogger(feign.Logger.class.getName()),
-        Logger.getLogger(MockWebServer.class.getName())
+        Logger.getLogger(feign.Logger.class.getName())
     };
 
     for (Logger logger : loggers) {
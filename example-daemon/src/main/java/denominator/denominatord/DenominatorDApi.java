@@ -1,6 +1,7 @@
 package denominator.denominatord;
 
 import java.util.List;
+import java.util.Map;
 
 import denominator.model.ResourceRecordSet;
 import denominator.model.Zone;
@@ -19,6 +20,9 @@ public interface DenominatorDApi {
   @RequestLine("GET /healthcheck")
   Response healthcheck();
 
+  @RequestLine("GET /stats")
+  Map<String, Integer> stats();
+
   @RequestLine("GET /zones")
   List<Zone> zones();
 
@@ -1,46 +1,165 @@
 package denominator.denominatord;
 
-import com.squareup.okhttp.mockwebserver.Dispatcher;
-import com.squareup.okhttp.mockwebserver.MockResponse;
-import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
 
 import denominator.DNSApiManager;
+import denominator.model.Zone;
 
+import static denominator.denominatord.HttpExchanges.path;
+import static denominator.denominatord.HttpExchanges.respond;
+import static denominator.denominatord.HttpExchanges.responded;
 import static denominator.denominatord.RecordSetDispatcher.RECORDSET_PATTERN;
+import static feign.Util.toByteArray;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 
-public class DenominatorDispatcher extends Dispatcher {
+public class DenominatorDispatcher implements HttpHandler {
 
+  private final Logger log = Logger.getLogger(DenominatorDispatcher.class.getName());
   private final DNSApiManager mgr;
-  private final Dispatcher zones;
-  private final Dispatcher recordSets;
+  private final JsonCodec codec;
+  private final WorkerPool pool;
+  private final ZoneWriters writers;
+  private final HttpHandler zones;
+  private final HttpHandler recordSets;
+  private final AtomicInteger inFlight = new AtomicInteger();
 
-  DenominatorDispatcher(DNSApiManager mgr, JsonCodec codec) {
+  DenominatorDispatcher(DNSApiManager mgr, JsonCodec codec, WorkerPool pool) {
     this.mgr = mgr;
+    this.codec = codec;
+    this.pool = pool;
+    this.writers = new ZoneWriters(mgr.api().zones(), pool);
     this.zones = new ZoneDispatcher(mgr.api().zones(), codec);
     this.recordSets = new RecordSetDispatcher(mgr, codec);
   }
 
+  /**
+   * Requests are in flight until their response is sent, including writes waiting for others to
+   * the same zone. Those waiting for a worker are counted by the queue depth.
+   */
+  Map<String, Integer> stats() {
+    Map<String, Integer> stats = new LinkedHashMap<String, Integer>();
+    stats.put("concurrency", pool.concurrency());
+    stats.put("inFlight", inFlight.get());
+    stats.put("queueDepth", pool.queueDepth());
+    return stats;
+  }
+
+  /**
+   * Writes are handed to {@link ZoneWriters}, which runs them here unless the zone is being
+   * written. Otherwise, this returns and the write responds once those before it complete.
+   */
   @Override
-  public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+  public void handle(final HttpExchange exchange) throws IOException {
+    final long s = currentTimeMillis();
+    inFlight.incrementAndGet();
+    String zoneId;
     try {
-      if ("/healthcheck".equals(request.getPath())) {
-        if (!request.getMethod().equals("GET")) {
-          return new MockResponse().setResponseCode(405);
+      zoneId = zoneToWrite(exchange);
+    } catch (RuntimeException e) {
+      process(exchange, s, e);
+      return;
+    }
+    if (zoneId == null) {
+      process(exchange, s, null);
+      return;
+    }
+    writers.execute(zoneId, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          process(exchange, s, null);
+        } catch (IOException e) {
+          log.log(Level.WARNING, "failed to respond to " + path(exchange), e);
         }
-        return new MockResponse().setResponseCode(mgr.checkConnection() ? 200 : 503);
-      } else if (RECORDSET_PATTERN.matcher(request.getPath()).matches()) {
-        return recordSets.dispatch(request);
-      } else if (request.getPath() != null && request.getPath().startsWith("/zones")) {
-        return zones.dispatch(request);
+      }
+    });
+  }
+
+  /**
+   * Returns the id of the zone a request writes, or null if it only reads. A zone {@code PUT} is
+   * parsed to find its zone, so its body is buffered for {@link ZoneDispatcher} to read again.
+   */
+  private String zoneToWrite(HttpExchange exchange) throws IOException {
+    String method = exchange.getRequestMethod();
+    if (!method.equals("PUT") && !method.equals("DELETE")) {
+      return null;
+    }
+    String path = path(exchange);
+    Matcher recordSetsInZone = RECORDSET_PATTERN.matcher(path);
+    if (recordSetsInZone.matches()) {
+      return recordSetsInZone.group(1);
+    } else if (!path.startsWith("/zones")) {
+      return null;
+    } else if (method.equals("DELETE")) {
+      String zoneId = path.replace("/zones/", "");
+      writers.forget(zoneId);
+      return zoneId;
+    }
+    byte[] body = toByteArray(exchange.getRequestBody());
+    exchange.setStreams(new ByteArrayInputStream(body), null);
+    Zone zone;
+    try {
+      zone = codec.readJson(exchange, Zone.class);
+    } catch (RuntimeException e) {
+      zone = null; // reported when the request is processed
+    } finally {
+      exchange.setStreams(new ByteArrayInputStream(body), null);
+    }
+    return zone != null && zone.name() != null ? writers.zoneId(zone) : null;
+  }
+
+  /**
+   * Dispatches the request, unless it already failed, and responds with any error. Then closes the
+   * exchange.
+   */
+  private void process(HttpExchange exchange, long s, RuntimeException failure)
+      throws IOException {
+    String path = path(exchange);
+    try {
+      if (failure != null) {
+        throw failure;
+      }
+      if ("/healthcheck".equals(path)) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+          respond(exchange, 405);
+          return;
+        }
+        respond(exchange, mgr.checkConnection() ? 200 : 503);
+      } else if ("/stats".equals(path)) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+          respond(exchange, 405);
+          return;
+        }
+        codec.toJson(exchange, stats());
+      } else if (RECORDSET_PATTERN.matcher(path).matches()) {
+        recordSets.handle(exchange);
+      } else if (path.startsWith("/zones")) {
+        zones.handle(exchange);
       } else {
-        return new MockResponse().setResponseCode(404);
+        respond(exchange, 404);
       }
-    } catch (InterruptedException e) {
-      throw e;
     } catch (RuntimeException e) {
-      return new MockResponse().setResponseCode(e instanceof IllegalArgumentException ? 400 : 500)
-          .addHeader("Content-Type", "text/plain")
-          .setBody(e.getMessage() + "\n"); // curl nice
+      if (responded(exchange)) { // too late to change the status, so drop the connection.
+        throw e;
+      }
+      respond(exchange, e instanceof IllegalArgumentException ? 400 : 500, e.getMessage());
+    } finally {
+      inFlight.decrementAndGet();
+      exchange.close();
+      log.info(format("received request: %s %s and responded: %s in %sms",
+                      exchange.getRequestMethod(), path, exchange.getResponseCode(),
+                      currentTimeMillis() - s));
     }
   }
 }
@@ -0,0 +1,59 @@
+package denominator.denominatord;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+
+/**
+ * Utilities for writing responses to an {@link HttpExchange}.
+ */
+final class HttpExchanges {
+
+  /**
+   * Returns the path and query of the request, ex. {@code /zones?name=denominator.io.}
+   */
+  static String path(HttpExchange exchange) {
+    URI uri = exchange.getRequestURI();
+    return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+  }
+
+  /**
+   * Sends a response without a body.
+   */
+  static void respond(HttpExchange exchange, int code) throws IOException {
+    exchange.sendResponseHeaders(code, -1);
+  }
+
+  /**
+   * Sends a plain text response, with a trailing newline as curl users expect.
+   */
+  static void respond(HttpExchange exchange, int code, String text) throws IOException {
+    byte[] body = utf8(text + "\n");
+    exchange.getResponseHeaders().set("Content-Type", "text/plain");
+    exchange.sendResponseHeaders(code, body.length);
+    OutputStream out = exchange.getResponseBody();
+    out.write(body);
+    out.close();
+  }
+
+  /**
+   * Returns true when a response status was sent, so it is too late to respond with an error.
+   */
+  static boolean responded(HttpExchange exchange) {
+    return exchange.getResponseCode() != -1;
+  }
+
+  private static byte[] utf8(String text) {
+    try {
+      return text.getBytes("UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private HttpExchanges() {
+  }
+}
@@ -3,33 +3,90 @@ package denominator.denominatord;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
 
-import com.squareup.okhttp.mockwebserver.MockResponse;
-import com.squareup.okhttp.mockwebserver.RecordedRequest;
-
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
 
 class JsonCodec {
 
   private final Gson json;
+  private final boolean prettyPrint;
 
   JsonCodec() {
-    this.json = new GsonBuilder().setPrettyPrinting().create();
+    this(true);
+  }
+
+  /**
+   * @param prettyPrint false writes compact json, which is smaller and faster to write.
+   */
+  JsonCodec(boolean prettyPrint) {
+    this.json = new GsonBuilder().create();
+    this.prettyPrint = prettyPrint;
   }
 
-  <T> T readJson(RecordedRequest request, Class<T> clazz) {
-    return json.fromJson(request.getUtf8Body(), clazz);
+  <T> T readJson(HttpExchange exchange, Class<T> clazz) throws IOException {
+    Reader reader = new InputStreamReader(exchange.getRequestBody(), "UTF-8");
+    try {
+      return json.fromJson(reader, clazz);
+    } finally {
+      reader.close();
+    }
   }
 
-  <T> MockResponse toJsonArray(Iterator<T> elements) {
+  void toJson(HttpExchange exchange, Object value) throws IOException {
+    StringWriter buffer = new StringWriter();
+    JsonWriter writer = new JsonWriter(buffer);
+    if (prettyPrint) {
+      writer.setIndent("  ");
+    }
+    json.toJson(value, value.getClass(), writer);
+    writer.flush();
+    if (prettyPrint) {
+      buffer.write('\n'); // curl nice
+    }
+    byte[] body = buffer.toString().getBytes("UTF-8");
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    OutputStream out = exchange.getResponseBody();
+    try {
+      out.write(body);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Streams each element to the client as it is read from the iterator, using chunked transfer
+   * encoding. The response is gzipped when the client accepts it.
+   */
+  <T> void toJsonArray(HttpExchange exchange, Iterator<T> elements) throws IOException {
     elements.hasNext(); // defensive to make certain error cases eager.
 
-    StringWriter out = new StringWriter(); // MWS cannot do streaming responses.
+    boolean gzip = acceptsGzip(exchange);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    if (gzip) {
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    exchange.sendResponseHeaders(200, 0); // zero means chunked
+
+    OutputStream out = exchange.getResponseBody();
+    if (gzip) {
+      out = new GZIPOutputStream(out);
+    }
+    BufferedWriter buffer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+    JsonWriter writer = new JsonWriter(buffer);
     try {
-      JsonWriter writer = new JsonWriter(out);
-      writer.setIndent("  ");
+      if (prettyPrint) {
+        writer.setIndent("  ");
+      }
       writer.beginArray();
       while (elements.hasNext()) {
         Object next = elements.next();
@@ -37,12 +94,16 @@ class JsonCodec {
       }
       writer.endArray();
       writer.flush();
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+      if (prettyPrint) {
+        buffer.write('\n'); // curl nice
+      }
+    } finally {
+      writer.close();
     }
+  }
 
-    return new MockResponse().setResponseCode(200)
-        .addHeader("Content-Type", "application/json")
-        .setBody(out.toString() + "\n"); // curl nice
+  private static boolean acceptsGzip(HttpExchange exchange) {
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    return acceptEncoding != null && acceptEncoding.contains("gzip");
   }
 }
@@ -1,10 +1,10 @@
 package denominator.denominatord;
 
 
-import com.squareup.okhttp.mockwebserver.Dispatcher;
-import com.squareup.okhttp.mockwebserver.MockResponse;
-import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -16,16 +16,18 @@ import denominator.ReadOnlyResourceRecordSetApi;
 import denominator.model.ResourceRecordSet;
 
 import static denominator.common.Preconditions.checkArgument;
+import static denominator.denominatord.HttpExchanges.path;
+import static denominator.denominatord.HttpExchanges.respond;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 
-public class RecordSetDispatcher extends Dispatcher {
+public class RecordSetDispatcher implements HttpHandler {
 
   static final Pattern RECORDSET_PATTERN = Pattern.compile("/zones/([\\.\\w]+)/recordsets(\\?.*)?");
 
-  private final Logger log = Logger.getLogger(Dispatcher.class.getName());
+  private final Logger log = Logger.getLogger(RecordSetDispatcher.class.getName());
   private final DNSApiManager mgr;
   private final JsonCodec codec;
 
@@ -35,27 +37,30 @@ public class RecordSetDispatcher extends Dispatcher {
   }
 
   @Override
-  public MockResponse dispatch(RecordedRequest request) {
-    Matcher matcher = RECORDSET_PATTERN.matcher(request.getPath());
+  public void handle(HttpExchange exchange) throws IOException {
+    String path = path(exchange);
+    String method = exchange.getRequestMethod();
+    Matcher matcher = RECORDSET_PATTERN.matcher(path);
     if (!matcher.matches()) {
-      return new MockResponse().setResponseCode(404);
+      respond(exchange, 404);
+      return;
     }
     String zoneIdOrName = matcher.group(1);
     AllProfileResourceRecordSetApi api = mgr.api().recordSetsInZone(zoneIdOrName);
     checkArgument(api != null, "cannot control record sets in zone %s", zoneIdOrName);
-    if (request.getMethod().equals("GET")) {
-      Query query = Query.from(request.getPath());
-      return codec.toJsonArray(recordSetsForQuery(api, query));
-    } else if (request.getMethod().equals("PUT")) {
-      ResourceRecordSet<?> recordSet = codec.readJson(request, ResourceRecordSet.class);
+    if (method.equals("GET")) {
+      Query query = Query.from(path);
+      codec.toJsonArray(exchange, recordSetsForQuery(api, query));
+    } else if (method.equals("PUT")) {
+      ResourceRecordSet<?> recordSet = codec.readJson(exchange, ResourceRecordSet.class);
       Query query = Query.from(recordSet);
       long s = currentTimeMillis();
       log.info(format("replacing recordset %s", query));
       api.put(recordSet);
       log.info(format("replaced recordset %s in %sms", query, currentTimeMillis() - s));
-      return new MockResponse().setResponseCode(204);
-    } else if (request.getMethod().equals("DELETE")) {
-      Query query = Query.from(request.getPath());
+      respond(exchange, 204);
+    } else if (method.equals("DELETE")) {
+      Query query = Query.from(path);
       long s = currentTimeMillis();
       log.info(format("deleting recordset %s ", query));
       if (query.qualifier != null) {
@@ -67,9 +72,9 @@ public class RecordSetDispatcher extends Dispatcher {
         throw new IllegalArgumentException("you must specify both name and type when deleting");
       }
       log.info(format("deleted recordset %s in %sms", query, currentTimeMillis() - s));
-      return new MockResponse().setResponseCode(204);
+      respond(exchange, 204);
     } else {
-      return new MockResponse().setResponseCode(405);
+      respond(exchange, 405);
     }
   }
 
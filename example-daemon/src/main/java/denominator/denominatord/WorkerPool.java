@@ -0,0 +1,46 @@
+package denominator.denominatord;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Runs requests on at most {@code concurrency} threads. Requests beyond that wait in an unbounded
+ * queue, so a burst doesn't fail, it just waits. The queue depth is exposed for monitoring.
+ */
+final class WorkerPool extends ThreadPoolExecutor {
+
+  WorkerPool(int concurrency) {
+    super(concurrency, concurrency, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+          new WorkerThreadFactory());
+    checkArgument(concurrency > 0, "concurrency must be positive, but was %s", concurrency);
+    allowCoreThreadTimeOut(true);
+  }
+
+  int concurrency() {
+    return getMaximumPoolSize();
+  }
+
+  /**
+   * Count of requests waiting for a worker.
+   */
+  int queueDepth() {
+    return getQueue().size();
+  }
+
+  static final class WorkerThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "denominatord-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
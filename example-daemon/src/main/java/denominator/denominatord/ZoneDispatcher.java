@@ -1,22 +1,22 @@
 package denominator.denominatord;
 
 
-import com.squareup.okhttp.mockwebserver.Dispatcher;
-import com.squareup.okhttp.mockwebserver.MockResponse;
-import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 
+import java.io.IOException;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import denominator.ZoneApi;
 import denominator.model.Zone;
 
+import static denominator.denominatord.HttpExchanges.path;
+import static denominator.denominatord.HttpExchanges.respond;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 
-public class ZoneDispatcher extends Dispatcher {
-  private final Logger log = Logger.getLogger(Dispatcher.class.getName());
+public class ZoneDispatcher implements HttpHandler {
+  private final Logger log = Logger.getLogger(ZoneDispatcher.class.getName());
   private final ZoneApi api;
   private final JsonCodec codec;
 
@@ -26,29 +26,32 @@ public class ZoneDispatcher extends Dispatcher {
   }
 
   @Override
-  public MockResponse dispatch(RecordedRequest request) {
-    if (request.getMethod().equals("GET")) {
-      Query query = Query.from(request.getPath());
+  public void handle(HttpExchange exchange) throws IOException {
+    String method = exchange.getRequestMethod();
+    if (method.equals("GET")) {
+      Query query = Query.from(path(exchange));
       if (query.name != null) {
-        return codec.toJsonArray(api.iterateByName(query.name));
+        codec.toJsonArray(exchange, api.iterateByName(query.name));
+      } else {
+        codec.toJsonArray(exchange, api.iterator());
       }
-      return codec.toJsonArray(api.iterator());
-    } else if (request.getMethod().equals("PUT")) {
-      Zone zone = codec.readJson(request, Zone.class);
+    } else if (method.equals("PUT")) {
+      Zone zone = codec.readJson(exchange, Zone.class);
       long s = currentTimeMillis();
       log.info(format("replacing zone %s", zone));
       String id = api.put(zone);
       log.info(format("replaced zone %s in %sms", zone, currentTimeMillis() - s));
-      return new MockResponse().setResponseCode(201).addHeader("Location", "/zones/" + id);
-    } else if (request.getMethod().equals("DELETE")) {
-      String zoneId = request.getPath().replace("/zones/", "");
+      exchange.getResponseHeaders().set("Location", "/zones/" + id);
+      respond(exchange, 201);
+    } else if (method.equals("DELETE")) {
+      String zoneId = path(exchange).replace("/zones/", "");
       long s = currentTimeMillis();
       log.info(format("deleting zone %s ", zoneId));
       api.delete(zoneId);
       log.info(format("deleted zone %s in %sms", zoneId, currentTimeMillis() - s));
-      return new MockResponse().setResponseCode(204);
+      respond(exchange, 204);
     } else {
-      return new MockResponse().setResponseCode(405);
+      respond(exchange, 405);
     }
   }
 }
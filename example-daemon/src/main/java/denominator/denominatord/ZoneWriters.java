@@ -0,0 +1,118 @@
+package denominator.denominatord;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import denominator.ZoneApi;
+import denominator.model.Zone;
+
+/**
+ * Serializes writes to the same zone, so that concurrent {@code PUT} or {@code DELETE} requests
+ * don't race on the provider's read-modify-write. Reads are not serialized, and writes to different
+ * zones proceed in parallel.
+ *
+ * <p/>Writes wait in a queue per zone instead of blocking a worker: a write to a zone which is
+ * being written is handed to the executor once the writes before it complete. Queues are removed
+ * once empty, so memory is bounded by the zones being written.
+ */
+final class ZoneWriters {
+
+  private static final int MAX_CACHED_IDS = 1024;
+
+  private final ZoneApi zones;
+  private final Executor executor;
+  // guarded by itself. present while a write to the zone is running.
+  private final Map<String, Queue<Runnable>> queues = new HashMap<String, Queue<Runnable>>();
+  // guarded by itself. least recently used names are evicted.
+  private final Map<String, String> idsByName = new LinkedHashMap<String, String>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_CACHED_IDS;
+    }
+  };
+
+  ZoneWriters(ZoneApi zones, Executor executor) {
+    this.zones = zones;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the id to serialize writes to the zone by. When the zone has no id, the id of the
+   * existing zone of the same name is used, so that a {@code PUT} by name is serialized with a
+   * {@code DELETE} by id. Ids found by name are cached, so they are only looked up once.
+   */
+  String zoneId(Zone zone) {
+    if (zone.id() != null) {
+      return zone.id();
+    }
+    synchronized (idsByName) {
+      String id = idsByName.get(zone.name());
+      if (id != null) {
+        return id;
+      }
+    }
+    Iterator<Zone> existing = zones.iterateByName(zone.name());
+    if (!existing.hasNext()) {
+      return zone.name();
+    }
+    String id = existing.next().id();
+    synchronized (idsByName) {
+      idsByName.put(zone.name(), id);
+    }
+    return id;
+  }
+
+  /**
+   * Forgets the cached id of a zone being deleted, as a zone later created with the same name may
+   * have a different id.
+   */
+  void forget(String zoneId) {
+    synchronized (idsByName) {
+      idsByName.values().remove(zoneId);
+    }
+  }
+
+  /**
+   * Runs the write on this thread, unless another write to the zone is running. Then, the write is
+   * queued behind it and this returns immediately. Queued writes run on the executor, in the order
+   * they arrived.
+   */
+  void execute(String zoneId, Runnable write) {
+    synchronized (queues) {
+      Queue<Runnable> queue = queues.get(zoneId);
+      if (queue != null) {
+        queue.add(write);
+        return;
+      }
+      queues.put(zoneId, new LinkedList<Runnable>());
+    }
+    run(zoneId, write);
+  }
+
+  private void run(final String zoneId, Runnable write) {
+    try {
+      write.run();
+    } finally {
+      final Runnable next;
+      synchronized (queues) {
+        next = queues.get(zoneId).poll();
+        if (next == null) {
+          queues.remove(zoneId);
+        }
+      }
+      if (next != null) {
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            ZoneWriters.this.run(zoneId, next);
+          }
+        });
+      }
+    }
+  }
+}
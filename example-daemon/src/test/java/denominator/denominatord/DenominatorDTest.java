@@ -5,6 +5,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -12,6 +15,8 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
 import denominator.DNSApiManager;
 import denominator.Denominator;
@@ -36,12 +41,13 @@ public class DenominatorDTest {
   static DNSApiManager mock;
   static DenominatorD server;
   static DenominatorDApi client;
+  static int port;
 
   @BeforeClass
   public static void start() throws IOException {
     mock = Denominator.create(new MockProvider());
     server = new DenominatorD(mock);
-    int port = server.start();
+    port = server.start();
     client = Feign.builder()
         .encoder(new GsonEncoder())
         .decoder(new GsonDecoder())
@@ -77,12 +83,50 @@ public class DenominatorDTest {
     assertThat(client.healthcheck().status()).isEqualTo(200);
   }
 
+  @Test
+  public void stats() {
+    Map<String, Integer> stats = client.stats();
+    assertThat(stats.get("concurrency")).isEqualTo(DenominatorD.DEFAULT_CONCURRENCY);
+    assertThat(stats.get("inFlight")).isEqualTo(1); // this request
+    assertThat(stats.get("queueDepth")).isZero();
+  }
+
   @Test
   public void zones() {
     assertThat(client.zones())
         .containsAll(mock.api().zones());
   }
 
+  @Test
+  public void zonesAreChunked() throws IOException {
+    HttpURLConnection connection =
+        (HttpURLConnection) new URL("http://localhost:" + port + "/zones").openConnection();
+    try {
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(connection.getHeaderField("Transfer-Encoding")).isEqualTo("chunked");
+      assertThat(connection.getContentType()).isEqualTo("application/json");
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  @Test
+  public void zonesGzipped() throws IOException {
+    HttpURLConnection connection =
+        (HttpURLConnection) new URL("http://localhost:" + port + "/zones").openConnection();
+    connection.setRequestProperty("Accept-Encoding", "gzip");
+    try {
+      assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+      Scanner scanner = new Scanner(
+          new InputStreamReader(new GZIPInputStream(connection.getInputStream()), "UTF-8"));
+      assertThat(scanner.useDelimiter("\\A").next())
+          .startsWith("[")
+          .contains("\"name\": \"denominator.io.\"");
+    } finally {
+      connection.disconnect();
+    }
+  }
+
   @Test
   public void zonesByName() {
     assertThat(client.zonesByName("denominator.io."))
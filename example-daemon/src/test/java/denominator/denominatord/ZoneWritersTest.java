@@ -0,0 +1,126 @@
+package denominator.denominatord;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import denominator.DNSApiManager;
+import denominator.Denominator;
+import denominator.mock.MockProvider;
+import denominator.model.Zone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZoneWritersTest {
+
+  DNSApiManager mock = Denominator.create(new MockProvider());
+  Queue<Runnable> executed = new LinkedList<Runnable>();
+  ZoneWriters writers = new ZoneWriters(mock.api().zones(), new Executor() {
+    @Override
+    public void execute(Runnable command) {
+      executed.add(command);
+    }
+  });
+  List<String> written = new ArrayList<String>();
+
+  @Test
+  public void zoneWithoutIdUsesIdOfExistingZone() {
+    Zone zone = Zone.create(null, "denominator.io.", 3600, "nil@denominator.io");
+    String id = mock.api().zones().put(zone);
+
+    assertThat(writers.zoneId(zone)).isEqualTo(id);
+  }
+
+  @Test
+  public void newZoneUsesName() {
+    assertThat(writers.zoneId(Zone.create(null, "new.denominator.io.", 3600, "nil@denominator.io")))
+        .isEqualTo("new.denominator.io.");
+  }
+
+  @Test
+  public void idIsCachedUntilForgotten() {
+    Zone zone = Zone.create(null, "denominator.io.", 3600, "nil@denominator.io");
+    String id = mock.api().zones().put(zone);
+    assertThat(writers.zoneId(zone)).isEqualTo(id);
+
+    mock.api().zones().delete(id);
+    assertThat(writers.zoneId(zone)).isEqualTo(id);
+
+    writers.forget(id);
+    assertThat(writers.zoneId(zone)).isEqualTo("denominator.io.");
+  }
+
+  @Test
+  public void writesToSameZoneAreQueued() {
+    writers.execute("denominator.io.", new Runnable() {
+      @Override
+      public void run() {
+        writers.execute("denominator.io.", write("second"));
+        writers.execute("denominator.io.", write("third"));
+        written.add("first");
+      }
+    });
+
+    assertThat(written).containsExactly("first");
+    assertThat(executed).hasSize(1);
+
+    executed.poll().run();
+    assertThat(written).containsExactly("first", "second");
+    executed.poll().run();
+    assertThat(written).containsExactly("first", "second", "third");
+    assertThat(executed).isEmpty();
+  }
+
+  @Test
+  public void writesToOtherZonesAreNotQueued() {
+    writers.execute("denominator.io.", new Runnable() {
+      @Override
+      public void run() {
+        writers.execute("other.denominator.io.", write("other"));
+        written.add("first");
+      }
+    });
+
+    assertThat(written).containsExactly("other", "first");
+    assertThat(executed).isEmpty();
+  }
+
+  @Test
+  public void nextWriteRunsInlineOnceQueueIsEmpty() {
+    writers.execute("denominator.io.", write("first"));
+    writers.execute("denominator.io.", write("second"));
+
+    assertThat(written).containsExactly("first", "second");
+    assertThat(executed).isEmpty();
+  }
+
+  @Test
+  public void queuedWriteRunsWhenPreviousFails() {
+    try {
+      writers.execute("denominator.io.", new Runnable() {
+        @Override
+        public void run() {
+          writers.execute("denominator.io.", write("second"));
+          throw new IllegalStateException();
+        }
+      });
+    } catch (IllegalStateException expected) {
+    }
+
+    executed.poll().run();
+    assertThat(written).containsExactly("second");
+  }
+
+  Runnable write(final String name) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        written.add(name);
+      }
+    };
+  }
+}
@@ -0,0 +1,46 @@
+package denominator.feign;
+
+import java.util.Date;
+
+import denominator.common.Backoff;
+import feign.RetryableException;
+import feign.Retryer;
+
+/**
+ * Like {@link Retryer.Default}, except waits are randomized, so that clients throttled together
+ * don't retry together. Waits at least as long as the server asked.
+ */
+public final class BackoffRetryer implements Retryer {
+
+  private final Backoff backoff;
+  private final int maxAttempts;
+  private int attempt = 1;
+
+  /**
+   * @param maxAttempts count of attempts, including the first, before the failure propagates.
+   */
+  public BackoffRetryer(Backoff backoff, int maxAttempts) {
+    this.backoff = backoff;
+    this.maxAttempts = maxAttempts;
+  }
+
+  @Override
+  public void continueOrPropagate(RetryableException e) {
+    if (attempt++ >= maxAttempts) {
+      throw e;
+    }
+    Date retryAfter = e.retryAfter();
+    long minimum = retryAfter != null ? retryAfter.getTime() - System.currentTimeMillis() : 0;
+    try {
+      Thread.sleep(backoff.millis(attempt - 1, minimum));
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  @Override
+  public Retryer clone() {
+    return new BackoffRetryer(backoff, maxAttempts);
+  }
+}
@@ -0,0 +1,119 @@
+package denominator.feign;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import denominator.Metrics;
+import feign.Client;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.Request;
+import feign.Response;
+import feign.Target;
+import feign.codec.Decoder;
+
+/**
+ * Records {@link Metrics} for each method of a provider's http api, named by {@link
+ * Feign#configKey(Class, Method)}. {@link MeteredClient} and {@link MeteredDecoder} attribute
+ * requests, including retries, to the method in progress on the same thread.
+ *
+ * <p/>Providers install all three when building their {@link Feign} instances.
+ */
+public final class Metering implements InvocationHandlerFactory {
+
+  private final Metrics metrics;
+
+  public Metering(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes") // InvocationHandlerFactory declares Target without a type parameter
+  public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
+    Map<Method, MethodHandler> metered = new LinkedHashMap<Method, MethodHandler>();
+    for (Map.Entry<Method, MethodHandler> entry : dispatch.entrySet()) {
+      String configKey = Feign.configKey(target.type(), entry.getKey());
+      metered.put(entry.getKey(),
+                  new MeteredMethodHandler(metrics.operation(configKey), entry.getValue()));
+    }
+    return new InvocationHandlerFactory.Default().create(target, metered);
+  }
+
+  static final class MeteredMethodHandler implements MethodHandler {
+
+    private final Metrics.Operation operation;
+    private final MethodHandler delegate;
+
+    MeteredMethodHandler(Metrics.Operation operation, MethodHandler delegate) {
+      this.operation = operation;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object invoke(Object[] argv) throws Throwable {
+      Metrics.Call call = operation.begin();
+      try {
+        return delegate.invoke(argv);
+      } catch (Throwable e) {
+        call.failed();
+        throw e;
+      } finally {
+        call.end();
+      }
+    }
+  }
+
+  /**
+   * Counts request and response bytes. Each request after the first in a call is a retry.
+   */
+  public static final class MeteredClient implements Client {
+
+    private final Client delegate;
+
+    public MeteredClient(Client delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+      Metrics.Call call = Metrics.current();
+      if (call == null) {
+        return delegate.execute(request, options);
+      }
+      call.sent(request.body() != null ? request.body().length : 0);
+      Response response = delegate.execute(request, options);
+      if (response.body() == null) {
+        return response;
+      }
+      return Response.create(response.status(), response.reason(), response.headers(),
+                             call.received(response.body().asInputStream()),
+                             response.body().length());
+    }
+  }
+
+  /**
+   * Counts records in lists, such as zones or record sets.
+   */
+  public static final class MeteredDecoder implements Decoder {
+
+    private final Decoder delegate;
+
+    public MeteredDecoder(Decoder delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+      Object result = delegate.decode(response, type);
+      Metrics.Call call = Metrics.current();
+      if (call != null) {
+        call.decoded(result);
+      }
+      return result;
+    }
+  }
+}
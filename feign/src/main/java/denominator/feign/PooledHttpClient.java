@@ -0,0 +1,203 @@
+package denominator.feign;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+
+import denominator.Metrics;
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Http client which keeps connections to a provider alive for reuse, as opposed to paying a TLS
+ * handshake per request. Without this, Apache's defaults allow only two connections per host, which
+ * serializes concurrent listings.
+ *
+ * <p/>Managers in the JVM which use the same url and TLS settings share one pool, and its thread
+ * which evicts idle connections. The pool is created by the first of them, and shut down when the
+ * last is closed. Providers bind one per manager, sized by their {@code http} settings, and close
+ * it with the manager.
+ *
+ * <p/>Each connection opened is counted by the pool, and by the {@link Metrics#current() call} in
+ * progress, if any. Compare {@link #connectionsOpened()} with requests made to see how often
+ * connections are reused.
+ */
+public final class PooledHttpClient implements Closeable {
+
+  // guarded by itself
+  private static final Map<List<Object>, Pool> pools = new HashMap<List<Object>, Pool>();
+
+  private final Pool pool;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /**
+   * Pool sizes are ignored when the pool for {@code url} already exists.
+   *
+   * @param maxConnections         connections open to all hosts.
+   * @param maxConnectionsPerRoute connections open to one host, at most {@code maxConnections}.
+   * @param idleTimeoutMillis      connections idle longer than this are closed in the background,
+   *                               before the server is likely to close them.
+   */
+  public PooledHttpClient(String url, SSLSocketFactory sslSocketFactory,
+                          HostnameVerifier hostnameVerifier, int maxConnections,
+                          int maxConnectionsPerRoute, long idleTimeoutMillis) {
+    checkArgument(maxConnectionsPerRoute > 0 && maxConnectionsPerRoute <= maxConnections,
+                  "maxConnectionsPerRoute must be between 1 and %s, was %s", maxConnections,
+                  maxConnectionsPerRoute);
+    checkArgument(idleTimeoutMillis > 0, "idleTimeoutMillis must be positive, was %s",
+                  idleTimeoutMillis);
+    List<Object> key = Arrays.<Object>asList(url, sslSocketFactory, hostnameVerifier);
+    synchronized (pools) {
+      Pool pool = pools.get(key);
+      if (pool == null) {
+        pool = new Pool(key, sslSocketFactory, hostnameVerifier, maxConnections,
+                        maxConnectionsPerRoute, idleTimeoutMillis);
+        pools.put(key, pool);
+      }
+      pool.references++;
+      this.pool = pool;
+    }
+  }
+
+  public Client client() {
+    return pool.client;
+  }
+
+  /**
+   * Connections leased to requests in flight, kept alive for reuse, and requests waiting for one.
+   */
+  public PoolStats stats() {
+    return pool.connections.getTotalStats();
+  }
+
+  /**
+   * Count of connections opened by this pool, each of which costs a TLS handshake when the url is
+   * https.
+   */
+  public long connectionsOpened() {
+    return pool.opened.get();
+  }
+
+  /**
+   * Releases the pool. When no other manager uses it, closes pooled connections and stops the
+   * thread which evicts idle ones.
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    synchronized (pools) {
+      if (--pool.references > 0) {
+        return;
+      }
+      pools.remove(pool.key);
+    }
+    try {
+      pool.httpClient.close();
+    } catch (IOException ignored) {
+      // connections are being discarded anyway
+    }
+  }
+
+  private static final class Pool {
+
+    final List<Object> key;
+    final AtomicLong opened = new AtomicLong();
+    final PoolingHttpClientConnectionManager connections;
+    final CloseableHttpClient httpClient;
+    final Client client;
+    int references;
+
+    Pool(List<Object> key, SSLSocketFactory sslSocketFactory, HostnameVerifier hostnameVerifier,
+         int maxConnections, int maxConnectionsPerRoute, long idleTimeoutMillis) {
+      this.key = key;
+      Registry<ConnectionSocketFactory> sockets = RegistryBuilder.<ConnectionSocketFactory>create()
+          .register("http", new CountingSocketFactory(
+              PlainConnectionSocketFactory.getSocketFactory(), opened))
+          .register("https", new CountingSocketFactory(
+              new SSLConnectionSocketFactory(sslSocketFactory, hostnameVerifier), opened))
+          .build();
+      this.connections = new PoolingHttpClientConnectionManager(sockets);
+      connections.setMaxTotal(maxConnections);
+      connections.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+      this.httpClient = HttpClients.custom()
+          .setConnectionManager(connections)
+          // honors proxies set with system properties, like HttpURLConnection
+          .setRoutePlanner(new SystemDefaultRoutePlanner(null))
+          .evictExpiredConnections()
+          .evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+          .build();
+      this.client = new ApacheHttpClient(httpClient);
+    }
+  }
+
+  /**
+   * Counts sockets connected, which happens once per connection the pool opens.
+   */
+  static final class CountingSocketFactory implements LayeredConnectionSocketFactory {
+
+    private final ConnectionSocketFactory delegate;
+    private final AtomicLong opened;
+
+    CountingSocketFactory(ConnectionSocketFactory delegate, AtomicLong opened) {
+      this.delegate = delegate;
+      this.opened = opened;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+      return delegate.createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host,
+                                InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                HttpContext context) throws IOException {
+      Socket connected = delegate.connectSocket(connectTimeout, socket, host, remoteAddress,
+                                                localAddress, context);
+      opened.incrementAndGet();
+      Metrics.Call call = Metrics.current();
+      if (call != null) {
+        call.connected();
+      }
+      return connected;
+    }
+
+    /**
+     * Only called on the https factory, when tunneling through a proxy.
+     */
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port,
+                                      HttpContext context) throws IOException {
+      return ((LayeredConnectionSocketFactory) delegate)
+          .createLayeredSocket(socket, target, port, context);
+    }
+  }
+}
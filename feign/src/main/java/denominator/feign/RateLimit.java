@@ -0,0 +1,108 @@
+package denominator.feign;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import denominator.Credentials;
+import denominator.Provider;
+import denominator.common.Backoff;
+import denominator.common.RateLimiter;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Retryer;
+
+/**
+ * Paces requests with a {@link RateLimiter} shared by all managers in the JVM which use the same
+ * url and account. Subclasses say which credentials identify the account. Throttling responses
+ * slow the rate via {@link #throttled()}.
+ *
+ * <p/>Providers which document a limit can pace from the first request. Otherwise, requests aren't
+ * paced until the server first throttles them, and only until the rate recovers to its ceiling.
+ * This way, concurrent listings aren't capped at a guess of the server's limit.
+ *
+ * <p/>Limiters used are held until this is garbage collected with its manager. Then, limiters no
+ * other manager holds are released.
+ */
+public abstract class RateLimit implements RequestInterceptor {
+
+  private final Provider provider;
+  private final javax.inject.Provider<Credentials> credentials;
+  private final double permitsPerSecond;
+  private final boolean paceFromStart;
+  // strongly holds the weakly shared limiters, by key
+  private final ConcurrentMap<String, RateLimiter> held =
+      new ConcurrentHashMap<String, RateLimiter>();
+
+  /**
+   * @param permitsPerSecond ceiling of the rate, or zero to not pace requests.
+   * @param paceFromStart    true to pace before the server throttles any request.
+   */
+  protected RateLimit(Provider provider, javax.inject.Provider<Credentials> credentials,
+                      double permitsPerSecond, boolean paceFromStart) {
+    this.provider = provider;
+    this.credentials = credentials;
+    this.permitsPerSecond = permitsPerSecond;
+    this.paceFromStart = paceFromStart;
+  }
+
+  /**
+   * Returns what identifies the account in {@code credentials}, such as a user name. Shouldn't
+   * include secrets.
+   */
+  protected abstract Object account(Credentials credentials);
+
+  /**
+   * Called before each attempt, including retries.
+   */
+  @Override
+  public void apply(RequestTemplate template) {
+    if (permitsPerSecond <= 0) {
+      return;
+    }
+    if (paceFromStart) {
+      limiter().acquire();
+      return;
+    }
+    String key = key();
+    RateLimiter limiter = held.get(key);
+    if (limiter == null) {
+      limiter = RateLimiter.sharedIfPresent(key);
+      if (limiter != null) {
+        held.put(key, limiter);
+      }
+    }
+    if (limiter != null && limiter.recovering()) {
+      limiter.acquire();
+    }
+  }
+
+  /**
+   * Call when the server rejects a request as too frequent.
+   */
+  public void throttled() {
+    if (permitsPerSecond > 0) {
+      limiter().throttled();
+    }
+  }
+
+  /**
+   * Returns the limiter shared by managers using the current url and account.
+   */
+  public RateLimiter limiter() {
+    String key = key();
+    RateLimiter limiter = held.get(key);
+    if (limiter == null) {
+      limiter = RateLimiter.shared(key, permitsPerSecond);
+      held.put(key, limiter);
+    }
+    return limiter;
+  }
+
+  public Retryer retryer() {
+    return new BackoffRetryer(new Backoff(250, 10000), 5);
+  }
+
+  private String key() {
+    return provider.name() + " " + provider.url() + " " + account(credentials.get());
+  }
+}
@@ -0,0 +1,96 @@
+package denominator.feign;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import denominator.Metrics;
+import denominator.Metrics.Snapshot;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import static feign.Util.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MeteringTest {
+
+  static final Map<String, Collection<String>> NO_HEADERS = Collections.emptyMap();
+
+  Metrics metrics = new Metrics();
+  int requests;
+
+  interface Api {
+
+    @RequestLine("POST /names")
+    List<String> names(String body);
+  }
+
+  Decoder splitCommas = new Decoder() {
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+      return Arrays.asList(Util.toString(response.body().asReader()).split(","));
+    }
+  };
+
+  Client server = new Client() {
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+      if (requests++ == 0) {
+        return Response.create(503, "Unavailable", NO_HEADERS, "retry", UTF_8);
+      }
+      return Response.create(200, "OK", NO_HEADERS, "a,b,c", UTF_8);
+    }
+  };
+
+  @Test
+  public void recordsCallsByConfigKey() {
+    Api api = Feign.builder()
+        .client(new Metering.MeteredClient(server))
+        .invocationHandlerFactory(new Metering(metrics))
+        .decoder(new Metering.MeteredDecoder(splitCommas))
+        .errorDecoder(new RetryAll())
+        .target(Api.class, "http://localhost");
+
+    assertThat(api.names("abc")).containsExactly("a", "b", "c");
+
+    Snapshot snapshot = metrics.snapshot().get("Api#names(String)");
+    assertThat(snapshot.calls()).isEqualTo(1);
+    assertThat(snapshot.errors()).isZero();
+    assertThat(snapshot.retries()).isEqualTo(1);
+    assertThat(snapshot.bytesOut()).isEqualTo(6);
+    assertThat(snapshot.bytesIn()).isEqualTo(5);
+    assertThat(snapshot.records()).isEqualTo(3);
+  }
+
+  @Test
+  public void passesThroughOutsideCall() throws IOException {
+    Decoder decoder = new Metering.MeteredDecoder(splitCommas);
+    Response response = new Metering.MeteredClient(server).execute(
+        Request.create("GET", "http://localhost", NO_HEADERS, null, UTF_8), new Request.Options());
+
+    assertThat(decoder.decode(response, List.class)).isEqualTo(Arrays.asList("retry"));
+    assertThat(metrics.snapshot()).isEmpty();
+  }
+
+  /**
+   * Retries the first failure, so that the second request counts as a retry.
+   */
+  static final class RetryAll implements feign.codec.ErrorDecoder {
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+      return new feign.RetryableException("retry", null);
+    }
+  }
+}
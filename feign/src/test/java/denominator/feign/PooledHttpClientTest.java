@@ -0,0 +1,144 @@
+package denominator.feign;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import denominator.Metrics;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import static feign.Util.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PooledHttpClientTest {
+
+  @Rule
+  public final MockWebServer server = new MockWebServer();
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  PooledHttpClient pooled;
+
+  @After
+  public void close() {
+    if (pooled != null) {
+      pooled.close();
+    }
+  }
+
+  @Test
+  public void reusesConnection() throws Exception {
+    server.enqueue(new MockResponse().setBody("first"));
+    server.enqueue(new MockResponse().setBody("second"));
+    pooled = pooledHttpClient(2, 30000);
+
+    assertThat(get()).isEqualTo("first");
+    assertThat(get()).isEqualTo("second");
+
+    assertThat(server.takeRequest().getSequenceNumber()).isZero();
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+    assertThat(pooled.stats().getAvailable()).isEqualTo(1);
+    assertThat(pooled.stats().getLeased()).isZero();
+    assertThat(pooled.connectionsOpened()).isEqualTo(1);
+  }
+
+  @Test
+  public void attributesConnectionsOpenedToCurrentCall() throws Exception {
+    server.enqueue(new MockResponse().setBody("first"));
+    server.enqueue(new MockResponse().setBody("second"));
+    pooled = pooledHttpClient(2, 30000);
+    Metrics metrics = new Metrics();
+
+    for (int i = 0; i < 2; i++) {
+      Metrics.Call call = metrics.operation("get").begin();
+      get();
+      call.end();
+    }
+
+    assertThat(metrics.snapshot().get("get").calls()).isEqualTo(2);
+    assertThat(metrics.snapshot().get("get").connections()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsIdleConnections() throws Exception {
+    server.enqueue(new MockResponse().setBody("first"));
+    pooled = pooledHttpClient(2, 100);
+
+    get();
+    assertThat(pooled.stats().getAvailable()).isEqualTo(1);
+
+    for (int i = 0; i < 50 && pooled.stats().getAvailable() > 0; i++) {
+      Thread.sleep(100);
+    }
+    assertThat(pooled.stats().getAvailable()).isZero();
+  }
+
+  @Test
+  public void sharesPoolByUrlUntilLastClosed() throws Exception {
+    server.enqueue(new MockResponse().setBody("first"));
+    server.enqueue(new MockResponse().setBody("second"));
+    pooled = pooledHttpClient(2, 30000);
+    PooledHttpClient other = pooledHttpClient(2, 30000);
+
+    assertThat(other.client()).isSameAs(pooled.client());
+    assertThat(get()).isEqualTo("first");
+    assertThat(other.stats().getAvailable()).isEqualTo(1);
+
+    other.close();
+    other.close(); // only releases once
+
+    assertThat(get()).isEqualTo("second");
+    assertThat(server.takeRequest().getSequenceNumber()).isZero();
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+  }
+
+  @Test
+  public void poolPerUrl() {
+    pooled = pooledHttpClient(2, 30000);
+    PooledHttpClient other = new PooledHttpClient("https://other.test",
+                                                  HttpsURLConnection.getDefaultSSLSocketFactory(),
+                                                  HttpsURLConnection.getDefaultHostnameVerifier(),
+                                                  2, 2, 30000);
+    try {
+      assertThat(other.client()).isNotSameAs(pooled.client());
+    } finally {
+      other.close();
+    }
+  }
+
+  @Test
+  public void perRouteLimitCannotExceedTotal() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("maxConnectionsPerRoute must be between 1 and 2, was 3");
+
+    new PooledHttpClient(server.getUrl("/").toString(),
+                         HttpsURLConnection.getDefaultSSLSocketFactory(),
+                         HttpsURLConnection.getDefaultHostnameVerifier(), 2, 3, 30000);
+  }
+
+  PooledHttpClient pooledHttpClient(int maxConnections, long idleTimeoutMillis) {
+    return new PooledHttpClient(server.getUrl("/").toString(),
+                                HttpsURLConnection.getDefaultSSLSocketFactory(),
+                                HttpsURLConnection.getDefaultHostnameVerifier(), maxConnections,
+                                maxConnections, idleTimeoutMillis);
+  }
+
+  String get() throws Exception {
+    Request request = Request.create("GET", server.getUrl("/").toString(),
+                                     Collections.<String, Collection<String>>emptyMap(), null,
+                                     UTF_8);
+    Response response = pooled.client().execute(request, new Request.Options());
+    return Util.toString(response.body().asReader());
+  }
+}
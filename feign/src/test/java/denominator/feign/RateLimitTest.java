@@ -0,0 +1,89 @@
+package denominator.feign;
+
+import org.junit.Test;
+
+import denominator.Credentials;
+import denominator.Credentials.ListCredentials;
+import denominator.common.RateLimiter;
+import denominator.mock.MockProvider;
+import feign.RequestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitTest {
+
+  @Test
+  public void pacesFromStart() {
+    UserRateLimit rateLimit = new UserRateLimit("http://pace.test", 5, true);
+    rateLimit.apply(new RequestTemplate());
+
+    assertThat(RateLimiter.sharedIfPresent("mock http://pace.test user")).isNotNull();
+  }
+
+  @Test
+  public void doesNotPaceUntilThrottled() {
+    UserRateLimit rateLimit = new UserRateLimit("http://lazy.test", 5, false);
+    for (int i = 0; i < 20; i++) {
+      rateLimit.apply(new RequestTemplate());
+    }
+    assertThat(RateLimiter.sharedIfPresent("mock http://lazy.test user")).isNull();
+
+    rateLimit.throttled();
+
+    RateLimiter limiter = RateLimiter.sharedIfPresent("mock http://lazy.test user");
+    assertThat(limiter).isSameAs(rateLimit.limiter());
+    assertThat(limiter.recovering()).isTrue();
+  }
+
+  @Test
+  public void zeroDisablesPacing() {
+    UserRateLimit rateLimit = new UserRateLimit("http://off.test", 0, true);
+    rateLimit.apply(new RequestTemplate());
+    rateLimit.throttled();
+
+    assertThat(RateLimiter.sharedIfPresent("mock http://off.test user")).isNull();
+  }
+
+  @Test
+  public void holdsLimiterUntilCollected() throws InterruptedException {
+    UserRateLimit rateLimit = new UserRateLimit("http://held.test", 5, false);
+    rateLimit.throttled();
+
+    System.gc();
+    assertThat(RateLimiter.sharedIfPresent("mock http://held.test user"))
+        .isSameAs(rateLimit.limiter());
+
+    rateLimit = null;
+    for (int i = 0; i < 50 && RateLimiter.sharedIfPresent("mock http://held.test user") != null;
+         i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(RateLimiter.sharedIfPresent("mock http://held.test user")).isNull();
+  }
+
+  @Test
+  public void retryerIsFreshPerRequest() {
+    UserRateLimit rateLimit = new UserRateLimit("http://retry.test", 5, true);
+
+    assertThat(rateLimit.retryer()).isInstanceOf(BackoffRetryer.class)
+        .isNotSameAs(rateLimit.retryer());
+  }
+
+  static final class UserRateLimit extends RateLimit {
+
+    UserRateLimit(String url, double permitsPerSecond, boolean paceFromStart) {
+      super(new MockProvider(url), new javax.inject.Provider<Credentials>() {
+        @Override
+        public Credentials get() {
+          return ListCredentials.from("user", "password");
+        }
+      }, permitsPerSecond, paceFromStart);
+    }
+
+    @Override
+    protected Object account(Credentials credentials) {
+      return ListCredentials.asList(credentials).get(0);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package denominator.common;
+
+import java.util.Random;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Computes how long to wait before retrying, growing exponentially with each attempt. The wait is
+ * randomized, so that clients which failed together don't retry together.
+ */
+public final class Backoff {
+
+  private final long baseMillis;
+  private final long maxMillis;
+  private final Random random;
+
+  /**
+   * @param baseMillis upper bound of the random wait before the first retry. Doubles each retry.
+   * @param maxMillis  cap on the upper bound of the random wait.
+   */
+  public Backoff(long baseMillis, long maxMillis) {
+    this(baseMillis, maxMillis, new Random());
+  }
+
+  Backoff(long baseMillis, long maxMillis, Random random) {
+    checkArgument(baseMillis > 0, "baseMillis must be positive, was %s", baseMillis);
+    checkArgument(maxMillis >= baseMillis, "maxMillis must be at least baseMillis, was %s",
+                  maxMillis);
+    this.baseMillis = baseMillis;
+    this.maxMillis = maxMillis;
+    this.random = random;
+  }
+
+  /**
+   * Returns {@code minimumMillis}, such as from a server's retry-after hint, plus a random amount
+   * below {@code baseMillis * 2^(attempt - 1)}, capped at {@code maxMillis}.
+   *
+   * @param attempt       count of retries so far, including this one. Starts at 1.
+   * @param minimumMillis least time to wait. Negative values are treated as zero.
+   */
+  public long millis(int attempt, long minimumMillis) {
+    checkArgument(attempt > 0, "attempt must be positive, was %s", attempt);
+    // shifting further would overflow
+    int doublings = Math.min(attempt - 1, Long.numberOfLeadingZeros(baseMillis) - 1);
+    long bound = Math.min(maxMillis, baseMillis << doublings);
+    return Math.max(0, minimumMillis) + (long) (random.nextDouble() * bound);
+  }
+
+  @Override
+  public String toString() {
+    return "Backoff(" + baseMillis + "ms, " + maxMillis + "ms)";
+  }
+}
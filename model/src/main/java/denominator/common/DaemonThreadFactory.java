@@ -0,0 +1,30 @@
+package denominator.common;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Creates daemon threads named {@code prefix-1}, {@code prefix-2}, etc., so that background
+ * requests never keep the JVM from exiting.
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+  private final String prefix;
+  private final AtomicInteger count = new AtomicInteger();
+
+  /**
+   * @param prefix ex. {@code route53-soa}
+   */
+  public DaemonThreadFactory(String prefix) {
+    this.prefix = checkNotNull(prefix, "prefix");
+  }
+
+  @Override
+  public Thread newThread(Runnable r) {
+    Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,82 @@
+package denominator.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Counts values, such as latencies, in buckets which widen exponentially, so that percentiles can
+ * be estimated in constant space. Estimates are at most an eighth above the value recorded. Safe
+ * for concurrent use.
+ */
+public final class Histogram {
+
+  // values below 8 have their own bucket. Larger values share one of 8 buckets per power of two.
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(bucket(Long.MAX_VALUE) + 1);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long value) {
+    checkArgument(value >= 0, "value must not be negative, was %s", value);
+    counts.incrementAndGet(bucket(value));
+    count.incrementAndGet();
+    long current;
+    while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+      // lost a race with another thread; retry
+    }
+  }
+
+  public long count() {
+    return count.get();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns a value which at least {@code quantile} of the values recorded are at or below, or zero
+   * if nothing was recorded.
+   *
+   * @param quantile ex. {@code 0.99} for the 99th percentile.
+   */
+  public long percentile(double quantile) {
+    checkArgument(quantile > 0 && quantile <= 1, "quantile must be in (0, 1], was %s", quantile);
+    long max = this.max.get();
+    long rank = (long) Math.ceil(quantile * count.get());
+    long seen = 0;
+    for (int i = 0; i < counts.length() && rank > 0; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+    long mantissa = SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1));
+    return ((mantissa + 1) << shift) - 1; // overflows to Long.MAX_VALUE in the last bucket
+  }
+
+  @Override
+  public String toString() {
+    return "Histogram(count=" + count() + ", p50=" + percentile(0.5) + ", max=" + max() + ")";
+  }
+}
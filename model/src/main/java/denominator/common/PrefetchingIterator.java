@@ -0,0 +1,109 @@
+package denominator.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Looks up each input, keeping up to {@code lookahead} lookups in flight ahead of the one being
+ * consumed. Results are returned in the same order as the inputs, so this is a drop-in replacement
+ * for looking each up in turn.
+ *
+ * <p/>Use this when each element costs its own request, such as an SOA record per zone. If a
+ * lookup fails, the pending ones are cancelled and the failure is thrown from {@link #next()}.
+ */
+public final class PrefetchingIterator<F, T> extends PeekingIterator<T> {
+
+  /**
+   * Looks up the element for an input. This is called from a background thread.
+   */
+  public interface Lookup<F, T> {
+
+    T apply(F input);
+  }
+
+  private final Iterator<F> inputs;
+  private final Lookup<F, T> lookup;
+  private final int lookahead;
+  private final ExecutorService executor;
+  private final Deque<Future<T>> window = new ArrayDeque<Future<T>>();
+
+  private PrefetchingIterator(Iterator<F> inputs, Lookup<F, T> lookup, int lookahead,
+                              ExecutorService executor) {
+    this.inputs = inputs;
+    this.lookup = lookup;
+    this.lookahead = lookahead;
+    this.executor = executor;
+  }
+
+  /**
+   * @param inputs    consumed on the caller's thread, as lookups are submitted.
+   * @param lookup    looks up the element for an input.
+   * @param lookahead count of lookups to keep in flight.
+   * @param executor  runs lookups.
+   */
+  public static <F, T> PrefetchingIterator<F, T> create(Iterator<F> inputs, Lookup<F, T> lookup,
+                                                        int lookahead, ExecutorService executor) {
+    checkNotNull(inputs, "inputs");
+    checkNotNull(lookup, "lookup");
+    checkArgument(lookahead > 0, "lookahead must be positive: %s", lookahead);
+    checkNotNull(executor, "executor");
+    return new PrefetchingIterator<F, T>(inputs, lookup, lookahead, executor);
+  }
+
+  @Override
+  protected T computeNext() {
+    fill();
+    Future<T> next = window.poll();
+    if (next == null) {
+      return endOfData();
+    }
+    T result = await(next);
+    fill();
+    return result;
+  }
+
+  private void fill() {
+    while (window.size() < lookahead && inputs.hasNext()) {
+      final F input = inputs.next();
+      window.add(executor.submit(new Callable<T>() {
+        @Override
+        public T call() {
+          return lookup.apply(input);
+        }
+      }));
+    }
+  }
+
+  private T await(Future<T> next) {
+    try {
+      return next.get();
+    } catch (InterruptedException e) {
+      cancelWindow();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted awaiting lookup", e);
+    } catch (ExecutionException e) {
+      cancelWindow();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private void cancelWindow() {
+    for (Future<T> pending : window) {
+      pending.cancel(true);
+    }
+    window.clear();
+  }
+}
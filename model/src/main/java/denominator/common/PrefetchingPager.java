@@ -0,0 +1,187 @@
+package denominator.common;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Iterates across a chain of pages, fetching up to {@code lookahead} pages in the background while
+ * the caller consumes the current one. This overlaps network latency with processing, so that
+ * listing costs roughly the greater of the two, as opposed to their sum.
+ *
+ * <p/>Pages are fetched in order, as each is needed to request the next. A lookahead of zero
+ * fetches each page on the caller's thread, when the previous is exhausted. Abandoning the iterator
+ * wastes at most {@code lookahead} requests.
+ */
+public final class PrefetchingPager<T> extends PeekingIterator<T> {
+
+  /**
+   * Fetches the page following another. When prefetching, this is called from a background thread.
+   *
+   * @param <P> type of the page, which iterates its elements.
+   */
+  public interface NextPage<P> {
+
+    /**
+     * Returns the page after {@code page}, or null if {@code page} is the last.
+     */
+    P apply(P page);
+  }
+
+  private static ExecutorService sharedExecutor;
+
+  private final Pages<T, ?> pages;
+  private Iterator<? extends T> current = Collections.<T>emptyList().iterator();
+
+  private PrefetchingPager(Pages<T, ?> pages) {
+    this.pages = pages;
+  }
+
+  /**
+   * Prefetches using a shared pool of daemon threads, which exit when idle.
+   *
+   * @param first     the first page, typically fetched by the caller.
+   * @param nextPage  fetches the page after another.
+   * @param lookahead count of pages to fetch ahead of the one being consumed.
+   */
+  public static <T, P extends Iterable<? extends T>> PrefetchingPager<T> create(
+      P first, NextPage<P> nextPage, int lookahead) {
+    return create(first, nextPage, lookahead, lookahead > 0 ? sharedExecutor() : null);
+  }
+
+  /**
+   * @param executor runs page fetches, ignored when {@code lookahead} is zero.
+   */
+  public static <T, P extends Iterable<? extends T>> PrefetchingPager<T> create(
+      P first, NextPage<P> nextPage, int lookahead, ExecutorService executor) {
+    checkNotNull(first, "first");
+    checkNotNull(nextPage, "nextPage");
+    checkArgument(lookahead >= 0, "lookahead must not be negative: %s", lookahead);
+    if (lookahead > 0) {
+      checkNotNull(executor, "executor");
+    }
+    return new PrefetchingPager<T>(new Pages<T, P>(first, nextPage, lookahead, executor));
+  }
+
+  @Override
+  protected T computeNext() {
+    while (!current.hasNext()) {
+      Iterable<? extends T> page = pages.next();
+      if (page == null) {
+        return endOfData();
+      }
+      current = page.iterator();
+    }
+    return current.next();
+  }
+
+  private static synchronized ExecutorService sharedExecutor() {
+    if (sharedExecutor == null) {
+      sharedExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("denominator-pager"));
+    }
+    return sharedExecutor;
+  }
+
+  private static final class Pages<T, P extends Iterable<? extends T>> {
+
+    private final NextPage<P> nextPage;
+    private final int lookahead;
+    private final ExecutorService executor;
+    private final Deque<Future<P>> window = new ArrayDeque<Future<P>>();
+    /**
+     * The first page until it is returned, then the last page returned when not prefetching.
+     */
+    private P last;
+    private boolean firstReturned;
+    private Future<P> tail;
+    private boolean done;
+
+    Pages(P first, NextPage<P> nextPage, int lookahead, ExecutorService executor) {
+      this.last = first;
+      this.nextPage = nextPage;
+      this.lookahead = lookahead;
+      this.executor = executor;
+    }
+
+    /**
+     * Returns the next page, or null if there are no more.
+     */
+    P next() {
+      if (done) {
+        return null;
+      }
+      if (!firstReturned) {
+        firstReturned = true;
+        fill();
+        return last;
+      }
+      P page;
+      if (lookahead == 0) {
+        page = last = nextPage.apply(last);
+      } else {
+        page = await(window.poll());
+        fill();
+      }
+      if (page == null) {
+        done = true;
+        cancelWindow();
+      }
+      return page;
+    }
+
+    private void fill() {
+      while (window.size() < lookahead) {
+        final Future<P> previous = tail;
+        final P first = previous == null ? last : null;
+        tail = executor.submit(new Callable<P>() {
+          @Override
+          public P call() throws Exception {
+            P page = previous != null ? previous.get() : first;
+            return page != null ? nextPage.apply(page) : null;
+          }
+        });
+        window.add(tail);
+      }
+    }
+
+    private P await(Future<P> next) {
+      try {
+        return next.get();
+      } catch (InterruptedException e) {
+        done = true;
+        cancelWindow();
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted awaiting page", e);
+      } catch (ExecutionException e) {
+        done = true;
+        cancelWindow();
+        Throwable cause = e.getCause();
+        while (cause instanceof ExecutionException) { // a later page awaiting a failed one
+          cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+
+    private void cancelWindow() {
+      for (Future<P> pending : window) {
+        pending.cancel(true);
+      }
+      window.clear();
+    }
+  }
+}
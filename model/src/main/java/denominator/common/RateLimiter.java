@@ -0,0 +1,212 @@
+package denominator.common;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static denominator.common.Preconditions.checkArgument;
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Paces callers to a rate which adapts to throttling, so that many clients of the same account
+ * converge just under its limit, as opposed to bursting together and retrying in lockstep.
+ *
+ * <p/>Permits are issued by a token bucket holding up to one second of permits. When the server
+ * says requests are too frequent, {@link #throttled()} halves the rate and drains the bucket. The
+ * rate then recovers linearly to its ceiling, regaining half the ceiling in 15 seconds. This is
+ * the additive-increase, multiplicative-decrease scheme TCP uses to share a link.
+ */
+public final class RateLimiter {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  // values are weak, so entries are removed once no caller holds their limiter
+  private static final ConcurrentMap<String, KeyedReference> shared =
+      new ConcurrentHashMap<String, KeyedReference>();
+  private static final ReferenceQueue<RateLimiter> released = new ReferenceQueue<RateLimiter>();
+
+  /**
+   * Returns the limiter for {@code key}, creating it on first use. Callers which share a key, such
+   * as provider url and account, share a rate across all of their instances in the JVM.
+   *
+   * <p/>Limiters are held weakly, so that keys of closed managers don't accumulate. Callers hold
+   * the limiter for as long as its rate should be remembered, such as for the life of a manager.
+   *
+   * @param key              identifies what the limit applies to. Shouldn't include secrets.
+   * @param permitsPerSecond ceiling of the rate, used when the limiter is created.
+   */
+  public static RateLimiter shared(String key, double permitsPerSecond) {
+    checkNotNull(key, "key");
+    removeReleased();
+    RateLimiter created = null;
+    while (true) {
+      KeyedReference ref = shared.get(key);
+      RateLimiter limiter = ref != null ? ref.get() : null;
+      if (limiter != null) {
+        return limiter;
+      }
+      if (created == null) {
+        created = new RateLimiter(permitsPerSecond);
+      }
+      KeyedReference replacement = new KeyedReference(key, created);
+      if (ref == null ? shared.putIfAbsent(key, replacement) == null
+                      : shared.replace(key, ref, replacement)) {
+        return created;
+      }
+    }
+  }
+
+  /**
+   * Returns the limiter for {@code key}, or null if none was created with {@link #shared(String,
+   * double)}, or it is no longer held. This lets callers defer pacing until the server first
+   * throttles them.
+   */
+  public static RateLimiter sharedIfPresent(String key) {
+    checkNotNull(key, "key");
+    removeReleased();
+    KeyedReference ref = shared.get(key);
+    return ref != null ? ref.get() : null;
+  }
+
+  private static void removeReleased() {
+    for (KeyedReference ref; (ref = (KeyedReference) released.poll()) != null; ) {
+      shared.remove(ref.key, ref);
+    }
+  }
+
+  private final Clock clock;
+  private final double maxRate;
+  private final double minRate;
+  private final double increasePerSecond;
+
+  private double rate;
+  private double permits;
+  private long lastRefill;
+  private long lastDecrease;
+
+  /**
+   * @param permitsPerSecond ceiling of the rate, typically the provider's documented limit.
+   */
+  public RateLimiter(double permitsPerSecond) {
+    this(permitsPerSecond, Clock.SYSTEM);
+  }
+
+  RateLimiter(double permitsPerSecond, Clock clock) {
+    checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive, was %s",
+                  permitsPerSecond);
+    this.clock = clock;
+    this.maxRate = permitsPerSecond;
+    this.minRate = permitsPerSecond / 16;
+    this.increasePerSecond = permitsPerSecond / 30;
+    this.rate = permitsPerSecond;
+    this.permits = permitsPerSecond;
+    this.lastRefill = clock.nanoTime();
+    this.lastDecrease = lastRefill - SECOND;
+  }
+
+  /**
+   * Blocks until a permit is available. Permits are granted in the order they are requested. If
+   * interrupted, returns early with the interrupt flag set.
+   */
+  public void acquire() {
+    long waitNanos = reserve();
+    if (waitNanos > 0) {
+      try {
+        clock.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Call when the server rejects a request as too frequent. Halves the rate, down to a sixteenth of
+   * its ceiling. Rejections within a second of the last decrease are ignored, as they are usually
+   * from requests sent before it.
+   */
+  public synchronized void throttled() {
+    long now = clock.nanoTime();
+    refill(now);
+    if (now - lastDecrease < SECOND) {
+      return;
+    }
+    lastDecrease = now;
+    rate = Math.max(minRate, rate / 2);
+    permits = Math.min(permits, 0);
+  }
+
+  /**
+   * Current permits per second, between a sixteenth of the ceiling and the ceiling.
+   */
+  public synchronized double rate() {
+    refill(clock.nanoTime());
+    return rate;
+  }
+
+  /**
+   * True while the rate is below its ceiling, which is until it recovers from {@link #throttled()}.
+   */
+  public synchronized boolean recovering() {
+    refill(clock.nanoTime());
+    return rate < maxRate;
+  }
+
+  /**
+   * Takes a permit, going into debt if none are left. Returns how long to wait for the debt to be
+   * repaid.
+   */
+  synchronized long reserve() {
+    refill(clock.nanoTime());
+    permits -= 1;
+    return permits >= 0 ? 0 : (long) (-permits / rate * SECOND);
+  }
+
+  private void refill(long now) {
+    long elapsed = now - lastRefill;
+    if (elapsed <= 0) {
+      return;
+    }
+    lastRefill = now;
+    double seconds = (double) elapsed / SECOND;
+    rate = Math.min(maxRate, rate + increasePerSecond * seconds);
+    permits = Math.min(Math.max(1, rate), permits + rate * seconds);
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimiter(" + maxRate + "/s)";
+  }
+
+  private static final class KeyedReference extends WeakReference<RateLimiter> {
+
+    final String key;
+
+    KeyedReference(String key, RateLimiter limiter) {
+      super(limiter, released);
+      this.key = key;
+    }
+  }
+
+  /**
+   * Visible for testing.
+   */
+  interface Clock {
+
+    Clock SYSTEM = new Clock() {
+      @Override
+      public long nanoTime() {
+        return System.nanoTime();
+      }
+
+      @Override
+      public void sleep(long nanos) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(nanos);
+      }
+    };
+
+    long nanoTime();
+
+    void sleep(long nanos) throws InterruptedException;
+  }
+}
@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.io.Reader;
 import java.net.InetAddress;
 import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -76,27 +77,24 @@ public class Util {
    */
   public static List<String> split(char delim, String toSplit) {
     checkNotNull(toSplit, "toSplit");
-    if (toSplit.indexOf(delim) == -1) {
+    int next = toSplit.indexOf(delim);
+    if (next == -1) {
       return Arrays.asList(toSplit); // sortable in JRE 7 and 8
     }
-    List<String> out = new LinkedList<String>();
-    StringBuilder currentString = new StringBuilder();
-    for (char c : toSplit.toCharArray()) {
-      if (c == delim) {
-        out.add(emptyToNull(currentString.toString()));
-        currentString.setLength(0);
-      } else {
-        currentString.append(c);
-      }
+    int fields = 2;
+    for (int i = toSplit.indexOf(delim, next + 1); i != -1; i = toSplit.indexOf(delim, i + 1)) {
+      fields++;
+    }
+    List<String> out = new ArrayList<String>(fields);
+    int start = 0;
+    for (; next != -1; next = toSplit.indexOf(delim, start)) {
+      out.add(next == start ? null : toSplit.substring(start, next));
+      start = next + 1;
     }
-    out.add(emptyToNull(currentString.toString()));
+    out.add(start == toSplit.length() ? null : toSplit.substring(start));
     return out;
   }
 
-  private static String emptyToNull(String field) {
-    return "".equals(field) ? null : field;
-  }
-
   public static <T> T nextOrNull(Iterator<T> it) {
     return it.hasNext() ? it.next() : null;
   }
@@ -244,52 +242,123 @@ public class Util {
   }
 
   public static Map<String, Object> toMap(String type, List<String> parts) {
-    if ("A".equals(type)) {
-      return AData.create(parts.get(0));
-    } else if ("AAAA".equals(type)) {
-      return AAAAData.create(parts.get(0));
-    } else if ("CNAME".equals(type)) {
-      return CNAMEData.create(parts.get(0));
-    } else if ("MX".equals(type)) {
-      return MXData.create(Integer.valueOf(parts.get(0)), parts.get(1));
-    } else if ("NS".equals(type)) {
-      return NSData.create(parts.get(0));
-    } else if ("PTR".equals(type)) {
-      return PTRData.create(parts.get(0));
-    } else if ("SOA".equals(type)) {
-      return SOAData.builder().mname(parts.get(0)).rname(parts.get(1))
-          .serial(Integer.valueOf(parts.get(2)))
-          .refresh(Integer.valueOf(parts.get(3))).retry(Integer.valueOf(parts.get(4)))
-          .expire(Integer.valueOf(parts.get(5))).minimum(Integer.valueOf(parts.get(6))).build();
-    } else if ("SPF".equals(type)) {
-      return SPFData.create(parts.get(0));
-    } else if ("SRV".equals(type)) {
-      return SRVData.builder().priority(Integer.valueOf(parts.get(0)))
-          .weight(Integer.valueOf(parts.get(1)))
-          .port(Integer.valueOf(parts.get(2))).target(parts.get(3)).build();
-    } else if ("TXT".equals(type)) {
-      return TXTData.create(parts.get(0));
-    } else if ("CERT".equals(type)) {
-      return CERTData.builder().format(Integer.valueOf(parts.get(0)))
-          .tag(Integer.valueOf(parts.get(1)))
-          .algorithm(Integer.valueOf(parts.get(2)))
-          .certificate(parts.get(3))
-          .build();
-    } else if ("NAPTR".equals(type)) {
-      return NAPTRData.builder().order(Integer.valueOf(parts.get(0)))
-          .preference(Integer.valueOf(parts.get(1)))
-          .flags(parts.get(2))
-          .services(parts.get(3))
-          .regexp(parts.get(4))
-          .replacement(parts.get(5))
-          .build();
-    } else if ("SSHFP".equals(type)) {
-      return SSHFPData.builder().algorithm(Integer.valueOf(parts.get(0)))
-          .fptype(Integer.valueOf(parts.get(1)))
-          .fingerprint(parts.get(2))
-          .build();
-    } else {
+    RDataParser parser = type != null ? RDataParser.BY_TYPE.get(type) : null;
+    if (parser == null) {
       throw new IllegalArgumentException("unsupported type: " + type);
     }
+    return parser.parse(parts);
+  }
+
+  /**
+   * Looked up by type once, as opposed to comparing against each type in turn.
+   */
+  private enum RDataParser {
+    A {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return AData.create(parts.get(0));
+      }
+    },
+    AAAA {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return AAAAData.create(parts.get(0));
+      }
+    },
+    CNAME {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return CNAMEData.create(parts.get(0));
+      }
+    },
+    MX {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return MXData.create(Integer.parseInt(parts.get(0)), parts.get(1));
+      }
+    },
+    NS {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return NSData.create(parts.get(0));
+      }
+    },
+    PTR {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return PTRData.create(parts.get(0));
+      }
+    },
+    SOA {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return SOAData.builder().mname(parts.get(0)).rname(parts.get(1))
+            .serial(Integer.parseInt(parts.get(2)))
+            .refresh(Integer.parseInt(parts.get(3))).retry(Integer.parseInt(parts.get(4)))
+            .expire(Integer.parseInt(parts.get(5))).minimum(Integer.parseInt(parts.get(6)))
+            .build();
+      }
+    },
+    SPF {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return SPFData.create(parts.get(0));
+      }
+    },
+    SRV {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return SRVData.builder().priority(Integer.parseInt(parts.get(0)))
+            .weight(Integer.parseInt(parts.get(1)))
+            .port(Integer.parseInt(parts.get(2))).target(parts.get(3)).build();
+      }
+    },
+    TXT {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return TXTData.create(parts.get(0));
+      }
+    },
+    CERT {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return CERTData.builder().format(Integer.parseInt(parts.get(0)))
+            .tag(Integer.parseInt(parts.get(1)))
+            .algorithm(Integer.parseInt(parts.get(2)))
+            .certificate(parts.get(3))
+            .build();
+      }
+    },
+    NAPTR {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return NAPTRData.builder().order(Integer.parseInt(parts.get(0)))
+            .preference(Integer.parseInt(parts.get(1)))
+            .flags(parts.get(2))
+            .services(parts.get(3))
+            .regexp(parts.get(4))
+            .replacement(parts.get(5))
+            .build();
+      }
+    },
+    SSHFP {
+      @Override
+      Map<String, Object> parse(List<String> parts) {
+        return SSHFPData.builder().algorithm(Integer.parseInt(parts.get(0)))
+            .fptype(Integer.parseInt(parts.get(1)))
+            .fingerprint(parts.get(2))
+            .build();
+      }
+    };
+
+    static final Map<String, RDataParser> BY_TYPE = new HashMap<String, RDataParser>();
+
+    static {
+      for (RDataParser parser : values()) {
+        BY_TYPE.put(parser.name(), parser);
+      }
+    }
+
+    abstract Map<String, Object> parse(List<String> parts);
   }
 }
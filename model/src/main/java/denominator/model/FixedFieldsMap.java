@@ -0,0 +1,134 @@
+package denominator.model;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static denominator.common.Preconditions.checkState;
+
+/**
+ * Compact, immutable map of rdata fields. The field names are fixed per type and shared by all
+ * instances, so each instance only holds an array of values, as opposed to the hash table, entries
+ * and links of a {@link java.util.LinkedHashMap}.
+ *
+ * <p/>Iteration is in field order. Equals, hash code and string form follow the {@link Map}
+ * contract, so instances are equal to any map with the same entries, and serialize as json objects.
+ *
+ * <p/>Subclasses {@link #set(String, Object) set} each value in their constructor, and never after.
+ * Instances are immutable: {@link #put}, {@link #remove} and {@link #clear} throw {@link
+ * UnsupportedOperationException}. Rdata types were mutable {@link java.util.LinkedHashMap}s before
+ * they extended this, so code which changed rdata in place must now create new rdata instead.
+ *
+ * <p/>For the same reason, rdata serialized while it extended {@code LinkedHashMap} can't be read.
+ * Subclasses which replaced a {@code LinkedHashMap} declare a new {@code serialVersionUID}, so that
+ * reading the old form fails with {@link java.io.InvalidClassException}, as opposed to returning
+ * rdata without values.
+ */
+public abstract class FixedFieldsMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L; // new with this class; see subclasses
+
+  private final String[] fields;
+  private final Object[] values;
+
+  /**
+   * @param fields names of the fields in iteration order. This array is not copied, so share a
+   *               constant.
+   */
+  protected FixedFieldsMap(String[] fields) {
+    this.fields = fields;
+    this.values = new Object[fields.length];
+  }
+
+  /**
+   * Initializes the field, which must be one of those passed to the constructor.
+   */
+  protected final void set(String field, Object value) {
+    int index = indexOf(field);
+    checkState(index != -1, "%s is not a field of %s", field, getClass().getSimpleName());
+    values[index] = value;
+  }
+
+  private int indexOf(Object field) {
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] == field) { // fast path, as field names are constants.
+        return i;
+      }
+    }
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i].equals(field)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return fields.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) != -1;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int index = indexOf(key);
+    return index != -1 ? values[index] : null;
+  }
+
+  /**
+   * Always throws, as rdata is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public final Object put(String key, Object value) {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " is immutable");
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+
+      @Override
+      public int size() {
+        return fields.length;
+      }
+
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new Iterator<Entry<String, Object>>() {
+          int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < fields.length;
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, Object> entry =
+                new SimpleImmutableEntry<String, Object>(fields[index], values[index]);
+            index++;
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+}
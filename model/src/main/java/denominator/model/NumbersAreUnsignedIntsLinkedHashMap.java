@@ -4,7 +4,11 @@ import java.util.LinkedHashMap;
 
 /**
  * Ensures we don't accidentally serialize whole numbers as floats.
+ *
+ * @deprecated built-in rdata types now extend {@link FixedFieldsMap}, which is smaller. This will
+ * be removed in the next major version.
  */
+@Deprecated
 public class NumbersAreUnsignedIntsLinkedHashMap extends LinkedHashMap<String, Object> {
 
   private static final long serialVersionUID = 1L;
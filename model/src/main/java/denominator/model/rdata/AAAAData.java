@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import java.util.LinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -16,14 +16,16 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc3596.txt">RFC 3596</a>
  */
-public final class AAAAData extends LinkedHashMap<String, Object> {
+public final class AAAAData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"address"};
 
   AAAAData(String address) {
+    super(FIELDS);
     checkNotNull(address, "address");
     checkArgument(address.indexOf(':') != -1, "%s should be a ipv6 address", address);
-    put("address", address);
+    set("address", address);
   }
 
   /**
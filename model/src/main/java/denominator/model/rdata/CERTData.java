@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
 
@@ -19,19 +19,21 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc4398.txt">RFC 4398</a>
  */
-public final class CERTData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class CERTData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"format", "tag", "algorithm", "certificate"};
 
   CERTData(int format, int tag, int algorithm, String certificate) {
+    super(FIELDS);
     checkArgument(format <= 0xFFFF, "format must be 0-65535");
     checkArgument(tag <= 0xFFFF, "tag must be 0-65535");
     checkArgument(algorithm <= 0xFF, "algorithm must be 0-255");
     checkNotNull(certificate, "certificate");
-    put("format", format);
-    put("tag", tag);
-    put("algorithm", algorithm);
-    put("certificate", certificate);
+    set("format", format);
+    set("tag", tag);
+    set("algorithm", algorithm);
+    set("certificate", certificate);
   }
 
   public static CERTData.Builder builder() {
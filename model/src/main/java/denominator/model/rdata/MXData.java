@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -16,15 +16,17 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
  */
-public final class MXData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class MXData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"preference", "exchange"};
 
   MXData(int preference, String exchange) {
+    super(FIELDS);
     checkArgument(preference <= 0xFFFF, "preference must be 65535 or less");
     checkNotNull(exchange, "exchange");
-    put("preference", preference);
-    put("exchange", exchange);
+    set("preference", preference);
+    set("exchange", exchange);
   }
 
   public static MXData create(int preference, String exchange) {
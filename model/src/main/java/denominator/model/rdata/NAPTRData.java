@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -22,24 +22,27 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc3403.txt">RFC 3403</a>
  */
-public final class NAPTRData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class NAPTRData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS =
+      {"order", "preference", "flags", "services", "regexp", "replacement"};
 
   NAPTRData(int order, int preference, String flags, String services, String regexp,
             String replacement) {
+    super(FIELDS);
     checkArgument(order <= 0xFFFF, "order must be 0-65535");
     checkArgument(preference <= 0xFFFF, "preference must be 0-65535");
     checkNotNull(flags, "flags");
     checkNotNull(services, "services");
     checkNotNull(regexp, "regexp");
     checkNotNull(replacement, "replacement");
-    put("order", order);
-    put("preference", preference);
-    put("flags", flags);
-    put("services", services);
-    put("regexp", regexp);
-    put("replacement", replacement);
+    set("order", order);
+    set("preference", preference);
+    set("flags", flags);
+    set("services", services);
+    set("regexp", regexp);
+    set("replacement", replacement);
   }
 
   public static NAPTRData.Builder builder() {
@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import java.util.LinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkNotNull;
 
@@ -15,12 +15,14 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
  */
-public final class NSData extends LinkedHashMap<String, Object> {
+public final class NSData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"nsdname"};
 
   NSData(String nsdname) {
-    put("nsdname", checkNotNull(nsdname, "nsdname"));
+    super(FIELDS);
+    set("nsdname", checkNotNull(nsdname, "nsdname"));
   }
 
   public static NSData create(String nsdname) {
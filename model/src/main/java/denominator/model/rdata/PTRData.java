@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import java.util.LinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkNotNull;
 
@@ -15,12 +15,14 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
  */
-public final class PTRData extends LinkedHashMap<String, Object> {
+public final class PTRData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"ptrdname"};
 
   PTRData(String ptrdname) {
-    put("ptrdname", checkNotNull(ptrdname, "ptrdname"));
+    super(FIELDS);
+    set("ptrdname", checkNotNull(ptrdname, "ptrdname"));
   }
 
   public static PTRData create(String ptrdname) {
@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -23,11 +23,14 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
  */
-public final class SOAData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class SOAData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS =
+      {"mname", "rname", "serial", "refresh", "retry", "expire", "minimum"};
 
   SOAData(String mname, String rname, int serial, int refresh, int retry, int expire, int minimum) {
+    super(FIELDS);
     checkNotNull(mname, "mname");
     checkNotNull(rname, "rname of %s", mname);
     checkArgument(serial >= 0, "serial of %s must be unsigned", mname);
@@ -35,13 +38,13 @@ public final class SOAData extends NumbersAreUnsignedIntsLinkedHashMap {
     checkArgument(retry >= 0, "retry of %s must be unsigned", mname);
     checkArgument(expire >= 0, "expire of %s must be unsigned", mname);
     checkArgument(minimum >= 0, "minimum of %s must be unsigned", mname);
-    put("mname", mname);
-    put("rname", rname);
-    put("serial", serial);
-    put("refresh", refresh);
-    put("retry", retry);
-    put("expire", expire);
-    put("minimum", minimum);
+    set("mname", mname);
+    set("rname", rname);
+    set("serial", serial);
+    set("refresh", refresh);
+    set("retry", retry);
+    set("expire", expire);
+    set("minimum", minimum);
   }
 
   public static SOAData.Builder builder() {
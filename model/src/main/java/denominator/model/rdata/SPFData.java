@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import java.util.LinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -18,14 +18,16 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://tools.ietf.org/html/rfc4408#section-3.1.1">RFC 4408</a>
  */
-public final class SPFData extends LinkedHashMap<String, Object> {
+public final class SPFData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"txtdata"};
 
   SPFData(String txtdata) {
+    super(FIELDS);
     checkArgument(checkNotNull(txtdata, "txtdata").length() <= 65535,
                   "txt data is limited to 65535");
-    put("txtdata", txtdata);
+    set("txtdata", txtdata);
   }
 
   public static SPFData create(String txtdata) {
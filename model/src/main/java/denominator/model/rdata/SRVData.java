@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -20,19 +20,21 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc2782.txt">RFC 2782</a>
  */
-public final class SRVData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class SRVData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"priority", "weight", "port", "target"};
 
   SRVData(int priority, int weight, int port, String target) {
+    super(FIELDS);
     checkArgument(priority <= 0xFFFF, "priority must be 0-65535");
     checkArgument(weight <= 0xFFFF, "weight must be 0-65535");
     checkArgument(port <= 0xFFFF, "port must be 0-65535");
     checkNotNull(target, "target");
-    put("priority", priority);
-    put("weight", weight);
-    put("port", port);
-    put("target", target);
+    set("priority", priority);
+    set("weight", weight);
+    set("port", port);
+    set("target", target);
   }
 
   public static SRVData.Builder builder() {
@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import denominator.model.NumbersAreUnsignedIntsLinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -19,17 +19,19 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.rfc-editor.org/rfc/rfc4255.txt">RFC 4255</a>
  */
-public final class SSHFPData extends NumbersAreUnsignedIntsLinkedHashMap {
+public final class SSHFPData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"algorithm", "fptype", "fingerprint"};
 
   SSHFPData(int algorithm, int fptype, String fingerprint) {
+    super(FIELDS);
     checkArgument(algorithm >= 0, "algorithm of %s must be unsigned", fingerprint);
     checkArgument(fptype >= 0, "fptype of %s must be unsigned", fingerprint);
     checkNotNull(fingerprint, "fingerprint");
-    put("algorithm", algorithm);
-    put("fptype", fptype);
-    put("fingerprint", fingerprint);
+    set("algorithm", algorithm);
+    set("fptype", fptype);
+    set("fingerprint", fingerprint);
   }
 
   /**
@@ -1,6 +1,6 @@
 package denominator.model.rdata;
 
-import java.util.LinkedHashMap;
+import denominator.model.FixedFieldsMap;
 
 import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkNotNull;
@@ -16,14 +16,16 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * See <a href="http://www.ietf.org/rfc/rfc1035.txt">RFC 1035</a>
  */
-public final class TXTData extends LinkedHashMap<String, Object> {
+public final class TXTData extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"txtdata"};
 
   TXTData(String txtdata) {
+    super(FIELDS);
     checkArgument(checkNotNull(txtdata, "txtdata").length() <= 65535,
                   "txt data is limited to 65535");
-    put("txtdata", txtdata);
+    set("txtdata", txtdata);
   }
 
   public static TXTData create(String txtdata) {
@@ -0,0 +1,66 @@
+package denominator.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void boundDoublesEachAttemptUpToMax() {
+    Backoff backoff = new Backoff(100, 1000, new AlmostOne());
+
+    assertThat(backoff.millis(1, 0)).isEqualTo(99);
+    assertThat(backoff.millis(2, 0)).isEqualTo(199);
+    assertThat(backoff.millis(3, 0)).isEqualTo(399);
+    assertThat(backoff.millis(4, 0)).isEqualTo(799);
+    assertThat(backoff.millis(5, 0)).isEqualTo(999);
+    assertThat(backoff.millis(Integer.MAX_VALUE, 0)).isEqualTo(999);
+  }
+
+  @Test
+  public void minimumIsAddedToRandomWait() {
+    Backoff backoff = new Backoff(100, 1000, new AlmostOne());
+
+    assertThat(backoff.millis(1, 1000)).isEqualTo(1099);
+    assertThat(backoff.millis(1, -1000)).isEqualTo(99);
+  }
+
+  @Test
+  public void randomizesWait() {
+    Backoff backoff = new Backoff(1000, 1000);
+
+    long first = backoff.millis(1, 0);
+    for (int i = 0; i < 100; i++) {
+      long next = backoff.millis(1, 0);
+      assertThat(next).isBetween(0L, 999L);
+      if (next != first) {
+        return;
+      }
+    }
+    throw new AssertionError("100 waits were all " + first);
+  }
+
+  @Test
+  public void attemptStartsAtOne() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("attempt must be positive, was 0");
+
+    new Backoff(100, 1000).millis(0, 0);
+  }
+
+  static final class AlmostOne extends Random {
+
+    @Override
+    public double nextDouble() {
+      return 0.999;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package denominator.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  Histogram histogram = new Histogram();
+
+  @Test
+  public void emptyIsZero() {
+    assertThat(histogram.count()).isZero();
+    assertThat(histogram.percentile(0.5)).isZero();
+    assertThat(histogram.max()).isZero();
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 1; i <= 4; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.count()).isEqualTo(4);
+    assertThat(histogram.percentile(0.5)).isEqualTo(2);
+    assertThat(histogram.percentile(1)).isEqualTo(4);
+  }
+
+  @Test
+  public void estimatesAreAtMostAnEighthHigh() {
+    for (long value = 1; value < 1000000; value = value * 3 + 1) {
+      Histogram histogram = new Histogram();
+      histogram.record(value);
+      histogram.record(value * 2);
+
+      assertThat(histogram.percentile(0.5)).isBetween(value, value + value / 8);
+    }
+  }
+
+  @Test
+  public void percentilesNeverExceedMax() {
+    histogram.record(1000);
+
+    assertThat(histogram.percentile(0.99)).isEqualTo(1000);
+    assertThat(histogram.max()).isEqualTo(1000);
+  }
+
+  @Test
+  public void tailDoesNotMoveMedian() {
+    for (int i = 0; i < 98; i++) {
+      histogram.record(10);
+    }
+    histogram.record(5000);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.percentile(0.5)).isEqualTo(10);
+    assertThat(histogram.percentile(0.99)).isBetween(5000L, 5000L + 5000 / 8);
+    assertThat(histogram.max()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void bucketsCoverAllValues() {
+    for (long value : new long[]{0, 7, 8, 15, 16, 1023, 1024, Long.MAX_VALUE}) {
+      int bucket = Histogram.bucket(value);
+      assertThat(Histogram.highestValue(bucket)).isGreaterThanOrEqualTo(value);
+      if (bucket > 0) {
+        assertThat(Histogram.highestValue(bucket - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  public void negativeValuesAreInvalid() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("value must not be negative, was -1");
+
+    histogram.record(-1);
+  }
+}
@@ -0,0 +1,122 @@
+package denominator.common;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import denominator.common.PrefetchingIterator.Lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefetchingIteratorTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  ExecutorService executor = Executors.newCachedThreadPool(new DaemonThreadFactory("test"));
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void returnsInInputOrder() {
+    for (int lookahead = 1; lookahead < 5; lookahead++) {
+      Squares squares = new Squares();
+      squares.slow = 3;
+
+      assertThat(PrefetchingIterator.create(Arrays.asList(1, 2, 3, 4, 5).iterator(), squares,
+                                            lookahead, executor))
+          .containsExactly(1, 4, 9, 16, 25);
+    }
+  }
+
+  @Test
+  public void looksUpAheadWhileConsuming() throws InterruptedException {
+    Squares squares = new Squares();
+    squares.lookedUpLatch = new CountDownLatch(3);
+
+    Iterator<Integer> it = PrefetchingIterator.create(
+        Arrays.asList(1, 2, 3, 4, 5, 6).iterator(), squares, 2, executor);
+    assertThat(it.next()).isEqualTo(1);
+
+    assertThat(squares.lookedUpLatch.await(1, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(50); // would exceed the lookahead here
+    assertThat(squares.lookedUp.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void emptyInputs() {
+    assertThat(PrefetchingIterator.create(Arrays.<Integer>asList().iterator(), new Squares(), 2,
+                                          executor)).isEmpty();
+  }
+
+  @Test
+  public void failurePropagates() {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("3 failed");
+
+    Squares squares = new Squares();
+    squares.failOn = 3;
+    Iterator<Integer> it = PrefetchingIterator.create(
+        Arrays.asList(1, 2, 3, 4, 5).iterator(), squares, 3, executor);
+    while (it.hasNext()) {
+      it.next();
+    }
+  }
+
+  @Test
+  public void lookaheadMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("lookahead must be positive: 0");
+
+    PrefetchingIterator.create(Arrays.asList(1).iterator(), new Squares(), 0, executor);
+  }
+
+  @Test
+  public void threadsAreNamedDaemons() {
+    Thread thread = new DaemonThreadFactory("route53-soa").newThread(new Runnable() {
+      @Override
+      public void run() {
+      }
+    });
+
+    assertThat(thread.getName()).isEqualTo("route53-soa-1");
+    assertThat(thread.isDaemon()).isTrue();
+  }
+
+  static class Squares implements Lookup<Integer, Integer> {
+
+    final AtomicInteger lookedUp = new AtomicInteger();
+    CountDownLatch lookedUpLatch = new CountDownLatch(0);
+    int failOn = -1;
+    int slow = -1;
+
+    @Override
+    public Integer apply(Integer input) {
+      lookedUp.incrementAndGet();
+      lookedUpLatch.countDown();
+      if (input == failOn) {
+        throw new IllegalStateException(input + " failed");
+      }
+      if (input == slow) {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return input * input;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package denominator.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import denominator.common.PrefetchingPager.NextPage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefetchingPagerTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void synchronousWhenNoLookahead() {
+    Pages pages = new Pages(3);
+    Iterator<Integer> it = PrefetchingPager.create(pages.first(), pages, 0);
+
+    assertThat(pages.fetched.get()).isZero();
+    assertThat(it.next()).isEqualTo(0);
+    assertThat(it.next()).isEqualTo(1);
+    assertThat(pages.fetched.get()).isZero();
+    assertThat(it.next()).isEqualTo(2);
+    assertThat(pages.fetched.get()).isEqualTo(1);
+    assertThat(it).containsExactly(3, 4, 5);
+  }
+
+  @Test
+  public void iteratesAllPagesInOrder() {
+    for (int lookahead = 0; lookahead < 4; lookahead++) {
+      Pages pages = new Pages(5);
+      assertThat(PrefetchingPager.create(pages.first(), pages, lookahead))
+          .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+  }
+
+  @Test
+  public void skipsEmptyPages() {
+    List<List<Integer>> list = new ArrayList<List<Integer>>();
+    list.add(Collections.<Integer>emptyList());
+    list.add(Arrays.asList(1));
+    list.add(Collections.<Integer>emptyList());
+    list.add(Collections.<Integer>emptyList());
+    list.add(Arrays.asList(2, 3));
+    final Iterator<List<Integer>> next = list.subList(1, list.size()).iterator();
+
+    assertThat(PrefetchingPager.create(list.get(0), new NextPage<List<Integer>>() {
+      @Override
+      public List<Integer> apply(List<Integer> page) {
+        return next.hasNext() ? next.next() : null;
+      }
+    }, 2)).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void fetchesAheadWhileConsuming() throws InterruptedException {
+    Pages pages = new Pages(10);
+    pages.fetchedLatch = new CountDownLatch(2);
+
+    Iterator<Integer> it = PrefetchingPager.create(pages.first(), pages, 2);
+    assertThat(it.next()).isEqualTo(0);
+
+    assertThat(pages.fetchedLatch.await(1, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(50); // would exceed the lookahead here
+    assertThat(pages.fetched.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void failurePropagates() {
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("page 2 failed");
+
+    Pages pages = new Pages(5);
+    pages.failOn = 2;
+    Iterator<Integer> it = PrefetchingPager.create(pages.first(), pages, 3);
+    while (it.hasNext()) {
+      it.next();
+    }
+  }
+
+  /**
+   * Pages of two integers, each listing the next start.
+   */
+  static class Pages implements NextPage<List<Integer>> {
+
+    final int count;
+    final AtomicInteger fetched = new AtomicInteger();
+    CountDownLatch fetchedLatch = new CountDownLatch(0);
+    int failOn = -1;
+
+    Pages(int count) {
+      this.count = count;
+    }
+
+    List<Integer> first() {
+      return Arrays.asList(0, 1);
+    }
+
+    @Override
+    public List<Integer> apply(List<Integer> page) {
+      int index = page.get(0) / 2 + 1;
+      if (index == count) {
+        return null;
+      }
+      fetched.incrementAndGet();
+      fetchedLatch.countDown();
+      if (index == failOn) {
+        throw new IllegalStateException("page " + index + " failed");
+      }
+      return Arrays.asList(index * 2, index * 2 + 1);
+    }
+  }
+}
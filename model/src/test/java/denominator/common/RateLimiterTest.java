@@ -0,0 +1,175 @@
+package denominator.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+import denominator.common.RateLimiter.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  FakeClock clock = new FakeClock();
+
+  @Test
+  public void burstsUpToOneSecondOfPermits() {
+    RateLimiter limiter = new RateLimiter(5, clock);
+
+    for (int i = 0; i < 5; i++) {
+      limiter.acquire();
+    }
+    assertThat(clock.slept).isZero();
+
+    limiter.acquire();
+    assertThat(clock.slept).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  public void waitsAccumulateInOrder() {
+    RateLimiter limiter = new RateLimiter(2, clock);
+    limiter.reserve();
+    limiter.reserve();
+
+    assertThat(limiter.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(limiter.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1000));
+  }
+
+  @Test
+  public void throttledHalvesRateAndDrainsBurst() {
+    RateLimiter limiter = new RateLimiter(8, clock);
+
+    limiter.throttled();
+
+    assertThat(limiter.rate()).isEqualTo(4.0);
+    assertThat(limiter.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+  }
+
+  @Test
+  public void throttledIgnoresRejectionsWithinASecond() {
+    RateLimiter limiter = new RateLimiter(8, clock);
+
+    limiter.throttled();
+    limiter.throttled();
+    assertThat(limiter.rate()).isEqualTo(4.0);
+
+    clock.now += TimeUnit.SECONDS.toNanos(1);
+    limiter.throttled();
+    assertThat(limiter.rate()).isLessThan(4.0);
+  }
+
+  @Test
+  public void throttledFloorsAtSixteenthOfCeiling() {
+    RateLimiter limiter = new RateLimiter(16, clock);
+
+    for (int i = 0; i < 10; i++) {
+      clock.now += TimeUnit.SECONDS.toNanos(1);
+      limiter.throttled();
+    }
+
+    assertThat(limiter.rate()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void rateRecoversLinearlyToCeiling() {
+    RateLimiter limiter = new RateLimiter(6, clock);
+    limiter.throttled();
+
+    clock.now += TimeUnit.SECONDS.toNanos(15);
+    assertThat(limiter.rate()).isEqualTo(6.0);
+
+    limiter.throttled();
+    clock.now += TimeUnit.SECONDS.toNanos(5);
+    assertThat(limiter.rate()).isEqualTo(4.0);
+
+    clock.now += TimeUnit.MINUTES.toNanos(5);
+    assertThat(limiter.rate()).isEqualTo(6.0);
+  }
+
+  @Test
+  public void sharedByKey() {
+    RateLimiter limiter = RateLimiter.shared("mock https://localhost user", 5);
+
+    assertThat(RateLimiter.shared("mock https://localhost user", 100)).isSameAs(limiter);
+    assertThat(RateLimiter.shared("mock https://localhost other", 5)).isNotSameAs(limiter);
+  }
+
+  @Test
+  public void sharedIfPresentDoesNotCreate() {
+    assertThat(RateLimiter.sharedIfPresent("mock https://localhost absent")).isNull();
+
+    RateLimiter limiter = RateLimiter.shared("mock https://localhost absent", 5);
+    assertThat(RateLimiter.sharedIfPresent("mock https://localhost absent")).isSameAs(limiter);
+  }
+
+  @Test
+  public void sharedIsReleasedOnceUnreferenced() throws InterruptedException {
+    String key = "mock https://localhost released";
+    RateLimiter.shared(key, 5).throttled();
+
+    for (int i = 0; i < 50 && RateLimiter.sharedIfPresent(key) != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(RateLimiter.sharedIfPresent(key)).isNull();
+    assertThat(RateLimiter.shared(key, 5).rate()).isEqualTo(5.0);
+  }
+
+  @Test
+  public void recoveringUntilRateReachesCeiling() {
+    RateLimiter limiter = new RateLimiter(6, clock);
+    assertThat(limiter.recovering()).isFalse();
+
+    limiter.throttled();
+    assertThat(limiter.recovering()).isTrue();
+
+    clock.now += TimeUnit.SECONDS.toNanos(10);
+    assertThat(limiter.recovering()).isTrue();
+
+    clock.now += TimeUnit.SECONDS.toNanos(10);
+    assertThat(limiter.recovering()).isFalse();
+  }
+
+  @Test
+  public void interruptedAcquireReturnsWithFlagSet() {
+    RateLimiter limiter = new RateLimiter(1);
+    limiter.acquire();
+
+    Thread.currentThread().interrupt();
+    limiter.acquire();
+
+    assertThat(Thread.interrupted()).isTrue();
+  }
+
+  @Test
+  public void rateMustBePositive() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("permitsPerSecond must be positive, was 0.0");
+
+    new RateLimiter(0);
+  }
+
+  /**
+   * Time only advances when told to, and sleeping is recorded instead of waiting.
+   */
+  static final class FakeClock implements Clock {
+
+    long now;
+    long slept;
+
+    @Override
+    public long nanoTime() {
+      return now;
+    }
+
+    @Override
+    public void sleep(long nanos) {
+      slept += nanos;
+    }
+  }
+}
@@ -89,6 +89,11 @@ public class UtilTest {
     assertThat(split(';', ";;")).containsExactly(null, null, null);
   }
 
+  @Test
+  public void splitLeadingAndTrailing() {
+    assertThat(split(' ', " one two ")).containsExactly(null, "one", "two", null);
+  }
+
   @Test
   public void testNextOrNull() {
     PeekingIterator<Boolean> it = TrueThenDone.INSTANCE.iterator();
@@ -191,6 +196,21 @@ public class UtilTest {
     assertFalse(and(startsWithP, notPoo).apply("poo"));
   }
 
+  @Test
+  public void toMapUnsupportedType() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("unsupported type: FOO");
+
+    Util.toMap("FOO", "1 2 3");
+  }
+
+  @Test
+  public void toMapBadNumber() {
+    thrown.expect(NumberFormatException.class);
+
+    Util.toMap("MX", "ten mail.denominator.io.");
+  }
+
   @Test
   public void toMapDoesntSplitTXT() {
     assertThat(Util.toMap("TXT", "ONE TWO THREE")).isEqualTo(TXTData.create("ONE TWO THREE"));
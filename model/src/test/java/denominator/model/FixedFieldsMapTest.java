@@ -0,0 +1,89 @@
+package denominator.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import denominator.model.rdata.AData;
+import denominator.model.rdata.MXData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class FixedFieldsMapTest {
+
+  @Test
+  public void iteratesInFieldOrder() {
+    assertThat(MXData.create(10, "mx.denominator.io."))
+        .containsExactly(entry("preference", 10), entry("exchange", "mx.denominator.io."));
+  }
+
+  @Test
+  public void equalToLinkedHashMap() {
+    Map<String, Object> expected = new LinkedHashMap<String, Object>();
+    expected.put("preference", 10);
+    expected.put("exchange", "mx.denominator.io.");
+
+    MXData mx = MXData.create(10, "mx.denominator.io.");
+    assertThat(mx).isEqualTo(expected);
+    assertThat(expected).isEqualTo(mx);
+    assertThat(mx.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(mx.toString()).isEqualTo(expected.toString());
+  }
+
+  @Test
+  public void getByKeyNotInterned() {
+    assertThat(AData.create("192.0.2.1").get(new String("address"))).isEqualTo("192.0.2.1");
+    assertThat(AData.create("192.0.2.1").get("exchange")).isNull();
+    assertThat(AData.create("192.0.2.1").containsKey("exchange")).isFalse();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void putAllUnsupported() {
+    AData.create("192.0.2.1").putAll(Collections.singletonMap("address", "198.51.100.1"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void putUnsupported() {
+    AData.create("192.0.2.1").put("address", "198.51.100.1");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void removeUnsupported() {
+    AData.create("192.0.2.1").remove("address");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void clearUnsupported() {
+    AData.create("192.0.2.1").clear();
+  }
+
+  @Test
+  public void serializable() throws Exception {
+    MXData mx = MXData.create(10, "mx.denominator.io.");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(mx);
+    out.close();
+
+    Object read = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertThat(read).isEqualTo(mx);
+  }
+
+  /**
+   * Rdata serialized when it extended LinkedHashMap must not be read as rdata without values.
+   */
+  @Test
+  public void serialVersionChangedFromLinkedHashMapForm() {
+    assertThat(ObjectStreamClass.lookup(AData.class).getSerialVersionUID()).isEqualTo(2L);
+    assertThat(ObjectStreamClass.lookup(MXData.class).getSerialVersionUID()).isEqualTo(2L);
+  }
+}
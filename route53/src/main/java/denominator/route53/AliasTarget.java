@@ -1,7 +1,6 @@
 package denominator.route53;
 
-import java.util.LinkedHashMap;
-
+import denominator.model.FixedFieldsMap;
 import denominator.model.ResourceRecordSet;
 
 import static denominator.common.Preconditions.checkNotNull;
@@ -23,13 +22,15 @@ import static denominator.common.Preconditions.checkNotNull;
  *
  * @since 4.2
  */
-public final class AliasTarget extends LinkedHashMap<String, Object> {
+public final class AliasTarget extends FixedFieldsMap {
 
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L; // 1 extended LinkedHashMap
+  private static final String[] FIELDS = {"HostedZoneId", "DNSName"};
 
   AliasTarget(String hostedZoneId, String dnsName) {
-    put("HostedZoneId", checkNotNull(hostedZoneId, "HostedZoneId"));
-    put("DNSName", checkNotNull(dnsName, "DNSName"));
+    super(FIELDS);
+    set("HostedZoneId", checkNotNull(hostedZoneId, "HostedZoneId"));
+    set("DNSName", checkNotNull(dnsName, "DNSName"));
   }
 
   public static AliasTarget create(String hostedZoneId, String dnsName) {
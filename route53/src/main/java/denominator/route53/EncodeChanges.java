@@ -15,6 +15,21 @@ import static java.lang.String.format;
 
 class EncodeChanges implements Encoder {
 
+  static boolean isAlias(ResourceRecordSet<?> rrs) {
+    return rrs.records().size() == 1 && rrs.records().get(0).containsKey("HostedZoneId");
+  }
+
+  /**
+   * Text format of the rdata, as sent in the {@code Value} element.
+   */
+  static String value(String type, Map<String, Object> data) {
+    String textFormat = join(' ', data.values().toArray());
+    if ("SPF".equals(type) || "TXT".equals(type)) {
+      textFormat = format("\"%s\"", textFormat);
+    }
+    return textFormat;
+  }
+
   static String apply(ResourceRecordSet<?> rrs) {
     StringBuilder builder = new StringBuilder().append("<ResourceRecordSet>");
     builder.append("<Name>").append(rrs.name()).append("</Name>");
@@ -28,7 +43,7 @@ class EncodeChanges implements Encoder {
     if (rrs.weighted() != null) {
       builder.append("<Weight>").append(rrs.weighted().weight()).append("</Weight>");
     }
-    if (rrs.records().size() == 1 && rrs.records().get(0).containsKey("HostedZoneId")) {
+    if (isAlias(rrs)) {
       builder.append("<AliasTarget>");
       Map<String, Object> aliasTarget = rrs.records().get(0);
       for (String attribute : new String[]{"HostedZoneId", "DNSName"}) {
@@ -46,12 +61,8 @@ class EncodeChanges implements Encoder {
       builder.append("<TTL>").append(rrs.ttl() == null ? 300 : rrs.ttl()).append("</TTL>");
       builder.append("<ResourceRecords>");
       for (Map<String, Object> data : rrs.records()) {
-        String textFormat = join(' ', data.values().toArray());
-        if ("SPF".equals(rrs.type()) || "TXT".equals(rrs.type())) {
-          textFormat = format("\"%s\"", textFormat);
-        }
-        builder.append("<ResourceRecord>").append("<Value>").append(textFormat).append("</Value>")
-            .append("</ResourceRecord>");
+        builder.append("<ResourceRecord>").append("<Value>").append(value(rrs.type(), data))
+            .append("</Value>").append("</ResourceRecord>");
       }
       builder.append("</ResourceRecords>");
     }
@@ -61,9 +72,11 @@ class EncodeChanges implements Encoder {
   @Override
   public void encode(Object object, Type bodyType, RequestTemplate template) {
     List<ActionOnResourceRecordSet> actions = (List<ActionOnResourceRecordSet>) object;
+    // the namespace must match the api version in the request line
+    String version = template.url().startsWith("/2013-04-01/") ? "2013-04-01" : "2012-12-12";
     StringBuilder b = new StringBuilder();
-    b.append(
-        "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch>");
+    b.append("<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/")
+        .append(version).append("/\"><ChangeBatch>");
     b.append("<Changes>");
     for (ActionOnResourceRecordSet change : actions) {
       b.append("<Change>").append("<Action>").append(change.action).append("</Action>")
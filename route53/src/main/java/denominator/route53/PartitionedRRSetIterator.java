@@ -0,0 +1,316 @@
+package denominator.route53;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import denominator.common.Filter;
+import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingPager.NextPage;
+import denominator.model.ResourceRecordSet;
+import denominator.route53.Route53.ResourceRecordSetList;
+
+import static denominator.common.Preconditions.checkArgument;
+
+/**
+ * Lists a hosted zone as several ranges of names at once, returning record sets in the same order
+ * as a serial listing.
+ *
+ * <p/>Route53 lists record sets sorted by name, and can start a listing at any name, whether or not
+ * it exists. Ranges start at names whose first label under the zone is spread evenly across letters
+ * and digits. Each range ends at the first record set route53 lists for the next range, so that
+ * ranges don't overlap, regardless of how route53 orders special characters.
+ *
+ * <p/>Each range buffers at most {@link #PAGES_AHEAD} pages ahead of the cursor, then pauses until
+ * the cursor reaches it. Ranges never block a thread while paused, so listings can share a small
+ * executor, and an abandoned iterator holds no threads. Closing the iterator stops its ranges.
+ * Ranges may overlap or miss record sets that are changed during the listing.
+ */
+final class PartitionedRRSetIterator extends PeekingIterator<ResourceRecordSet<?>>
+    implements Closeable {
+
+  static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+  static final int MAX_PARTITIONS = ALPHABET.length() * ALPHABET.length();
+  static final int PAGES_AHEAD = 2;
+
+  /**
+   * Start names of all but the first range, which starts at the beginning of the zone.
+   */
+  static List<String> splitPoints(String zoneName, int partitions) {
+    checkArgument(partitions > 0 && partitions <= MAX_PARTITIONS,
+                  "partitions must be between 1 and %s: %s", MAX_PARTITIONS, partitions);
+    List<String> result = new ArrayList<String>(partitions - 1);
+    for (int i = 1; i < partitions; i++) {
+      int index = i * MAX_PARTITIONS / partitions;
+      result.add(new StringBuilder()
+                     .append(ALPHABET.charAt(index / ALPHABET.length()))
+                     .append(ALPHABET.charAt(index % ALPHABET.length()))
+                     .append('.').append(zoneName).toString());
+    }
+    return result;
+  }
+
+  private final List<Range> ranges;
+  private final Filter<ResourceRecordSet<?>> filter;
+  private int range;
+  private List<ResourceRecordSet<?>> current = new ArrayList<ResourceRecordSet<?>>();
+  private int index;
+
+  private PartitionedRRSetIterator(List<Range> ranges, Filter<ResourceRecordSet<?>> filter) {
+    this.ranges = ranges;
+    this.filter = filter;
+  }
+
+  /**
+   * @param executor runs requests for this and other listings. Its threads are never blocked
+   *                 waiting for the cursor.
+   * @param nextPage lists the page following another.
+   */
+  static PartitionedRRSetIterator create(final Route53 api, final String zoneId,
+                                         int partitions, Filter<ResourceRecordSet<?>> filter,
+                                         Executor executor,
+                                         NextPage<ResourceRecordSetList> nextPage) {
+    List<String> starts = splitPoints(api.getHostedZone(zoneId).name, partitions);
+    List<FutureTask<ResourceRecordSetList>> firstPages =
+        new ArrayList<FutureTask<ResourceRecordSetList>>(partitions);
+    firstPages.add(new FutureTask<ResourceRecordSetList>(new Callable<ResourceRecordSetList>() {
+      @Override
+      public ResourceRecordSetList call() {
+        return api.listResourceRecordSets(zoneId);
+      }
+    }));
+    for (final String start : starts) {
+      firstPages.add(new FutureTask<ResourceRecordSetList>(new Callable<ResourceRecordSetList>() {
+        @Override
+        public ResourceRecordSetList call() {
+          return api.listResourceRecordSets(zoneId, start);
+        }
+      }));
+    }
+    try {
+      for (FutureTask<ResourceRecordSetList> firstPage : firstPages) {
+        executor.execute(firstPage);
+      }
+
+      // each range ends where the next non-empty one begins
+      ResourceRecordSetList[] first = new ResourceRecordSetList[partitions];
+      ResourceRecordSet<?>[] ends = new ResourceRecordSet<?>[partitions];
+      for (int i = partitions - 1; i >= 0; i--) {
+        first[i] = await(firstPages.get(i));
+        if (i > 0) {
+          ends[i - 1] = first[i].isEmpty() ? ends[i] : first[i].get(0);
+        }
+      }
+
+      List<Range> ranges = new ArrayList<Range>(partitions);
+      for (int i = 0; i < partitions; i++) {
+        ranges.add(new Range(first[i], ends[i], nextPage, executor));
+      }
+      for (Range range : ranges) {
+        range.resume();
+      }
+      return new PartitionedRRSetIterator(ranges, filter);
+    } catch (RuntimeException e) {
+      for (FutureTask<ResourceRecordSetList> firstPage : firstPages) {
+        firstPage.cancel(true);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  protected ResourceRecordSet<?> computeNext() {
+    while (true) {
+      while (index == current.size()) {
+        if (range == ranges.size()) {
+          return endOfData();
+        }
+        Chunk chunk;
+        try {
+          chunk = ranges.get(range).take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          close();
+          throw new IllegalStateException("interrupted awaiting record sets", e);
+        }
+        if (chunk.error != null) {
+          close();
+          throw chunk.error;
+        }
+        if (chunk.rrsets == null) {
+          range++;
+          continue;
+        }
+        current = chunk.rrsets;
+        index = 0;
+      }
+      ResourceRecordSet<?> next = current.get(index++);
+      if (filter.apply(next)) { // loop, as opposed to recursing, past runs of filtered aliases
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Stops listing ranges, discarding those buffered. Requests in flight complete, but their pages
+   * are dropped. Iterating after this returns no more record sets.
+   */
+  @Override
+  public void close() {
+    for (int i = range; i < ranges.size(); i++) {
+      ranges.get(i).cancel();
+    }
+    range = ranges.size();
+    current = new ArrayList<ResourceRecordSet<?>>();
+    index = 0;
+  }
+
+  private static ResourceRecordSetList await(Future<ResourceRecordSetList> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted awaiting record sets", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  static boolean sameNameTypeAndQualifier(ResourceRecordSet<?> a, ResourceRecordSet<?> b) {
+    return a.name().equals(b.name()) && a.type().equals(b.type())
+           && (a.qualifier() == null ? b.qualifier() == null : a.qualifier().equals(b.qualifier()));
+  }
+
+  /**
+   * A page of record sets, the end of a range when {@code rrsets} is null, or a failure.
+   */
+  private static final class Chunk {
+
+    final List<ResourceRecordSet<?>> rrsets;
+    final RuntimeException error;
+
+    Chunk(List<ResourceRecordSet<?>> rrsets, RuntimeException error) {
+      this.rrsets = rrsets;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Pages through a range, until the first record set of the next. Each run lists pages until
+   * {@link #PAGES_AHEAD} are buffered, then returns. The cursor resumes the range as it takes
+   * pages.
+   */
+  private static final class Range implements Runnable {
+
+    private final ResourceRecordSet<?> end;
+    private final NextPage<ResourceRecordSetList> nextPage;
+    private final Executor executor;
+    private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<Chunk>();
+    // only read or written by the run in progress
+    private ResourceRecordSetList first;
+    private ResourceRecordSetList last;
+    // guarded by this
+    private int buffered;
+    private boolean running;
+    private boolean done;
+
+    Range(ResourceRecordSetList first, ResourceRecordSet<?> end,
+          NextPage<ResourceRecordSetList> nextPage, Executor executor) {
+      this.first = first;
+      this.end = end;
+      this.nextPage = nextPage;
+      this.executor = executor;
+    }
+
+    Chunk take() throws InterruptedException {
+      Chunk chunk = chunks.take();
+      synchronized (this) {
+        if (chunk.rrsets != null) {
+          buffered--;
+        }
+      }
+      resume();
+      return chunk;
+    }
+
+    /**
+     * Schedules a run, unless one is in progress, enough pages are buffered, or the range is done.
+     */
+    void resume() {
+      synchronized (this) {
+        if (running || done || buffered >= PAGES_AHEAD) {
+          return;
+        }
+        running = true;
+      }
+      try {
+        executor.execute(this);
+      } catch (RuntimeException e) { // ex. the manager was closed
+        finish(new Chunk(null, e));
+      }
+    }
+
+    synchronized void cancel() {
+      done = true;
+      chunks.clear();
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          ResourceRecordSetList page = first != null ? first : nextPage.apply(last);
+          first = null;
+          last = page;
+          List<ResourceRecordSet<?>> rrsets = new ArrayList<ResourceRecordSet<?>>(page.size());
+          boolean ended = page.next == null;
+          for (ResourceRecordSet<?> rrset : page) {
+            if (end != null && sameNameTypeAndQualifier(rrset, end)) {
+              ended = true;
+              break;
+            }
+            rrsets.add(rrset);
+          }
+          synchronized (this) {
+            if (done) {
+              running = false;
+              return;
+            }
+            chunks.add(new Chunk(rrsets, null));
+            buffered++;
+            if (ended) {
+              chunks.add(new Chunk(null, null));
+              done = true;
+            }
+            if (done || buffered >= PAGES_AHEAD) {
+              running = false;
+              return;
+            }
+          }
+        }
+      } catch (RuntimeException e) {
+        finish(new Chunk(null, e));
+      }
+    }
+
+    private synchronized void finish(Chunk error) {
+      running = false;
+      if (!done) {
+        chunks.add(error);
+        done = true;
+      }
+    }
+  }
+}
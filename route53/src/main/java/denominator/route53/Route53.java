@@ -55,6 +55,16 @@ interface Route53 {
                                 List<ActionOnResourceRecordSet> changes)
       throws InvalidChangeBatchException;
 
+  /**
+   * Same as {@link #changeResourceRecordSets}, except on the 2013-04-01 api, which supports {@link
+   * ActionOnResourceRecordSet#upsert(ResourceRecordSet) upsert}.
+   */
+  @RequestLine("POST /2013-04-01/hostedzone/{zoneId}/rrset")
+  @Headers("Content-Type: application/xml")
+  void changeResourceRecordSets2013(@Param("zoneId") String zoneId,
+                                    List<ActionOnResourceRecordSet> changes)
+      throws InvalidChangeBatchException;
+
 
   class NameAndCount {
     String name;
@@ -103,5 +113,13 @@ interface Route53 {
     static ActionOnResourceRecordSet delete(ResourceRecordSet<?> rrs) {
       return new ActionOnResourceRecordSet("DELETE", rrs);
     }
+
+    /**
+     * Creates the record set or replaces the one with the same name, type and set identifier. Only
+     * valid on the 2013-04-01 api.
+     */
+    static ActionOnResourceRecordSet upsert(ResourceRecordSet<?> rrs) {
+      return new ActionOnResourceRecordSet("UPSERT", rrs);
+    }
   }
 }
@@ -1,15 +1,25 @@
 package denominator.route53;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
 
 import denominator.AllProfileResourceRecordSetApi;
+import denominator.common.DaemonThreadFactory;
 import denominator.common.Filter;
 import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.model.ResourceRecordSet;
 import denominator.route53.Route53.ActionOnResourceRecordSet;
 import denominator.route53.Route53.ResourceRecordSetList;
@@ -17,22 +27,42 @@ import denominator.route53.Route53.ResourceRecordSetList.NextRecord;
 
 import static denominator.common.Util.filter;
 import static denominator.common.Util.nextOrNull;
-import static denominator.common.Util.peekingIterator;
 import static denominator.model.ResourceRecordSets.nameAndTypeEqualTo;
 import static denominator.model.ResourceRecordSets.nameEqualTo;
 import static denominator.model.ResourceRecordSets.nameTypeAndQualifierEqualTo;
 import static denominator.model.ResourceRecordSets.notNull;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.create;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.delete;
+import static denominator.route53.Route53.ActionOnResourceRecordSet.upsert;
 
 public final class Route53AllProfileResourceRecordSetApi implements AllProfileResourceRecordSetApi {
 
   private final Route53 api;
   private final String zoneId;
+  private final boolean upsert;
+  private final int pageLookahead;
+  private final Executor partitionExecutor;
 
-  Route53AllProfileResourceRecordSetApi(Route53 api, String zoneId) {
+  /**
+   * For internal use, where {@link #parallelIterator(int)} isn't.
+   */
+  Route53AllProfileResourceRecordSetApi(Route53 api, String zoneId, boolean upsert,
+                                        int pageLookahead) {
+    this(api, zoneId, upsert, pageLookahead, null);
+  }
+
+  /**
+   * @param pageLookahead     count of pages {@link #iterator()} fetches ahead of the one being
+   *                          consumed.
+   * @param partitionExecutor lists ranges for {@link #parallelIterator(int)}.
+   */
+  Route53AllProfileResourceRecordSetApi(Route53 api, String zoneId, boolean upsert,
+                                        int pageLookahead, Executor partitionExecutor) {
     this.api = api;
     this.zoneId = zoneId;
+    this.upsert = upsert;
+    this.pageLookahead = pageLookahead;
+    this.partitionExecutor = partitionExecutor;
   }
 
   private static Filter<ResourceRecordSet<?>> notAlias() {
@@ -48,7 +78,31 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
    */
   @Override
   public Iterator<ResourceRecordSet<?>> iterator() {
-    return lazyIterateRRSets(api.listResourceRecordSets(zoneId), notAlias());
+    return lazyIterateRRSets(api.listResourceRecordSets(zoneId), notAlias(), pageLookahead);
+  }
+
+  /**
+   * Like {@link #iterator()}, except lists {@code partitions} ranges of names concurrently, which
+   * speeds up listing large zones. Record sets are returned in the same order as {@link
+   * #iterator()}.
+   *
+   * <p/>Ranges are split on the first two characters of names, so are only even when names are
+   * spread across letters and digits. Each range buffers up to two pages ahead of the one being
+   * consumed. Requests are made on threads shared by all listings of this manager, limited by
+   * {@code route53.partitionConcurrency}. The result is only consistent when the zone isn't changed
+   * during the listing.
+   *
+   * <p/>When {@code partitions} is more than one, the result is {@link Closeable}. Close it to stop
+   * listing when abandoning it before the end.
+   *
+   * @param partitions count of ranges to list concurrently, from 1 to 1296.
+   */
+  public Iterator<ResourceRecordSet<?>> parallelIterator(int partitions) {
+    if (partitions == 1) {
+      return iterator();
+    }
+    return PartitionedRRSetIterator.create(api, zoneId, partitions, notAlias(), partitionExecutor,
+                                           nextPage);
   }
 
   /**
@@ -80,8 +134,16 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
     return nextOrNull(filter(iterateByNameAndType(name, type), notAlias()));
   }
 
+  /**
+   * When {@code route53.upsert} is enabled, this is a single request, which doesn't read the
+   * existing record set.
+   */
   @Override
   public void put(ResourceRecordSet<?> rrset) {
+    if (upsert) {
+      api.changeResourceRecordSets2013(zoneId, Arrays.asList(upsert(rrset)));
+      return;
+    }
     List<ActionOnResourceRecordSet> changes = new ArrayList<ActionOnResourceRecordSet>();
     ResourceRecordSet<?> oldRRS;
     if (rrset.qualifier() != null) {
@@ -117,55 +179,83 @@ public final class Route53AllProfileResourceRecordSetApi implements AllProfileRe
     api.changeResourceRecordSets(zoneId, changes);
   }
 
-  Iterator<ResourceRecordSet<?>> lazyIterateRRSets(final ResourceRecordSetList first,
-                                                   final Filter<ResourceRecordSet<?>> filter) {
+  Iterator<ResourceRecordSet<?>> lazyIterateRRSets(ResourceRecordSetList first,
+                                                   Filter<ResourceRecordSet<?>> filter) {
+    return lazyIterateRRSets(first, filter, 0);
+  }
+
+  /**
+   * Iterates until the first record set that doesn't match the filter. As record sets are sorted by
+   * name and type, there can be no more matches after that.
+   */
+  Iterator<ResourceRecordSet<?>> lazyIterateRRSets(ResourceRecordSetList first,
+                                                   final Filter<ResourceRecordSet<?>> filter,
+                                                   int lookahead) {
     if (first.next == null) {
       return filter(first.iterator(), filter);
     }
-    return new Iterator<ResourceRecordSet<?>>() {
-      PeekingIterator<ResourceRecordSet<?>> current = peekingIterator(first.iterator());
-      NextRecord next = first.next;
-
+    final PrefetchingPager<ResourceRecordSet<?>> pages =
+        PrefetchingPager.<ResourceRecordSet<?>, ResourceRecordSetList>create(first, nextPage,
+                                                                             lookahead);
+    return new PeekingIterator<ResourceRecordSet<?>>() {
       @Override
-      public boolean hasNext() {
-        while (!current.hasNext() && next != null) {
-          ResourceRecordSetList nextPage;
-          if (next.identifier != null) {
-            nextPage = api.listResourceRecordSets(zoneId, next.name, next.type,
-                                                  next.identifier);
-          } else {
-            nextPage = api.listResourceRecordSets(zoneId, next.name, next.type);
-          }
-          current = peekingIterator(nextPage.iterator());
-          next = nextPage.next;
+      protected ResourceRecordSet<?> computeNext() {
+        if (pages.hasNext() && filter.apply(pages.peek())) {
+          return pages.next();
         }
-        return current.hasNext() && filter.apply(current.peek());
-      }
-
-      @Override
-      public ResourceRecordSet<?> next() {
-        return current.next();
-      }
-
-      @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
+        return endOfData();
       }
     };
   }
 
-  static final class Factory implements denominator.AllProfileResourceRecordSetApi.Factory {
+  private final NextPage<ResourceRecordSetList> nextPage = new NextPage<ResourceRecordSetList>() {
+    @Override
+    public ResourceRecordSetList apply(ResourceRecordSetList page) {
+      NextRecord next = page.next;
+      if (next == null) {
+        return null;
+      } else if (next.identifier != null) {
+        return api.listResourceRecordSets(zoneId, next.name, next.type, next.identifier);
+      }
+      return api.listResourceRecordSets(zoneId, next.name, next.type);
+    }
+  };
+
+  /**
+   * Owns the threads which list ranges for {@link #parallelIterator(int)}. Threads are started on
+   * demand, exit when idle, and are stopped when the manager is closed.
+   */
+  @Singleton
+  static final class Factory
+      implements denominator.AllProfileResourceRecordSetApi.Factory, Closeable {
 
     private final Route53 api;
+    private final boolean upsert;
+    private final int pageLookahead;
+    private final ThreadPoolExecutor partitionExecutor;
 
     @Inject
-    Factory(Route53 api) {
+    Factory(Route53 api, @Named("route53.upsert") boolean upsert,
+            @Named("route53.pageLookahead") int pageLookahead,
+            @Named("route53.partitionConcurrency") int partitionConcurrency) {
       this.api = api;
+      this.upsert = upsert;
+      this.pageLookahead = pageLookahead;
+      this.partitionExecutor = new ThreadPoolExecutor(
+          partitionConcurrency, partitionConcurrency, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("route53-partition"));
+      partitionExecutor.allowCoreThreadTimeOut(true);
     }
 
     @Override
     public Route53AllProfileResourceRecordSetApi create(String id) {
-      return new Route53AllProfileResourceRecordSetApi(api, id);
+      return new Route53AllProfileResourceRecordSetApi(api, id, upsert, pageLookahead,
+                                                       partitionExecutor);
+    }
+
+    @Override
+    public void close() {
+      partitionExecutor.shutdownNow();
     }
   }
 
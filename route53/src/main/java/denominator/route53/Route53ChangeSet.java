@@ -0,0 +1,239 @@
+package denominator.route53;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import denominator.ChangeSet;
+import denominator.model.ResourceRecordSet;
+import denominator.route53.Route53.ActionOnResourceRecordSet;
+
+import static denominator.common.Preconditions.checkNotNull;
+
+/**
+ * Packs changes into as few ChangeBatch requests as route53 limits allow. Each batch is atomic, and
+ * a replacement's delete and create are never split across batches.
+ *
+ * <p/>Replacements and deletes need the current value of the record set, so are preceded by a list
+ * request per distinct name and type. Additions need no reads, and neither do replacements when
+ * {@code route53.upsert} is enabled.
+ *
+ * See <a href= "http://docs.aws.amazon.com/Route53/latest/DeveloperGuide/DNSLimitations.html#limits-api-requests-changeresourcerecordsets"
+ * >limits</a>
+ */
+final class Route53ChangeSet implements ChangeSet {
+
+  static final int MAX_RECORDS_PER_BATCH = 1000;
+  static final int MAX_VALUE_CHARS_PER_BATCH = 32000;
+
+  private final Route53 api;
+  private final Route53AllProfileResourceRecordSetApi rrsetApi;
+  private final String zoneId;
+  private final boolean upsert;
+  private final List<Change> changes = new ArrayList<Change>();
+
+  Route53ChangeSet(Route53 api, String zoneId, boolean upsert) {
+    this.api = api;
+    this.rrsetApi = new Route53AllProfileResourceRecordSetApi(api, zoneId, upsert, 0);
+    this.zoneId = zoneId;
+    this.upsert = upsert;
+  }
+
+  @Override
+  public ChangeSet add(ResourceRecordSet<?> rrset) {
+    checkNotNull(rrset, "rrset");
+    changes.add(new Change(Action.ADD, rrset.name(), rrset.type(), rrset.qualifier(), rrset));
+    return this;
+  }
+
+  @Override
+  public ChangeSet replace(ResourceRecordSet<?> rrset) {
+    checkNotNull(rrset, "rrset");
+    changes.add(new Change(Action.REPLACE, rrset.name(), rrset.type(), rrset.qualifier(), rrset));
+    return this;
+  }
+
+  @Override
+  public ChangeSet delete(String name, String type) {
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    changes.add(new Change(Action.DELETE_ALL, name, type, null, null));
+    return this;
+  }
+
+  @Override
+  public ChangeSet delete(String name, String type, String qualifier) {
+    checkNotNull(name, "name");
+    checkNotNull(type, "type");
+    checkNotNull(qualifier, "qualifier");
+    changes.add(new Change(Action.DELETE, name, type, qualifier, null));
+    return this;
+  }
+
+  @Override
+  public void apply() {
+    List<ActionOnResourceRecordSet> batch = new ArrayList<ActionOnResourceRecordSet>();
+    int records = 0;
+    int valueChars = 0;
+    for (List<ActionOnResourceRecordSet> actions : toActions()) {
+      int actionRecords = 0;
+      int actionValueChars = 0;
+      for (ActionOnResourceRecordSet action : actions) {
+        // upserts count twice
+        int weight = "UPSERT".equals(action.action) ? 2 : 1;
+        actionRecords += weight * records(action.rrs);
+        actionValueChars += weight * valueChars(action.rrs);
+      }
+      if (!batch.isEmpty() && (records + actionRecords > MAX_RECORDS_PER_BATCH
+                               || valueChars + actionValueChars > MAX_VALUE_CHARS_PER_BATCH)) {
+        send(batch);
+        batch = new ArrayList<ActionOnResourceRecordSet>();
+        records = 0;
+        valueChars = 0;
+      }
+      batch.addAll(actions);
+      records += actionRecords;
+      valueChars += actionValueChars;
+    }
+    if (!batch.isEmpty()) {
+      send(batch);
+    }
+  }
+
+  private void send(List<ActionOnResourceRecordSet> batch) {
+    if (upsert) {
+      api.changeResourceRecordSets2013(zoneId, batch);
+    } else {
+      api.changeResourceRecordSets(zoneId, batch);
+    }
+  }
+
+  /**
+   * Converts each change into the actions that implement it, given the state of the zone after the
+   * preceding changes. Changes which have no effect are skipped.
+   */
+  private List<List<ActionOnResourceRecordSet>> toActions() {
+    // name and type -> qualifier -> current value
+    Map<List<String>, Map<String, ResourceRecordSet<?>>> current =
+        new HashMap<List<String>, Map<String, ResourceRecordSet<?>>>();
+    for (Change change : changes) {
+      List<String> key = Arrays.asList(change.name, change.type);
+      boolean needsRead =
+          change.action != Action.ADD && !(upsert && change.action == Action.REPLACE);
+      if (needsRead && !current.containsKey(key)) {
+        Map<String, ResourceRecordSet<?>> byQualifier =
+            new LinkedHashMap<String, ResourceRecordSet<?>>();
+        for (Iterator<ResourceRecordSet<?>> it =
+                 rrsetApi.iterateByNameAndType(change.name, change.type); it.hasNext(); ) {
+          ResourceRecordSet<?> rrset = it.next();
+          byQualifier.put(rrset.qualifier(), rrset);
+        }
+        current.put(key, byQualifier);
+      }
+    }
+
+    List<List<ActionOnResourceRecordSet>> result = new ArrayList<List<ActionOnResourceRecordSet>>();
+    for (Change change : changes) {
+      List<String> key = Arrays.asList(change.name, change.type);
+      Map<String, ResourceRecordSet<?>> byQualifier = current.get(key);
+      if (byQualifier == null) {
+        byQualifier = new LinkedHashMap<String, ResourceRecordSet<?>>();
+        current.put(key, byQualifier);
+      }
+      List<ActionOnResourceRecordSet> actions = new ArrayList<ActionOnResourceRecordSet>(2);
+      if (change.action == Action.ADD) {
+        byQualifier.put(change.qualifier, change.rrset);
+        actions.add(ActionOnResourceRecordSet.create(change.rrset));
+      } else if (change.action == Action.REPLACE && upsert) {
+        byQualifier.put(change.qualifier, change.rrset);
+        actions.add(ActionOnResourceRecordSet.upsert(change.rrset));
+      } else if (change.action == Action.REPLACE) {
+        ResourceRecordSet<?> old = byQualifier.put(change.qualifier, change.rrset);
+        if (change.rrset.equals(old)) {
+          continue;
+        }
+        if (old != null) {
+          actions.add(ActionOnResourceRecordSet.delete(old));
+        }
+        actions.add(ActionOnResourceRecordSet.create(change.rrset));
+      } else if (change.action == Action.DELETE) {
+        ResourceRecordSet<?> old = byQualifier.remove(change.qualifier);
+        if (old != null) {
+          actions.add(ActionOnResourceRecordSet.delete(old));
+        }
+      } else {
+        for (ResourceRecordSet<?> old : byQualifier.values()) {
+          actions.add(ActionOnResourceRecordSet.delete(old));
+        }
+        byQualifier.clear();
+      }
+      if (!actions.isEmpty()) {
+        result.add(actions);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Aliases have no {@code ResourceRecord} elements, but are counted conservatively.
+   */
+  private static int records(ResourceRecordSet<?> rrset) {
+    return Math.max(1, rrset.records().size());
+  }
+
+  private static int valueChars(ResourceRecordSet<?> rrset) {
+    if (EncodeChanges.isAlias(rrset)) {
+      return 0;
+    }
+    int valueChars = 0;
+    for (Map<String, Object> data : rrset.records()) {
+      valueChars += EncodeChanges.value(rrset.type(), data).length();
+    }
+    return valueChars;
+  }
+
+  private enum Action {
+    ADD, REPLACE, DELETE, DELETE_ALL
+  }
+
+  private static final class Change {
+
+    final Action action;
+    final String name;
+    final String type;
+    final String qualifier;
+    final ResourceRecordSet<?> rrset;
+
+    Change(Action action, String name, String type, String qualifier, ResourceRecordSet<?> rrset) {
+      this.action = action;
+      this.name = name;
+      this.type = type;
+      this.qualifier = qualifier;
+      this.rrset = rrset;
+    }
+  }
+
+  static final class Factory implements ChangeSet.Factory {
+
+    private final Route53 api;
+    private final boolean upsert;
+
+    @Inject
+    Factory(Route53 api, @Named("route53.upsert") boolean upsert) {
+      this.api = api;
+      this.upsert = upsert;
+    }
+
+    @Override
+    public ChangeSet create(String id) {
+      return new Route53ChangeSet(api, id, upsert);
+    }
+  }
+}
@@ -15,6 +15,8 @@ import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
 import feign.sax.SAXDecoder.ContentHandlerWithResult;
 
+import static denominator.common.Util.slurp;
+import static feign.Util.UTF_8;
 import static feign.Util.resolveLastTypeParameter;
 import static java.lang.String.format;
 
@@ -24,9 +26,11 @@ class Route53ErrorDecoder implements ErrorDecoder {
       LIST_STRING =
       resolveLastTypeParameter(Messages.class, ContentHandlerWithResult.class);
   private final Decoder decoder;
+  private final Route53RateLimit rateLimit;
 
-  Route53ErrorDecoder(Decoder decoder) {
+  Route53ErrorDecoder(Decoder decoder, Route53RateLimit rateLimit) {
     this.decoder = decoder;
+    this.rateLimit = rateLimit;
   }
 
   // visible for testing;
@@ -37,13 +41,17 @@ class Route53ErrorDecoder implements ErrorDecoder {
   @Override
   public Exception decode(String methodKey, Response response) {
     try {
-      if ("Route53#changeResourceRecordSets(String,List)".equals(methodKey)) {
+      // change batches fail with a list of messages, unless the request itself failed.
+      response = bufferResponse(response);
+      Route53Error error = Route53Error.class.cast(decoder.decode(response, Route53Error.class));
+      if ((error == null || error.code == null)
+          && ("Route53#changeResourceRecordSets(String,List)".equals(methodKey)
+              || "Route53#changeResourceRecordSets2013(String,List)".equals(methodKey))) {
         @SuppressWarnings("unchecked")
         List<String> messages = List.class.cast(decoder.decode(response, LIST_STRING));
         return new InvalidChangeBatchException(methodKey, messages);
       }
-      Route53Error error = Route53Error.class.cast(decoder.decode(response, Route53Error.class));
-      if (error == null) {
+      if (error == null || error.code == null) {
         return FeignException.errorStatus(methodKey, response);
       }
       String message = format("%s failed with error %s", methodKey, error.code);
@@ -54,7 +62,8 @@ class Route53ErrorDecoder implements ErrorDecoder {
           || "InternalFailure".equals(error.code)) {
         return new RetryableException(message, null);
       } else if ("Throttling".equals(error.code) || "PriorRequestNotComplete".equals(error.code)) {
-        // backoff at least a second.
+        // slow down all clients of this account, and backoff at least a second.
+        rateLimit.throttled();
         return new RetryableException(message, new Date(currentTimeMillis() + 1000));
       } else if (error.code.startsWith("NoSuch")) {
         // consider not found exception
@@ -65,6 +74,14 @@ class Route53ErrorDecoder implements ErrorDecoder {
     }
   }
 
+  static Response bufferResponse(Response response) throws IOException {
+    if (response.body() == null) {
+      return response;
+    }
+    String body = slurp(response.body().asReader());
+    return Response.create(response.status(), response.reason(), response.headers(), body, UTF_8);
+  }
+
   static class Messages extends DefaultHandler implements ContentHandlerWithResult<List<String>> {
 
     private final StringBuilder currentText = new StringBuilder();
@@ -1,5 +1,6 @@
 package denominator.route53;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -12,19 +13,27 @@ import java.util.TreeSet;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.AllProfileResourceRecordSetApi;
 import denominator.BasicProvider;
+import denominator.ChangeSet;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
+import denominator.Provider;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.GeoUnsupported;
-import denominator.config.NothingToClose;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
 import denominator.profile.WeightedResourceRecordSetApi;
 import denominator.route53.Route53ErrorDecoder.Messages;
 import denominator.route53.Route53ErrorDecoder.Route53Error;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.codec.Decoder;
@@ -85,10 +94,11 @@ public class Route53Provider extends BasicProvider {
     return options;
   }
 
-  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {NothingToClose.class,
-                                                                              GeoUnsupported.class,
-                                                                              InstanceProfileCredentialsProvider.class,
-                                                                              FeignModule.class})
+  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {
+      GeoUnsupported.class,
+      InstanceProfileCredentialsProvider.class,
+      BatchedChangeSets.class,
+      FeignModule.class})
   public static final class Module {
 
     @Provides
@@ -98,8 +108,69 @@ public class Route53Provider extends BasicProvider {
 
     @Provides
     @Singleton
-    ZoneApi provideZoneApi(Route53 api) {
-      return new Route53ZoneApi(api);
+    ZoneApi provideZoneApi(Route53ZoneApi zoneApi) {
+      return zoneApi;
+    }
+
+    @Provides
+    @Singleton
+    Route53ZoneApi provideRoute53ZoneApi(Route53 api,
+                                         @Named("route53.soaConcurrency") int soaConcurrency,
+                                         @Named("route53.pageLookahead") int pageLookahead) {
+      return new Route53ZoneApi(api, soaConcurrency, pageLookahead);
+    }
+
+    /**
+     * Count of SOA lookups {@link Route53ZoneApi#iterator()} keeps in flight. Override this
+     * binding to list zones faster than one request at a time.
+     */
+    @Provides
+    @Named("route53.soaConcurrency")
+    int provideSOAConcurrency() {
+      return 1;
+    }
+
+    /**
+     * Count of pages fetched in the background while the current page of zones or record sets is
+     * consumed. Set to zero to fetch each page only when the previous is exhausted.
+     */
+    @Provides
+    @Named("route53.pageLookahead")
+    int providePageLookahead() {
+      return 1;
+    }
+
+    /**
+     * Count of requests {@link Route53AllProfileResourceRecordSetApi#parallelIterator(int)} keeps in
+     * flight, across all listings of this manager. Override this binding to list more ranges at
+     * once.
+     */
+    @Provides
+    @Named("route53.partitionConcurrency")
+    int providePartitionConcurrency() {
+      return 8;
+    }
+
+    /**
+     * Shuts down threads used to look up SOA records and list ranges concurrently, and releases the
+     * http connection pool shared with other managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(final Route53ZoneApi zoneApi,
+                            final Route53AllProfileResourceRecordSetApi.Factory rrsetApis,
+                            final PooledHttpClient pooledHttpClient) {
+      return new Closeable() {
+        @Override
+        public void close() {
+          try {
+            zoneApi.close();
+            rrsetApis.close();
+          } finally {
+            pooledHttpClient.close();
+          }
+        }
+      };
     }
 
     @Provides
@@ -112,8 +183,19 @@ public class Route53Provider extends BasicProvider {
     @Provides
     @Singleton
     AllProfileResourceRecordSetApi.Factory provideAllProfileResourceRecordSetApiFactory(
-        Route53 api) {
-      return new Route53AllProfileResourceRecordSetApi.Factory(api);
+        Route53AllProfileResourceRecordSetApi.Factory in) {
+      return in;
+    }
+
+    /**
+     * When true, record sets are put with the 2013-04-01 api's {@code UPSERT} action, which
+     * replaces any existing record set without reading it first. Override this binding to halve
+     * the requests made per put.
+     */
+    @Provides
+    @Named("route53.upsert")
+    boolean provideUpsert() {
+      return false;
     }
 
     @Provides
@@ -138,8 +220,23 @@ public class Route53Provider extends BasicProvider {
     }
   }
 
+  /**
+   * Overrides the default {@link denominator.config.SequentialChangeSets}, as route53 sends many
+   * changes in one request.
+   */
+  @dagger.Module(injects = DNSApiManager.class, complete = false, overrides = true)
+  static final class BatchedChangeSets {
+
+    @Provides
+    @Singleton
+    ChangeSet.Factory provideChangeSetFactory(Route53ChangeSet.Factory in) {
+      return in;
+    }
+  }
+
   @dagger.Module(injects = Route53ResourceRecordSetApi.Factory.class,
-      complete = false // doesn't bind Provider used by Route53Target
+      complete = false, // doesn't bind Provider used by Route53Target
+      includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -159,16 +256,83 @@ public class Route53Provider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Requests per second per account, shared by all managers in the JVM. Route53 documents a limit
+     * of five. Override this binding when other tools use the same account, or set it to zero to
+     * not pace requests.
+     */
+    @Provides
+    @Named("route53.rateLimit")
+    double provideRateLimit() {
+      return 5;
+    }
+
+    /**
+     * Connections open at once, shared by managers in the JVM which use the same url.
+     */
+    @Provides
+    @Named("route53.http.maxConnections")
+    int provideMaxConnections() {
+      return 20;
+    }
+
+    /**
+     * Connections open at once to one host. Override this binding when making more concurrent
+     * requests, such as listing record sets of many zones at a time.
+     */
+    @Provides
+    @Named("route53.http.maxConnectionsPerRoute")
+    int provideMaxConnectionsPerRoute() {
+      return 10;
+    }
+
+    /**
+     * Connections idle longer than this are closed in the background, before the server is likely
+     * to close them.
+     */
+    @Provides
+    @Named("route53.http.idleTimeoutMillis")
+    long provideIdleTimeoutMillis() {
+      return 30000;
+    }
+
+    /**
+     * Keeps connections alive for reuse, sized by the {@code route53.http} bindings.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(Provider provider, SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier,
+                                      @Named("route53.http.maxConnections") int maxConnections,
+                                      @Named("route53.http.maxConnectionsPerRoute") int perRoute,
+                                      @Named("route53.http.idleTimeoutMillis") long idleTimeout) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+                                  maxConnections, perRoute, idleTimeout);
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel, Route53RateLimit rateLimit,
+                Metrics metrics) {
       Decoder decoder = decoder();
       return Feign.builder()
+          .client(new Metering.MeteredClient(client))
+          .invocationHandlerFactory(new Metering(metrics))
           .logger(logger)
           .logLevel(logLevel)
+          .requestInterceptor(rateLimit)
+          .retryer(rateLimit.retryer())
           .encoder(new EncodeChanges())
-          .decoder(decoder)
-          .errorDecoder(new Route53ErrorDecoder(decoder))
+          .decoder(new Metering.MeteredDecoder(decoder))
+          .errorDecoder(new Route53ErrorDecoder(decoder, rateLimit))
           .build();
     }
 
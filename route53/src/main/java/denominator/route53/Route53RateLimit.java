@@ -0,0 +1,37 @@
+package denominator.route53;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import denominator.Credentials;
+import denominator.Provider;
+import denominator.feign.RateLimit;
+
+/**
+ * Paces requests per access key, as route53 limits requests per account. Route53 documents its
+ * limit, so requests are paced from the first.
+ */
+final class Route53RateLimit extends RateLimit {
+
+  /**
+   * @param permitsPerSecond ceiling of the rate, or zero to not pace requests.
+   */
+  @Inject
+  Route53RateLimit(Provider provider, javax.inject.Provider<Credentials> credentials,
+                   @Named("route53.rateLimit") double permitsPerSecond) {
+    super(provider, credentials, permitsPerSecond, true);
+  }
+
+  @Override
+  protected Object account(Credentials credentials) {
+    if (credentials instanceof Map) {
+      return Map.class.cast(credentials).get("accessKey");
+    } else if (credentials instanceof List) {
+      return List.class.cast(credentials).get(0);
+    }
+    return null;
+  }
+}
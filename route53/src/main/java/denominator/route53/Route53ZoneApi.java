@@ -1,11 +1,19 @@
 package denominator.route53;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import denominator.common.DaemonThreadFactory;
 import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingIterator;
+import denominator.common.PrefetchingIterator.Lookup;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.model.ResourceRecordSet;
 import denominator.model.Zone;
 import denominator.model.rdata.SOAData;
@@ -15,22 +23,73 @@ import denominator.route53.Route53.HostedZoneList;
 import denominator.route53.Route53.NameAndCount;
 import denominator.route53.Route53.ResourceRecordSetList;
 
+import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkState;
 import static denominator.model.ResourceRecordSets.soa;
 import static denominator.route53.Route53.ActionOnResourceRecordSet.create;
 import static java.util.Arrays.asList;
 
-public final class Route53ZoneApi implements denominator.ZoneApi {
+public final class Route53ZoneApi implements denominator.ZoneApi, Closeable {
 
   private final Route53 api;
+  private final int soaConcurrency;
+  private final int pageLookahead;
+  private ExecutorService soaExecutor;
 
   Route53ZoneApi(Route53 api) {
+    this(api, 1, 0);
+  }
+
+  /**
+   * @param soaConcurrency count of SOA lookups to keep in flight ahead of the cursor when iterating
+   *                       all zones. {@code 1} looks up each SOA on demand.
+   * @param pageLookahead  count of hosted zone pages to fetch ahead of the one being consumed.
+   */
+  Route53ZoneApi(Route53 api, int soaConcurrency, int pageLookahead) {
+    checkArgument(soaConcurrency > 0, "soaConcurrency must be positive: %s", soaConcurrency);
     this.api = api;
+    this.soaConcurrency = soaConcurrency;
+    this.pageLookahead = pageLookahead;
   }
 
+  /**
+   * Zipping each hosted zone with its SOA record costs one request per zone. When {@code
+   * soaConcurrency} is greater than one, these requests are issued ahead of the cursor, so that
+   * listing costs roughly the same as paging through the hosted zones.
+   */
   @Override
   public Iterator<Zone> iterator() {
-    return new ZipWithSOA(api.listHostedZones());
+    Iterator<HostedZone> hostedZones = hostedZones();
+    if (soaConcurrency == 1) {
+      return new ZipWithSOA(hostedZones);
+    }
+    return PrefetchingIterator.create(hostedZones, new Lookup<HostedZone, Zone>() {
+      @Override
+      public Zone apply(HostedZone input) {
+        return zipWithSOA(input);
+      }
+    }, soaConcurrency, soaExecutor());
+  }
+
+  /**
+   * Like {@link #iterator()}, except the SOA record of each zone isn't looked up. This costs the
+   * same as paging through the hosted zones.
+   *
+   * <p/>As the SOA isn't read, {@link Zone#ttl()} is always 86400 and {@link Zone#email()} is
+   * {@code nil@} followed by the zone name.
+   */
+  public Iterator<Zone> iterateNamesOnly() {
+    final Iterator<HostedZone> hostedZones = hostedZones();
+    return new PeekingIterator<Zone>() {
+      @Override
+      protected Zone computeNext() {
+        if (hostedZones.hasNext()) {
+          HostedZone next = hostedZones.next();
+          return Zone.create(next.id, next.name, 86400, "nil@" + next.name);
+        }
+        return endOfData();
+      }
+    };
   }
 
   /**
@@ -128,33 +187,54 @@ public final class Route53ZoneApi implements denominator.ZoneApi {
     return Zone.create(next.id, next.name, soa.ttl(), soaData.rname());
   }
 
+  private synchronized ExecutorService soaExecutor() {
+    if (soaExecutor == null) {
+      soaExecutor = Executors.newFixedThreadPool(soaConcurrency,
+                                                 new DaemonThreadFactory("route53-soa"));
+    }
+    return soaExecutor;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (soaExecutor != null) {
+      soaExecutor.shutdownNow();
+      soaExecutor = null;
+    }
+  }
+
+  /**
+   * Lazy pages through all hosted zones, fetching {@code pageLookahead} pages ahead.
+   */
+  private Iterator<HostedZone> hostedZones() {
+    return PrefetchingPager.<HostedZone, HostedZoneList>create(
+        api.listHostedZones(), new NextPage<HostedZoneList>() {
+          @Override
+          public HostedZoneList apply(HostedZoneList page) {
+            return page.next != null ? api.listHostedZones(page.next) : null;
+          }
+        }, pageLookahead);
+  }
+
   /**
    * For each hosted zone, lazy fetch the corresponding SOA record and zip into a Zone object.
    */
   class ZipWithSOA implements Iterator<Zone> {
 
-    HostedZoneList list;
-    int i = 0;
-    int length;
+    final Iterator<HostedZone> hostedZones;
 
-    ZipWithSOA(HostedZoneList list) {
-      this.list = list;
-      this.length = list.size();
+    ZipWithSOA(Iterator<HostedZone> hostedZones) {
+      this.hostedZones = hostedZones;
     }
 
     @Override
     public boolean hasNext() {
-      while (i == length && list.next != null) {
-        list = api.listHostedZones(list.next);
-        length = list.size();
-        i = 0;
-      }
-      return i < length;
+      return hostedZones.hasNext();
     }
 
     @Override
     public Zone next() {
-      return zipWithSOA(list.get(i++));
+      return zipWithSOA(hostedZones.next());
     }
 
     @Override
@@ -1,5 +1,6 @@
 package denominator.route53;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
 
@@ -54,6 +55,21 @@ final class MockRoute53Server extends Route53Provider implements TestRule {
     delegate.enqueue(mockResponse);
   }
 
+  /**
+   * Responds by request, as opposed to in order, for tests that make concurrent requests.
+   */
+  void setDispatcher(Dispatcher dispatcher) {
+    delegate.setDispatcher(dispatcher);
+  }
+
+  int getRequestCount() {
+    return delegate.getRequestCount();
+  }
+
+  String takeRequestBody() throws InterruptedException {
+    return delegate.takeRequest().getBody().readUtf8();
+  }
+
   RecordedRequestAssert assertRequest() throws InterruptedException {
     return assertThat(delegate.takeRequest());
   }
@@ -0,0 +1,188 @@
+package denominator.route53;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import denominator.ChangeSet;
+
+import static denominator.CredentialsConfiguration.credentials;
+import static denominator.Denominator.create;
+import static denominator.model.ResourceRecordSets.a;
+import static denominator.model.ResourceRecordSets.txt;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Route53ChangeSetMockTest {
+
+  @Rule
+  public MockRoute53Server server = new MockRoute53Server();
+
+  @Test
+  public void addsAreSentInOneBatchWithoutReading() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ChangeSet changes = server.connect().api().changeSetInZone("Z1PA6795UKMFR9");
+    changes.add(a("www1.denominator.io.", 3600, "192.0.2.1"))
+        .add(a("www2.denominator.io.", 3600, "192.0.2.2"))
+        .apply();
+
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>CREATE</Action><ResourceRecordSet><Name>www1.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>CREATE</Action><ResourceRecordSet><Name>www2.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.2</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void replaceDeletesOldInSameBatch() throws Exception {
+    server.enqueue(new MockResponse().setBody(oneRecord));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ChangeSet changes = server.connect().api().changeSetInZone("Z1PA6795UKMFR9");
+    changes.replace(a("www.denominator.io.", 3600, "192.0.2.2"))
+        .add(a("www1.denominator.io.", 3600, "192.0.2.1"))
+        .apply();
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>DELETE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>CREATE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.2</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>CREATE</Action><ResourceRecordSet><Name>www1.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+  }
+
+  @Test
+  public void upsertReplacesWithoutReading() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    create(server, credentials(server.credentials()),
+           new Route53ResourceRecordSetApiMockTest.Upsert())
+        .api().changeSetInZone("Z1PA6795UKMFR9")
+        .replace(a("www.denominator.io.", 3600, "192.0.2.2"))
+        .add(a("www1.denominator.io.", 3600, "192.0.2.1"))
+        .apply();
+
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2013-04-01/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2013-04-01/\"><ChangeBatch><Changes><Change><Action>UPSERT</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.2</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>CREATE</Action><ResourceRecordSet><Name>www1.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void upsertsCountTwiceTowardsLimits() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ChangeSet changes = create(server, credentials(server.credentials()),
+                               new Route53ResourceRecordSetApiMockTest.Upsert())
+        .api().changeSetInZone("Z1PA6795UKMFR9");
+    for (int i = 0; i < 600; i++) {
+      changes.replace(a("www" + i + ".denominator.io.", "192.0.2.1"));
+    }
+    changes.apply();
+
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(500);
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(100);
+  }
+
+  @Test
+  public void replaceSameIsNoOp() throws Exception {
+    server.enqueue(new MockResponse().setBody(oneRecord));
+
+    server.connect().api().changeSetInZone("Z1PA6795UKMFR9")
+        .replace(a("www.denominator.io.", 3600, "192.0.2.1"))
+        .apply();
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=A");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void deletesReadOncePerNameAndType() throws Exception {
+    server.enqueue(new MockResponse().setBody(twoWeightedRecords));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    server.connect().api().changeSetInZone("Z1PA6795UKMFR9")
+        .delete("www.denominator.io.", "CNAME", "MyService-East")
+        .delete("www.denominator.io.", "CNAME")
+        .delete("www.denominator.io.", "CNAME", "MyService-North")
+        .apply();
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=CNAME");
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>DELETE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>CNAME</Type><SetIdentifier>MyService-East</SetIdentifier><Weight>1</Weight><TTL>0</TTL><ResourceRecords><ResourceRecord><Value>www1.denominator.io.</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change><Change><Action>DELETE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>CNAME</Type><SetIdentifier>MyService-West</SetIdentifier><Weight>5</Weight><TTL>0</TTL><ResourceRecords><ResourceRecord><Value>www2.denominator.io.</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void nothingToChangeSendsNothing() throws Exception {
+    server.enqueue(new MockResponse().setBody(noRecords));
+
+    server.connect().api().changeSetInZone("Z1PA6795UKMFR9")
+        .delete("www.denominator.io.", "A")
+        .apply();
+
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void splitsBatchesAtRecordLimit() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ChangeSet changes = server.connect().api().changeSetInZone("Z1PA6795UKMFR9");
+    for (int i = 0; i < 1500; i++) {
+      changes.add(a("www" + i + ".denominator.io.", "192.0.2.1"));
+    }
+    changes.apply();
+
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(1000);
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(500);
+  }
+
+  @Test
+  public void splitsBatchesAtValueCharacterLimit() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 998; i++) { // 1000 with quotes
+      value.append('a');
+    }
+    ChangeSet changes = server.connect().api().changeSetInZone("Z1PA6795UKMFR9");
+    for (int i = 0; i < 40; i++) {
+      changes.add(txt("txt" + i + ".denominator.io.", value.toString()));
+    }
+    changes.apply();
+
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(32);
+    assertThat(countChanges(server.takeRequestBody())).isEqualTo(8);
+  }
+
+  static int countChanges(String body) {
+    return body.split("<Change>", -1).length - 1;
+  }
+
+  String
+      noRecords =
+      "<ListResourceRecordSetsResponse><ResourceRecordSets></ResourceRecordSets></ListResourceRecordSetsResponse>";
+  String
+      changeSynced =
+      "<GetChangeResponse><ChangeInfo><Id>/change/C2682N5HXP0BZ4</Id><Status>INSYNC</Status><SubmittedAt>2011-09-10T01:36:41.958Z</SubmittedAt></ChangeInfo></GetChangeResponse>";
+  String
+      oneRecord =
+      "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets></ListResourceRecordSetsResponse>";
+  String
+      twoWeightedRecords =
+      "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>CNAME</Type><SetIdentifier>MyService-East</SetIdentifier><Weight>1</Weight><TTL>0</TTL><ResourceRecords><ResourceRecord><Value>www1.denominator.io.</Value></ResourceRecord></ResourceRecords></ResourceRecordSet><ResourceRecordSet><Name>www.denominator.io.</Name><Type>CNAME</Type><SetIdentifier>MyService-West</SetIdentifier><Weight>5</Weight><TTL>0</TTL><ResourceRecords><ResourceRecord><Value>www2.denominator.io.</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets></ListResourceRecordSetsResponse>";
+}
@@ -7,18 +7,29 @@ import org.junit.rules.ExpectedException;
 import java.util.Collection;
 import java.util.Collections;
 
+import denominator.Credentials;
+import denominator.Credentials.ListCredentials;
 import feign.Response;
 import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 
 import static feign.Util.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class Route53ErrorDecoderTest {
 
   @Rule
   public final ExpectedException thrown = ExpectedException.none();
 
-  ErrorDecoder errors = new Route53ErrorDecoder(new Route53Provider.FeignModule().decoder());
+  Route53RateLimit rateLimit = new Route53RateLimit(new Route53Provider("http://decoder.test"),
+      new javax.inject.Provider<Credentials>() {
+        @Override
+        public Credentials get() {
+          return ListCredentials.from("accessKey", "secretKey");
+        }
+      }, 5);
+  ErrorDecoder errors =
+      new Route53ErrorDecoder(new Route53Provider.FeignModule().decoder(), rateLimit);
 
   @Test
   public void requestExpired() throws Exception {
@@ -95,6 +106,25 @@ public class Route53ErrorDecoderTest {
     throw errors.decode("Route53.zones()", response);
   }
 
+  @Test
+  public void throttlingSlowsRateForAccount() throws Exception {
+    Response
+        response =
+        response("<Response xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+                 + "  <Errors>\n"
+                 + "    <Error>\n"
+                 + "      <Code>Throttling</Code>\n"
+                 + "      <Message>Rate exceeded</Message>\n"
+                 + "    </Error>\n"
+                 + "  </Errors>\n"
+                 + "  <RequestID>dc94a37b0-e297-4ab7-83c8-791a0fc8f613</RequestID>\n"
+                 + "</Response>");
+    RetryableException e = (RetryableException) errors.decode("Route53.zones()", response);
+
+    assertThat(e.retryAfter()).isNotNull();
+    assertThat(rateLimit.limiter().rate()).isLessThan(5.0);
+  }
+
   @Test
   public void priorRequestNotComplete() throws Exception {
     thrown.expect(RetryableException.class);
@@ -1,14 +1,24 @@
 package denominator.route53;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.Closeable;
 import java.util.Arrays;
+import java.util.Iterator;
 
+import javax.inject.Named;
+
+import dagger.Provides;
 import denominator.ResourceRecordSetApi;
+import denominator.model.ResourceRecordSet;
 
+import static denominator.CredentialsConfiguration.credentials;
+import static denominator.Denominator.create;
 import static denominator.assertj.ModelAssertions.assertThat;
 import static denominator.model.ResourceRecordSets.a;
 
@@ -29,6 +39,156 @@ public class Route53ResourceRecordSetApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www.denominator.io.&type=CNAME");
   }
 
+  @Test
+  public void iteratorFetchesNextPageWhileConsumingCurrent() throws Exception {
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets><IsTruncated>true</IsTruncated><NextRecordName>www1.denominator.io.</NextRecordName><NextRecordType>A</NextRecordType></ListResourceRecordSetsResponse>"));
+    server.enqueue(new MockResponse().setBody(
+        "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www1.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.2</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets></ListResourceRecordSetsResponse>"));
+
+    Iterator<ResourceRecordSet<?>> iterator =
+        server.connect().api().basicRecordSetsInZone("Z1PA6795UKMFR9").iterator();
+    assertThat(iterator.next()).isEqualTo(a("www.denominator.io.", 3600, "192.0.2.1"));
+
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset");
+    // requested before the first page is exhausted
+    server.assertRequest()
+        .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=www1.denominator.io.&type=A");
+
+    assertThat(iterator).containsExactly(a("www1.denominator.io.", 3600, "192.0.2.2"));
+  }
+
+  @Test
+  public void parallelIteratorSplitsOnLeadingCharacters() {
+    assertThat(PartitionedRRSetIterator.splitPoints("denominator.io.", 3))
+        .containsExactly("c0.denominator.io.", "o0.denominator.io.");
+  }
+
+  @Test
+  public void parallelIteratorListsRangesConcurrentlyInOrder() throws Exception {
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath().replace("/2012-12-12/hostedzone/Z1PA6795UKMFR9", "");
+        if (path.equals("")) {
+          return new MockResponse().setBody(
+              "<GetHostedZoneResponse><HostedZone><Name>denominator.io.</Name><ResourceRecordSetCount>5</ResourceRecordSetCount></HostedZone></GetHostedZoneResponse>");
+        } else if (path.equals("/rrset")) {
+          return rrsets("a", "b");
+        } else if (path.equals("/rrset?name=b.denominator.io.&type=A")) {
+          return rrsets("b", "j", "k");
+        } else if (path.equals("/rrset?name=i0.denominator.io.")) {
+          return rrsets("j", "k", "z");
+        } else if (path.equals("/rrset?name=z.denominator.io.&type=A")) {
+          return rrsets("z");
+        }
+        return new MockResponse().setResponseCode(404);
+      }
+    });
+
+    Route53AllProfileResourceRecordSetApi api = (Route53AllProfileResourceRecordSetApi)
+        server.connect().api().recordSetsInZone("Z1PA6795UKMFR9");
+
+    assertThat(api.parallelIterator(2)).containsExactly(
+        a("a.denominator.io.", 3600, "192.0.2.1"),
+        a("b.denominator.io.", 3600, "192.0.2.1"),
+        a("j.denominator.io.", 3600, "192.0.2.1"),
+        a("k.denominator.io.", 3600, "192.0.2.1"),
+        a("z.denominator.io.", 3600, "192.0.2.1"));
+    // the first range stopped at the start of the second, as opposed to paging past it
+    assertThat(server.getRequestCount()).isEqualTo(5);
+  }
+
+  @Test
+  public void parallelIteratorBuffersFewPagesAheadOfCursor() throws Exception {
+    server.setDispatcher(endlessFirstRange());
+
+    Route53AllProfileResourceRecordSetApi api = (Route53AllProfileResourceRecordSetApi)
+        server.connect().api().recordSetsInZone("Z1PA6795UKMFR9");
+    Iterator<ResourceRecordSet<?>> iterator = api.parallelIterator(2);
+
+    // hosted zone, first page of each range, and one more page of the first range
+    awaitRequestCount(4);
+    Thread.sleep(100);
+    assertThat(server.getRequestCount()).isEqualTo(4);
+
+    assertThat(iterator.next()).hasName("a0.denominator.io.");
+    assertThat(iterator.next()).hasName("a1.denominator.io.");
+    awaitRequestCount(5); // taking the first page resumed the range
+    Thread.sleep(100);
+    assertThat(server.getRequestCount()).isEqualTo(5);
+
+    ((Closeable) iterator).close();
+  }
+
+  @Test
+  public void parallelIteratorStopsListingWhenClosed() throws Exception {
+    server.setDispatcher(endlessFirstRange());
+
+    Route53AllProfileResourceRecordSetApi api = (Route53AllProfileResourceRecordSetApi)
+        server.connect().api().recordSetsInZone("Z1PA6795UKMFR9");
+    Iterator<ResourceRecordSet<?>> iterator = api.parallelIterator(2);
+    awaitRequestCount(4);
+
+    ((Closeable) iterator).close();
+
+    assertThat(iterator).isEmpty();
+    Thread.sleep(100);
+    assertThat(server.getRequestCount()).isEqualTo(4);
+  }
+
+  /**
+   * The first of two ranges pages forever, each page listing two names.
+   */
+  static Dispatcher endlessFirstRange() {
+    return new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath().replace("/2012-12-12/hostedzone/Z1PA6795UKMFR9", "");
+        if (path.equals("")) {
+          return new MockResponse().setBody(
+              "<GetHostedZoneResponse><HostedZone><Name>denominator.io.</Name><ResourceRecordSetCount>5</ResourceRecordSetCount></HostedZone></GetHostedZoneResponse>");
+        } else if (path.equals("/rrset")) {
+          return rrsets("a0", "a1", "a2");
+        } else if (path.equals("/rrset?name=i0.denominator.io.")) {
+          return rrsets("j");
+        } else if (path.startsWith("/rrset?name=a")) {
+          int next = Integer.parseInt(path.substring(13, path.indexOf('.')));
+          return rrsets("a" + next, "a" + (next + 1), "a" + (next + 2));
+        }
+        return new MockResponse().setResponseCode(404);
+      }
+    };
+  }
+
+  void awaitRequestCount(int count) throws InterruptedException {
+    for (int i = 0; i < 50 && server.getRequestCount() < count; i++) {
+      Thread.sleep(100);
+    }
+    assertThat(server.getRequestCount()).isEqualTo(count);
+  }
+
+  /**
+   * A page of A records, truncated before the last label.
+   */
+  static MockResponse rrsets(String... labels) {
+    StringBuilder body = new StringBuilder("<ListResourceRecordSetsResponse><ResourceRecordSets>");
+    for (int i = 0; i < labels.length; i++) {
+      if (i > 0 && i == labels.length - 1) {
+        body.append("</ResourceRecordSets><IsTruncated>true</IsTruncated><NextRecordName>")
+            .append(labels[i]).append(".denominator.io.</NextRecordName>")
+            .append("<NextRecordType>A</NextRecordType></ListResourceRecordSetsResponse>");
+        return new MockResponse().setBody(body.toString());
+      }
+      body.append("<ResourceRecordSet><Name>").append(labels[i]).append(".denominator.io.</Name>")
+          .append("<Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord>")
+          .append("<Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet>");
+    }
+    body.append("</ResourceRecordSets></ListResourceRecordSetsResponse>");
+    return new MockResponse().setBody(body.toString());
+  }
+
   @Test
   public void putFirstRecordCreatesNewRRSet() throws Exception {
     server.enqueue(new MockResponse().setBody(noRecords));
@@ -46,6 +206,22 @@ public class Route53ResourceRecordSetApiMockTest {
             "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeBatch><Changes><Change><Action>CREATE</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
   }
 
+  @Test
+  public void putUpsertsWithoutReading() throws Exception {
+    server.enqueue(new MockResponse().setBody(changeSynced));
+
+    ResourceRecordSetApi api = create(server, credentials(server.credentials()), new Upsert())
+        .api().basicRecordSetsInZone("Z1PA6795UKMFR9");
+    api.put(a("www.denominator.io.", 3600, "192.0.2.1"));
+
+    server.assertRequest()
+        .hasMethod("POST")
+        .hasPath("/2013-04-01/hostedzone/Z1PA6795UKMFR9/rrset")
+        .hasXMLBody(
+            "<ChangeResourceRecordSetsRequest xmlns=\"https://route53.amazonaws.com/doc/2013-04-01/\"><ChangeBatch><Changes><Change><Action>UPSERT</Action><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></Change></Changes></ChangeBatch></ChangeResourceRecordSetsRequest>");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
   @Test
   public void putSameRecordNoOp() throws Exception {
     server.enqueue(new MockResponse().setBody(oneRecord));
@@ -194,4 +370,14 @@ public class Route53ResourceRecordSetApiMockTest {
   String
       twoRecords =
       "<ListResourceRecordSetsResponse><ResourceRecordSets><ResourceRecordSet><Name>www.denominator.io.</Name><Type>A</Type><TTL>3600</TTL><ResourceRecords><ResourceRecord><Value>192.0.2.1</Value></ResourceRecord><ResourceRecord><Value>198.51.100.1</Value></ResourceRecord></ResourceRecords></ResourceRecordSet></ResourceRecordSets></ListResourceRecordSetsResponse>";
+
+  @dagger.Module(overrides = true, library = true)
+  static final class Upsert {
+
+    @Provides
+    @Named("route53.upsert")
+    boolean provideUpsert() {
+      return true;
+    }
+  }
 }
@@ -9,11 +9,14 @@ import org.junit.rules.ExpectedException;
 import java.util.Arrays;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.model.ResourceRecordSet;
 import denominator.route53.Route53.ActionOnResourceRecordSet;
+import feign.Client;
 import feign.Feign;
 
 import static denominator.model.ResourceRecordSets.a;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class Route53Test {
 
@@ -79,6 +82,38 @@ public class Route53Test {
             + "</ChangeResourceRecordSetsRequest>");
   }
 
+  @Test
+  public void changeResourceRecordSetsRetriesWhenThrottled() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(400).setBody(
+        "<ErrorResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+        + "  <Error>\n"
+        + "    <Type>Sender</Type>\n"
+        + "    <Code>Throttling</Code>\n"
+        + "    <Message>Rate exceeded</Message>\n"
+        + "  </Error>\n"
+        + "  <RequestId>dc94a37b0-e297-4ab7-83c8-791a0fc8f613</RequestId>\n"
+        + "</ErrorResponse>"));
+    server.enqueue(new MockResponse().setBody(changeResourceRecordSetsResponsePending));
+
+    ActionOnResourceRecordSet
+        createA =
+        ActionOnResourceRecordSet.create(a("www.denominator.io.", 3600, "192.0.2.1"));
+
+    Metrics metrics = new Metrics();
+    long start = System.currentTimeMillis();
+    mockApi(metrics).changeResourceRecordSets2013("Z1PA6795UKMFR9", Arrays.asList(createA));
+
+    assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(900);
+    assertThat(server.getRequestCount()).isEqualTo(2);
+
+    Metrics.Snapshot change =
+        metrics.snapshot().get("Route53#changeResourceRecordSets2013(String,List)");
+    assertThat(change.calls()).isEqualTo(1);
+    assertThat(change.retries()).isEqualTo(1);
+    assertThat(change.errors()).isZero();
+    assertThat(change.p50Micros()).isGreaterThanOrEqualTo(900000);
+  }
+
   @Test
   public void changeResourceRecordSetsRequestCreateADuplicate() throws Exception {
     thrown.expect(InvalidChangeBatchException.class);
@@ -100,21 +135,30 @@ public class Route53Test {
   }
 
   Route53 mockApi() {
-    Route53Provider.FeignModule module = new Route53Provider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
-    return feign.newInstance(new Route53Target(new Route53Provider() {
+    return mockApi(new Metrics());
+  }
+
+  Route53 mockApi(Metrics metrics) {
+    Route53Provider provider = new Route53Provider() {
       @Override
       public String url() {
         return server.url();
       }
-    }, new InvalidatableAuthenticationHeadersProvider(new javax.inject.Provider<Credentials>() {
+    };
+    javax.inject.Provider<Credentials> credentials = new javax.inject.Provider<Credentials>() {
 
       @Override
       public Credentials get() {
         return server.credentials();
       }
 
-    })));
+    };
+    Route53Provider.FeignModule module = new Route53Provider.FeignModule();
+    Feign feign = module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                               new Route53RateLimit(provider, credentials,
+                                                    module.provideRateLimit()), metrics);
+    return feign.newInstance(new Route53Target(provider,
+        new InvalidatableAuthenticationHeadersProvider(credentials)));
   }
 
   String changeResourceRecordSetsRequestCreateA =
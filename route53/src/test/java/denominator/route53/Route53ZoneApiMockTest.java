@@ -6,10 +6,18 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.Iterator;
+import java.util.SortedMap;
 
+import javax.inject.Named;
+
+import dagger.Provides;
+import denominator.DNSApiManager;
+import denominator.Metrics.Snapshot;
 import denominator.ZoneApi;
 import denominator.model.Zone;
 
+import static denominator.CredentialsConfiguration.credentials;
+import static denominator.Denominator.create;
 import static denominator.assertj.ModelAssertions.assertThat;
 
 public class Route53ZoneApiMockTest {
@@ -59,6 +67,70 @@ public class Route53ZoneApiMockTest {
         .hasPath("/2012-12-12/hostedzone/Z1PA6795UKMFR9/rrset?name=denominator.io.&type=SOA");
   }
 
+  @Test
+  public void iteratorPrefetchesSOA() throws Exception {
+    server.enqueue(twoZones);
+    server.enqueue(soaResponse);
+    server.enqueue(soaResponse);
+
+    DNSApiManager mgr = create(server, credentials(server.credentials()), new SOAConcurrency());
+    try {
+      assertThat(mgr.api().zones().iterator()).containsExactly(
+          Zone.create("Z2ZEEJCUZCVG56", "denominator.io.", 3601, "test@denominator.io"),
+          Zone.create("Z3OQLQGABCU3T", "denominator.io.", 3601, "test@denominator.io")
+      );
+    } finally {
+      mgr.close();
+    }
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+    // SOA lookups are concurrent, so the order of requests isn't defined.
+    server.assertRequest().hasMethod("GET");
+    server.assertRequest().hasMethod("GET");
+  }
+
+  @Test
+  public void metricsShowSOALookupPerZone() throws Exception {
+    server.enqueue(twoZones);
+    server.enqueue(soaResponse);
+    server.enqueue(soaResponse);
+
+    DNSApiManager mgr = server.connect();
+    assertThat(mgr.api().zones().iterator()).hasSize(2);
+
+    SortedMap<String, Snapshot> metrics = mgr.metrics().snapshot();
+    assertThat(metrics).containsOnlyKeys("Route53#listHostedZones()",
+                                         "Route53#listResourceRecordSets(String,String,String)");
+
+    Snapshot listZones = metrics.get("Route53#listHostedZones()");
+    assertThat(listZones.calls()).isEqualTo(1);
+    assertThat(listZones.records()).isEqualTo(2);
+    assertThat(listZones.bytesIn()).isGreaterThan(0);
+
+    Snapshot soa = metrics.get("Route53#listResourceRecordSets(String,String,String)");
+    assertThat(soa.calls()).isEqualTo(2);
+    assertThat(soa.recordsPerCall()).isEqualTo(1.0);
+    assertThat(soa.errors()).isZero();
+  }
+
+  @Test
+  public void iterateNamesOnlyDoesntLookupSOA() throws Exception {
+    server.enqueue(twoZones);
+
+    Route53ZoneApi api = (Route53ZoneApi) server.connect().api().zones();
+
+    assertThat(api.iterateNamesOnly()).containsExactly(
+        Zone.create("Z2ZEEJCUZCVG56", "denominator.io.", 86400, "nil@denominator.io."),
+        Zone.create("Z3OQLQGABCU3T", "denominator.io.", 86400, "nil@denominator.io.")
+    );
+
+    server.assertRequest()
+        .hasMethod("GET")
+        .hasPath("/2012-12-12/hostedzone");
+  }
+
   @Test
   public void iteratorWhenAbsent() throws Exception {
     server.enqueue(new MockResponse().setBody(
@@ -477,4 +549,39 @@ public class Route53ZoneApiMockTest {
   private MockResponse deletingZone = new MockResponse().setBody(
       "<DeleteHostedZoneResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\"><ChangeInfo><Id>/change/C1QB5QU6VYXUHE</Id><Status>PENDING</Status><SubmittedAt>2015-04-03T14:41:54.512Z</SubmittedAt></ChangeInfo></DeleteHostedZoneResponse>"
   );
+  private MockResponse twoZones = new MockResponse().setBody(
+      "<ListHostedZonesResponse>\n"
+      + "  <HostedZones>\n"
+      + "    <HostedZone>\n"
+      + "      <Id>/hostedzone/Z2ZEEJCUZCVG56</Id>\n"
+      + "      <Name>denominator.io.</Name>\n"
+      + "      <CallerReference>Foo</CallerReference>\n"
+      + "      <ResourceRecordSetCount>3</ResourceRecordSetCount>\n"
+      + "    </HostedZone>\n"
+      + "    <HostedZone>\n"
+      + "      <Id>/hostedzone/Z3OQLQGABCU3T</Id>\n"
+      + "      <Name>denominator.io.</Name>\n"
+      + "      <CallerReference>Bar</CallerReference>\n"
+      + "      <ResourceRecordSetCount>2</ResourceRecordSetCount>\n"
+      + "    </HostedZone>\n"
+      + "  </HostedZones>\n"
+      + "</ListHostedZonesResponse>");
+  private MockResponse soaResponse = new MockResponse().setBody(
+      "<ListResourceRecordSetsResponse xmlns=\"https://route53.amazonaws.com/doc/2012-12-12/\">\n"
+      + "  <ResourceRecordSets>\n"
+      + soaRRSet
+      + "  </ResourceRecordSets>\n"
+      + "  <IsTruncated>false</IsTruncated>\n"
+      + "  <MaxItems>100</MaxItems>\n"
+      + "</ListResourceRecordSetsResponse>");
+
+  @dagger.Module(overrides = true, library = true)
+  static final class SOAConcurrency {
+
+    @Provides
+    @Named("route53.soaConcurrency")
+    int provideSOAConcurrency() {
+      return 2;
+    }
+  }
 }
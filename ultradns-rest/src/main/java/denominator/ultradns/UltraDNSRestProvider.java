@@ -1,5 +1,6 @@
 package denominator.ultradns;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -9,17 +10,22 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
 import denominator.QualifiedResourceRecordSetApi;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
 import denominator.config.ConcatBasicAndQualifiedResourceRecordSets;
-import denominator.config.NothingToClose;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.WeightedUnsupported;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.ultradns.service.decoder.UltraDNSRestErrorDecoder;
 import denominator.ultradns.service.UltraDNSRestGeoSupport;
@@ -32,13 +38,13 @@ import denominator.ultradns.service.auth.SessionTarget;
 import denominator.ultradns.service.auth.UltraDNSRestTarget;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import denominator.ultradns.util.PropertyUtil;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.Request.Options;
 import feign.form.FormEncoder;
 import feign.gson.GsonDecoder;
 import feign.gson.GsonEncoder;
-import feign.httpclient.ApacheHttpClient;
 import org.apache.commons.lang.StringUtils;
 import denominator.ResourceTypeToValue.ResourceTypes;
 
@@ -138,13 +144,35 @@ public class UltraDNSRestProvider extends BasicProvider {
     return options;
   }
 
-  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = { NothingToClose.class,
+  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {
           UltraDNSRestGeoSupport.class,
           WeightedUnsupported.class,
           ConcatBasicAndQualifiedResourceRecordSets.class,
           FeignModule.class })
   public static final class Module {
 
+    /**
+     * Stops renewing the session token in the background, and threads used to look up SOA records
+     * and directional pools concurrently. Releases the http connection pool shared with other
+     * managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(final InvalidatableTokenProvider tokenProvider,
+                            final UltraDNSRestZoneApi zoneApi,
+                            final UltraDNSRestGeoResourceRecordSetApi.Factory geoFactory,
+                            final PooledHttpClient httpClient) {
+      return new Closeable() {
+        @Override
+        public void close() {
+          tokenProvider.close();
+          zoneApi.close();
+          geoFactory.close();
+          httpClient.close();
+        }
+      };
+    }
+
     @Provides
     CheckConnection checkConnection(NetworkConnection checkConnection) {
       return checkConnection;
@@ -177,7 +205,8 @@ public class UltraDNSRestProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = UltraDNSRestResourceRecordSetApi.Factory.class,
-          complete = false // doesn't bind Provider used by UltraDNSRestTarget
+          complete = false, // doesn't bind Provider used by UltraDNSRestTarget
+          includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -209,9 +238,35 @@ public class UltraDNSRestProvider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Keeps connections alive for reuse, sized by {@code ultradns.rest.http.max.connections} and
+     * {@code ultradns.rest.http.max.connections.per.route}. Connections idle longer than {@code
+     * ultradns.rest.http.idle.timeout.millis} are closed in the background.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(denominator.Provider provider,
+                                      SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+          Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.http.max.connections")),
+          Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.http.max.connections.per.route")),
+          Long.parseLong(PropertyUtil.getProperty("ultradns.rest.http.idle.timeout.millis")));
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel, UltraDNSRestErrorDecoder errorDecoder) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel,
+                UltraDNSRestRateLimit rateLimit, UltraDNSRestErrorDecoder errorDecoder,
+                Metrics metrics) {
 
       /**
        * {@link UltraDNSRest#updateDirectionalPoolRecord(UltraDNSRest.DirectionalRecord, UltraDNSRest.DirectionalGroup)}
@@ -224,13 +279,16 @@ public class UltraDNSRestProvider extends BasicProvider {
           );
 
       return Feign.builder()
-              .client(new ApacheHttpClient())
+              .client(new Metering.MeteredClient(client))
+              .invocationHandlerFactory(new Metering(metrics))
               .logger(logger)
               .logLevel(logLevel)
               .options(options)
+              .requestInterceptor(rateLimit)
+              .retryer(rateLimit.retryer())
               .encoder(new GsonEncoder())
               .encoder(new FormEncoder(new GsonEncoder()))
-              .decoder(new GsonDecoder())
+              .decoder(new Metering.MeteredDecoder(new GsonDecoder()))
               .errorDecoder(errorDecoder)
               .build();
     }
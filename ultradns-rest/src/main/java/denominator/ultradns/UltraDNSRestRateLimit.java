@@ -0,0 +1,41 @@
+package denominator.ultradns;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import denominator.Credentials;
+import denominator.Provider;
+import denominator.feign.RateLimit;
+import denominator.ultradns.util.PropertyUtil;
+
+/**
+ * Paces requests per user once UltraDNS responds with status 429.
+ */
+public final class UltraDNSRestRateLimit extends RateLimit {
+
+  @Inject
+  public UltraDNSRestRateLimit(Provider provider, javax.inject.Provider<Credentials> credentials) {
+    this(provider, credentials,
+         Double.parseDouble(PropertyUtil.getProperty("ultradns.rest.rate.limit")));
+  }
+
+  /**
+   * @param permitsPerSecond ceiling of the rate once throttled, or zero to not pace requests.
+   */
+  UltraDNSRestRateLimit(Provider provider, javax.inject.Provider<Credentials> credentials,
+                        double permitsPerSecond) {
+    super(provider, credentials, permitsPerSecond, false);
+  }
+
+  @Override
+  protected Object account(Credentials credentials) {
+    if (credentials instanceof Map) {
+      return Map.class.cast(credentials).get("username");
+    } else if (credentials instanceof List) {
+      return List.class.cast(credentials).get(0);
+    }
+    return null;
+  }
+}
@@ -6,7 +6,6 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.ArrayList;
 
 import javax.inject.Inject;
 
@@ -18,8 +17,8 @@ import denominator.ultradns.exception.UltraDNSRestException;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import denominator.ultradns.model.DirectionalRecord;
 import denominator.ultradns.model.DirectionalGroup;
-import denominator.ultradns.model.Region;
 import denominator.ultradns.util.RRSetUtil;
+import denominator.ultradns.util.RegionIndex;
 
 import static denominator.common.Util.peekingIterator;
 import static denominator.common.Util.toMap;
@@ -35,7 +34,7 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
   private final PeekingIterator<DirectionalRecord> peekingIterator;
   private final String zoneName;
   private final UltraDNSRest api;
-  private final Map<Region, Collection<Region>> regions;
+  private final RegionIndex regions;
 
   /**
    * Creates a new GroupGeoRecordByNameTypeCustomIterator with specified directional record
@@ -44,7 +43,7 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
   private GroupGeoRecordByNameTypeCustomIterator(UltraDNSRest api,
                                                  Iterator<DirectionalRecord> sortedIterator,
                                                  String zoneName,
-                                                 Map<Region, Collection<Region>> regions) {
+                                                 RegionIndex regions) {
     this.api = api;
     this.peekingIterator = peekingIterator(sortedIterator);
     this.zoneName = zoneName;
@@ -102,9 +101,15 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
 
     final String key = record.getName() + "_" + record.getType() + "_" + record.getGeoGroupName();
     if (!cache.containsKey(key)) {
-      Geo profile = Geo.create(getDirectionalDNSGroupByName(zoneName, record.getName(),
-              RRSetUtil.directionalRecordType(record.getType()), record.getGeoGroupName()).getRegionToTerritories());
-      cache.put(key, profile);
+      Map<String, Collection<String>> regionToTerritories;
+      if (record.getGeoCodes() != null) {
+        // the group's codes were read with the pool, so don't request the pool again
+        regionToTerritories = regions.regionToTerritories(record.getGeoCodes());
+      } else {
+        regionToTerritories = getDirectionalDNSGroupByName(zoneName, record.getName(),
+                RRSetUtil.directionalRecordType(record.getType()), record.getGeoGroupName()).getRegionToTerritories();
+      }
+      cache.put(key, Geo.create(regionToTerritories));
     }
 
     builder.geo(cache.get(key));
@@ -151,7 +156,7 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
     Map<String, Collection<String>> regionToTerritories = new TreeMap<String, Collection<String>>();
 
     if (codes != null && !codes.isEmpty()) {
-      regionToTerritories = getRegionToTerritories(codes);
+      regionToTerritories = regions.regionToTerritories(codes);
     }
 
     DirectionalGroup directionalGroup = new DirectionalGroup();
@@ -161,55 +166,6 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
     return  directionalGroup;
   }
 
-  /**
-   * Coverts set of GEO codes to a map contains key as the region name
-   * & value as all it's child regions/territories names.
-   * @param codes GEO codes
-   * @return Map A map which contains key as the region name
-   */
-  private Map<String, Collection<String>> getRegionToTerritories(TreeSet<String> codes) {
-
-    Map<String, Collection<String>> regionToTerritories = new TreeMap<String, Collection<String>>();
-
-    Iterator<String> iterator = codes.iterator();
-    while (iterator.hasNext()) {
-      String code = iterator.next();
-      Collection<String> list = new ArrayList<String>();
-      boolean codeFound = false;
-
-      if ("A1".equals(code) || "A2".equals(code) || "A3".equals(code)) {
-        for (Region region : regions.keySet()) {
-          if (code.equals(region.getCode())) {
-            list.add(region.getName());
-            if ("A1".equals(code) || "A2".equals(code)) {
-              regionToTerritories.put(region.getName() + " (" + code + ")", list);
-            } else {
-              regionToTerritories.put(region.getName(), list);
-            }
-          }
-        }
-      } else {
-        for (Map.Entry<Region, Collection<Region>> entry : regions.entrySet()) {
-          for (Region region : entry.getValue()) {
-            if (code.equals(region.getEffectiveCodeForGeo())) {
-              if (regionToTerritories.keySet().contains(entry.getKey().getName())) {
-                list = regionToTerritories.get(entry.getKey().getName());
-              }
-              list.add(region.getName());
-              regionToTerritories.put(entry.getKey().getName(), list);
-              codeFound = true;
-              break;
-            }
-          }
-          if (codeFound) {
-            break;
-          }
-        }
-      }
-    }
-    return regionToTerritories;
-  }
-
   public static final class Factory {
 
     private final UltraDNSRest api;
@@ -224,7 +180,7 @@ public final class GroupGeoRecordByNameTypeCustomIterator implements Iterator<Re
      * @param sortedIterator only contains records with the same.
      */
     public Iterator<ResourceRecordSet<?>> create(Iterator<DirectionalRecord> sortedIterator, String name,
-                                                 Map<Region, Collection<Region>> regions) {
+                                                 RegionIndex regions) {
       return new GroupGeoRecordByNameTypeCustomIterator(api, sortedIterator, name, regions);
     }
   }
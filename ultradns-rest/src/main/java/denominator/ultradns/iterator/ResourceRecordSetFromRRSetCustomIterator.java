@@ -0,0 +1,96 @@
+package denominator.ultradns.iterator;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import denominator.ResourceTypeToValue;
+import denominator.common.PeekingIterator;
+import denominator.model.ResourceRecordSet;
+import denominator.model.ResourceRecordSet.Builder;
+import denominator.ultradns.model.RRSet;
+import denominator.ultradns.util.RRSetUtil;
+
+import static denominator.common.Util.peekingIterator;
+import static denominator.common.Util.toMap;
+
+/**
+ * This iterator will produce a ResourceRecordSet per RRSet, which the api already groups by owner
+ * name and type. Unlike {@link GroupByRecordNameAndTypeCustomIterator}, rdata isn't exploded into
+ * intermediate records first. Directional RRSets and those without rdata are skipped.
+ */
+public class ResourceRecordSetFromRRSetCustomIterator implements Iterator<ResourceRecordSet<?>> {
+
+  private final PeekingIterator<RRSet> peekingIterator;
+
+  /**
+   * Creates a new ResourceRecordSetFromRRSetCustomIterator with specified RRSets.
+   */
+  public ResourceRecordSetFromRRSetCustomIterator(Iterator<RRSet> sortedIterator) {
+    this.peekingIterator = peekingIterator(sortedIterator);
+  }
+
+  /**
+   * Returns true if the RRSet is mapped to a ResourceRecordSet.
+   */
+  static boolean isBasic(RRSet rrSet) {
+    return !RRSetUtil.isDirectionalRecord(rrSet) && rrSet.getRdata() != null
+           && !rrSet.getRdata().isEmpty();
+  }
+
+  /**
+   * Returns true if the iteration has more elements, skipping RRSets that aren't mapped.
+   */
+  @Override
+  public boolean hasNext() {
+    while (peekingIterator.hasNext()) {
+      if (isBasic(peekingIterator.peek())) {
+        return true;
+      }
+      peekingIterator.next();
+    }
+    return false;
+  }
+
+  /**
+   * Returns the next resource record set in the iteration. Adjacent RRSets with the same owner
+   * name and type, such as a pool and plain records, are merged.
+   */
+  @Override
+  public ResourceRecordSet<?> next() {
+    hasNext();
+    RRSet rrSet = peekingIterator.next();
+    int typeCode = RRSetUtil.intValueOfRrtype(rrSet.getRrtype());
+    String type = ResourceTypeToValue.lookup(typeCode);
+    Builder<Map<String, Object>> builder = ResourceRecordSet.builder()
+        .name(rrSet.getOwnerName())
+        .type(type)
+        .ttl(rrSet.getTtl() != null ? rrSet.getTtl() : 0);
+    add(builder, type, rrSet);
+
+    while (hasNext()) {
+      RRSet next = peekingIterator.peek();
+      if (next.getOwnerName().equals(rrSet.getOwnerName())
+          && RRSetUtil.intValueOfRrtype(next.getRrtype()) == typeCode) {
+        add(builder, type, peekingIterator.next());
+      } else {
+        break;
+      }
+    }
+    return builder.build();
+  }
+
+  private static void add(Builder<Map<String, Object>> builder, String type, RRSet rrSet) {
+    String splitType = RRSetUtil.stringValueOfRrtype(rrSet.getRrtype());
+    for (String rData : rrSet.getRdata()) {
+      builder.add(toMap(type, RRSetUtil.buildRDataList(rData, splitType)));
+    }
+  }
+
+  /**
+   * Returns UnsupportedOperationException.
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
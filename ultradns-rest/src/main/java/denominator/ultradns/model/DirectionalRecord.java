@@ -1,8 +1,11 @@
 package denominator.ultradns.model;
 
+import java.util.TreeSet;
+
 public class DirectionalRecord extends Record {
 
     private String geoGroupName;
+    private TreeSet<String> geoCodes;
     private String ipGroupName;
     private boolean noResponseRecord;
     private String type;
@@ -15,6 +18,17 @@ public class DirectionalRecord extends Record {
         this.geoGroupName = geoGroupName;
     }
 
+    /**
+     * Returns the codes of the record's geo group, or null if they weren't read with the record.
+     */
+    public TreeSet<String> getGeoCodes() {
+        return geoCodes;
+    }
+
+    public void setGeoCodes(TreeSet<String> geoCodes) {
+        this.geoCodes = geoCodes;
+    }
+
     public boolean isNoResponseRecord() {
         return noResponseRecord;
     }
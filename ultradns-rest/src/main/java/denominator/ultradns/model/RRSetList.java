@@ -1,12 +1,14 @@
 package denominator.ultradns.model;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
-public class RRSetList {
+public class RRSetList implements Iterable<RRSet> {
 
     private String zoneName;
     private List<RRSet> rrSets;
+    private ResultInfo resultInfo;
 
     public String getZoneName() {
         return zoneName;
@@ -24,10 +26,30 @@ public class RRSetList {
         this.rrSets = rrSets;
     }
 
+    public ResultInfo getResultInfo() {
+        return resultInfo;
+    }
+
+    public void setResultInfo(ResultInfo resultInfo) {
+        this.resultInfo = resultInfo;
+    }
+
     public List<RRSet> rrSets() {
         if (getRrSets() != null && !getRrSets().isEmpty()) {
             return getRrSets();
         }
         return new ArrayList<RRSet>();
     }
+
+    /**
+     * Returns the offset of the next page, or -1 if this is the last or only page.
+     */
+    public int nextOffset() {
+        return resultInfo != null ? resultInfo.nextOffset() : -1;
+    }
+
+    @Override
+    public Iterator<RRSet> iterator() {
+        return rrSets().iterator();
+    }
 }
@@ -0,0 +1,43 @@
+package denominator.ultradns.model;
+
+/**
+ * Describes which slice of a paged listing a response holds.
+ */
+public class ResultInfo {
+
+    private int totalCount;
+    private int offset;
+    private int returnedCount;
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getReturnedCount() {
+        return returnedCount;
+    }
+
+    public void setReturnedCount(int returnedCount) {
+        this.returnedCount = returnedCount;
+    }
+
+    /**
+     * Returns the offset of the next page, or -1 if this is the last page.
+     */
+    public int nextOffset() {
+        int next = offset + returnedCount;
+        return returnedCount > 0 && next < totalCount ? next : -1;
+    }
+}
@@ -1,10 +1,13 @@
 package denominator.ultradns.model;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
-public class ZoneList {
+public class ZoneList implements Iterable<Zone> {
 
     private List<Zone> zones;
+    private ResultInfo resultInfo;
 
     public List<Zone> getZones() {
         return zones;
@@ -13,4 +16,24 @@ public class ZoneList {
     public void setZones(List<Zone> zones) {
         this.zones = zones;
     }
+
+    public ResultInfo getResultInfo() {
+        return resultInfo;
+    }
+
+    public void setResultInfo(ResultInfo resultInfo) {
+        this.resultInfo = resultInfo;
+    }
+
+    /**
+     * Returns the offset of the next page, or -1 if this is the last or only page.
+     */
+    public int nextOffset() {
+        return resultInfo != null ? resultInfo.nextOffset() : -1;
+    }
+
+    @Override
+    public Iterator<Zone> iterator() {
+        return zones != null ? zones.iterator() : Collections.<Zone>emptyList().iterator();
+    }
 }
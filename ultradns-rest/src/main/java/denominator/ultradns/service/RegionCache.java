@@ -0,0 +1,248 @@
+package denominator.ultradns.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import denominator.ultradns.model.Region;
+import denominator.ultradns.util.PropertyUtil;
+import denominator.ultradns.util.RegionIndex;
+import denominator.ultradns.util.RegionUtil;
+import org.apache.log4j.Logger;
+
+/**
+ * Caches the region hierarchy, which takes several requests to build and rarely changes, along with
+ * its {@link RegionIndex}.
+ *
+ * <p/>Regions are cached per provider url in a static map, so that they are shared by all
+ * {@link denominator.DNSApiManager managers} in the process. They are also snapshotted to disk,
+ * so that short-lived processes, such as the CLI, don't rebuild them each time. Both expire
+ * {@code ultradns.rest.regions.cache.ttl.millis} after they were fetched.
+ */
+final class RegionCache {
+
+  interface Loader {
+
+    /**
+     * Returns the top-level regions, each holding its child regions.
+     */
+    Collection<Region> load();
+  }
+
+  private static final ConcurrentMap<String, Entry> IN_PROCESS = new ConcurrentHashMap<String, Entry>();
+  private static final Logger LOGGER = Logger.getLogger(RegionCache.class);
+
+  private final ConcurrentMap<String, Entry> inProcess;
+  private final long ttlMillis;
+  private final File dir;
+  private final Gson gson = new Gson();
+
+  /**
+   * Reads {@code ultradns.rest.regions.cache.ttl.millis} and {@code ultradns.rest.regions.cache.dir}.
+   * A ttl of zero disables caching, and an empty dir disables the snapshot.
+   */
+  static RegionCache fromProperties() {
+    long ttlMillis = Long.parseLong(PropertyUtil.getProperty("ultradns.rest.regions.cache.ttl.millis"));
+    String dir = PropertyUtil.getProperty("ultradns.rest.regions.cache.dir").trim();
+    if (dir.startsWith("~")) {
+      dir = System.getProperty("user.home") + dir.substring(1);
+    }
+    return new RegionCache(IN_PROCESS, ttlMillis, dir.isEmpty() ? null : new File(dir));
+  }
+
+  /**
+   * @param inProcess cache shared by instances, keyed on url
+   * @param ttlMillis how long regions are valid for after they were fetched
+   * @param dir where to snapshot regions, or null to not snapshot
+   */
+  RegionCache(ConcurrentMap<String, Entry> inProcess, long ttlMillis, File dir) {
+    this.inProcess = inProcess;
+    this.ttlMillis = ttlMillis;
+    this.dir = dir;
+  }
+
+  /**
+   * Returns regions for the url, from memory, the snapshot or the loader, in that order.
+   *
+   * @return Map contains key as the region & value as all it's child regions/territories
+   */
+  Map<Region, Collection<Region>> get(String url, Loader loader) {
+    return getIndex(url, loader).regions();
+  }
+
+  /**
+   * Like {@link #get(String, Loader)}, except returns the regions' index.
+   */
+  RegionIndex getIndex(String url, Loader loader) {
+    if (ttlMillis <= 0) {
+      return new Entry(0, RegionUtil.getRegionHierarchy(loader.load())).index;
+    }
+    Entry entry = inProcess.get(url);
+    if (entry != null && !entry.expired(ttlMillis)) {
+      return entry.index;
+    }
+    synchronized (inProcess) { // don't build regions more than once at the same time
+      entry = inProcess.get(url);
+      if (entry != null && !entry.expired(ttlMillis)) {
+        return entry.index;
+      }
+      Snapshot snapshot = readSnapshot(url);
+      if (snapshot != null) {
+        entry = new Entry(snapshot.created, snapshot.toRegions());
+      } else {
+        long created = System.currentTimeMillis();
+        Collection<Region> topLevelRegions = loader.load();
+        writeSnapshot(new Snapshot(url, created, topLevelRegions));
+        entry = new Entry(created, RegionUtil.getRegionHierarchy(topLevelRegions));
+      }
+      inProcess.put(url, entry);
+      return entry.index;
+    }
+  }
+
+  private File snapshotFile(String url) {
+    return new File(dir, "ultradns-regions-" + Integer.toHexString(url.hashCode()) + ".json");
+  }
+
+  private Snapshot readSnapshot(String url) {
+    if (dir == null) {
+      return null;
+    }
+    File file = snapshotFile(url);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+      try {
+        Snapshot snapshot = gson.fromJson(reader, Snapshot.class);
+        if (snapshot == null || !url.equals(snapshot.url) || snapshot.regions == null
+            || System.currentTimeMillis() - snapshot.created >= ttlMillis) {
+          return null;
+        }
+        return snapshot;
+      } finally {
+        reader.close();
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Ignoring unreadable region snapshot " + file + ": " + e.getMessage());
+    } catch (JsonParseException e) {
+      LOGGER.warn("Ignoring corrupt region snapshot " + file + ": " + e.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * Writes to a temporary file, then renames it, so that readers never see a partial snapshot.
+   */
+  private void writeSnapshot(Snapshot snapshot) {
+    if (dir == null) {
+      return;
+    }
+    File file = snapshotFile(snapshot.url);
+    try {
+      if (!dir.isDirectory() && !dir.mkdirs()) {
+        throw new IOException("could not create " + dir);
+      }
+      File temp = File.createTempFile(file.getName(), ".tmp", dir);
+      Writer writer = new OutputStreamWriter(new FileOutputStream(temp), "UTF-8");
+      try {
+        gson.toJson(snapshot, writer);
+      } finally {
+        writer.close();
+      }
+      if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+        temp.delete();
+        throw new IOException("could not rename " + temp + " to " + file);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Could not snapshot regions to " + file + ": " + e.getMessage());
+    }
+  }
+
+  static final class Entry {
+
+    final long created;
+    final RegionIndex index;
+
+    Entry(long created, Map<Region, Collection<Region>> regions) {
+      this.created = created;
+      this.index = RegionUtil.getRegionIndex(Collections.unmodifiableMap(regions));
+    }
+
+    boolean expired(long ttlMillis) {
+      return System.currentTimeMillis() - created >= ttlMillis;
+    }
+  }
+
+  /**
+   * Json form of the region hierarchy. Regions refer to their parent, so can't be written as-is.
+   */
+  static final class Snapshot {
+
+    String url;
+    long created;
+    List<Node> regions;
+
+    Snapshot(String url, long created, Collection<Region> topLevelRegions) {
+      this.url = url;
+      this.created = created;
+      this.regions = Node.from(topLevelRegions);
+    }
+
+    Map<Region, Collection<Region>> toRegions() {
+      return RegionUtil.getRegionHierarchy(Node.to(regions));
+    }
+  }
+
+  static final class Node {
+
+    String name;
+    String code;
+    String type;
+    int id;
+    List<Node> children;
+
+    static List<Node> from(Collection<Region> regions) {
+      List<Node> nodes = new ArrayList<Node>(regions.size());
+      for (Region region : regions) {
+        Node node = new Node();
+        node.name = region.getName();
+        node.code = region.getCode();
+        node.type = region.getType();
+        node.id = region.getId();
+        if (region.getChildRegions() != null) {
+          node.children = from(region.getChildRegions());
+        }
+        nodes.add(node);
+      }
+      return nodes;
+    }
+
+    static List<Region> to(List<Node> nodes) {
+      List<Region> regions = new ArrayList<Region>(nodes.size());
+      for (Node node : nodes) {
+        Region region = new Region(node.name, node.code, node.type, node.id);
+        if (node.children != null) {
+          region.setChildRegions(to(node.children));
+        }
+        regions.add(region);
+      }
+      return regions;
+    }
+  }
+}
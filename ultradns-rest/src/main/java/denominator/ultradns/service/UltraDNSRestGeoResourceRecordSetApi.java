@@ -1,5 +1,6 @@
 package denominator.ultradns.service;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -7,16 +8,22 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.HashSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Singleton;
 
 import dagger.Lazy;
 import denominator.Provider;
+import denominator.common.DaemonThreadFactory;
 import denominator.common.Filter;
+import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingIterator;
+import denominator.common.PrefetchingIterator.Lookup;
 import denominator.model.ResourceRecordSet;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.ultradns.service.integration.UltraDNSRest;
@@ -30,7 +37,9 @@ import denominator.ultradns.model.Profile;
 import denominator.ultradns.model.DirectionalRecord;
 import denominator.ultradns.model.Region;
 import denominator.ultradns.util.Constants;
+import denominator.ultradns.util.PropertyUtil;
 import denominator.ultradns.util.RRSetUtil;
+import denominator.ultradns.util.RegionIndex;
 import denominator.ultradns.util.RegionUtil;
 import denominator.ResourceTypeToValue.ResourceTypes;
 import org.apache.commons.lang.StringUtils;
@@ -58,10 +67,12 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
   private static final Logger LOGGER = Logger.getLogger(UltraDNSRestGeoResourceRecordSetApi.class);
 
   private final Collection<String> supportedTypes;
-  private final Lazy<Map<Region, Collection<Region>>> regions;
+  private final Lazy<RegionIndex> regions;
   private final UltraDNSRest api;
   private final GroupGeoRecordByNameTypeCustomIterator.Factory iteratorFactory;
   private final String zoneName;
+  private final int poolConcurrency;
+  private final ExecutorService poolExecutor;
   private final Filter<DirectionalRecord> isCNAME = new Filter<DirectionalRecord>() {
     @Override
     public boolean apply(DirectionalRecord input) {
@@ -70,15 +81,18 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
   };
 
   UltraDNSRestGeoResourceRecordSetApi(Collection<String> supportedTypes,
-                                      Lazy<Map<Region, Collection<Region>>> regions,
+                                      Lazy<RegionIndex> regions,
                                       UltraDNSRest api,
                                       GroupGeoRecordByNameTypeCustomIterator.Factory iteratorFactory,
-                                      String zoneName) {
+                                      String zoneName, int poolConcurrency,
+                                      ExecutorService poolExecutor) {
     this.supportedTypes = supportedTypes;
     this.regions = regions;
     this.api = api;
     this.iteratorFactory = iteratorFactory;
     this.zoneName = zoneName;
+    this.poolConcurrency = poolConcurrency;
+    this.poolExecutor = poolExecutor;
   }
 
   /**
@@ -86,7 +100,7 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
    * @return Map
    */
   private Map<Region, Collection<Region>> getAvailableRegions() {
-    return regions.get();
+    return regions.get().regions();
   }
 
   /**
@@ -101,6 +115,9 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
   /**
    * Iterates across all record sets in the zone. Implementations are lazy when possible.
    *
+   * <p/>Each directional pool costs at least one request. When {@code poolConcurrency} is greater
+   * than one, the pools after the one being consumed are requested concurrently, in the same order.
+   *
    * @return iterator which is lazy where possible
    * @throws IllegalArgumentException if the zone is not found.
    */
@@ -117,6 +134,9 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
       processUltraDnsException(e, UltraDNSRestException.DATA_NOT_FOUND);
     }
     final Map<String, Integer> nameAndType = RRSetUtil.getNameAndType(rrSets);
+    if (poolConcurrency > 1) {
+      return prefetchPools(nameAndType.entrySet().iterator());
+    }
     for (final String poolName : nameAndType.keySet()) {
       eachPool.add(new Iterable<ResourceRecordSet<?>>() {
         public Iterator<ResourceRecordSet<?>> iterator() {
@@ -193,7 +213,7 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
       return null;
     }
     Iterator<DirectionalRecord> records = recordsByNameTypeAndQualifier(name, type, qualifier);
-    return nextOrNull(iteratorFactory.create(records, zoneName, getAvailableRegions()));
+    return nextOrNull(iteratorFactory.create(records, zoneName, regions.get()));
   }
 
   /**
@@ -398,7 +418,7 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
               )));
       list = Collections.emptyList();
     }
-    return iteratorFactory.create(list.iterator(), zoneName, getAvailableRegions());
+    return iteratorFactory.create(list.iterator(), zoneName, regions.get());
   }
 
   /**
@@ -447,49 +467,77 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
    * @return Set of GEO codes.
    */
   private TreeSet<String> getTerritoryCodes(Map<String, Collection<String>> regionToTerritories) {
-    final TreeSet<String> territoryCodes = new TreeSet<String>();
-    final Set<Region> allRegions = new TreeSet<Region>();
-    final Set<String> allRegionNames = new TreeSet<String>();
-
-    for (Map.Entry<Region, Collection<Region>> entry : getAvailableRegions().entrySet()) {
-      allRegions.add(entry.getKey());
-      allRegions.addAll(entry.getValue());
-    }
-
-    for (Map.Entry<String, Collection<String>> regionToTerritory : regionToTerritories.entrySet()) {
-      allRegionNames.addAll(regionToTerritory.getValue());
-    }
+    return regions.get().territoryCodes(regionToTerritories);
+  }
 
-    Iterator<String> regionNamesIterator = allRegionNames.iterator();
-    while (regionNamesIterator.hasNext()) {
-      String regionName = regionNamesIterator.next();
-      Iterator<Region> regionsIterator = allRegions.iterator();
-      while (regionsIterator.hasNext()) {
-        Region region = regionsIterator.next();
-        if (regionName.equals(region.getName())) {
-          territoryCodes.add(region.getEffectiveCodeForGeo());
-          break;
+  /**
+   * Keeps up to {@code poolConcurrency} directional pools in flight ahead of the cursor, each read
+   * into a list of record sets. Record sets are returned in the same order as a serial listing.
+   */
+  private Iterator<ResourceRecordSet<?>> prefetchPools(Iterator<Map.Entry<String, Integer>> pools) {
+    final Iterator<List<ResourceRecordSet<?>>> eachPool = PrefetchingIterator.create(pools,
+        new Lookup<Map.Entry<String, Integer>, List<ResourceRecordSet<?>>>() {
+          @Override
+          public List<ResourceRecordSet<?>> apply(Map.Entry<String, Integer> pool) {
+            List<ResourceRecordSet<?>> result = new ArrayList<ResourceRecordSet<?>>();
+            Iterator<ResourceRecordSet<?>> rrsets =
+                iteratorForDNameAndDirectionalType(pool.getKey(), pool.getValue());
+            while (rrsets.hasNext()) {
+              result.add(rrsets.next());
+            }
+            return result;
+          }
+        }, poolConcurrency, poolExecutor);
+    return new PeekingIterator<ResourceRecordSet<?>>() {
+      Iterator<ResourceRecordSet<?>> current =
+          Collections.<ResourceRecordSet<?>>emptyList().iterator();
+
+      @Override
+      protected ResourceRecordSet<?> computeNext() {
+        while (!current.hasNext()) {
+          if (!eachPool.hasNext()) {
+            return endOfData();
+          }
+          current = eachPool.next().iterator();
         }
+        return current.next();
       }
-    }
-    return territoryCodes;
+    };
   }
 
-  public static final class Factory implements GeoResourceRecordSetApi.Factory {
+  @Singleton
+  public static final class Factory implements GeoResourceRecordSetApi.Factory, Closeable {
 
     private final Collection<String> supportedTypes;
-    private final Lazy<Map<Region, Collection<Region>>> regions;
+    private final Lazy<RegionIndex> regions;
     private final UltraDNSRest api;
     private final GroupGeoRecordByNameTypeCustomIterator.Factory iteratorFactory;
+    private final int poolConcurrency;
+    private ExecutorService poolExecutor;
 
+    /**
+     * Reads {@code ultradns.rest.geo.pools.concurrency}.
+     */
     @Inject
-    Factory(Provider provider, @Named("geo") Lazy<Map<Region, Collection<Region>>> regions,
+    Factory(Provider provider, @Named("geo") Lazy<RegionIndex> regions,
             UltraDNSRest api,
             GroupGeoRecordByNameTypeCustomIterator.Factory iteratorFactory) {
+      this(provider, regions, api, iteratorFactory,
+           Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.geo.pools.concurrency")));
+    }
+
+    /**
+     * @param poolConcurrency count of directional pools to keep in flight ahead of the cursor when
+     *                        iterating all record sets. {@code 1} requests each pool on demand.
+     */
+    Factory(Provider provider, Lazy<RegionIndex> regions, UltraDNSRest api,
+            GroupGeoRecordByNameTypeCustomIterator.Factory iteratorFactory, int poolConcurrency) {
+      checkArgument(poolConcurrency > 0, "poolConcurrency must be positive: %s", poolConcurrency);
       this.supportedTypes = provider.profileToRecordTypes().get("geo");
       this.regions = regions;
       this.api = api;
       this.iteratorFactory = iteratorFactory;
+      this.poolConcurrency = poolConcurrency;
     }
 
     @Override
@@ -502,7 +550,24 @@ public final class UltraDNSRestGeoResourceRecordSetApi implements GeoResourceRec
         processUltraDnsException(e, UltraDNSRestException.DIRECTIONAL_NOT_ENABLED);
         return null;
       }
-      return new UltraDNSRestGeoResourceRecordSetApi(supportedTypes, regions, api, iteratorFactory, name);
+      return new UltraDNSRestGeoResourceRecordSetApi(supportedTypes, regions, api, iteratorFactory, name,
+              poolConcurrency, poolConcurrency > 1 ? poolExecutor() : null);
+    }
+
+    private synchronized ExecutorService poolExecutor() {
+      if (poolExecutor == null) {
+        poolExecutor = Executors.newFixedThreadPool(poolConcurrency,
+                                                    new DaemonThreadFactory("ultradns-rest-geo"));
+      }
+      return poolExecutor;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (poolExecutor != null) {
+        poolExecutor.shutdownNow();
+        poolExecutor = null;
+      }
     }
   }
 }
@@ -3,15 +3,16 @@ package denominator.ultradns.service;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import javax.inject.Named;
 
 import dagger.Module;
 import dagger.Provides;
+import denominator.Provider;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import denominator.ultradns.model.Region;
+import denominator.ultradns.util.RegionIndex;
 import denominator.ultradns.util.RegionUtil;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -30,25 +31,33 @@ public class UltraDNSRestGeoSupport {
   private static final Logger LOGGER = Logger.getLogger(UltraDNSRestGeoSupport.class);
 
   /**
-   * Return all regions in a hierarchical fashion.
+   * Return all regions in a hierarchical fashion, indexed by geo code and name, from the {@link
+   * RegionCache} when present. This is only called when a geo api is first used, as it is injected
+   * lazily.
+   *
    * @param api UltraDNSRest API
-   * @return Map contains key as the region & value as all it's child regions/territories
+   * @param provider used to key the cache on url
+   * @return index whose {@link RegionIndex#regions() regions} contains key as the region & value as
+   * all it's child regions/territories
    */
   @Provides
   @Named("geo")
-  Map<Region, Collection<Region>> regions(UltraDNSRest api) {
-    Map<Region, Collection<Region>> availableRegions = new TreeMap<Region, Collection<Region>>();
-
-    Collection<Region> topLevelRegions = buildRegionHierarchy(api);
-
-    for (Region topLevelRegion : topLevelRegions) {
-      Map<Region, Collection<Region>> regionHierarchy = RegionUtil.getRegionHierarchy(topLevelRegion);
-      for (Map.Entry<Region, Collection<Region>> regionSubRegions : regionHierarchy.entrySet()) {
-        availableRegions.put(regionSubRegions.getKey(), regionSubRegions.getValue());
+  RegionIndex regions(final UltraDNSRest api, Provider provider) {
+    return RegionCache.fromProperties().getIndex(provider.url(), new RegionCache.Loader() {
+      @Override
+      public Collection<Region> load() {
+        return buildRegionHierarchy(api);
       }
-    }
+    });
+  }
 
-    return availableRegions;
+  /**
+   * Return all regions in a hierarchical fashion, without caching.
+   * @param api UltraDNSRest API
+   * @return Map contains key as the region & value as all it's child regions/territories
+   */
+  Map<Region, Collection<Region>> regions(UltraDNSRest api) {
+    return RegionUtil.getRegionHierarchy(buildRegionHierarchy(api));
   }
 
   /**
@@ -83,6 +92,7 @@ public class UltraDNSRestGeoSupport {
   private void buildHierarchy(UltraDNSRest u, TreeSet<String> geoCodes, Collection<Region> regions) {
     String[] geoCodesArray = new String[geoCodes.size()];
     geoCodes.toArray(geoCodesArray);
+    Map<String, Region> regionsByEffectiveCode = RegionUtil.getRegionsByEffectiveCode(regions);
 
     boolean eoi = false;
     for (int lo = 0; lo < geoCodesArray.length; lo += MAX_GEO_CODE) {
@@ -101,7 +111,7 @@ public class UltraDNSRestGeoSupport {
       Collection<Collection<Region>> response = u.getAvailableRegions(getCommaSeparatedEffectiveCodes(subGeoCodes));
       Iterator<Collection<Region>> itr = response.iterator();
       for (String effectiveCode : subGeoCodes) {
-        Region rg = regionGiven(effectiveCode, regions);
+        Region rg = regionsByEffectiveCode.get(effectiveCode);
         Collection<Region> regionList = itr.next();
         rg.setChildRegions(regionList);
       }
@@ -122,30 +132,6 @@ public class UltraDNSRestGeoSupport {
     return secondLevelRegions;
   }
 
-  /**
-   * Return a region from a collection of regions using effective geo code.
-   *
-   * @param effectiveCode effective geo code
-   * @param regions collection of regions
-   * @return Searched region
-   */
-  private Region regionGiven(String effectiveCode, Collection<Region> regions) {
-    if (effectiveCode == null || regions == null) {
-      return null;
-    }
-    for (Region region : regions) {
-      if (effectiveCode.equals(region.getEffectiveCode())) {
-        return region;
-      }
-      TreeSet<Region> childRegions = region.getChildRegions();
-      Region rg = regionGiven(effectiveCode, childRegions);
-      if (rg != null) {
-        return rg;
-      }
-    }
-    return null;
-  }
-
   /**
    * Return a sorted list of geo code from a collection of region.
    *
@@ -10,13 +10,14 @@ import java.util.Arrays;
 import javax.inject.Inject;
 
 import denominator.ResourceRecordSetApi;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.model.ResourceRecordSet;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import denominator.ultradns.exception.UltraDNSRestException;
-import denominator.ultradns.iterator.GroupByRecordNameAndTypeCustomIterator;
+import denominator.ultradns.iterator.ResourceRecordSetFromRRSetCustomIterator;
 import denominator.ultradns.model.RRSet;
-import denominator.ultradns.model.Record;
-import denominator.ultradns.util.RRSetUtil;
+import denominator.ultradns.util.PropertyUtil;
 import denominator.ultradns.model.RRSetList;
 import denominator.ultradns.model.Profile;
 import static denominator.common.Util.flatten;
@@ -37,29 +38,37 @@ public final class UltraDNSRestResourceRecordSetApi implements denominator.Resou
   private final UltraDNSRest api;
   private final String zoneName;
   private final UltraDNSRestRoundRobinPoolApi roundRobinPoolApi;
+  private final int pageLimit;
 
+  /**
+   * @param pageLimit maximum count of rrsets requested per page when listing.
+   */
   UltraDNSRestResourceRecordSetApi(UltraDNSRest api, String zoneName,
-                                   UltraDNSRestRoundRobinPoolApi roundRobinPoolApi) {
+                                   UltraDNSRestRoundRobinPoolApi roundRobinPoolApi, int pageLimit) {
     this.api = api;
     this.zoneName = zoneName;
     this.roundRobinPoolApi = roundRobinPoolApi;
+    this.pageLimit = pageLimit;
   }
 
   private static final Logger LOGGER = Logger.getLogger(UltraDNSRestResourceRecordSetApi.class);
 
   /**
-   * Iterates across all record sets in the zone. Implementations are lazy when possible.
+   * Iterates across all record sets in the zone, a page of {@code ultradns.rest.rrsets.page.limit}
+   * rrsets at a time. The next page is fetched when the current one is exhausted.
    *
    * @return iterator which is lazy where possible
    * @throws IllegalArgumentException if the zone is not found.
    */
   @Override
   public Iterator<ResourceRecordSet<?>> iterator() {
-    Iterator<Record> orderedRecords = RRSetUtil.buildRecords(api
-            .getResourceRecordsOfZone(zoneName)
-            .rrSets())
-            .iterator();
-    return new GroupByRecordNameAndTypeCustomIterator(orderedRecords);
+    NextRRSetPage nextPage = new NextRRSetPage() {
+      @Override
+      RRSetList fetch(int offset) {
+        return api.getResourceRecordsOfZone(zoneName, offset, pageLimit);
+      }
+    };
+    return lazyIterateRRSets(nextPage.fetch(0), nextPage);
   }
 
   /**
@@ -69,13 +78,39 @@ public final class UltraDNSRestResourceRecordSetApi implements denominator.Resou
    * @throws IllegalArgumentException if the zone is not found.
    */
   @Override
-  public Iterator<ResourceRecordSet<?>> iterateByName(String name) {
+  public Iterator<ResourceRecordSet<?>> iterateByName(final String name) {
     checkNotNull(name, "name");
-    Iterator<Record> ordered = RRSetUtil.buildRecords(api
-            .getResourceRecordsOfDNameByType(zoneName, name, ResourceTypes.ALL.code())
-            .rrSets())
-            .iterator();
-    return new GroupByRecordNameAndTypeCustomIterator(ordered);
+    NextRRSetPage nextPage = new NextRRSetPage() {
+      @Override
+      RRSetList fetch(int offset) {
+        return api.getResourceRecordsOfDNameByType(zoneName, name, ResourceTypes.ALL.code(),
+                                                   offset, pageLimit);
+      }
+    };
+    return lazyIterateRRSets(nextPage.fetch(0), nextPage);
+  }
+
+  /**
+   * Maps RRSets of each page as it is reached, so that only one page is held at a time.
+   */
+  private static Iterator<ResourceRecordSet<?>> lazyIterateRRSets(RRSetList first,
+                                                                 NextPage<RRSetList> nextPage) {
+    return new ResourceRecordSetFromRRSetCustomIterator(
+        PrefetchingPager.<RRSet, RRSetList>create(first, nextPage, 0));
+  }
+
+  /**
+   * Fetches pages by offset, until {@link RRSetList#nextOffset()} reports the last.
+   */
+  private abstract static class NextRRSetPage implements NextPage<RRSetList> {
+
+    abstract RRSetList fetch(int offset);
+
+    @Override
+    public RRSetList apply(RRSetList page) {
+      int offset = page.nextOffset();
+      return offset != -1 ? fetch(offset) : null;
+    }
   }
 
   /**
@@ -91,38 +126,38 @@ public final class UltraDNSRestResourceRecordSetApi implements denominator.Resou
   public ResourceRecordSet<?> getByNameAndType(String name, String type) {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
-    Iterator<Record> orderedRecords = recordsByNameAndType(name, type)
+    Iterator<RRSet> rrSets = rrSetsByNameAndType(name, type)
             .iterator();
-    return nextOrNull(new GroupByRecordNameAndTypeCustomIterator(
-            orderedRecords));
+    return nextOrNull(new ResourceRecordSetFromRRSetCustomIterator(
+            rrSets));
   }
 
   /**
-   * Retrieve a list of a records.
+   * Retrieve a list of RRSets.
    *
    * @param name      {@link ResourceRecordSet#name() name} of the rrset
    * @param type      {@link ResourceRecordSet#type() type} of the rrset
    * @return null unless a resource record exists with the same {@code name}, {@code type}
    * @throws IllegalArgumentException if the zone is not found.
    */
-  private List<Record> recordsByNameAndType(String name, String type) {
+  private List<RRSet> rrSetsByNameAndType(String name, String type) {
     checkNotNull(name, "name");
     checkNotNull(type, "type");
     int typeValue = checkNotNull(lookup(type), "typeValue for %s", type);
-    List<Record> records = null;
+    List<RRSet> rrSets = null;
     try {
-      records = RRSetUtil.buildRecords(api
+      rrSets = api
               .getResourceRecordsOfDNameByType(zoneName, name, typeValue)
-              .rrSets());
+              .rrSets();
     } catch (UltraDNSRestException e) {
         processUltraDnsException(e,
                 new HashSet<Integer>(Arrays.asList(
                         UltraDNSRestException.DATA_NOT_FOUND,
                         UltraDNSRestException.RESOURCE_RECORD_POOL_NOT_FOUND
                 )));
-      records = new ArrayList<Record>();
+      rrSets = new ArrayList<RRSet>();
     }
-    return records;
+    return rrSets;
   }
 
   /**
@@ -267,9 +302,14 @@ public final class UltraDNSRestResourceRecordSetApi implements denominator.Resou
       this.api = api;
     }
 
+    /**
+     * Reads {@code ultradns.rest.rrsets.page.limit} for each zone.
+     */
     @Override
     public ResourceRecordSetApi create(String name) {
-      return new UltraDNSRestResourceRecordSetApi(api, name, new UltraDNSRestRoundRobinPoolApi(api, name));
+      int pageLimit = Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.rrsets.page.limit"));
+      return new UltraDNSRestResourceRecordSetApi(api, name, new UltraDNSRestRoundRobinPoolApi(api, name),
+                                                  pageLimit);
     }
   }
 }
@@ -1,23 +1,38 @@
 package denominator.ultradns.service;
 
+import denominator.common.DaemonThreadFactory;
+import denominator.common.PeekingIterator;
+import denominator.common.PrefetchingIterator;
+import denominator.common.PrefetchingIterator.Lookup;
+import denominator.common.PrefetchingPager;
+import denominator.common.PrefetchingPager.NextPage;
 import denominator.model.Zone;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import denominator.ultradns.exception.UltraDNSRestException;
 import denominator.ultradns.model.AccountList;
 import denominator.ultradns.model.RRSet;
 import denominator.ultradns.model.Record;
+import denominator.ultradns.model.ZoneList;
+import denominator.ultradns.model.ZoneProperties;
+import denominator.ultradns.util.PropertyUtil;
 import denominator.ultradns.util.RRSetUtil;
 import denominator.ultradns.util.ZoneUtil;
 import org.apache.commons.lang.StringUtils;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static denominator.common.Preconditions.checkArgument;
 import static denominator.common.Preconditions.checkState;
 import static denominator.common.Util.singletonIterator;
 import static denominator.ultradns.exception.UltraDNSRestException.processUltraDnsException;
@@ -25,48 +40,102 @@ import static denominator.ultradns.exception.UltraDNSRestException.processUltraD
 import denominator.ResourceTypeToValue.ResourceTypes;
 import org.apache.log4j.Logger;
 
-public final class UltraDNSRestZoneApi implements denominator.ZoneApi {
+@Singleton
+public final class UltraDNSRestZoneApi implements denominator.ZoneApi, Closeable {
 
   private final UltraDNSRest api;
+  private final int pageLimit;
+  private final int soaConcurrency;
+  private ExecutorService soaExecutor;
 
+  /**
+   * Reads {@code ultradns.rest.zones.page.limit} and {@code ultradns.rest.zones.soa.concurrency}.
+   */
   @Inject
   UltraDNSRestZoneApi(UltraDNSRest api) {
+    this(api, Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.zones.page.limit")),
+         Integer.parseInt(PropertyUtil.getProperty("ultradns.rest.zones.soa.concurrency")));
+  }
+
+  /**
+   * @param pageLimit      maximum count of zones requested per page.
+   * @param soaConcurrency count of SOA lookups to keep in flight ahead of the cursor when iterating
+   *                       all zones. {@code 1} looks up each SOA on demand.
+   */
+  UltraDNSRestZoneApi(UltraDNSRest api, int pageLimit, int soaConcurrency) {
+    checkArgument(soaConcurrency > 0, "soaConcurrency must be positive: %s", soaConcurrency);
     this.api = api;
+    this.pageLimit = pageLimit;
+    this.soaConcurrency = soaConcurrency;
   }
 
   private static final Logger LOGGER = Logger.getLogger(UltraDNSRestZoneApi.class);
 
   /**
    * in UltraDNSRest, zones are scoped to an account.
+   *
+   * <p/>Zipping each zone with its SOA record costs one request per zone. When {@code
+   * soaConcurrency} is greater than one, these requests are issued ahead of the cursor.
    */
   @Override
   public Iterator<Zone> iterator() {
-    List<Map<String, String>> zoneAccountList = new ArrayList<Map<String, String>>();
-    try {
-      zoneAccountList = ZoneUtil.getZoneAccountList(api.getZonesOfUser().getZones());
-    } catch (UltraDNSRestException e) {
-      processUltraDnsException(e, UltraDNSRestException.DATA_NOT_FOUND);
+    Iterator<denominator.ultradns.model.Zone> zones = zones();
+    if (soaConcurrency == 1) {
+      return new ZipWithSOA(zones);
     }
-
-    final Iterator<Map<String, String>> delegate = zoneAccountList.iterator();
-    return new Iterator<Zone>() {
+    return PrefetchingIterator.create(zones, new Lookup<denominator.ultradns.model.Zone, Zone>() {
       @Override
-      public boolean hasNext() {
-        return delegate.hasNext();
-      }
-
-      @Override
-      public Zone next() {
-        return fromSOA(delegate.next());
+      public Zone apply(denominator.ultradns.model.Zone input) {
+        return fromSOA(input);
       }
+    }, soaConcurrency, soaExecutor());
+  }
 
+  /**
+   * Like {@link #iterator()}, except the SOA record of each zone isn't looked up. This costs the
+   * same as paging through the zones.
+   *
+   * <p/>As the SOA isn't read, {@link Zone#ttl()} is always 86400 and {@link Zone#email()} is
+   * {@code nil@} followed by the zone name.
+   */
+  public Iterator<Zone> iterateNamesOnly() {
+    final Iterator<denominator.ultradns.model.Zone> zones = zones();
+    return new PeekingIterator<Zone>() {
       @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
+      protected Zone computeNext() {
+        if (zones.hasNext()) {
+          ZoneProperties properties = zones.next().getProperties();
+          Zone zone = Zone.create(properties.getName(), properties.getName(), 86400,
+                                  "nil@" + properties.getName());
+          zone.setAccountName(properties.getAccountName());
+          return zone;
+        }
+        return endOfData();
       }
     };
   }
 
+  /**
+   * Lazy pages through all zones, fetching each page when the previous is exhausted.
+   */
+  private Iterator<denominator.ultradns.model.Zone> zones() {
+    ZoneList first;
+    try {
+      first = api.getZonesOfUser(0, pageLimit);
+    } catch (UltraDNSRestException e) {
+      processUltraDnsException(e, UltraDNSRestException.DATA_NOT_FOUND);
+      return Collections.<denominator.ultradns.model.Zone>emptyList().iterator();
+    }
+    return PrefetchingPager.<denominator.ultradns.model.Zone, ZoneList>create(
+        first, new NextPage<ZoneList>() {
+          @Override
+          public ZoneList apply(ZoneList page) {
+            int offset = page.nextOffset();
+            return offset != -1 ? api.getZonesOfUser(offset, pageLimit) : null;
+          }
+        }, 0);
+  }
+
   /**
    * Get Zone details with zone name.
    * @param name name of the zone
@@ -142,8 +211,14 @@ public final class UltraDNSRestZoneApi implements denominator.ZoneApi {
    */
   private Zone fromSOA(Map<String, String> zoneAccount) {
     final String name = zoneAccount.keySet().iterator().next();
-    final String accountName = zoneAccount.get(name);
+    return fromSOA(name, zoneAccount.get(name));
+  }
+
+  private Zone fromSOA(denominator.ultradns.model.Zone zone) {
+    return fromSOA(zone.getProperties().getName(), zone.getProperties().getAccountName());
+  }
 
+  private Zone fromSOA(String name, String accountName) {
     List<Record> soaRecords;
     try {
       soaRecords = RRSetUtil.buildRecords(api
@@ -198,4 +273,47 @@ public final class UltraDNSRestZoneApi implements denominator.ZoneApi {
       return email;
     }
   }
+
+  private synchronized ExecutorService soaExecutor() {
+    if (soaExecutor == null) {
+      soaExecutor = Executors.newFixedThreadPool(soaConcurrency,
+                                                 new DaemonThreadFactory("ultradns-rest-soa"));
+    }
+    return soaExecutor;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (soaExecutor != null) {
+      soaExecutor.shutdownNow();
+      soaExecutor = null;
+    }
+  }
+
+  /**
+   * For each zone, lazy fetch the corresponding SOA record and zip into a Zone object.
+   */
+  class ZipWithSOA implements Iterator<Zone> {
+
+    final Iterator<denominator.ultradns.model.Zone> zones;
+
+    ZipWithSOA(Iterator<denominator.ultradns.model.Zone> zones) {
+      this.zones = zones;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return zones.hasNext();
+    }
+
+    @Override
+    public Zone next() {
+      return fromSOA(zones.next());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
@@ -8,28 +8,54 @@ import feign.Headers;
 import feign.Param;
 import feign.RequestLine;
 
+import org.apache.log4j.Logger;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.Closeable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static denominator.common.Preconditions.checkNotNull;
 
 /**
  * gets the last Auth token, expiring if the current time exceed token expiry time.
+ *
+ * <p/>Only one thread logs in at a time. Others wait for it, then use the token it got. While the
+ * token is used, it is renewed in the background {@code ultradns.rest.token.refresh.ahead.millis}
+ * before it expires, so that callers don't wait for a login at all.
  */
-public class InvalidatableTokenProvider implements Provider<String>, CheckConnection {
+@Singleton
+public class InvalidatableTokenProvider implements Provider<String>, CheckConnection, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(InvalidatableTokenProvider.class);
+    private static ScheduledExecutorService refresher;
 
     private final denominator.Provider provider;
     private final Session session;
     private final Provider<Credentials> credentials;
     private final AtomicReference<Boolean> sessionValid;
     private final long durationMillis;
+    private final long refreshAheadMillis;
+    private final Object loginLock = new Object();
     private transient volatile String lastUrl;
     private transient volatile int lastCredentialsHashCode;
     private transient volatile long expirationMillis;
-    private transient String token;
+    private transient volatile String token;
+    /**
+     * True when the token was used since the last login. Unused tokens aren't renewed, so that
+     * abandoned providers stop logging in.
+     */
+    private transient volatile boolean used;
+    private ScheduledFuture<?> scheduledRefresh; // guarded by loginLock
+    private boolean closed; // guarded by loginLock
 
     /**
      * Creates a new session by creating a new InvalidatableTokenProvider object.
@@ -38,11 +64,25 @@ public class InvalidatableTokenProvider implements Provider<String>, CheckConnec
     public InvalidatableTokenProvider(denominator.Provider provider, Session session,
                                Provider<Credentials> credentials,
                                AtomicReference<Boolean> sessionValid) {
+        this(provider, session, credentials, sessionValid,
+                Long.parseLong(PropertyUtil.getProperty("ultradns.rest.token.expiry.millis")),
+                Long.parseLong(PropertyUtil.getProperty("ultradns.rest.token.refresh.ahead.millis")));
+    }
+
+    /**
+     * @param durationMillis how long a token is valid for after login
+     * @param refreshAheadMillis how long before expiry to renew a token in use, or zero to not
+     */
+    InvalidatableTokenProvider(denominator.Provider provider, Session session,
+                               Provider<Credentials> credentials,
+                               AtomicReference<Boolean> sessionValid,
+                               long durationMillis, long refreshAheadMillis) {
         this.provider = provider;
         this.session = session;
         this.credentials = credentials;
         this.sessionValid = sessionValid;
-        this.durationMillis = Long.parseLong(PropertyUtil.getProperty("ultradns.rest.token.expiry.millis"));
+        this.durationMillis = durationMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
     }
 
     /**
@@ -64,21 +104,93 @@ public class InvalidatableTokenProvider implements Provider<String>, CheckConnec
     public String get() {
         String currentUrl = provider.url();
         Credentials currentCreds = credentials.get();
-        long currentTime = System.currentTimeMillis();
-
-        if (needsRefresh(currentTime, currentCreds, currentUrl)) {
-            setLastUrl(currentUrl);
-            setLastCredentialsHashCode(currentCreds.hashCode());
-            TokenResponse tokenResponse = auth(currentCreds);
-            setExpirationMillis(currentTime + durationMillis);
-            String t = tokenResponse.getAccessToken();
-            setToken(t);
-            sessionValid.set(true);
-            return t;
+        used = true;
+
+        if (needsRefresh(System.currentTimeMillis(), currentCreds, currentUrl)) {
+            synchronized (loginLock) {
+                // another thread may have logged in while this one waited
+                long currentTime = System.currentTimeMillis();
+                if (needsRefresh(currentTime, currentCreds, currentUrl)) {
+                    return login(currentTime, currentCreds, currentUrl);
+                }
+            }
         }
         return getToken();
     }
 
+    /**
+     * Stops renewing the token in the background.
+     */
+    @Override
+    public void close() {
+        synchronized (loginLock) {
+            closed = true;
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Logs in, then schedules renewal. Expiry is written last, so that a thread which sees it
+     * also sees the token.
+     */
+    private String login(long currentTime, Credentials currentCreds, String currentUrl) {
+        String t = auth(currentCreds).getAccessToken();
+        setToken(t);
+        setLastUrl(currentUrl);
+        setLastCredentialsHashCode(currentCreds.hashCode());
+        setExpirationMillis(currentTime + durationMillis);
+        sessionValid.set(true);
+        scheduleRefresh();
+        return t;
+    }
+
+    private void scheduleRefresh() {
+        long delayMillis = durationMillis - refreshAheadMillis;
+        if (closed || refreshAheadMillis <= 0 || delayMillis <= 0) {
+            return;
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        used = false;
+        scheduledRefresh = refresher().schedule(new Runnable() {
+            @Override
+            public void run() {
+                refreshAhead();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshAhead() {
+        synchronized (loginLock) {
+            if (closed || !used) {
+                return;
+            }
+            try {
+                login(System.currentTimeMillis(), credentials.get(), provider.url());
+            } catch (RuntimeException e) {
+                // callers log in themselves once the token expires
+                LOGGER.warn("Could not renew token before it expires: " + e.getMessage());
+            }
+        }
+    }
+
+    private static synchronized ScheduledExecutorService refresher() {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ultradns-rest-token-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return refresher;
+    }
+
     private boolean needsRefresh(long currentTime, Credentials currentCreds, String currentUrl) {
         return !sessionValid.get()
             || !currentUrl.equals(getLastUrl()) || currentCreds.hashCode() != getLastCredentialsHashCode()
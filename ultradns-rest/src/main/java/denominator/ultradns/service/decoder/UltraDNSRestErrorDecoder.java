@@ -8,22 +8,33 @@ import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 
 import com.google.gson.stream.JsonToken;
+import denominator.ultradns.UltraDNSRestRateLimit;
 import denominator.ultradns.exception.UltraDNSRestException;
 import feign.FeignException;
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 
 public class UltraDNSRestErrorDecoder implements ErrorDecoder {
 
   private AtomicReference<Boolean> sessionValid;
+  private final UltraDNSRestRateLimit rateLimit;
 
   @Inject
-  public UltraDNSRestErrorDecoder(AtomicReference<Boolean> sessionValid) {
+  public UltraDNSRestErrorDecoder(AtomicReference<Boolean> sessionValid,
+                                  UltraDNSRestRateLimit rateLimit) {
     this.sessionValid = sessionValid;
+    this.rateLimit = rateLimit;
   }
 
   @Override
   public Exception decode(String methodKey, Response response) {
+    if (response.status() == 429) {
+      // slow down all clients of this account before retrying.
+      rateLimit.throttled();
+      FeignException cause = FeignException.errorStatus(methodKey, response);
+      return new RetryableException(cause.getMessage(), cause, null);
+    }
     try {
       JsonReader reader = new JsonReader(response.body().asReader());
       UltraDNSRestException.Message message = new UltraDNSRestException.Message();
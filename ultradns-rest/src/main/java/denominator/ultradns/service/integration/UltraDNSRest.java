@@ -35,12 +35,14 @@ public interface UltraDNSRest {
   AccountList getAccountsListOfUser();
 
   /**
-   * Gets zones of the user.
+   * Gets a page of zones of the user.
    *
-   * @return zone list
+   * @param offset index of the first zone to return
+   * @param limit maximum count of zones to return
+   * @return zone list, whose resultInfo locates the next page.
    */
-  @RequestLine("GET /zones")
-  ZoneList getZonesOfUser();
+  @RequestLine("GET /zones?offset={offset}&limit={limit}")
+  ZoneList getZonesOfUser(@Param("offset") int offset, @Param("limit") int limit);
 
   /**
    * Gets zone details with Zone name.
@@ -85,13 +87,17 @@ public interface UltraDNSRest {
   void deleteZone(@Param("zoneName") final String zoneName);
 
   /**
-   * Get the resource records given the zone name.
+   * Get a page of the resource records given the zone name.
    *
    * @param zoneName name of the zone
-   * @return RRSetList object.
+   * @param offset index of the first resource record set to return
+   * @param limit maximum count of resource record sets to return
+   * @return RRSetList object, whose resultInfo locates the next page.
    */
-  @RequestLine("GET /zones/{zoneName}/rrsets")
-  RRSetList getResourceRecordsOfZone(@Param("zoneName") String zoneName);
+  @RequestLine("GET /zones/{zoneName}/rrsets?offset={offset}&limit={limit}")
+  RRSetList getResourceRecordsOfZone(@Param("zoneName") String zoneName,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
 
   /**
    * Get the resource records given the zone name, hostName and rrtype.
@@ -106,6 +112,23 @@ public interface UltraDNSRest {
                                             @Param("hostName") String hostName,
                                             @Param("rrType") int rrType);
 
+  /**
+   * Get a page of the resource records given the zone name, hostName and rrtype.
+   *
+   * @param zoneName name of the zone
+   * @param hostName owner name of the Resource Record
+   * @param rrType Resource Record type
+   * @param offset index of the first resource record set to return
+   * @param limit maximum count of resource record sets to return
+   * @return RRSetList object, whose resultInfo locates the next page.
+   */
+  @RequestLine("GET /zones/{zoneName}/rrsets/{rrType}/{hostName}?offset={offset}&limit={limit}")
+  RRSetList getResourceRecordsOfDNameByType(@Param("zoneName") String zoneName,
+                                            @Param("hostName") String hostName,
+                                            @Param("rrType") int rrType,
+                                            @Param("offset") int offset,
+                                            @Param("limit") int limit);
+
   /**
    * Creates resource record given the zone name, rrtype, hostName and rrset.
    *
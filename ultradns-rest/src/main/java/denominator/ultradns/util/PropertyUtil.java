@@ -59,13 +59,14 @@ public final class PropertyUtil {
     }
 
     /**
-     * Will return property name based on property value.
+     * Will return property name based on property value. A system property of the same name takes
+     * precedence over the configuration file.
      *
      * @param propertyName name of the property
      * @return value of the property
      */
     public static String getProperty(String propertyName) {
-        String propertyValue = getProperties().getProperty(propertyName);
+        String propertyValue = System.getProperty(propertyName, getProperties().getProperty(propertyName));
         if (propertyValue == null) {
             throw new UltraDNSRestException("Could not load property with name " + propertyName
                     + " !! Please check property configuration.", -1);
@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.TreeSet;
@@ -93,18 +93,22 @@ public final class RRSetUtil {
                     }
 
                     /**
-                     * Creation of DirectionalDNSRecord with rData and rDataInfo mapping
+                     * Creation of DirectionalDNSRecord with rData and rDataInfo mapping, which
+                     * share the same index.
                      */
-                    for (String rData : rDataList) {
+                    for (int i = 0; i < rDataList.size(); i++) {
+                        String rData = rDataList.get(i);
                         DirectionalRecord r = new DirectionalRecord();
                         r.setName(rrSet.getOwnerName());
                         if (!rDataInfoList.isEmpty()) {
-                            RDataInfo rDataInfo = rDataInfoList.get(rDataList.indexOf(rData));
+                            RDataInfo rDataInfo = rDataInfoList.get(i);
                             r.setType(rDataInfo.getType());
                             r.setTypeCode(lookup(rDataInfo.getType()));
                             r.setRdata(buildRDataList(rData, rDataInfo.getType()));
                             if (rDataInfo.getGeoInfo() != null) {
                                 r.setGeoGroupName(rDataInfo.getGeoInfo().getName());
+                                TreeSet<String> codes = rDataInfo.getGeoInfo().getCodes();
+                                r.setGeoCodes(codes != null ? codes : new TreeSet<String>());
                             }
                             if (rDataInfo.getIpInfo() != null) {
                                 r.setIpGroupName(rDataInfo.getIpInfo().getName());
@@ -150,9 +154,10 @@ public final class RRSetUtil {
      * which came as part of UltraDNS Rest response.
      *
      * @param data rData String
+     * @param rrType name of Resource Record type
      * @return RData parts List
      */
-    private static List<String> buildRDataList(String data, String rrType) {
+    public static List<String> buildRDataList(String data, String rrType) {
         List<String> rDataList = new ArrayList<String>();
         if (!StringUtils.isEmpty(data)) {
             rDataList = RECORD_TYPE_TO_SPLIT.contains(rrType)
@@ -163,13 +168,13 @@ public final class RRSetUtil {
     }
 
     /**
-     * Returns map of Record with name as key and type as value.
+     * Returns map of Record with name as key and type as value, in the order of {@code rrSets}.
      *
      * @param rrSets list
      * @return nameAndType map
      */
     public static Map<String, Integer> getNameAndType(List<RRSet> rrSets) {
-        Map<String, Integer> nameAndType = new HashMap<String, Integer>();
+        Map<String, Integer> nameAndType = new LinkedHashMap<String, Integer>();
         if (rrSets != null && !rrSets.isEmpty()) {
             for (RRSet rrSet : rrSets) {
                 nameAndType.put(rrSet.getOwnerName(), intValueOfRrtype(rrSet.getRrtype()));
@@ -236,7 +241,7 @@ public final class RRSetUtil {
      * @param rrSet Resource Record data.
      * @return boolean will be true or false base on record schema type.
      */
-    private static boolean isDirectionalRecord(RRSet rrSet) {
+    public static boolean isDirectionalRecord(RRSet rrSet) {
         return rrSet.getProfile() != null
                 && rrSet.getProfile().getContext() != null
                 && DIRECTIONAL_POOL_SCHEMA.equals(rrSet.getProfile().getContext());
@@ -0,0 +1,137 @@
+package denominator.ultradns.util;
+
+import denominator.ultradns.model.Region;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Looks up regions and territories by geo code or name in constant time, as opposed to searching
+ * the region hierarchy for each code. Built once per hierarchy, after which it is immutable, so it
+ * can be shared across threads.
+ */
+public final class RegionIndex {
+
+    private final Map<Region, Collection<Region>> regions;
+    /**
+     * Effective geo code of a territory, to its parent region name and its own name.
+     */
+    private final Map<String, String[]> regionAndTerritoryByGeoCode;
+    /**
+     * Codes of regions which aren't places, such as A1, to the names of regions with that code.
+     */
+    private final Map<String, List<String>> regionNamesBySpecialCode;
+    private final Map<String, String> geoCodeByName;
+
+    /**
+     * Where several territories share a code or name, the first in iteration order of
+     * {@code regions} wins, as it would when searching the hierarchy.
+     *
+     * @param regions Map contains key as the region & value as all it's child regions/territories.
+     */
+    RegionIndex(Map<Region, Collection<Region>> regions) {
+        Map<String, String[]> byGeoCode = new HashMap<String, String[]>();
+        Map<String, List<String>> bySpecialCode = new HashMap<String, List<String>>();
+        Map<String, String> byName = new HashMap<String, String>();
+        for (Map.Entry<Region, Collection<Region>> entry : regions.entrySet()) {
+            Region region = entry.getKey();
+            if (isSpecialCode(region.getCode())) {
+                List<String> names = bySpecialCode.get(region.getCode());
+                if (names == null) {
+                    names = new ArrayList<String>();
+                    bySpecialCode.put(region.getCode(), names);
+                }
+                names.add(region.getName());
+            }
+            putIfAbsent(byName, region.getName(), region.getEffectiveCodeForGeo());
+            for (Region territory : entry.getValue()) {
+                putIfAbsent(byGeoCode, territory.getEffectiveCodeForGeo(),
+                        new String[] {region.getName(), territory.getName()});
+                putIfAbsent(byName, territory.getName(), territory.getEffectiveCodeForGeo());
+            }
+        }
+        this.regions = regions;
+        this.regionAndTerritoryByGeoCode = byGeoCode;
+        this.regionNamesBySpecialCode = bySpecialCode;
+        this.geoCodeByName = byName;
+    }
+
+    /**
+     * Returns the hierarchy this indexes.
+     *
+     * @return Map contains key as the region & value as all it's child regions/territories.
+     */
+    public Map<Region, Collection<Region>> regions() {
+        return regions;
+    }
+
+    /**
+     * Converts geo codes to region names and their territory names. Special codes A1 and A2 map
+     * to the region name followed by the code in parentheses, and A3 to the region name.
+     *
+     * @param codes geo codes, in the order territories are added to their region.
+     * @return Map contains key as the region name & value as its territory names.
+     */
+    public Map<String, Collection<String>> regionToTerritories(Collection<String> codes) {
+        Map<String, Collection<String>> regionToTerritories = new TreeMap<String, Collection<String>>();
+        for (String code : codes) {
+            if (isSpecialCode(code)) {
+                List<String> names = regionNamesBySpecialCode.get(code);
+                if (names == null) {
+                    continue;
+                }
+                Collection<String> list = new ArrayList<String>();
+                for (String name : names) {
+                    list.add(name);
+                    regionToTerritories.put("A3".equals(code) ? name : name + " (" + code + ")", list);
+                }
+            } else {
+                String[] regionAndTerritory = regionAndTerritoryByGeoCode.get(code);
+                if (regionAndTerritory == null) {
+                    continue;
+                }
+                Collection<String> list = regionToTerritories.get(regionAndTerritory[0]);
+                if (list == null) {
+                    list = new ArrayList<String>();
+                    regionToTerritories.put(regionAndTerritory[0], list);
+                }
+                list.add(regionAndTerritory[1]);
+            }
+        }
+        return regionToTerritories;
+    }
+
+    /**
+     * Converts territory names to their effective geo codes. Unknown names are skipped.
+     *
+     * @param regionToTerritories Map contains key as the region & value as all it's child regions/territories.
+     * @return Set of GEO codes.
+     */
+    public TreeSet<String> territoryCodes(Map<String, Collection<String>> regionToTerritories) {
+        TreeSet<String> territoryCodes = new TreeSet<String>();
+        for (Collection<String> territories : regionToTerritories.values()) {
+            for (String territory : territories) {
+                String code = geoCodeByName.get(territory);
+                if (code != null) {
+                    territoryCodes.add(code);
+                }
+            }
+        }
+        return territoryCodes;
+    }
+
+    private static boolean isSpecialCode(String code) {
+        return "A1".equals(code) || "A2".equals(code) || "A3".equals(code);
+    }
+
+    private static <V> void putIfAbsent(Map<String, V> map, String key, V value) {
+        if (!map.containsKey(key)) {
+            map.put(key, value);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package denominator.ultradns.util;
 import denominator.ultradns.model.Region;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -32,6 +33,20 @@ public final class RegionUtil {
         return regionNameSubRegionNames;
     }
 
+    /**
+     * Return all regions in a hierarchical fashion.
+     *
+     * @param topLevelRegions regions holding all their child regions
+     * @return Map contains key as the region & value as all it's child regions/territories.
+     */
+    public static Map<Region, Collection<Region>> getRegionHierarchy(Collection<Region> topLevelRegions) {
+        Map<Region, Collection<Region>> availableRegions = new TreeMap<Region, Collection<Region>>();
+        for (Region topLevelRegion : topLevelRegions) {
+            availableRegions.putAll(getRegionHierarchy(topLevelRegion));
+        }
+        return availableRegions;
+    }
+
     /**
      * Return all regions in a hierarchical fashion.
      *
@@ -72,4 +87,41 @@ public final class RegionUtil {
         }
         return regionSubRegions;
     }
+
+    /**
+     * Indexes regions and territories by geo code and name. Build this once per hierarchy, as it
+     * visits every region.
+     *
+     * @param regions Map contains key as the region & value as all it's child regions/territories.
+     * @return index which is safe to share
+     */
+    public static RegionIndex getRegionIndex(Map<Region, Collection<Region>> regions) {
+        return new RegionIndex(regions);
+    }
+
+    /**
+     * Return all regions and their descendants by effective code.
+     *
+     * @param regions regions holding all their child regions
+     * @return Map contains key as the effective code & value as the region.
+     */
+    public static Map<String, Region> getRegionsByEffectiveCode(Collection<Region> regions) {
+        Map<String, Region> regionsByEffectiveCode = new HashMap<String, Region>();
+        addRegionsByEffectiveCode(regions, regionsByEffectiveCode);
+        return regionsByEffectiveCode;
+    }
+
+    private static void addRegionsByEffectiveCode(Collection<Region> regions,
+                                                  Map<String, Region> regionsByEffectiveCode) {
+        if (regions == null) {
+            return;
+        }
+        for (Region region : regions) {
+            // first match wins, as when searching depth-first
+            if (!regionsByEffectiveCode.containsKey(region.getEffectiveCode())) {
+                regionsByEffectiveCode.put(region.getEffectiveCode(), region);
+            }
+            addRegionsByEffectiveCode(region.getChildRegions(), regionsByEffectiveCode);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package denominator.ultradns;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
 
@@ -65,8 +66,12 @@ public final class MockUltraDNSRestServer extends UltraDNSRestProvider implement
     return this;
   }
 
+  public MockResponse sessionResponse() {
+    return new MockResponse().setBody(sessionResponse);
+  }
+
   public void enqueueSessionResponse() {
-    delegate.enqueue(new MockResponse().setBody(sessionResponse));
+    delegate.enqueue(sessionResponse());
   }
 
   public void enqueue(MockResponse mockResponse) {
@@ -78,6 +83,17 @@ public final class MockUltraDNSRestServer extends UltraDNSRestProvider implement
             .setBody(UltraDNSMockResponse.getMockErrorResponse(errorCode, errorDescription)));
   }
 
+  /**
+   * Replaces the queue of responses, for requests whose order isn't deterministic.
+   */
+  public void setDispatcher(Dispatcher dispatcher) {
+    delegate.setDispatcher(dispatcher);
+  }
+
+  public int getRequestCount() {
+    return delegate.getRequestCount();
+  }
+
   public RecordedRequestAssert assertRequest() throws InterruptedException {
     return assertThat(delegate.takeRequest());
   }
@@ -1,12 +1,14 @@
 package denominator.ultradns;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.ultradns.service.auth.InvalidatableTokenProvider;
 import denominator.ultradns.service.auth.SessionTarget;
 import denominator.ultradns.service.auth.UltraDNSRestTarget;
 import denominator.ultradns.service.decoder.UltraDNSRestErrorDecoder;
 import denominator.ultradns.service.integration.UltraDNSRest;
 import feign.Feign;
+import feign.httpclient.ApacheHttpClient;
 
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -72,8 +74,10 @@ public final class UltraDNSMockResponse {
 
         };
         AtomicReference<Boolean> sessionValid = module.sessionValid();
-        UltraDNSRestErrorDecoder errorDecoder = new UltraDNSRestErrorDecoder(sessionValid);
-        Feign feign = module.feign(module.logger(), module.logLevel(), errorDecoder);
+        UltraDNSRestRateLimit rateLimit = new UltraDNSRestRateLimit(provider, credentials);
+        UltraDNSRestErrorDecoder errorDecoder = new UltraDNSRestErrorDecoder(sessionValid, rateLimit);
+        Feign feign = module.feign(new ApacheHttpClient(), module.logger(), module.logLevel(),
+                rateLimit, errorDecoder, new Metrics());
         InvalidatableTokenProvider.Session session = feign.newInstance(new SessionTarget(provider));
 
         InvalidatableTokenProvider tokenProvider = new InvalidatableTokenProvider(provider,
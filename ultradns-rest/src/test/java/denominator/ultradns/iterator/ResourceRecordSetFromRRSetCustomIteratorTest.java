@@ -0,0 +1,93 @@
+package denominator.ultradns.iterator;
+
+import denominator.model.ResourceRecordSet;
+import denominator.model.rdata.AAAAData;
+import denominator.model.rdata.AData;
+import denominator.ultradns.model.Profile;
+import denominator.ultradns.model.RRSet;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static denominator.assertj.ModelAssertions.assertThat;
+import static denominator.ultradns.util.Constants.DIRECTIONAL_POOL_SCHEMA;
+
+public class ResourceRecordSetFromRRSetCustomIteratorTest {
+
+    @Test
+    public void mergesAdjacentRRSetsOfSameNameAndType() {
+        Iterator<ResourceRecordSet<?>> rrsets = iterate(
+                rrSet("www.denominator.io.", "A (1)", 300, "192.0.2.1"),
+                rrSet("www.denominator.io.", "A (1)", 300, "192.0.2.2", "192.0.2.3"));
+
+        assertThat(rrsets.next())
+                .hasName("www.denominator.io.")
+                .hasType("A")
+                .hasTtl(300)
+                .containsExactlyRecords(AData.create("192.0.2.1"), AData.create("192.0.2.2"),
+                        AData.create("192.0.2.3"));
+        assertThat(rrsets).isEmpty();
+    }
+
+    @Test
+    public void keepsTypesAndNamesSeparate() {
+        Iterator<ResourceRecordSet<?>> rrsets = iterate(
+                rrSet("www.denominator.io.", "A (1)", 300, "192.0.2.1"),
+                rrSet("www.denominator.io.", "AAAA (28)", 300, "2001:db8::1"),
+                rrSet("www2.denominator.io.", "AAAA (28)", 300, "2001:db8::2"));
+
+        assertThat(rrsets.next())
+                .hasName("www.denominator.io.")
+                .hasType("A")
+                .containsExactlyRecords(AData.create("192.0.2.1"));
+        assertThat(rrsets.next())
+                .hasName("www.denominator.io.")
+                .hasType("AAAA")
+                .containsExactlyRecords(AAAAData.create("2001:db8::1"));
+        assertThat(rrsets.next())
+                .hasName("www2.denominator.io.")
+                .hasType("AAAA")
+                .containsExactlyRecords(AAAAData.create("2001:db8::2"));
+        assertThat(rrsets).isEmpty();
+    }
+
+    @Test
+    public void skipsDirectionalAndEmptyRRSets() {
+        RRSet directional = rrSet("geo.denominator.io.", "A (1)", 300, "192.0.2.9");
+        directional.setProfile(new Profile(DIRECTIONAL_POOL_SCHEMA, "", null));
+        RRSet nullRData = rrSet("null.denominator.io.", "A (1)", 300);
+        nullRData.setRdata(null);
+
+        Iterator<ResourceRecordSet<?>> rrsets = iterate(
+                directional,
+                rrSet("empty.denominator.io.", "A (1)", 300),
+                nullRData,
+                rrSet("www.denominator.io.", "A (1)", null, "192.0.2.1"),
+                directional);
+
+        assertThat(rrsets.next())
+                .hasName("www.denominator.io.")
+                .hasType("A")
+                .hasTtl(0)
+                .containsExactlyRecords(AData.create("192.0.2.1"));
+        assertThat(rrsets).isEmpty();
+    }
+
+    @Test
+    public void emptyWhenAllRRSetsAreSkipped() {
+        assertThat(iterate(rrSet("empty.denominator.io.", "A (1)", 300))).isEmpty();
+        assertThat(iterate()).isEmpty();
+    }
+
+    private static Iterator<ResourceRecordSet<?>> iterate(RRSet... rrSets) {
+        return new ResourceRecordSetFromRRSetCustomIterator(Arrays.asList(rrSets).iterator());
+    }
+
+    private static RRSet rrSet(String ownerName, String rrtype, Integer ttl, String... rdata) {
+        RRSet rrSet = new RRSet(ttl, Arrays.asList(rdata));
+        rrSet.setOwnerName(ownerName);
+        rrSet.setRrtype(rrtype);
+        return rrSet;
+    }
+}
@@ -0,0 +1,143 @@
+package denominator.ultradns.service;
+
+import denominator.ultradns.exception.UltraDNSRestException;
+import denominator.ultradns.model.Region;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class RegionCacheTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final String URL = "https://restapi.ultradns.com/v2";
+    private static final long DAY = 86400000L;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final RegionCache.Loader loader = new RegionCache.Loader() {
+        @Override
+        public Collection<Region> load() {
+            loads.incrementAndGet();
+            return regions();
+        }
+    };
+
+    @Test
+    public void cachesInProcessByUrl() {
+        RegionCache cache = new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, null);
+
+        Map<Region, Collection<Region>> regions = cache.get(URL, loader);
+        assertThat(cache.get(URL, loader)).isSameAs(regions);
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.get("https://other.ultradns.com/v2", loader);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void sharedBetweenInstances() {
+        ConcurrentHashMap<String, RegionCache.Entry> inProcess = new ConcurrentHashMap<String, RegionCache.Entry>();
+
+        new RegionCache(inProcess, DAY, null).get(URL, loader);
+        new RegionCache(inProcess, DAY, null).get(URL, loader);
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void reloadsWhenExpired() throws InterruptedException {
+        RegionCache cache = new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), 1, null);
+
+        cache.get(URL, loader);
+        Thread.sleep(5);
+        cache.get(URL, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void zeroTtlDisablesCaching() throws IOException {
+        File dir = tmp.newFolder();
+        RegionCache cache = new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), 0, dir);
+
+        cache.get(URL, loader);
+        cache.get(URL, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(dir.list()).isEmpty();
+    }
+
+    @Test
+    public void snapshotSurvivesProcess() throws IOException {
+        File dir = tmp.newFolder();
+
+        Map<Region, Collection<Region>> loaded =
+                new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, dir).get(URL, loader);
+        // new map is like a new process
+        Map<Region, Collection<Region>> fromSnapshot =
+                new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, dir).get(URL, loader);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(fromSnapshot).isEqualTo(loaded);
+        for (Region region : fromSnapshot.get(new Region("United States", "US", "Country", 2))) {
+            assertThat(region.getEffectiveCode()).isEqualTo("US-CA");
+            assertThat(region.getEffectiveCodeForGeo()).isEqualTo("US-CA");
+        }
+    }
+
+    @Test
+    public void ignoresCorruptSnapshot() throws IOException {
+        File dir = tmp.newFolder();
+        new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, dir).get(URL, loader);
+        File snapshot = dir.listFiles()[0];
+        FileOutputStream out = new FileOutputStream(snapshot);
+        out.write("{\"url\": [".getBytes("UTF-8"));
+        out.close();
+
+        Map<Region, Collection<Region>> regions =
+                new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, dir).get(URL, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(regions).hasSize(2);
+    }
+
+    @Test
+    public void doesntCacheFailure() {
+        RegionCache cache = new RegionCache(new ConcurrentHashMap<String, RegionCache.Entry>(), DAY, null);
+        try {
+            cache.get(URL, new RegionCache.Loader() {
+                @Override
+                public Collection<Region> load() {
+                    throw new UltraDNSRestException("Directional feature not Enabled", 0);
+                }
+            });
+            fail();
+        } catch (UltraDNSRestException expected) {
+        }
+
+        cache.get(URL, loader);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    static Collection<Region> regions() {
+        Region california = new Region("California", "CA", "State", 3);
+        Region unitedStates = new Region("United States", "US", "Country", 2);
+        unitedStates.setChildRegions(Arrays.asList(california));
+        Region northAmerica = new Region("North America", "NAM", "Region", 1);
+        northAmerica.setChildRegions(Arrays.asList(unitedStates));
+        return Arrays.asList(northAmerica);
+    }
+}
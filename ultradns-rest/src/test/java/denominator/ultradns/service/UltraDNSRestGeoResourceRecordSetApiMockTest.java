@@ -1,6 +1,8 @@
 package denominator.ultradns.service;
 
+import com.squareup.okhttp.mockwebserver.Dispatcher;
 import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 import static denominator.assertj.ModelAssertions.assertThat;
 import denominator.model.ResourceRecordSet;
 import denominator.model.profile.Geo;
@@ -12,10 +14,15 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static denominator.ultradns.exception.UltraDNSRestException.DIRECTIONAL_NOT_ENABLED;
 import static denominator.ultradns.UltraDNSMockResponse.GEO_SUPPORTED_REGIONS_SIZE;
@@ -66,9 +73,6 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         enqueueAvailableRegionsResponse();
         server.enqueue(new MockResponse().setBody(DIRECTIONAL_POOLS_RESPONSE));
         server.enqueue(new MockResponse().setBody(DIRECTIONAL_POOLS_RESPONSE));
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
 
         GeoResourceRecordSetApi api = server.connect().api().geoRecordSetsInZone("denominator.io.");
         Iterator<ResourceRecordSet<?>> iterator = api.iterator();
@@ -86,9 +90,63 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         server.assertRequest("GET",
                 "/zones/denominator.io./rrsets/1/test_directional_pool.denominator.io.?q=kind%3ADIR_POOLS",
                 "");
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
+        // geo groups are read from the pool, not requested again
+        assertThat(server.getRequestCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void listRequestsPoolsConcurrentlyInOrder() throws Exception {
+        final CountDownLatch secondPoolRequested = new CountDownLatch(1);
+        final AtomicBoolean firstPoolAwaitedSecond = new AtomicBoolean();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+                if (path.equals("/authorization/token")) {
+                    return server.sessionResponse();
+                } else if (path.equals("/geoip/territories?codes=")) {
+                    return new MockResponse().setBody(GET_AVAILABLE_CONTINENTS_RESPONSE);
+                } else if (path.startsWith("/geoip/territories?codes=A1")) {
+                    return new MockResponse().setBody(GET_AVAILABLE_COUNTRIES_RESPONSE);
+                } else if (path.startsWith("/geoip/territories?codes=ASI")) {
+                    return new MockResponse().setBody(GET_AVAILABLE_STATES_RESPONSE);
+                } else if (path.equals("/zones/denominator.io./rrsets/?q=kind%3ADIR_POOLS")) {
+                    return new MockResponse().setBody(directionalPools("first", "second"));
+                } else if (path.contains("/first.denominator.io.")) {
+                    if (secondPoolRequested.await(5, TimeUnit.SECONDS)) {
+                        firstPoolAwaitedSecond.set(true);
+                    }
+                    return new MockResponse().setBody(directionalPools("first"));
+                } else if (path.contains("/second.denominator.io.")) {
+                    secondPoolRequested.countDown();
+                    return new MockResponse().setBody(directionalPools("second"));
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+
+        GeoResourceRecordSetApi api;
+        System.setProperty("ultradns.rest.geo.pools.concurrency", "2");
+        try {
+            api = server.connect().api().geoRecordSetsInZone("denominator.io.");
+        } finally {
+            System.clearProperty("ultradns.rest.geo.pools.concurrency");
+        }
+
+        List<String> namesAndQualifiers = new ArrayList<String>();
+        for (Iterator<ResourceRecordSet<?>> iterator = api.iterator(); iterator.hasNext(); ) {
+            ResourceRecordSet<?> rrset = iterator.next();
+            namesAndQualifiers.add(rrset.name() + " " + rrset.qualifier());
+        }
+
+        assertThat(namesAndQualifiers).containsExactly(
+                "first.denominator.io. NorthAmerica",
+                "first.denominator.io. Europe",
+                "first.denominator.io. Asia",
+                "second.denominator.io. NorthAmerica",
+                "second.denominator.io. Europe",
+                "second.denominator.io. Asia");
+        assertThat(firstPoolAwaitedSecond.get()).isTrue();
     }
 
     @Test
@@ -96,9 +154,6 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         server.enqueueSessionResponse();
         enqueueAvailableRegionsResponse();
         server.enqueue(new MockResponse().setBody(DIRECTIONAL_POOLS_RESPONSE));
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
 
         GeoResourceRecordSetApi api = server.connect().api().geoRecordSetsInZone("denominator.io.");
         Iterator<ResourceRecordSet<?>> iterator = api.iterateByName("test_directional_pool.denominator.io.");
@@ -113,9 +168,6 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         server.assertRequest("GET",
                 "/zones/denominator.io./rrsets/255/test_directional_pool.denominator.io.?q=kind%3ADIR_POOLS",
                 "");
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
 
     }
 
@@ -124,9 +176,6 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         server.enqueueSessionResponse();
         enqueueAvailableRegionsResponse();
         server.enqueue(new MockResponse().setBody(DIRECTIONAL_POOLS_RESPONSE));
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
-        enqueueDirectionalDNSGroupByName();
 
         GeoResourceRecordSetApi api = server.connect().api().geoRecordSetsInZone("denominator.io.");
         Iterator<ResourceRecordSet<?>> iterator = api.iterateByNameAndType("test_directional_pool.denominator.io.",
@@ -142,9 +191,6 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
         server.assertRequest("GET",
                 "/zones/denominator.io./rrsets/1/test_directional_pool.denominator.io.?q=kind%3ADIR_POOLS",
                 "");
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
-        assertDirectionalDNSGroupByName();
     }
 
     @Test
@@ -302,14 +348,22 @@ public class UltraDNSRestGeoResourceRecordSetApiMockTest {
                 "}");
     }
 
-    private void enqueueDirectionalDNSGroupByName() {
-        server.enqueue(new MockResponse().setBody(DIRECTIONAL_POOLS_RESPONSE));
-    }
-
-    private void assertDirectionalDNSGroupByName() throws InterruptedException {
-        server.assertRequest("GET",
-                "/zones/denominator.io./rrsets/1/test_directional_pool.denominator.io.?q=kind%3ADIR_POOLS",
-                "");
+    /**
+     * Returns a listing of directional pools like {@link #DIRECTIONAL_POOLS_RESPONSE}, one per label.
+     */
+    private static String directionalPools(String... labels) {
+        int start = DIRECTIONAL_POOLS_RESPONSE.indexOf('[') + 1;
+        int end = DIRECTIONAL_POOLS_RESPONSE.indexOf("    ],\n    \"queryInfo\"");
+        String rrSet = DIRECTIONAL_POOLS_RESPONSE.substring(start, end);
+        StringBuilder rrSets = new StringBuilder();
+        for (String label : labels) {
+            if (rrSets.length() > 0) {
+                rrSets.append(',');
+            }
+            rrSets.append(rrSet.replace("test_directional_pool", label));
+        }
+        return DIRECTIONAL_POOLS_RESPONSE.substring(0, start) + rrSets
+                + DIRECTIONAL_POOLS_RESPONSE.substring(end);
     }
 
     private void enqueueAvailableRegionsResponse() {
@@ -14,6 +14,7 @@ import denominator.ResourceRecordSetApi;
 import org.junit.rules.ExpectedException;
 
 import java.util.Arrays;
+import java.util.Iterator;
 
 import denominator.ResourceTypeToValue.ResourceTypes;
 
@@ -69,7 +70,36 @@ public class UltraDNSRestResourceRecordSetApiMockTest {
     server.assertSessionRequest();
     server.assertRequest()
             .hasMethod("GET")
-            .hasPath("/zones/denominator.io./rrsets");
+            .hasPath("/zones/denominator.io./rrsets?offset=0&limit=1000");
+  }
+
+  @Test
+  public void listFetchesPagesAsTheyAreReached() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(rrSetPage("a", 0, 2)));
+    server.enqueue(new MockResponse().setBody(rrSetPage("b", 1, 2)));
+
+    Iterator<ResourceRecordSet<?>> iterator = server.connect().api()
+            .basicRecordSetsInZone("denominator.io.").iterator();
+    assertThat(server.getRequestCount()).isEqualTo(2);
+
+    assertThat(iterator).containsExactly(a("a.denominator.io.", TTL_3600, "1.1.1.1"),
+                                         a("b.denominator.io.", TTL_3600, "1.1.1.1"));
+    server.assertSessionRequest();
+    server.assertRequest()
+            .hasPath("/zones/denominator.io./rrsets?offset=0&limit=1000");
+    server.assertRequest()
+            .hasPath("/zones/denominator.io./rrsets?offset=1&limit=1000");
+  }
+
+  /**
+   * One A record set, at {@code offset} of {@code totalCount}.
+   */
+  private static String rrSetPage(String label, int offset, int totalCount) {
+    return "{\"zoneName\": \"denominator.io.\", \"rrSets\": [{\"ownerName\": \"" + label
+           + ".denominator.io.\", \"rrtype\": \"A (1)\", \"ttl\": " + TTL_3600
+           + ", \"rdata\": [\"1.1.1.1\"]}], \"resultInfo\": {\"totalCount\": " + totalCount
+           + ", \"offset\": " + offset + ", \"returnedCount\": 1}}";
   }
 
   @Test
@@ -107,7 +137,7 @@ public class UltraDNSRestResourceRecordSetApiMockTest {
     server.assertSessionRequest();
     server.assertRequest()
             .hasMethod("GET")
-            .hasPath("/zones/denominator.io./rrsets/255/pool_2.denominator.io.");
+            .hasPath("/zones/denominator.io./rrsets/255/pool_2.denominator.io.?offset=0&limit=1000");
   }
 
   @Test
@@ -8,6 +8,8 @@ import denominator.ultradns.exception.UltraDNSRestException;
 import org.junit.Rule;
 import org.junit.Test;
 
+import denominator.DNSApiManager;
+import denominator.Metrics.Snapshot;
 import denominator.ZoneApi;
 import denominator.model.Zone;
 
@@ -47,10 +49,55 @@ public class UltraDNSRestZoneApiMockTest {
     assertThat(api.iterator()).containsExactly(zoneA, zoneB);
 
     server.assertSessionRequest();
-    server.assertRequest("GET", "/zones", "");
+    server.assertRequest("GET", "/zones?offset=0&limit=1000", "");
     server.assertRequest("GET", "/zones/www.test-zone-1.com./rrsets/6/www.test-zone-1.com.", "");
   }
 
+  @Test
+  public void iterateNamesOnlyFollowsPagesWithoutSOA() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(zonePage("www.test-zone-1.com.", 0, 2)));
+    server.enqueue(new MockResponse().setBody(zonePage("www.test-zone-2.com.", 1, 2)));
+
+    Zone zoneA = Zone.create("www.test-zone-1.com.", "www.test-zone-1.com.", TTL_86400,
+                             "nil@www.test-zone-1.com.");
+    zoneA.setAccountName("npp-rest-test1");
+    Zone zoneB = Zone.create("www.test-zone-2.com.", "www.test-zone-2.com.", TTL_86400,
+                             "nil@www.test-zone-2.com.");
+    zoneB.setAccountName("npp-rest-test1");
+
+    UltraDNSRestZoneApi api = (UltraDNSRestZoneApi) server.connect().api().zones();
+    assertThat(api.iterateNamesOnly()).containsExactly(zoneA, zoneB);
+
+    server.assertSessionRequest();
+    server.assertRequest("GET", "/zones?offset=0&limit=1000", "");
+    server.assertRequest("GET", "/zones?offset=1&limit=1000", "");
+    assertThat(server.getRequestCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void metricsCountZonesInEachPage() throws Exception {
+    server.enqueueSessionResponse();
+    server.enqueue(new MockResponse().setBody(zonePage("www.test-zone-1.com.", 0, 2)));
+    server.enqueue(new MockResponse().setBody(zonePage("www.test-zone-2.com.", 1, 2)));
+
+    DNSApiManager mgr = server.connect();
+    assertThat(((UltraDNSRestZoneApi) mgr.api().zones()).iterateNamesOnly()).hasSize(2);
+
+    Snapshot listZones = mgr.metrics().snapshot().get("UltraDNSRest#getZonesOfUser(int,int)");
+    assertThat(listZones.calls()).isEqualTo(2);
+    assertThat(listZones.records()).isEqualTo(2);
+  }
+
+  /**
+   * One zone, at {@code offset} of {@code totalCount}.
+   */
+  private static String zonePage(String name, int offset, int totalCount) {
+    return "{\"resultInfo\": {\"totalCount\": " + totalCount + ", \"offset\": " + offset
+           + ", \"returnedCount\": 1}, \"zones\": [{\"properties\": {\"name\": \"" + name
+           + "\", \"accountName\": \"npp-rest-test1\"}}]}";
+  }
+
   @Test
   public void iteratorWhenAbsent() throws Exception {
     server.enqueueSessionResponse();
@@ -60,7 +107,7 @@ public class UltraDNSRestZoneApiMockTest {
     assertThat(api.iterator()).isEmpty();
 
     server.assertSessionRequest();
-    server.assertRequest("GET", "/zones", "");
+    server.assertRequest("GET", "/zones?offset=0&limit=1000", "");
   }
 
   @Test
@@ -0,0 +1,135 @@
+package denominator.ultradns.service.auth;
+
+import denominator.Credentials;
+import denominator.ultradns.UltraDNSRestProvider;
+import denominator.ultradns.model.TokenResponse;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static denominator.Credentials.ListCredentials;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvalidatableTokenProviderTest {
+
+    private final Logins logins = new Logins();
+    private final AtomicReference<Boolean> sessionValid = new AtomicReference<Boolean>(false);
+    private final javax.inject.Provider<Credentials> credentials =
+            new javax.inject.Provider<Credentials>() {
+                @Override
+                public Credentials get() {
+                    return ListCredentials.from("joe", "letmein");
+                }
+            };
+    private InvalidatableTokenProvider tokenProvider;
+    /**
+     * Counts down once each login is published, which is after {@link Logins#login} returns.
+     */
+    private CountDownLatch published = new CountDownLatch(0);
+
+    @After
+    public void close() {
+        tokenProvider.close();
+    }
+
+    @Test
+    public void concurrentCallersShareOneLogin() throws Exception {
+        tokenProvider = tokenProvider(60000, 0);
+        logins.delayMillis = 100;
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> tokens = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                tokens.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        start.await();
+                        return tokenProvider.get();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<String> token : tokens) {
+                assertThat(token.get(1, TimeUnit.SECONDS)).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(logins.count.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidatedSessionLogsInAgain() {
+        tokenProvider = tokenProvider(60000, 0);
+
+        assertThat(tokenProvider.get()).isEqualTo("token-1");
+        assertThat(tokenProvider.get()).isEqualTo("token-1");
+        sessionValid.set(false);
+        assertThat(tokenProvider.get()).isEqualTo("token-2");
+    }
+
+    @Test
+    public void tokenInUseIsRenewedBeforeItExpires() throws Exception {
+        published = new CountDownLatch(2);
+        tokenProvider = tokenProvider(200, 150);
+
+        assertThat(tokenProvider.get()).isEqualTo("token-1");
+        assertThat(tokenProvider.get()).isEqualTo("token-1"); // in use since the login
+
+        assertThat(published.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(tokenProvider.get()).isEqualTo("token-2");
+        assertThat(logins.count.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void unusedTokenIsNotRenewed() throws Exception {
+        tokenProvider = tokenProvider(200, 150);
+
+        assertThat(tokenProvider.get()).isEqualTo("token-1");
+
+        Thread.sleep(150);
+        assertThat(logins.count.get()).isEqualTo(1);
+    }
+
+    private InvalidatableTokenProvider tokenProvider(long durationMillis, long refreshAheadMillis) {
+        return new InvalidatableTokenProvider(new UltraDNSRestProvider("http://localhost"), logins,
+                credentials, sessionValid, durationMillis, refreshAheadMillis) {
+            @Override
+            public void setExpirationMillis(long expirationMillis) {
+                super.setExpirationMillis(expirationMillis); // written last by a login
+                published.countDown();
+            }
+        };
+    }
+
+    static final class Logins implements InvalidatableTokenProvider.Session {
+
+        final AtomicInteger count = new AtomicInteger();
+        long delayMillis;
+
+        @Override
+        public TokenResponse login(String grantType, String userName, String password) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TokenResponse response = new TokenResponse();
+            response.setAccessToken("token-" + count.incrementAndGet());
+            return response;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package denominator.ultradns.service.decoder;
 
+import denominator.Credentials;
+import denominator.Credentials.ListCredentials;
 import denominator.ultradns.UltraDNSMockResponse;
+import denominator.ultradns.UltraDNSRestProvider;
+import denominator.ultradns.UltraDNSRestRateLimit;
 import feign.FeignException;
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 import org.junit.Before;
 import org.junit.Rule;
@@ -16,9 +21,11 @@ import java.util.concurrent.atomic.AtomicReference;
 import static denominator.ultradns.exception.UltraDNSRestException.ZONE_NOT_FOUND;
 import static feign.Util.UTF_8;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class UltraDNSRestErrorDecoderTest {
 
+  private UltraDNSRestRateLimit rateLimit;
   private ErrorDecoder errors;
 
   @Rule
@@ -27,7 +34,14 @@ public class UltraDNSRestErrorDecoderTest {
 
   @Before
   public void setUp() throws Exception {
-    errors = new UltraDNSRestErrorDecoder(new AtomicReference<Boolean>(false));
+    rateLimit = new UltraDNSRestRateLimit(new UltraDNSRestProvider("http://decoder.test"),
+        new javax.inject.Provider<Credentials>() {
+          @Override
+          public Credentials get() {
+            return ListCredentials.from("joe", "letmein");
+          }
+        });
+    errors = new UltraDNSRestErrorDecoder(new AtomicReference<Boolean>(false), rateLimit);
   }
 
 
@@ -43,4 +57,15 @@ public class UltraDNSRestErrorDecoderTest {
     throw errors.decode("UltraDNSRest#No Content", errorResponse(UltraDNSMockResponse
             .getMockErrorResponse(ZONE_NOT_FOUND, "Zone does not exist in the system.")));
   }
+
+  @Test
+  public void tooManyRequestsSlowsRateForUser() throws Exception {
+    Response response = Response.create(429, "Too Many Requests",
+            Collections.<String, Collection<String>>emptyMap(), (String) null, UTF_8);
+
+    Exception e = errors.decode("UltraDNSRest#getZonesOfAccount(String)", response);
+
+    assertThat(e).isInstanceOf(RetryableException.class);
+    assertThat(rateLimit.limiter().rate()).isLessThan(5.0);
+  }
 }
@@ -153,10 +153,10 @@ public class UltraDNSRestTest {
         server.enqueue(new MockResponse().setBody(GET_ZONES_OF_USER_PRESENT));
         server.enqueue(new MockResponse());
 
-        assertThat(mockApi().getZonesOfUser().getZones().size()).isEqualTo(2);
+        assertThat(mockApi().getZonesOfUser(0, 1000).getZones().size()).isEqualTo(2);
 
         server.assertSessionRequest();
-        server.assertRequest("GET", "/zones", "");
+        server.assertRequest("GET", "/zones?offset=0&limit=1000", "");
     }
 
     @Test
@@ -165,10 +165,10 @@ public class UltraDNSRestTest {
         server.enqueue(new MockResponse().setBody(GET_ZONES_OF_USER_ABSENT));
         server.enqueue(new MockResponse());
 
-        assertThat(mockApi().getZonesOfUser().getZones().size()).isEqualTo(0);
+        assertThat(mockApi().getZonesOfUser(0, 1000).getZones().size()).isEqualTo(0);
 
         server.assertSessionRequest();
-        server.assertRequest("GET", "/zones", "");
+        server.assertRequest("GET", "/zones?offset=0&limit=1000", "");
     }
 
     @Test
@@ -177,7 +177,7 @@ public class UltraDNSRestTest {
         server.enqueue(new MockResponse().setBody(GET_RESOURCE_RECORDS_PRESENT));
         server.enqueue(new MockResponse());
 
-        RRSetList rrSetList = mockApi().getResourceRecordsOfZone("denominator.io.");
+        RRSetList rrSetList = mockApi().getResourceRecordsOfZone("denominator.io.", 0, 1000);
 
         assertThat(rrSetList.getRrSets().get(0).getRdata().size()).isEqualTo(RESOURCE_RECORDS_COUNT);
         assertThat(rrSetList.getRrSets()).extracting("ownerName", "rrtype", "ttl")
@@ -188,7 +188,7 @@ public class UltraDNSRestTest {
         server.assertSessionRequest();
         server.assertRequest()
                 .hasMethod("GET")
-                .hasPath("/zones/denominator.io./rrsets");
+                .hasPath("/zones/denominator.io./rrsets?offset=0&limit=1000");
     }
 
     @Test
@@ -197,13 +197,13 @@ public class UltraDNSRestTest {
         server.enqueue(new MockResponse().setBody(RR_SET_ABSENT));
         server.enqueue(new MockResponse());
 
-        RRSetList rrSetList = mockApi().getResourceRecordsOfZone("denominator.io.");
+        RRSetList rrSetList = mockApi().getResourceRecordsOfZone("denominator.io.", 0, 1000);
         assertThat(rrSetList.getRrSets().size()).isEqualTo(0);
 
         server.assertSessionRequest();
         server.assertRequest()
                 .hasMethod("GET")
-                .hasPath("/zones/denominator.io./rrsets");
+                .hasPath("/zones/denominator.io./rrsets?offset=0&limit=1000");
     }
 
     @Test
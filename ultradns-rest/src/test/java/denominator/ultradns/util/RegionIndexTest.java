@@ -0,0 +1,59 @@
+package denominator.ultradns.util;
+
+import denominator.ultradns.model.Region;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class RegionIndexTest {
+
+    private final RegionIndex index = RegionUtil.getRegionIndex(RegionUtil.getRegionHierarchy(regions()));
+
+    @Test
+    public void regionToTerritories() {
+        Map<String, Collection<String>> regionToTerritories =
+                index.regionToTerritories(Arrays.asList("A1", "CA", "US-CA"));
+
+        assertThat(regionToTerritories).containsExactly(
+                entry("Anonymous Proxy (A1)", Arrays.asList("Anonymous Proxy")),
+                entry("Canada", Arrays.asList("Canada")),
+                entry("United States", Arrays.asList("California")));
+    }
+
+    @Test
+    public void regionToTerritoriesSkipsUnknownCodes() {
+        assertThat(index.regionToTerritories(Arrays.asList("A2", "ZZ"))).isEmpty();
+    }
+
+    @Test
+    public void territoryCodes() {
+        Map<String, Collection<String>> regionToTerritories = new LinkedHashMap<String, Collection<String>>();
+        regionToTerritories.put("North America", Arrays.asList("Canada", "California"));
+        regionToTerritories.put("Atlantis", Arrays.asList("Atlantis"));
+
+        assertThat(index.territoryCodes(regionToTerritories)).containsExactly("CA", "US-CA");
+    }
+
+    @Test
+    public void regionsByEffectiveCode() {
+        assertThat(RegionUtil.getRegionsByEffectiveCode(regions()).keySet())
+                .containsOnly("A1", "NAM", "NAM-CA", "NAM-US", "US-CA");
+    }
+
+    static Collection<Region> regions() {
+        Region california = new Region("California", "CA", "State", 4);
+        Region unitedStates = new Region("United States", "US", "Country", 2);
+        unitedStates.setChildRegions(Arrays.asList(california));
+        Region canada = new Region("Canada", "CA", "Country", 3);
+        Region northAmerica = new Region("North America", "NAM", "Region", 1);
+        northAmerica.setChildRegions(Arrays.asList(unitedStates, canada));
+        Region anonymousProxy = new Region("Anonymous Proxy", "A1", "Country", 5);
+        return Arrays.asList(northAmerica, anonymousProxy);
+    }
+}
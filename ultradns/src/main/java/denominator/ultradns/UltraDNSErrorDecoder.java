@@ -32,9 +32,11 @@ import static java.lang.String.format;
 class UltraDNSErrorDecoder implements ErrorDecoder {
 
   private final Decoder decoder;
+  private final UltraDNSRateLimit rateLimit;
 
-  UltraDNSErrorDecoder(Decoder decoder) {
+  UltraDNSErrorDecoder(Decoder decoder, UltraDNSRateLimit rateLimit) {
     this.decoder = decoder;
+    this.rateLimit = rateLimit;
   }
 
   static Response bufferResponse(Response response) throws IOException {
@@ -47,6 +49,12 @@ class UltraDNSErrorDecoder implements ErrorDecoder {
 
   @Override
   public Exception decode(String methodKey, Response response) {
+    if (response.status() == 429) {
+      // slow down all clients of this account before retrying.
+      rateLimit.throttled();
+      FeignException cause = FeignException.errorStatus(methodKey, response);
+      return new RetryableException(cause.getMessage(), cause, null);
+    }
     try {
       // in case of error parsing, we can access the original contents.
       response = bufferResponse(response);
@@ -1,5 +1,6 @@
 package denominator.ultradns;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -9,17 +10,23 @@ import java.util.Set;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
 
 import dagger.Provides;
 import denominator.BasicProvider;
 import denominator.CheckConnection;
 import denominator.DNSApiManager;
+import denominator.Metrics;
+import denominator.Provider;
 import denominator.QualifiedResourceRecordSetApi;
 import denominator.ResourceRecordSetApi;
 import denominator.ZoneApi;
 import denominator.config.ConcatBasicAndQualifiedResourceRecordSets;
-import denominator.config.NothingToClose;
+import denominator.config.DefaultTlsSettings;
 import denominator.config.WeightedUnsupported;
+import denominator.feign.Metering;
+import denominator.feign.PooledHttpClient;
 import denominator.profile.GeoResourceRecordSetApi;
 import denominator.ultradns.UltraDNS.DirectionalGroup;
 import denominator.ultradns.UltraDNS.DirectionalRecord;
@@ -33,6 +40,7 @@ import denominator.ultradns.UltraDNSContentHandlers.RecordListHandler;
 import denominator.ultradns.UltraDNSContentHandlers.RegionTableHandler;
 import denominator.ultradns.UltraDNSContentHandlers.ZoneNamesHandler;
 import denominator.ultradns.UltraDNSErrorDecoder.UltraDNSError;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
 import feign.Request.Options;
@@ -113,13 +121,21 @@ public class UltraDNSProvider extends BasicProvider {
     return options;
   }
 
-  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {NothingToClose.class,
-                                                                              UltraDNSGeoSupport.class,
+  @dagger.Module(injects = DNSApiManager.class, complete = false, includes = {UltraDNSGeoSupport.class,
                                                                               WeightedUnsupported.class,
                                                                               ConcatBasicAndQualifiedResourceRecordSets.class,
                                                                               FeignModule.class})
   public static final class Module {
 
+    /**
+     * Releases the http connection pool shared with other managers using the same url.
+     */
+    @Provides
+    @Singleton
+    Closeable provideCloser(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient;
+    }
+
     @Provides
     CheckConnection checkConnection(NetworkStatusReadable checkConnection) {
       return checkConnection;
@@ -158,7 +174,8 @@ public class UltraDNSProvider extends BasicProvider {
   }
 
   @dagger.Module(injects = UltraDNSResourceRecordSetApi.Factory.class,
-      complete = false // doesn't bind Provider used by UltraDNSTarget
+      complete = false, // doesn't bind Provider used by UltraDNSTarget
+      includes = DefaultTlsSettings.class
   )
   public static final class FeignModule {
 
@@ -178,9 +195,73 @@ public class UltraDNSProvider extends BasicProvider {
       return Logger.Level.NONE;
     }
 
+    /**
+     * Requests per second per user, shared by all managers in the JVM. UltraDNS doesn't publish a
+     * limit, so requests aren't paced until it responds with status 429, and then only until the
+     * rate recovers to this ceiling. Override this binding to match your account, or set it to zero
+     * to not pace requests.
+     */
+    @Provides
+    @Named("ultradns.rateLimit")
+    double provideRateLimit() {
+      return 5;
+    }
+
+    /**
+     * Connections open at once, shared by managers in the JVM which use the same url.
+     */
+    @Provides
+    @Named("ultradns.http.maxConnections")
+    int provideMaxConnections() {
+      return 20;
+    }
+
+    /**
+     * Connections open at once to one host. Override this binding when making more concurrent
+     * requests, such as listing record sets of many zones at a time.
+     */
+    @Provides
+    @Named("ultradns.http.maxConnectionsPerRoute")
+    int provideMaxConnectionsPerRoute() {
+      return 10;
+    }
+
+    /**
+     * Connections idle longer than this are closed in the background, before the server is likely
+     * to close them.
+     */
+    @Provides
+    @Named("ultradns.http.idleTimeoutMillis")
+    long provideIdleTimeoutMillis() {
+      return 30000;
+    }
+
+    /**
+     * Keeps connections alive for reuse, sized by the {@code ultradns.http} bindings.
+     */
+    @Provides
+    @Singleton
+    PooledHttpClient pooledHttpClient(Provider provider, SSLSocketFactory sslSocketFactory,
+                                      HostnameVerifier hostnameVerifier,
+                                      @Named("ultradns.http.maxConnections") int maxConnections,
+                                      @Named("ultradns.http.maxConnectionsPerRoute") int perRoute,
+                                      @Named("ultradns.http.idleTimeoutMillis") long idleTimeout) {
+      return new PooledHttpClient(provider.url(), sslSocketFactory, hostnameVerifier,
+                                  maxConnections, perRoute, idleTimeout);
+    }
+
+    /**
+     * Override this binding to use a different http client, such as one which speaks HTTP/2.
+     */
+    @Provides
+    Client client(PooledHttpClient pooledHttpClient) {
+      return pooledHttpClient.client();
+    }
+
     @Provides
     @Singleton
-    Feign feign(Logger logger, Logger.Level logLevel) {
+    Feign feign(Client client, Logger logger, Logger.Level logLevel, UltraDNSRateLimit rateLimit,
+                Metrics metrics) {
 
       /**
        * {@link UltraDNS#updateDirectionalPoolRecord(DirectionalRecord, DirectionalGroup)} and {@link
@@ -190,12 +271,16 @@ public class UltraDNSProvider extends BasicProvider {
       Options options = new Options(10 * 1000, 10 * 60 * 1000);
       Decoder decoder = decoder();
       return Feign.builder()
+          .client(new Metering.MeteredClient(client))
+          .invocationHandlerFactory(new Metering(metrics))
           .logger(logger)
           .logLevel(logLevel)
           .options(options)
+          .requestInterceptor(rateLimit)
+          .retryer(rateLimit.retryer())
           .encoder(new UltraDNSFormEncoder())
-          .decoder(decoder)
-          .errorDecoder(new UltraDNSErrorDecoder(decoder))
+          .decoder(new Metering.MeteredDecoder(decoder))
+          .errorDecoder(new UltraDNSErrorDecoder(decoder, rateLimit))
           .build();
     }
 
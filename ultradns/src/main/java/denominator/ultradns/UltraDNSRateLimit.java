@@ -0,0 +1,36 @@
+package denominator.ultradns;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import denominator.Credentials;
+import denominator.Provider;
+import denominator.feign.RateLimit;
+
+/**
+ * Paces requests per user once UltraDNS responds with status 429.
+ */
+final class UltraDNSRateLimit extends RateLimit {
+
+  /**
+   * @param permitsPerSecond ceiling of the rate once throttled, or zero to not pace requests.
+   */
+  @Inject
+  UltraDNSRateLimit(Provider provider, javax.inject.Provider<Credentials> credentials,
+                    @Named("ultradns.rateLimit") double permitsPerSecond) {
+    super(provider, credentials, permitsPerSecond, false);
+  }
+
+  @Override
+  protected Object account(Credentials credentials) {
+    if (credentials instanceof Map) {
+      return Map.class.cast(credentials).get("username");
+    } else if (credentials instanceof List) {
+      return List.class.cast(credentials).get(0);
+    }
+    return null;
+  }
+}
@@ -107,7 +107,17 @@ final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSe
     if (roundRobinPoolApi.isPoolType(type)) {
       String lbPoolId = roundRobinPoolApi.getPoolByNameAndType(name, type);
       for (Record record : toUpdate) {
-        api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        try {
+          api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        } catch (UltraDNSException e) {
+          if (e.code() != UltraDNSException.POOL_NOT_FOUND) {
+            throw e;
+          }
+          // cached pool id is stale
+          roundRobinPoolApi.poolNotFound();
+          lbPoolId = roundRobinPoolApi.getPoolByNameAndType(name, type);
+          api.updateRecordOfRRPool(record.id, lbPoolId, record.rdata.get(0), ttlToApply);
+        }
       }
     } else {
       for (Record record : toUpdate) {
@@ -159,6 +169,8 @@ final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSe
   static final class Factory implements denominator.ResourceRecordSetApi.Factory {
 
     private final UltraDNS api;
+    private final UltraDNSRoundRobinPoolApi.PoolIds poolIds =
+        new UltraDNSRoundRobinPoolApi.PoolIds();
 
     @Inject
     Factory(UltraDNS api) {
@@ -167,7 +179,8 @@ final class UltraDNSResourceRecordSetApi implements denominator.ResourceRecordSe
 
     @Override
     public ResourceRecordSetApi create(String name) {
-      return new UltraDNSResourceRecordSetApi(api, name, new UltraDNSRoundRobinPoolApi(api, name));
+      UltraDNSRoundRobinPoolApi poolApi = new UltraDNSRoundRobinPoolApi(api, name, poolIds);
+      return new UltraDNSResourceRecordSetApi(api, name, poolApi);
     }
   }
 }
@@ -2,6 +2,8 @@ package denominator.ultradns;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import denominator.ultradns.UltraDNS.NameAndType;
 
@@ -24,10 +26,12 @@ class UltraDNSRoundRobinPoolApi {
 
   private final UltraDNS api;
   private final String zoneName;
+  private final PoolIds poolIds;
 
-  UltraDNSRoundRobinPoolApi(UltraDNS api, String zoneName) {
+  UltraDNSRoundRobinPoolApi(UltraDNS api, String zoneName, PoolIds poolIds) {
     this.api = api;
     this.zoneName = zoneName;
+    this.poolIds = poolIds;
   }
 
   boolean isPoolType(String type) {
@@ -40,33 +44,61 @@ class UltraDNSRoundRobinPoolApi {
     for (Map<String, Object> rdata : rdatas) {
       String address = rdata.get("address").toString();
       int typeCode = lookup(type);
-      api.addRecordToRRPool(typeCode, ttl, address, poolId, zoneName);
+      try {
+        api.addRecordToRRPool(typeCode, ttl, address, poolId, zoneName);
+      } catch (UltraDNSException e) {
+        if (e.code() != UltraDNSException.POOL_NOT_FOUND) {
+          throw e;
+        }
+        // cached pool was deleted by another client
+        poolIds.invalidate(zoneName);
+        poolId = createPoolForNameAndType(name, type);
+        api.addRecordToRRPool(typeCode, ttl, address, poolId, zoneName);
+      }
     }
   }
 
   private String reuseOrCreatePoolForNameAndType(String name, String type) {
+    String poolId = poolIds.getIfCached(zoneName, nameAndType(name, type));
+    return poolId != null ? poolId : createPoolForNameAndType(name, type);
+  }
+
+  private String createPoolForNameAndType(String name, String type) {
     try {
-      return api.addRRLBPool(zoneName, name, lookup(type));
+      String poolId = api.addRRLBPool(zoneName, name, lookup(type));
+      poolIds.put(zoneName, nameAndType(name, type), poolId);
+      return poolId;
     } catch (UltraDNSException e) {
       if (e.code() != UltraDNSException.POOL_ALREADY_EXISTS) {
         throw e;
       }
+      // created by another client since the pools were listed
+      poolIds.invalidate(zoneName);
       return getPoolByNameAndType(name, type);
     }
   }
 
   String getPoolByNameAndType(String name, String type) {
-    NameAndType nameAndType = new NameAndType();
-    nameAndType.name = name;
-    nameAndType.type = type;
-    return api.getLoadBalancingPoolsByZone(zoneName).get(nameAndType);
+    return poolIds.get(api, zoneName, nameAndType(name, type));
+  }
+
+  /**
+   * Forgets the pools of this zone, after a cached pool id was rejected as not found.
+   */
+  void poolNotFound() {
+    poolIds.invalidate(zoneName);
   }
 
   void deletePool(String name, String type) {
-    NameAndType nameAndType = new NameAndType();
-    nameAndType.name = checkNotNull(name, "pool name was null");
-    nameAndType.type = checkNotNull(type, "pool record type was null");
-    String poolId = api.getLoadBalancingPoolsByZone(zoneName).get(nameAndType);
+    NameAndType nameAndType = nameAndType(checkNotNull(name, "pool name was null"),
+                                          checkNotNull(type, "pool record type was null"));
+    boolean wasListed = poolIds.isListed(zoneName);
+    String poolId = poolIds.get(api, zoneName, nameAndType);
+    if (poolId == null && wasListed) {
+      // pool may have been created by another client since the pools were listed
+      poolIds.invalidate(zoneName);
+      poolId = poolIds.get(api, zoneName, nameAndType);
+    }
     if (poolId != null) {
       if (api.getRRPoolRecords(poolId).isEmpty()) {
         try {
@@ -76,11 +108,96 @@ class UltraDNSRoundRobinPoolApi {
             // lost race
             case UltraDNSException.POOL_NOT_FOUND:
             case UltraDNSException.RESOURCE_RECORD_NOT_FOUND:
+              poolIds.remove(zoneName, nameAndType);
               return;
           }
           throw e;
         }
+        poolIds.remove(zoneName, nameAndType);
       }
     }
   }
+
+  private static NameAndType nameAndType(String name, String type) {
+    NameAndType nameAndType = new NameAndType();
+    nameAndType.name = name;
+    nameAndType.type = type;
+    return nameAndType;
+  }
+
+  /**
+   * Round robin pool ids by name and type, for each zone whose pools were listed. Listing pools
+   * returns every pool in the zone, so without this, each write to an A or AAAA record set would
+   * cost a response proportional to the count of pools.
+   *
+   * <p/>Entries are updated as this client adds and deletes pools. Pools changed by other clients
+   * are noticed when UltraDNS rejects a pool id as not found, or a pool as already existing, after
+   * which the zone's pools are listed again.
+   */
+  static final class PoolIds {
+
+    private final ConcurrentMap<String, Pools> byZone = new ConcurrentHashMap<String, Pools>();
+
+    boolean isListed(String zoneName) {
+      Pools pools = byZone.get(zoneName);
+      return pools != null && pools.listed;
+    }
+
+    /**
+     * Returns the pool id, listing the zone's pools if it isn't cached and they weren't yet.
+     */
+    String get(UltraDNS api, String zoneName, NameAndType nameAndType) {
+      Pools pools = pools(zoneName);
+      String poolId = pools.ids.get(nameAndType);
+      if (poolId == null && !pools.listed) {
+        pools.ids.putAll(api.getLoadBalancingPoolsByZone(zoneName));
+        pools.listed = true;
+      }
+      return pools.ids.get(nameAndType);
+    }
+
+    /**
+     * Returns the pool id, or null if it isn't cached.
+     */
+    String getIfCached(String zoneName, NameAndType nameAndType) {
+      Pools pools = byZone.get(zoneName);
+      return pools != null ? pools.ids.get(nameAndType) : null;
+    }
+
+    void put(String zoneName, NameAndType nameAndType, String poolId) {
+      pools(zoneName).ids.put(nameAndType, poolId);
+    }
+
+    void remove(String zoneName, NameAndType nameAndType) {
+      Pools pools = byZone.get(zoneName);
+      if (pools != null) {
+        pools.ids.remove(nameAndType);
+      }
+    }
+
+    void invalidate(String zoneName) {
+      byZone.remove(zoneName);
+    }
+
+    private Pools pools(String zoneName) {
+      Pools pools = byZone.get(zoneName);
+      if (pools == null) {
+        pools = new Pools();
+        Pools existing = byZone.putIfAbsent(zoneName, pools);
+        if (existing != null) {
+          pools = existing;
+        }
+      }
+      return pools;
+    }
+
+    /**
+     * Pool ids added by this client, and once {@code listed}, all pools in the zone.
+     */
+    private static final class Pools {
+
+      final ConcurrentMap<NameAndType, String> ids = new ConcurrentHashMap<NameAndType, String>();
+      volatile boolean listed;
+    }
+  }
 }
@@ -7,6 +7,8 @@ import org.junit.rules.ExpectedException;
 import java.util.Collection;
 import java.util.Collections;
 
+import denominator.Credentials;
+import denominator.Credentials.ListCredentials;
 import feign.FeignException;
 import feign.Response;
 import feign.RetryableException;
@@ -16,6 +18,7 @@ import static denominator.ultradns.MockUltraDNSServer.FAULT_TEMPLATE;
 import static denominator.ultradns.UltraDNSException.SYSTEM_ERROR;
 import static feign.Util.UTF_8;
 import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Error decode tests not implicitly tested in {@linkplain denominator.ultradns.UltraDNSTest}.
@@ -25,7 +28,15 @@ public class UltraDNSErrorDecoderTest {
   @Rule
   public final ExpectedException thrown = ExpectedException.none();
 
-  ErrorDecoder errors = new UltraDNSErrorDecoder(UltraDNSProvider.FeignModule.decoder());
+  UltraDNSRateLimit rateLimit = new UltraDNSRateLimit(new UltraDNSProvider("http://decoder.test"),
+      new javax.inject.Provider<Credentials>() {
+        @Override
+        public Credentials get() {
+          return ListCredentials.from("joe", "letmein");
+        }
+      }, 5);
+  ErrorDecoder errors =
+      new UltraDNSErrorDecoder(UltraDNSProvider.FeignModule.decoder(), rateLimit);
 
   static Response errorResponse(String body) {
     return Response
@@ -48,4 +59,16 @@ public class UltraDNSErrorDecoderTest {
     throw errors.decode("UltraDNS#networkStatus()",
                         errorResponse(format(FAULT_TEMPLATE, SYSTEM_ERROR, "System Error")));
   }
+
+  @Test
+  public void tooManyRequestsSlowsRateForUser() throws Exception {
+    Response response = Response.create(429, "Too Many Requests",
+        Collections.<String, Collection<String>>emptyMap(), (String) null, UTF_8);
+
+    Exception e = errors.decode("UltraDNS#networkStatus()", response);
+
+    assertThat(e).isInstanceOf(RetryableException.class)
+        .hasMessage("status 429 reading UltraDNS#networkStatus()");
+    assertThat(rateLimit.limiter().rate()).isLessThan(5.0);
+  }
 }
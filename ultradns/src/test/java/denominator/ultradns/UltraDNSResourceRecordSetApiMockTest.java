@@ -6,13 +6,17 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Map;
 
+import denominator.DNSApiManager;
+import denominator.Metrics.Snapshot;
 import denominator.ResourceRecordSetApi;
 
 import static denominator.assertj.ModelAssertions.assertThat;
 import static denominator.model.ResourceRecordSets.a;
 import static denominator.model.ResourceRecordSets.aaaa;
 import static denominator.ultradns.UltraDNSException.POOL_ALREADY_EXISTS;
+import static denominator.ultradns.UltraDNSException.POOL_NOT_FOUND;
 import static denominator.ultradns.UltraDNSTest.deleteLBPool;
 import static denominator.ultradns.UltraDNSTest.deleteLBPoolResponse;
 import static denominator.ultradns.UltraDNSTest.deleteResourceRecord;
@@ -205,6 +209,111 @@ public class UltraDNSResourceRecordSetApiMockTest {
         format(addRecordToRRPoolTemplate, "1111A", "198.51.100.1", "1", 3600));
   }
 
+  @Test
+  public void metricsShowPoolLookupAfterFailedCreate() throws Exception {
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueueError(POOL_ALREADY_EXISTS,
+                        "Pool already created for this host name : www.denominator.io.");
+    server.enqueue(new MockResponse().setBody(poolsForAandAAAA));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "BBBBBBBBBBBB")));
+
+    DNSApiManager manager = server.connect();
+    manager.api().basicRecordSetsInZone("denominator.io.")
+        .put(a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")));
+
+    Map<String, Snapshot> metrics = manager.metrics().snapshot();
+    assertThat(metrics).containsOnlyKeys(
+        "UltraDNS#getResourceRecordsOfDNameByType(String,String,int)",
+        "UltraDNS#addRRLBPool(String,String,int)",
+        "UltraDNS#getLoadBalancingPoolsByZone(String)",
+        "UltraDNS#addRecordToRRPool(int,int,String,String,String)");
+
+    Snapshot create = metrics.get("UltraDNS#addRRLBPool(String,String,int)");
+    assertThat(create.errors()).isEqualTo(1);
+    assertThat(create.retries()).isZero();
+
+    Snapshot lookup = metrics.get("UltraDNS#getLoadBalancingPoolsByZone(String)");
+    assertThat(lookup.calls()).isEqualTo(1);
+    assertThat(lookup.records()).isEqualTo(2);
+    assertThat(lookup.bytesOut()).isGreaterThan(0);
+  }
+
+  @Test
+  public void putSecondAReusesPoolCreatedByFirstPut() throws Exception {
+    server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
+    server.enqueue(new MockResponse().setBody(format(addRRLBPoolResponseTemplate, "1111A")));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "AAAAAAAAAAAA")));
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "BBBBBBBBBBBB")));
+
+    DNSApiManager manager = server.connect();
+    manager.api().basicRecordSetsInZone("denominator.io.")
+        .put(a("www.denominator.io.", 3600, "192.0.2.1"));
+    manager.api().basicRecordSetsInZone("denominator.io.")
+        .put(a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")));
+
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(format(addRRLBPoolTemplate, "1", "1"));
+    server.assertSoapBody(format(addRecordToRRPoolTemplate, "1111A", "192.0.2.1", "1", 3600));
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(
+        format(addRecordToRRPoolTemplate, "1111A", "198.51.100.1", "1", 3600));
+  }
+
+  @Test
+  public void putSecondARecreatesPoolWhenCachedPoolNotFound() throws Exception {
+    server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
+    server.enqueue(new MockResponse().setBody(format(addRRLBPoolResponseTemplate, "1111A")));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "AAAAAAAAAAAA")));
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueueError(POOL_NOT_FOUND, "Pool does not exist in the system");
+    server.enqueue(new MockResponse().setBody(format(addRRLBPoolResponseTemplate, "2222A")));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "BBBBBBBBBBBB")));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io.");
+    api.put(a("www.denominator.io.", 3600, "192.0.2.1"));
+    api.put(a("www.denominator.io.", 3600, Arrays.asList("192.0.2.1", "198.51.100.1")));
+
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(format(addRRLBPoolTemplate, "1", "1"));
+    server.assertSoapBody(format(addRecordToRRPoolTemplate, "1111A", "192.0.2.1", "1", 3600));
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(
+        format(addRecordToRRPoolTemplate, "1111A", "198.51.100.1", "1", 3600));
+    server.assertSoapBody(format(addRRLBPoolTemplate, "1", "1"));
+    server.assertSoapBody(
+        format(addRecordToRRPoolTemplate, "2222A", "198.51.100.1", "1", 3600));
+  }
+
+  @Test
+  public void deleteAfterPutDoesntListPools() throws Exception {
+    server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
+    server.enqueue(new MockResponse().setBody(format(addRRLBPoolResponseTemplate, "1111A")));
+    server.enqueue(
+        new MockResponse().setBody(format(addRecordToRRPoolResponseTemplate, "AAAAAAAAAAAA")));
+    server.enqueue(new MockResponse().setBody(record1));
+    server.enqueue(new MockResponse().setBody(deleteResourceRecordResponse));
+    server.enqueue(new MockResponse().setBody(getRRPoolRecordsResponseAbsent));
+    server.enqueue(new MockResponse().setBody(deleteLBPoolResponse));
+
+    ResourceRecordSetApi api = server.connect().api().basicRecordSetsInZone("denominator.io.");
+    api.put(a("www.denominator.io.", 3600, "192.0.2.1"));
+    api.deleteByNameAndType("www.denominator.io.", "A");
+
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(format(addRRLBPoolTemplate, "1", "1"));
+    server.assertSoapBody(format(addRecordToRRPoolTemplate, "1111A", "192.0.2.1", "1", 3600));
+    server.assertSoapBody(getResourceRecordsOfDNameByTypeA);
+    server.assertSoapBody(deleteResourceRecord);
+    server.assertSoapBody(getRRPoolRecords.replace("000000000000002", "1111A"));
+    server.assertSoapBody(deleteLBPool.replace("AAAAAAAAAAAAAAAA", "1111A"));
+  }
+
   @Test
   public void putFirstAAAACreatesRoundRobinPoolThenAddsRecordToIt() throws Exception {
     server.enqueue(new MockResponse().setBody(getResourceRecordsOfZoneResponseAbsent));
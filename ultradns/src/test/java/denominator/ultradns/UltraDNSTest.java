@@ -11,11 +11,13 @@ import java.util.List;
 import java.util.Map;
 
 import denominator.Credentials;
+import denominator.Metrics;
 import denominator.ultradns.UltraDNS.DirectionalGroup;
 import denominator.ultradns.UltraDNS.DirectionalRecord;
 import denominator.ultradns.UltraDNS.NameAndType;
 import denominator.ultradns.UltraDNS.NetworkStatus;
 import denominator.ultradns.UltraDNS.Record;
+import feign.Client;
 import feign.Feign;
 import feign.codec.DecodeException;
 
@@ -672,21 +674,25 @@ public class UltraDNSTest {
   }
 
   UltraDNS mockApi() {
-    UltraDNSProvider.FeignModule module = new UltraDNSProvider.FeignModule();
-    Feign feign = module.feign(module.logger(), module.logLevel());
-    return feign.newInstance(new UltraDNSTarget(new UltraDNSProvider() {
+    UltraDNSProvider provider = new UltraDNSProvider() {
       @Override
       public String url() {
         return server.url();
       }
-    }, new javax.inject.Provider<Credentials>() {
+    };
+    javax.inject.Provider<Credentials> credentials = new javax.inject.Provider<Credentials>() {
 
       @Override
       public Credentials get() {
         return server.credentials();
       }
 
-    }));
+    };
+    UltraDNSProvider.FeignModule module = new UltraDNSProvider.FeignModule();
+    Feign feign = module.feign(new Client.Default(null, null), module.logger(), module.logLevel(),
+                               new UltraDNSRateLimit(provider, credentials,
+                                                     module.provideRateLimit()), new Metrics());
+    return feign.newInstance(new UltraDNSTarget(provider, credentials));
   }
 
   static String getNeustarNetworkStatus = "<v01:getNeustarNetworkStatus/>";